@@ -8,21 +8,35 @@ import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import modelo.datos.CargadorCSV;
+import modelo.datos.ConfiguradorColumnas;
 import modelo.datos.SelectorColumnas;
 import modelo.datos.TransformadorDatos;
 import modelo.datos.VariableConfig;
-import modelo.distancias.CalculadorMatrizDistancia;
 import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
 import modelo.estructuras.Dendrograma;
+import modelo.estructuras.ExportadorJSON;
+import modelo.estructuras.FormatoBinarioEnlace;
 import modelo.estructuras.ListaDoble;
 import modelo.estructuras.Nodo;
+import modelo.estructuras.TokenCancelacion;
 import modelo.estructuras.Vector;
+import modelo.normalizacion.EstadisticasColumnas;
+import modelo.clustering.BarridoParametros;
+import modelo.clustering.FlujoFusiones;
 import modelo.clustering.MotorCluster;
+import modelo.clustering.ResultadoBarrido;
+import modelo.clustering.ResultadoClustering;
+import modelo.clustering.ServicioClustering;
+import modelo.clustering.SolicitudClustering;
 import modelo.clustering.Ponderador;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class ControladorPrincipal {
 
@@ -35,6 +49,8 @@ public class ControladorPrincipal {
     @FXML private Button btnConfigurarPesos;
     @FXML private Button btnSeleccionarVariables;
     @FXML private Button btnEjecutar;
+    @FXML private Button btnBarrido;
+    @FXML private CheckBox chkMultiHot;
     
     @FXML private Label lblEstado;
 
@@ -44,6 +60,10 @@ public class ControladorPrincipal {
     private Vector[] vectores;
     private Nodo dendrogramaRaiz;
     private Dendrograma dendrograma;
+    private CortadorDendrograma cortador;
+    private final ServicioClustering servicio = new ServicioClustering();
+    // ejecucion en curso; una nueva la cancela en vez de esperar a que termine
+    private volatile TokenCancelacion trabajoActual;
     private File archivoCSV;
     private ListaDoble<VariableConfig> configs;
     
@@ -58,10 +78,13 @@ public class ControladorPrincipal {
 
         spinnerClusters.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 1, 1));
         spinnerClusters.setDisable(true);
+        // el corte se recalcula al vuelo, sin volver a clusterizar
+        spinnerClusters.valueProperty().addListener((obs, anterior, nuevo) -> mostrarCorte(nuevo));
 
         btnConfigurarPesos.setDisable(true);
         btnSeleccionarVariables.setDisable(true);
         btnEjecutar.setDisable(true);
+        btnBarrido.setDisable(true);
 
         lblEstado.setText("Esperando carga de archivo CSV...");
 
@@ -90,26 +113,18 @@ public class ControladorPrincipal {
 
             cargador = new CargadorCSV();
             cargador.cargar(archivo.getAbsolutePath(), 50);
-
-            vectores = cargador.getVectores();
-            selector = new SelectorColumnas(cargador.getNombresDimensiones());
-            
-            // la configuracion ahora se basa en los nombres de dimensiones finales
-            this.configs = null; 
-
-            double[] pesos = new double[cargador.getDimensiones()];
-            for (int i = 0; i < pesos.length; i++) {
-                pesos[i] = 1.0;
+            if (chkMultiHot.isSelected()) {
+                aplicarMultiHot(true);
             }
-            ponderador = new Ponderador(pesos, cargador.getNombresDimensiones());
+            reiniciarDimensiones();
 
             lblArchivoSeleccionado.setText(archivo.getName());
 
             btnConfigurarPesos.setDisable(false);
             btnSeleccionarVariables.setDisable(false);
             btnEjecutar.setDisable(false);
+            btnBarrido.setDisable(false);
             spinnerClusters.setDisable(false);
-            spinnerClusters.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, vectores.length, 1));
 
             lblEstado.setText("Listo para ejecutar clustering");
 
@@ -118,6 +133,45 @@ public class ControladorPrincipal {
         }
     }
 
+    // cambia las dimensiones: seleccion, configuracion y pesos vuelven a los valores iniciales
+    @FXML
+    private void onCambiarMultiHot() {
+        if (cargador == null) {
+            return; // se aplica al cargar
+        }
+        aplicarMultiHot(chkMultiHot.isSelected());
+        reiniciarDimensiones();
+        lblEstado.setText(chkMultiHot.isSelected()
+                ? "Listas codificadas como multi-hot (" + cargador.getDimensiones() + " dimensiones)"
+                : "Listas codificadas como conteo (" + cargador.getDimensiones() + " dimensiones)");
+    }
+
+    private void aplicarMultiHot(boolean activar) {
+        for (String columna : cargador.getColumnasLista()) {
+            if (activar) {
+                cargador.activarMultiHot(columna, ConfiguradorColumnas.CUBETAS_POR_DEFECTO);
+            } else {
+                cargador.desactivarMultiHot(columna);
+            }
+        }
+    }
+
+    private void reiniciarDimensiones() {
+        vectores = cargador.getVectores();
+        cortador = null;
+        selector = new SelectorColumnas(cargador.getNombresDimensiones());
+
+        // la configuracion ahora se basa en los nombres de dimensiones finales
+        this.configs = null;
+
+        double[] pesos = new double[cargador.getDimensiones()];
+        for (int i = 0; i < pesos.length; i++) {
+            pesos[i] = 1.0;
+        }
+        ponderador = new Ponderador(pesos, cargador.getNombresDimensiones());
+        spinnerClusters.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, vectores.length, 1));
+    }
+
     @FXML
     private void onConfigurarPesos() {
         try {
@@ -167,7 +221,7 @@ public class ControladorPrincipal {
 
             ControladorVariables controller = loader.getController();
             // Pasamos los nombres finales de las dimensiones
-            controller.inicializarDatos(cargador.getNombresDimensiones(), this.configs);
+            controller.inicializarDatos(cargador.getNombresDimensiones(), this.configs, cargador.getEstadisticas());
 
             stage.showAndWait();
 
@@ -210,54 +264,194 @@ public class ControladorPrincipal {
         }
 
         final int k = spinnerClusters.getValue();
-
-        new Thread(() -> {
-            try {
-                javafx.application.Platform.runLater(() -> {
-                    lblEstado.setText("Ejecutando clustering y generando JSON...");
-                    btnEjecutar.setDisable(true);
+        final FactoryDistancia.TipoDistancia tipoDist = obtenerTipoDistancia();
+        final MotorCluster.TipoEnlace tipoEnlace = obtenerTipoEnlace();
+        final DatosEjecucion datos = tomarDatos();
+
+        // el boton queda habilitado: ejecutar de nuevo con otros parametros reemplaza la ejecucion vieja,
+        // que se detiene en su siguiente fila o fusion y libera su matriz
+        TokenCancelacion token = reemplazarTrabajo();
+        lblEstado.setText("Ejecutando clustering y generando JSON...");
+
+        // progreso en vivo: el motor publica las fusiones y la etiqueta se actualiza por lotes
+        FlujoFusiones flujo = new FlujoFusiones();
+        flujo.setIntervaloMinimo(200);
+        flujo.suscribir((fuente, desde, hasta) -> {
+            if (token != trabajoActual) return;
+            String progreso = String.format("Clustering: %d/%d fusiones (%.0f%% del trabajo), altura %.4f",
+                    hasta, fuente.getTotalFusiones(), 100 * fuente.getFraccionTrabajo(), fuente.getAltura(hasta - 1));
+            javafx.application.Platform.runLater(() -> {
+                // un lote atrasado no pisa el estado final
+                if (token == trabajoActual && !fuente.isTerminado()) lblEstado.setText(progreso);
+            });
+        });
+
+        // preparacion fuera del hilo de la interfaz, el clustering en el pool acotado del servicio
+        CompletableFuture
+                .supplyAsync(() -> datos.prepararVectores(token))
+                .thenCompose(vectoresPonderados -> servicio.enviar(
+                        new SolicitudClustering(vectoresPonderados, tipoDist, tipoEnlace), token, flujo))
+                .whenComplete((resultado, error) -> {
+                    if (token != trabajoActual) {
+                        return; // reemplazada, la ejecucion nueva actualiza la interfaz
+                    }
+                    if (error != null) {
+                        Throwable causa = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        if (causa instanceof CancellationException) {
+                            javafx.application.Platform.runLater(() ->
+                                    lblEstado.setText("Clustering cancelado: " + causa.getMessage()));
+                            return;
+                        }
+                        javafx.application.Platform.runLater(() -> {
+                            mostrarError("Error en clustering", causa.getMessage());
+                            lblEstado.setText("Error en clustering");
+                        });
+                        return;
+                    }
+                    exportarResultado(resultado, k, token);
                 });
+    }
 
-                Vector[] vectoresSeleccionados = selector.aplicarSeleccion(vectores);
+    // cancela la ejecucion o el barrido en curso y registra el token del nuevo
+    private TokenCancelacion reemplazarTrabajo() {
+        TokenCancelacion anterior = trabajoActual;
+        if (anterior != null) {
+            anterior.cancelar("Reemplazado por una ejecución nueva");
+        }
+        TokenCancelacion token = new TokenCancelacion();
+        trabajoActual = token;
+        return token;
+    }
 
-                String[] nombresColumnasSeleccionadas = selector.getColumnasSeleccionadas();
-                TransformadorDatos transformador = new TransformadorDatos(this.configs, nombresColumnasSeleccionadas);
-                Vector[] vectoresNormalizados = transformador.normalizarPorVariable(vectoresSeleccionados);
+    // en el hilo de JavaFX: copia lo que la ejecucion va a leer, asi el trabajo de fondo no toca el
+    // selector, los pesos ni las configuraciones que la interfaz puede cambiar mientras corre
+    private DatosEjecucion tomarDatos() {
+        ListaDoble<VariableConfig> copiaConfigs = null;
+        if (configs != null) {
+            copiaConfigs = new ListaDoble<>();
+            for (int i = 0; i < configs.tamanio(); i++) {
+                VariableConfig c = configs.obtener(i);
+                copiaConfigs.agregar(new VariableConfig(c.getNombre(), c.isSeleccionada(), c.getTipoDato(),
+                        c.getMetodoNormalizacion()));
+            }
+        }
+        // el catalogo no se modifica, una carga incremental lo reemplaza por una copia
+        return new DatosEjecucion(selector.aplicarSeleccion(vectores), selector.getColumnasSeleccionadas(),
+                copiaConfigs, cargador.getEstadisticas(), ponderador.filtrarPesos(selector));
+    }
 
-                Ponderador ponderadorFiltrado = ponderador.filtrarPesos(selector);
-                Vector[] vectoresPonderados = ponderadorFiltrado.aplicarPesos(vectoresNormalizados);
+    // corre en el hilo del servicio, la interfaz se actualiza con runLater
+    private void exportarResultado(ResultadoClustering resultado, int k, TokenCancelacion token) {
+        ArregloEnlace enlace = resultado.getEnlace();
+        try {
+            // reemplazada mientras terminaba: los archivos y la interfaz son de la ejecucion nueva
+            token.verificar();
+            new ExportadorJSON().exportar(enlace, "dendrograma.json");
+            FormatoBinarioEnlace.escribir(enlace, "dendrograma.dnd");
+            CortadorDendrograma nuevoCortador = new CortadorDendrograma(enlace);
+            javafx.application.Platform.runLater(() -> {
+                if (token != trabajoActual) return;
+                dendrogramaRaiz = enlace.getRaiz();
+                mostrarInformacion("Exportación automática", "JSON y binario guardados en la raíz del proyecto como 'dendrograma.json' y 'dendrograma.dnd'" +
+                        "\nCorrelación cofenética (" + resultado.getTipoEnlace() + "): " +
+                        String.format("%.4f", resultado.getCorrelacionCofenetica()));
+                cortador = nuevoCortador;
+                mostrarCorte(k);
+            });
+        } catch (CancellationException e) {
+            // nada que mostrar, la ejecucion nueva actualiza la interfaz
+        } catch (IOException e) {
+            javafx.application.Platform.runLater(() -> {
+                if (token == trabajoActual) mostrarError("Error al exportar JSON", e.getMessage());
+            });
+        }
+    }
 
-                FactoryDistancia.TipoDistancia tipoDist = obtenerTipoDistancia();
-                CalculadorMatrizDistancia calculador = new CalculadorMatrizDistancia();
-                calculador.calcular(vectoresPonderados, tipoDist);
+    // todas las combinaciones normalizacion x distancia x enlace, reporte en barrido.csv
+    @FXML
+    private void onBarrido() {
+        if (vectores == null) {
+            mostrarError("Error", "Primero debe cargar un archivo CSV");
+            return;
+        }
+        if (!selector.esValido()){
+            mostrarError("Error de selección", "Debe seleccionar al menos una variable para el análisis.");
+            return;
+        }
 
-                MotorCluster.TipoEnlace tipoEnlace = obtenerTipoEnlace();
-                MotorCluster motor = new MotorCluster(tipoEnlace);
-                dendrogramaRaiz = motor.construirDendrograma(vectoresPonderados, tipoDist);
-                if (dendrogramaRaiz != null) {
-                    try (FileWriter writer = new FileWriter("dendrograma.json")) {
-                        String json = dendrograma.toJSON(dendrogramaRaiz);
-                        writer.write(json);
+        final DatosEjecucion datos = tomarDatos();
+        // como una ejecucion: la que se lance despues cancela el barrido
+        TokenCancelacion token = reemplazarTrabajo();
+        lblEstado.setText("Ejecutando barrido de parámetros...");
+        btnBarrido.setDisable(true);
+
+        CompletableFuture
+                .supplyAsync(() -> {
+                    BarridoParametros barrido = new BarridoParametros(datos.vectoresSeleccionados,
+                            datos.nombresColumnas, datos.configs, datos.estadisticas, datos.ponderador);
+                    barrido.setCache(servicio.getCache());
+                    barrido.setToken(token);
+                    return barrido.ejecutar();
+                })
+                .whenComplete((resultados, error) -> {
+                    if (error != null) {
+                        Throwable causa = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        if (causa instanceof CancellationException) {
+                            javafx.application.Platform.runLater(() -> {
+                                // si lo reemplazo otra ejecucion, la etiqueta es de ella
+                                if (token == trabajoActual) {
+                                    lblEstado.setText("Barrido cancelado: " + causa.getMessage());
+                                }
+                                btnBarrido.setDisable(false);
+                            });
+                            return;
+                        }
                         javafx.application.Platform.runLater(() -> {
-                            mostrarInformacion("Exportación automática", "JSON guardado en la raíz del proyecto como 'dendrograma.json'");
-                            lblEstado.setText("Clustering completado. JSON exportado.");
+                            mostrarError("Error en barrido", causa.getMessage());
+                            lblEstado.setText("Error en barrido");
+                            btnBarrido.setDisable(false);
+                        });
+                        return;
+                    }
+                    try {
+                        BarridoParametros.exportarCSV(resultados, "barrido.csv");
+                        ResultadoBarrido mejor = BarridoParametros.mejor(resultados);
+                        javafx.application.Platform.runLater(() -> {
+                            mostrarInformacion("Barrido de parámetros", resultados.length +
+                                    " configuraciones guardadas en 'barrido.csv'" +
+                                    (mejor != null ? "\nMayor correlación cofenética: " + mejor.getNormalizacion() +
+                                            ", " + mejor.getDistancia() + ", " + mejor.getEnlace() + " (" +
+                                            String.format("%.4f", mejor.getCorrelacionCofenetica()) + ")" : ""));
+                            if (token == trabajoActual) lblEstado.setText("Barrido completado");
+                            btnBarrido.setDisable(false);
                         });
                     } catch (IOException e) {
-                        javafx.application.Platform.runLater(() -> mostrarError("Error al exportar JSON", e.getMessage()));
+                        javafx.application.Platform.runLater(() -> {
+                            mostrarError("Error al exportar barrido", e.getMessage());
+                            btnBarrido.setDisable(false);
+                        });
                     }
-                }
+                });
+    }
 
-                javafx.application.Platform.runLater(() -> btnEjecutar.setDisable(false));
+    // resumen del corte en k clusters sobre el ultimo dendrograma
+    private void mostrarCorte(Integer k) {
+        if (cortador == null || k == null || k < 1 || k > cortador.getNumeroHojas()) {
+            return;
+        }
 
-            } catch (Exception e) {
-                javafx.application.Platform.runLater(() -> {
-                    mostrarError("Error en clustering", e.getMessage());
-                    lblEstado.setText("Error en clustering");
-                    btnEjecutar.setDisable(false);
-                    e.printStackTrace();
-                });
-            }
-        }).start();
+        int[] etiquetas = cortador.cortarEnK(k);
+        int[] tamanios = new int[k];
+        for (int etiqueta : etiquetas) {
+            tamanios[etiqueta]++;
+        }
+        int mayor = 0;
+        for (int t : tamanios) {
+            mayor = Math.max(mayor, t);
+        }
+        lblEstado.setText("Clustering completado. " + k + " clusters, el mayor con " + mayor + " elementos.");
     }
 
     private FactoryDistancia.TipoDistancia obtenerTipoDistancia() {
@@ -293,4 +487,28 @@ public class ControladorPrincipal {
         alert.setContentText(mensaje);
         alert.showAndWait();
     }
+
+    // datos de una ejecucion tomados en el hilo de JavaFX (ver tomarDatos)
+    private static final class DatosEjecucion {
+        final Vector[] vectoresSeleccionados;
+        final String[] nombresColumnas;
+        final ListaDoble<VariableConfig> configs;
+        final EstadisticasColumnas estadisticas;
+        final Ponderador ponderador;
+
+        DatosEjecucion(Vector[] vectoresSeleccionados, String[] nombresColumnas,
+                       ListaDoble<VariableConfig> configs, EstadisticasColumnas estadisticas, Ponderador ponderador) {
+            this.vectoresSeleccionados = vectoresSeleccionados;
+            this.nombresColumnas = nombresColumnas;
+            this.configs = configs;
+            this.estadisticas = estadisticas;
+            this.ponderador = ponderador;
+        }
+
+        Vector[] prepararVectores(TokenCancelacion token) {
+            TransformadorDatos transformador = new TransformadorDatos(configs, nombresColumnas, estadisticas);
+            Vector[] vectoresNormalizados = transformador.normalizarPorVariable(vectoresSeleccionados, token);
+            return ponderador.aplicarPesos(vectoresNormalizados);
+        }
+    }
 }
@@ -12,6 +12,7 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import modelo.datos.VariableConfig;
 import modelo.estructuras.ListaDoble;
+import modelo.normalizacion.EstadisticasColumnas;
 
 public class ControladorVariables {
 
@@ -22,20 +23,37 @@ public class ControladorVariables {
     private ListaDoble<VariableConfig> configs = new ListaDoble<>();
     private ListaDoble<HBox> filasUI = new ListaDoble<>();
     private boolean guardado = false;
+    private EstadisticasColumnas estadisticas;
 
     private final ObservableList<String> normalizacionOptions = FXCollections.observableArrayList("Ninguno", "Min-Max", "Z-Score", "Logaritmica");
 
     private String determinarTipoDato(String nombreColumnaFinal) {
         String[] COLUMNAS_CATEGORICAS_ORIGINALES = {"original_language", "status"};
 
+        String[] COLUMNAS_LISTA_ORIGINALES = {"genres", "keywords", "cast",
+                "production_companies", "production_countries", "spoken_languages"};
+
         for (String original : COLUMNAS_CATEGORICAS_ORIGINALES) {
             if (nombreColumnaFinal.startsWith(original + "_")) {
                 return "Categórico";
             }
         }
+        // cubetas multi-hot (columna_hN)
+        for (String original : COLUMNAS_LISTA_ORIGINALES) {
+            if (nombreColumnaFinal.startsWith(original + "_h")) {
+                return "Categórico";
+            }
+        }
         return "Numérico";
     }
 
+    // con el catalogo de la carga cada variable muestra su perfil sin recorrer los datos
+    public void inicializarDatos(String[] todasLasColumnas, ListaDoble<VariableConfig> configsExistentes,
+                                 EstadisticasColumnas estadisticas) {
+        this.estadisticas = estadisticas;
+        inicializarDatos(todasLasColumnas, configsExistentes);
+    }
+
     public void inicializarDatos(String[] todasLasColumnas, ListaDoble<VariableConfig> configsExistentes) {
         this.configs.limpiar();
         this.filasUI.limpiar();
@@ -97,6 +115,12 @@ public class ControladorVariables {
         Label labelNombre = new Label(config.getNombre());
         labelNombre.setPrefWidth(120);
         labelNombre.setWrapText(true);
+        if (estadisticas != null) {
+            int indice = estadisticas.indiceDe(config.getNombre());
+            if (indice >= 0) {
+                labelNombre.setTooltip(new Tooltip(estadisticas.describir(indice)));
+            }
+        }
 
         Label labelTipo = new Label(config.getTipoDato());
         labelTipo.setPrefWidth(80);
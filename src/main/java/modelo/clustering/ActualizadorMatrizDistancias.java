@@ -20,60 +20,96 @@ public class ActualizadorMatrizDistancias {
     public void actualizarMatriz(Matriz matrizDistancias, int i, int j,
                                  double distanciaIJ, int[] tamanoClusters, int numeroClusters) {
 
-        int ni = tamanoClusters[i];
-        int nj = tamanoClusters[j];
-
-        ParametrosActualizacion parametros = calcularParametros(ni, nj);
+        ParametrosActualizacion parametros = calcularParametros(tamanoClusters[i], tamanoClusters[j]);
 
         for (int k = 0; k < numeroClusters; k++) {
             if (k == i || k == j) continue;
+            actualizarDistancia(matrizDistancias, i, j, k, distanciaIJ, parametros);
+        }
+    }
 
-            double distanciaIK = matrizDistancias.getPosicion(i, k);
-            double distanciaJK = matrizDistancias.getPosicion(j, k);
+    // solo recorre los slots activos, el cluster fusionado queda en el slot i
+    public void actualizarMatriz(Matriz matrizDistancias, int i, int j, double distanciaIJ,
+                                 int[] tamanoClusters, int[] activos, int numeroActivos) {
 
-            // d(ij, k) = αi * d(i,k) + αj * d(j,k) + γ * d(i,j)
-            double nuevaDistancia = parametros.alphaI * distanciaIK +
-                    parametros.alphaJ * distanciaJK +
-                    parametros.gamma * distanciaIJ;
+        ParametrosActualizacion parametros = calcularParametros(tamanoClusters[i], tamanoClusters[j]);
 
-            matrizDistancias.setPosicion(i, k, nuevaDistancia);
-            matrizDistancias.setPosicion(k, i, nuevaDistancia);
+        for (int a = 0; a < numeroActivos; a++) {
+            int k = activos[a];
+            if (k == i || k == j) continue;
+            actualizarDistancia(matrizDistancias, i, j, k, distanciaIJ, parametros);
         }
     }
 
+    private void actualizarDistancia(Matriz matrizDistancias, int i, int j, int k,
+                                     double distanciaIJ, ParametrosActualizacion parametros) {
+        double distanciaIK = matrizDistancias.getPosicion(i, k);
+        double distanciaJK = matrizDistancias.getPosicion(j, k);
+        double nuevaDistancia = lanceWilliams(distanciaIK, distanciaJK, distanciaIJ, parametros);
+
+        matrizDistancias.setPosicion(i, k, nuevaDistancia);
+        matrizDistancias.setPosicion(k, i, nuevaDistancia);
+    }
+
+    // d(ij, k) = αi * d(i,k) + αj * d(j,k) + β * d(i,j) + γ * |d(i,k) - d(j,k)|
+    private double lanceWilliams(double distanciaIK, double distanciaJK, double distanciaIJ,
+                                 ParametrosActualizacion parametros) {
+        return parametros.alphaI * distanciaIK +
+                parametros.alphaJ * distanciaJK +
+                parametros.beta * distanciaIJ +
+                parametros.gamma * Math.abs(distanciaIK - distanciaJK);
+    }
+
+    // version para grafos dispersos: una distancia ausente (NaN) es una arista que no existe
+    // con las dos aristas es la formula normal; con una sola se conserva esa distancia, que es lo
+    // que da el minimo y, como en la aglomeracion con conectividad de scikit-learn, el maximo,
+    // el promedio y el centroide restringidos a los pares conectados
+    public double combinar(double distanciaIK, double distanciaJK, double distanciaIJ, int ni, int nj) {
+        boolean hayIK = !Double.isNaN(distanciaIK);
+        boolean hayJK = !Double.isNaN(distanciaJK);
+        if (hayIK && hayJK) {
+            return lanceWilliams(distanciaIK, distanciaJK, distanciaIJ, calcularParametros(ni, nj));
+        }
+        return hayIK ? distanciaIK : distanciaJK;
+    }
+
     private ParametrosActualizacion calcularParametros(int ni, int nj) {
-        double alphaI, alphaJ, gamma;
+        double alphaI, alphaJ, beta, gamma;
 
         switch (tipoEnlace) {
             case MINIMO:
                 alphaI = 0.5;
                 alphaJ = 0.5;
+                beta = 0.0;
                 gamma = -0.5;
                 break;
 
             case MAXIMO:
                 alphaI = 0.5;
                 alphaJ = 0.5;
+                beta = 0.0;
                 gamma = 0.5;
                 break;
 
             case PROMEDIO:
                 alphaI = (double) ni / (ni + nj);
                 alphaJ = (double) nj / (ni + nj);
+                beta = 0.0;
                 gamma = 0.0;
                 break;
 
             case CENTROIDE:
                 alphaI = (double) ni / (ni + nj);
                 alphaJ = (double) nj / (ni + nj);
-                gamma = -((double) ni * nj) / ((ni + nj) * (ni + nj));
+                beta = -((double) ni * nj) / ((double) (ni + nj) * (ni + nj));
+                gamma = 0.0;
                 break;
 
             default:
                 throw new IllegalArgumentException("Tipo de enlace no soportado");
         }
 
-        return new ParametrosActualizacion(alphaI, alphaJ, gamma);
+        return new ParametrosActualizacion(alphaI, alphaJ, beta, gamma);
     }
 
     public TipoEnlace getTipoEnlace() {
@@ -88,11 +124,13 @@ public class ActualizadorMatrizDistancias {
     private static class ParametrosActualizacion {
         final double alphaI;
         final double alphaJ;
+        final double beta;
         final double gamma;
 
-        ParametrosActualizacion(double alphaI, double alphaJ, double gamma) {
+        ParametrosActualizacion(double alphaI, double alphaJ, double beta, double gamma) {
             this.alphaI = alphaI;
             this.alphaJ = alphaJ;
+            this.beta = beta;
             this.gamma = gamma;
         }
     }
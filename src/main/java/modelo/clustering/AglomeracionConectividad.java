@@ -0,0 +1,205 @@
+package modelo.clustering;
+
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.GrafoVecinos;
+import modelo.estructuras.MonticuloAristas;
+
+import java.util.Arrays;
+
+// aglomeracion restringida a un grafo de vecinos (kNN o por radio): solo se fusionan clusters
+// unidos por una arista, y Lance-Williams se aplica solo sobre las aristas de los dos clusters
+// las aristas vivas estan en un heap por peso; al fusionar, el cluster mas chico (en aristas) se vuelca
+// en el mas grande y las aristas viejas quedan en el heap hasta que se sacan y se descartan
+// O(E log E) en tiempo y O(n + E) en memoria, en vez de O(n^3) y O(n^2) con la matriz completa
+final class AglomeracionConectividad {
+
+    private final ActualizadorMatrizDistancias actualizador;
+
+    AglomeracionConectividad(ActualizadorMatrizDistancias actualizador) {
+        this.actualizador = actualizador;
+    }
+
+    ArregloEnlace construir(GrafoVecinos grafo, String[] etiquetas) {
+        if (grafo == null || etiquetas == null || grafo.getNumeroNodos() != etiquetas.length) {
+            throw new IllegalArgumentException("El grafo y las etiquetas deben tener el mismo tamaño");
+        }
+        if (etiquetas.length == 0) {
+            throw new IllegalArgumentException("Array de etiquetas no puede estar vacío");
+        }
+
+        int n = etiquetas.length;
+        GrafoVecinos simetrico = grafo.simetrico();
+        Adyacencia[] adyacencia = new Adyacencia[n];
+        MonticuloAristas heap = new MonticuloAristas(simetrico.getNumeroAristas() / 2 + 1);
+        for (int i = 0; i < n; i++) {
+            int grado = simetrico.grado(i);
+            adyacencia[i] = new Adyacencia(grado);
+            for (int s = 0; s < grado; s++) {
+                int j = simetrico.getVecino(i, s);
+                double d = simetrico.getDistancia(i, s);
+                if (j == i) continue;
+                adyacencia[i].poner(j, d);
+                if (i < j) heap.insertar(d, i, j);
+            }
+        }
+
+        FusionadorCluster fusionador = new FusionadorCluster();
+        fusionador.inicializar(etiquetas);
+        int[] tamanos = new int[n];
+        for (int i = 0; i < n; i++) tamanos[i] = 1;
+        double alturaMaxima = 0.0;
+
+        while (!heap.estaVacio() && fusionador.tieneMasDeUnCluster()) {
+            double d = heap.pesoMinimo();
+            int a = heap.extremoAMinimo();
+            int b = heap.extremoBMinimo();
+            heap.eliminarMinimo();
+
+            // entrada vieja: uno de los clusters ya no existe o la distancia cambio
+            if (adyacencia[a] == null || adyacencia[b] == null || adyacencia[a].obtener(b) != d) continue;
+
+            // el que tiene mas aristas conserva su slot
+            int queda = adyacencia[a].tamanio() >= adyacencia[b].tamanio() ? a : b;
+            int sale = queda == a ? b : a;
+            Adyacencia destino = adyacencia[queda];
+            Adyacencia origen = adyacencia[sale];
+            destino.eliminar(sale);
+            origen.eliminar(queda);
+
+            // solo cambian las aristas del que sale (y las compartidas): las que tenia solo el que queda
+            // conservan su distancia, ver combinar()
+            for (int s = origen.siguiente(-1); s >= 0; s = origen.siguiente(s)) {
+                int k = origen.clave(s);
+                double nueva = actualizador.combinar(origen.valor(s), destino.obtener(k), d,
+                        tamanos[sale], tamanos[queda]);
+                destino.poner(k, nueva);
+                adyacencia[k].eliminar(sale);
+                adyacencia[k].poner(queda, nueva);
+                heap.insertar(nueva, Math.min(queda, k), Math.max(queda, k));
+            }
+
+            adyacencia[sale] = null;
+            tamanos[queda] += tamanos[sale];
+            alturaMaxima = Math.max(alturaMaxima, d);
+            fusionador.fusionar(queda, sale, d);
+        }
+
+        // grafo no conexo: las componentes que quedan se unen en cadena a la mayor altura vista,
+        // asi el arbol queda completo y los cortes por debajo de esa altura no cambian
+        int anterior = -1;
+        for (int slot = 0; slot < n && fusionador.tieneMasDeUnCluster(); slot++) {
+            if (adyacencia[slot] == null) continue;
+            if (anterior >= 0) {
+                fusionador.fusionar(anterior, slot, alturaMaxima);
+                adyacencia[slot] = null;
+            } else {
+                anterior = slot;
+            }
+        }
+
+        return fusionador.getEnlace();
+    }
+
+    // aristas de un cluster: mapa int -> double con direccionamiento abierto, sin objetos por entrada
+    // una clave ausente se informa como NaN, igual que una arista inexistente para combinar()
+    private static final class Adyacencia {
+        private static final int VACIO = -1;
+        private static final int BORRADO = -2;
+
+        private int[] claves;
+        private double[] valores;
+        private int tamanio;
+        private int ocupados;
+
+        Adyacencia(int capacidadEsperada) {
+            int capacidad = 4;
+            while (capacidad < capacidadEsperada * 2) capacidad <<= 1;
+            crearTabla(capacidad);
+        }
+
+        private void crearTabla(int capacidad) {
+            claves = new int[capacidad];
+            valores = new double[capacidad];
+            Arrays.fill(claves, VACIO);
+            tamanio = 0;
+            ocupados = 0;
+        }
+
+        int tamanio() {
+            return tamanio;
+        }
+
+        double obtener(int clave) {
+            int s = buscar(clave);
+            return s >= 0 ? valores[s] : Double.NaN;
+        }
+
+        void poner(int clave, double valor) {
+            int s = buscar(clave);
+            if (s >= 0) {
+                valores[s] = valor;
+                return;
+            }
+            if ((ocupados + 1) * 4 > claves.length * 3) redimensionar();
+
+            int mascara = claves.length - 1;
+            int p = mezclar(clave) & mascara;
+            while (claves[p] >= 0) p = (p + 1) & mascara;
+            if (claves[p] == VACIO) ocupados++;
+            claves[p] = clave;
+            valores[p] = valor;
+            tamanio++;
+        }
+
+        void eliminar(int clave) {
+            int s = buscar(clave);
+            if (s >= 0) {
+                claves[s] = BORRADO;
+                tamanio--;
+            }
+        }
+
+        // recorrido por posiciones: siguiente(-1) es la primera, -1 al terminar
+        int siguiente(int posicion) {
+            for (int p = posicion + 1; p < claves.length; p++) {
+                if (claves[p] >= 0) return p;
+            }
+            return -1;
+        }
+
+        int clave(int posicion) {
+            return claves[posicion];
+        }
+
+        double valor(int posicion) {
+            return valores[posicion];
+        }
+
+        private int buscar(int clave) {
+            int mascara = claves.length - 1;
+            int p = mezclar(clave) & mascara;
+            while (claves[p] != VACIO) {
+                if (claves[p] == clave) return p;
+                p = (p + 1) & mascara;
+            }
+            return -1;
+        }
+
+        // tambien limpia los borrados; crece solo si hace falta
+        private void redimensionar() {
+            int[] viejasClaves = claves;
+            double[] viejosValores = valores;
+            int capacidad = claves.length;
+            while ((tamanio + 1) * 2 > capacidad) capacidad <<= 1;
+            crearTabla(capacidad);
+            for (int p = 0; p < viejasClaves.length; p++) {
+                if (viejasClaves[p] >= 0) poner(viejasClaves[p], viejosValores[p]);
+            }
+        }
+
+        private static int mezclar(int clave) {
+            int h = clave * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
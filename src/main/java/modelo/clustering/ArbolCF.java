@@ -0,0 +1,417 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.Vector;
+
+import java.util.Arrays;
+
+// pre-agregacion estilo BIRCH: los vectores entran de a uno a un arbol de caracteristicas de cluster
+// (conteo, suma lineal, suma de cuadrados) y cada hoja del arbol guarda micro-clusters de radio <= umbral
+// los centroides de los micro-clusters, con su conteo como peso, pasan luego a MotorCluster
+// la memoria depende de la cantidad de micro-clusters, no de la de puntos: si se pasa de maxMicroClusters
+// el umbral se agranda y el arbol se reconstruye con las entradas que ya tenia
+// el arbol resume con distancia euclidiana entre centroides, la metrica del enlace final es aparte
+public class ArbolCF {
+
+    private final int ramificacion;
+    private final int capacidadHoja;
+    private final int maxMicroClusters;
+    private double umbral;
+
+    private NodoCF raiz;
+    private int dimension = -1;
+    private int microClusters;
+    private int reconstrucciones;
+
+    // id de micro-cluster que recibio cada punto y, por id, en cual se absorbio al reconstruir (-1 = vive)
+    private int[] asignacion = new int[1024];
+    private int puntos;
+    private int[] destino = new int[256];
+    private int siguienteId;
+
+    public ArbolCF(double umbral) {
+        this(umbral, 50, 50, 10_000);
+    }
+
+    public ArbolCF(double umbral, int ramificacion, int capacidadHoja, int maxMicroClusters) {
+        if (umbral < 0 || Double.isNaN(umbral)) {
+            throw new IllegalArgumentException("El umbral no puede ser negativo");
+        }
+        if (ramificacion < 2 || capacidadHoja < 2 || maxMicroClusters < 2) {
+            throw new IllegalArgumentException("Ramificación, capacidad de hoja y máximo deben ser al menos 2");
+        }
+        this.umbral = umbral;
+        this.ramificacion = ramificacion;
+        this.capacidadHoja = capacidadHoja;
+        this.maxMicroClusters = maxMicroClusters;
+        this.raiz = new NodoCF(true, capacidadHoja + 1);
+    }
+
+    // retorna el indice del punto, en el orden de llegada
+    public int agregar(Vector vector) {
+        if (dimension == -1) {
+            dimension = vector.dimension();
+        } else if (vector.dimension() != dimension) {
+            throw new IllegalArgumentException("Todos los vectores deben tener la misma dimensión");
+        }
+
+        EntradaCF punto = new EntradaCF(vector.getDatos(), vector.getEtiqueta());
+        int id = insertar(punto);
+
+        if (puntos == asignacion.length) {
+            int[] mayor = new int[asignacion.length * 2];
+            System.arraycopy(asignacion, 0, mayor, 0, puntos);
+            asignacion = mayor;
+        }
+        asignacion[puntos] = id;
+
+        if (microClusters > maxMicroClusters) {
+            reconstruir();
+        }
+        return puntos++;
+    }
+
+    public void agregarTodos(Vector[] vectores) {
+        for (Vector v : vectores) {
+            agregar(v);
+        }
+    }
+
+    // HOJAS
+
+    // desciende por el hijo de centroide mas cercano y absorbe o crea la entrada en la hoja;
+    // las divisiones suben por la pila de nodos visitados
+    private int insertar(EntradaCF entrada) {
+        NodoCF[] camino = new NodoCF[altura()];
+        int[] elegido = new int[camino.length];
+        NodoCF nodo = raiz;
+        int nivel = 0;
+
+        while (!nodo.hoja) {
+            int c = nodo.masCercana(entrada);
+            camino[nivel] = nodo;
+            elegido[nivel++] = c;
+            nodo.entradas[c].absorber(entrada);
+            nodo = nodo.entradas[c].hijo;
+        }
+
+        int id;
+        NodoCF nuevo = null;
+        int c = nodo.masCercana(entrada);
+        if (c >= 0 && nodo.entradas[c].radioAlAbsorber(entrada) <= umbral) {
+            nodo.entradas[c].absorber(entrada);
+            id = entrada.id >= 0 ? marcarAbsorbido(entrada.id, nodo.entradas[c].id) : nodo.entradas[c].id;
+        } else {
+            if (entrada.id < 0) entrada.id = nuevoId();
+            id = entrada.id;
+            nodo.agregar(entrada);
+            microClusters++;
+            if (nodo.cantidad > capacidadHoja) nuevo = nodo.dividir();
+        }
+
+        // el nodo dividido deja una entrada con su resumen en el padre
+        for (int k = nivel - 1; k >= 0 && nuevo != null; k--) {
+            NodoCF padre = camino[k];
+            padre.entradas[elegido[k]].recalcular();
+            padre.agregar(EntradaCF.resumen(nuevo));
+            nuevo = padre.cantidad > ramificacion ? padre.dividir() : null;
+        }
+
+        if (nuevo != null) {
+            NodoCF nuevaRaiz = new NodoCF(false, ramificacion + 1);
+            nuevaRaiz.agregar(EntradaCF.resumen(raiz));
+            nuevaRaiz.agregar(EntradaCF.resumen(nuevo));
+            raiz = nuevaRaiz;
+        }
+        return id;
+    }
+
+    private int altura() {
+        int h = 1;
+        for (NodoCF n = raiz; !n.hoja; n = n.entradas[0].hijo) h++;
+        return h;
+    }
+
+    private int nuevoId() {
+        if (siguienteId == destino.length) {
+            int[] mayor = new int[destino.length * 2];
+            System.arraycopy(destino, 0, mayor, 0, siguienteId);
+            destino = mayor;
+        }
+        destino[siguienteId] = -1;
+        return siguienteId++;
+    }
+
+    private int marcarAbsorbido(int id, int receptor) {
+        destino[id] = receptor;
+        return receptor;
+    }
+
+    // sube el umbral hasta que al menos el par mas cercano de alguna hoja se una, y reinserta las entradas
+    private void reconstruir() {
+        EntradaCF[] hojas = entradasHoja();
+        double menor = Double.MAX_VALUE;
+        for (NodoCF hoja : nodosHoja()) {
+            for (int a = 0; a < hoja.cantidad; a++) {
+                for (int b = a + 1; b < hoja.cantidad; b++) {
+                    menor = Math.min(menor, hoja.entradas[a].distanciaCentroide(hoja.entradas[b]));
+                }
+            }
+        }
+        umbral = Math.max(umbral * 2, menor == Double.MAX_VALUE ? umbral * 2 : menor);
+        reconstrucciones++;
+
+        raiz = new NodoCF(true, capacidadHoja + 1);
+        microClusters = 0;
+        for (EntradaCF e : hojas) {
+            insertar(e);
+        }
+        if (microClusters > maxMicroClusters) {
+            reconstruir();
+        }
+    }
+
+    // RESULTADO
+
+    // centroides de los micro-clusters; la etiqueta es la del primer punto y cuantos mas representa
+    public Vector[] getCentroides() {
+        EntradaCF[] hojas = entradasHoja();
+        Vector[] centroides = new Vector[hojas.length];
+        for (int i = 0; i < hojas.length; i++) {
+            EntradaCF e = hojas[i];
+            String etiqueta = e.n == 1 ? e.etiqueta : e.etiqueta + " (+" + (e.n - 1) + ")";
+            centroides[i] = new Vector(e.centroide(), etiqueta);
+        }
+        return centroides;
+    }
+
+    public int[] getConteos() {
+        EntradaCF[] hojas = entradasHoja();
+        int[] conteos = new int[hojas.length];
+        for (int i = 0; i < hojas.length; i++) conteos[i] = (int) hojas[i].n;
+        return conteos;
+    }
+
+    // asignaciones[p] = indice en getCentroides() (y hoja del enlace) del micro-cluster del punto p
+    public int[] getAsignaciones() {
+        EntradaCF[] hojas = entradasHoja();
+        int[] indicePorId = new int[siguienteId];
+        for (int i = 0; i < hojas.length; i++) indicePorId[hojas[i].id] = i;
+
+        int[] resultado = new int[puntos];
+        for (int p = 0; p < puntos; p++) {
+            resultado[p] = indicePorId[resolver(asignacion[p])];
+        }
+        return resultado;
+    }
+
+    // sigue la cadena de absorciones con compresion de caminos
+    private int resolver(int id) {
+        int raizId = id;
+        while (destino[raizId] >= 0) raizId = destino[raizId];
+        while (destino[id] >= 0) {
+            int siguiente = destino[id];
+            destino[id] = raizId;
+            id = siguiente;
+        }
+        return raizId;
+    }
+
+    // dendrograma cuyas hojas son los micro-clusters, pesados por su conteo
+    public ArregloEnlace agrupar(MotorCluster motor, FactoryDistancia.TipoDistancia tipoDistancia) {
+        if (puntos == 0) {
+            throw new IllegalStateException("No se agregaron vectores");
+        }
+        OpcionesEnlace opciones = new OpcionesEnlace();
+        opciones.setPesos(getConteos());
+        return motor.construirEnlace(getCentroides(), tipoDistancia, opciones);
+    }
+
+    // hojas del arbol en orden, recorrido iterativo
+    private NodoCF[] nodosHoja() {
+        NodoCF[] pila = new NodoCF[64];
+        NodoCF[] hojas = new NodoCF[16];
+        int tope = 0;
+        int total = 0;
+        pila[tope++] = raiz;
+        while (tope > 0) {
+            NodoCF nodo = pila[--tope];
+            if (nodo.hoja) {
+                if (total == hojas.length) hojas = Arrays.copyOf(hojas, total * 2);
+                hojas[total++] = nodo;
+                continue;
+            }
+            for (int i = nodo.cantidad - 1; i >= 0; i--) {
+                if (tope == pila.length) pila = Arrays.copyOf(pila, tope * 2);
+                pila[tope++] = nodo.entradas[i].hijo;
+            }
+        }
+        return Arrays.copyOf(hojas, total);
+    }
+
+    private EntradaCF[] entradasHoja() {
+        EntradaCF[] resultado = new EntradaCF[microClusters];
+        int k = 0;
+        for (NodoCF hoja : nodosHoja()) {
+            for (int i = 0; i < hoja.cantidad; i++) resultado[k++] = hoja.entradas[i];
+        }
+        return resultado;
+    }
+
+    public int getNumeroPuntos() {
+        return puntos;
+    }
+
+    public int getNumeroMicroClusters() {
+        return microClusters;
+    }
+
+    public double getUmbral() {
+        return umbral;
+    }
+
+    public int getReconstrucciones() {
+        return reconstrucciones;
+    }
+
+    // caracteristica de cluster: conteo, suma lineal y suma de cuadrados
+    // en las hojas es un micro-cluster (id >= 0), en los nodos internos resume un hijo
+    private static final class EntradaCF {
+        long n;
+        final double[] suma;
+        double sumaCuadrados;
+        String etiqueta;
+        NodoCF hijo;
+        int id = -1;
+
+        EntradaCF(double[] datos, String etiqueta) {
+            this.n = 1;
+            this.suma = datos;
+            this.etiqueta = etiqueta;
+            for (double x : datos) sumaCuadrados += x * x;
+        }
+
+        private EntradaCF(int dimension) {
+            this.suma = new double[dimension];
+        }
+
+        static EntradaCF resumen(NodoCF nodo) {
+            EntradaCF e = new EntradaCF(nodo.entradas[0].suma.length);
+            e.hijo = nodo;
+            e.recalcular();
+            return e;
+        }
+
+        void recalcular() {
+            n = 0;
+            sumaCuadrados = 0;
+            Arrays.fill(suma, 0.0);
+            for (int i = 0; i < hijo.cantidad; i++) sumar(hijo.entradas[i]);
+        }
+
+        void absorber(EntradaCF otra) {
+            sumar(otra);
+        }
+
+        private void sumar(EntradaCF otra) {
+            n += otra.n;
+            sumaCuadrados += otra.sumaCuadrados;
+            for (int d = 0; d < suma.length; d++) suma[d] += otra.suma[d];
+        }
+
+        // R = sqrt(SS/n - |LS/n|^2) de la union, sin modificar esta entrada
+        double radioAlAbsorber(EntradaCF otra) {
+            long total = n + otra.n;
+            double cuadrados = (sumaCuadrados + otra.sumaCuadrados) / total;
+            double normaMedia = 0.0;
+            for (int d = 0; d < suma.length; d++) {
+                double media = (suma[d] + otra.suma[d]) / total;
+                normaMedia += media * media;
+            }
+            return Math.sqrt(Math.max(0.0, cuadrados - normaMedia));
+        }
+
+        double distanciaCentroide(EntradaCF otra) {
+            double total = 0.0;
+            for (int d = 0; d < suma.length; d++) {
+                double diferencia = suma[d] / n - otra.suma[d] / otra.n;
+                total += diferencia * diferencia;
+            }
+            return Math.sqrt(total);
+        }
+
+        double[] centroide() {
+            double[] c = new double[suma.length];
+            for (int d = 0; d < c.length; d++) c[d] = suma[d] / n;
+            return c;
+        }
+    }
+
+    private static final class NodoCF {
+        final boolean hoja;
+        final EntradaCF[] entradas;
+        int cantidad;
+
+        NodoCF(boolean hoja, int capacidad) {
+            this.hoja = hoja;
+            this.entradas = new EntradaCF[capacidad];
+        }
+
+        void agregar(EntradaCF e) {
+            entradas[cantidad++] = e;
+        }
+
+        int masCercana(EntradaCF e) {
+            int mejor = -1;
+            double menor = Double.MAX_VALUE;
+            for (int i = 0; i < cantidad; i++) {
+                double d = entradas[i].distanciaCentroide(e);
+                if (d < menor) {
+                    menor = d;
+                    mejor = i;
+                }
+            }
+            return mejor;
+        }
+
+        // las dos entradas mas lejanas son semillas; el resto va con la mas cercana
+        // este nodo se queda con la primera semilla y retorna el nodo nuevo
+        NodoCF dividir() {
+            int semillaA = 0;
+            int semillaB = 1;
+            double mayor = -1.0;
+            for (int a = 0; a < cantidad; a++) {
+                for (int b = a + 1; b < cantidad; b++) {
+                    double d = entradas[a].distanciaCentroide(entradas[b]);
+                    if (d > mayor) {
+                        mayor = d;
+                        semillaA = a;
+                        semillaB = b;
+                    }
+                }
+            }
+
+            EntradaCF[] todas = Arrays.copyOf(entradas, cantidad);
+            EntradaCF a = todas[semillaA];
+            EntradaCF b = todas[semillaB];
+            NodoCF nuevo = new NodoCF(hoja, entradas.length);
+            Arrays.fill(entradas, null);
+            cantidad = 0;
+
+            for (EntradaCF e : todas) {
+                if (e == a) agregar(e);
+                else if (e == b) nuevo.agregar(e);
+                else if (e.distanciaCentroide(a) <= e.distanciaCentroide(b)) agregar(e);
+                else nuevo.agregar(e);
+            }
+            return nuevo;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ArbolCF [puntos=" + puntos + ", micro-clusters=" + microClusters +
+                ", umbral=" + String.format("%.4f", umbral) + ", reconstrucciones=" + reconstrucciones + "]";
+    }
+}
@@ -0,0 +1,233 @@
+package modelo.clustering;
+
+import modelo.datos.TransformadorDatos;
+import modelo.datos.VariableConfig;
+import modelo.distancias.CacheMatrices;
+import modelo.distancias.CalculadorMatrizDistancia;
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.ListaDoble;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.TokenCancelacion;
+import modelo.estructuras.Vector;
+import modelo.normalizacion.EstadisticasColumnas;
+import modelo.normalizacion.FactoryNormalizacion;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+// ejecuta todas las combinaciones normalizacion x distancia x enlace como un grafo de etapas:
+//   normalizacion -> matriz de distancias -> enlace + correlacion cofenetica
+// cada etapa intermedia se calcula una sola vez y la comparten sus ramas; las matrices se leen
+// sin modificar y cada enlace trabaja sobre su propia copia. Los enlaces de una misma matriz corren en
+// paralelo, pero las matrices van de a una: a lo sumo una matriz y una copia por enlace a la vez
+public class BarridoParametros {
+
+    private final Vector[] vectores;
+    private final String[] nombresColumnas;
+    private final ListaDoble<VariableConfig> configs;
+    private final EstadisticasColumnas estadisticas;
+    private final Ponderador ponderador;
+    private final String[] etiquetas;
+
+    private Executor ejecutor;
+    private CacheMatrices cache;
+    private TokenCancelacion token = TokenCancelacion.NINGUNO;
+
+    // vectores ya seleccionados; el ponderador debe estar filtrado a las mismas columnas
+    public BarridoParametros(Vector[] vectoresSeleccionados, String[] nombresColumnas,
+                             ListaDoble<VariableConfig> configs, EstadisticasColumnas estadisticas,
+                             Ponderador ponderador) {
+        if (vectoresSeleccionados == null || vectoresSeleccionados.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+        if (nombresColumnas == null || nombresColumnas.length != vectoresSeleccionados[0].dimension()) {
+            throw new IllegalArgumentException("Debe haber un nombre por columna seleccionada");
+        }
+
+        this.vectores = vectoresSeleccionados;
+        this.nombresColumnas = nombresColumnas;
+        this.configs = configs;
+        this.estadisticas = estadisticas;
+        this.ponderador = ponderador;
+        this.ejecutor = ForkJoinPool.commonPool();
+
+        this.etiquetas = new String[vectoresSeleccionados.length];
+        for (int i = 0; i < etiquetas.length; i++) {
+            etiquetas[i] = vectoresSeleccionados[i].getEtiqueta();
+        }
+    }
+
+    public void setEjecutor(Executor ejecutor) {
+        if (ejecutor == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser nulo");
+        }
+        this.ejecutor = ejecutor;
+    }
+
+    // opcional: las matrices del barrido quedan disponibles para ejecuciones posteriores
+    public void setCache(CacheMatrices cache) {
+        this.cache = cache;
+    }
+
+    // se revisa en la normalizacion, en cada fila de las matrices, en cada fusion y en la correlacion;
+    // cancelado, ejecutar lanza CancellationException
+    public void setToken(TokenCancelacion token) {
+        if (token == null) {
+            throw new IllegalArgumentException("El token no puede ser nulo, usar TokenCancelacion.NINGUNO");
+        }
+        this.token = token;
+    }
+
+    public ResultadoBarrido[] ejecutar() {
+        return ejecutar(FactoryNormalizacion.TipoNormalizacion.values(),
+                FactoryDistancia.TipoDistancia.values(), MotorCluster.TipoEnlace.values());
+    }
+
+    // resultados en orden normalizacion, distancia, enlace
+    public ResultadoBarrido[] ejecutar(FactoryNormalizacion.TipoNormalizacion[] normalizaciones,
+                                       FactoryDistancia.TipoDistancia[] distancias,
+                                       MotorCluster.TipoEnlace[] enlaces) {
+        if (normalizaciones.length == 0 || distancias.length == 0 || enlaces.length == 0) {
+            throw new IllegalArgumentException("Cada dimensión del barrido necesita al menos un valor");
+        }
+
+        // las normalizaciones son O(n * d) cada una: se lanzan todas de entrada
+        ListaDoble<CompletableFuture<Etapa<Vector[]>>> normalizados = new ListaDoble<>();
+        for (FactoryNormalizacion.TipoNormalizacion normalizacion : normalizaciones) {
+            normalizados.agregar(CompletableFuture.supplyAsync(() -> normalizar(normalizacion), ejecutor));
+        }
+
+        // las matrices son O(n^2): de a un grupo normalizacion x distancia, con sus enlaces en paralelo, y
+        // el grupo se espera entero antes de pasar al siguiente, asi su matriz ya no queda referenciada
+        // (solo la cache la puede retener, dentro de su presupuesto)
+        ResultadoBarrido[] resultados =
+                new ResultadoBarrido[normalizaciones.length * distancias.length * enlaces.length];
+        ListaDoble.IteradorLista<CompletableFuture<Etapa<Vector[]>>> itNormalizados = normalizados.iterador();
+        int k = 0;
+        for (FactoryNormalizacion.TipoNormalizacion normalizacion : normalizaciones) {
+            Etapa<Vector[]> etapaNormalizacion = esperar(itNormalizados.siguiente());
+
+            for (FactoryDistancia.TipoDistancia distancia : distancias) {
+                Etapa<Matriz> etapaMatriz = calcularMatriz(etapaNormalizacion.valor, distancia);
+
+                ListaDoble<CompletableFuture<ResultadoBarrido>> grupo = new ListaDoble<>();
+                for (MotorCluster.TipoEnlace enlace : enlaces) {
+                    grupo.agregar(CompletableFuture.supplyAsync(() ->
+                            agrupar(normalizacion, distancia, enlace, etapaNormalizacion, etapaMatriz), ejecutor));
+                }
+                // se esperan en orden: el primero que falle corta la espera
+                ListaDoble.IteradorLista<CompletableFuture<ResultadoBarrido>> it = grupo.iterador();
+                while (it.tieneSiguiente()) {
+                    resultados[k++] = esperar(it.siguiente());
+                }
+            }
+        }
+        return resultados;
+    }
+
+    private static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    // todas las variables numericas seleccionadas pasan a usar la normalizacion del barrido
+    private Etapa<Vector[]> normalizar(FactoryNormalizacion.TipoNormalizacion tipo) {
+        long inicio = System.nanoTime();
+
+        ListaDoble<VariableConfig> configsBarrido = new ListaDoble<>();
+        for (int i = 0; i < configs.tamanio(); i++) {
+            VariableConfig c = configs.obtener(i);
+            String metodo = "Numérico".equals(c.getTipoDato()) ? tipo.name() : c.getMetodoNormalizacion();
+            configsBarrido.agregar(new VariableConfig(c.getNombre(), c.isSeleccionada(), c.getTipoDato(), metodo));
+        }
+
+        Vector[] normalizados = new TransformadorDatos(configsBarrido, nombresColumnas, estadisticas)
+                .normalizarPorVariable(vectores, token);
+        if (ponderador != null) {
+            normalizados = ponderador.aplicarPesos(normalizados);
+        }
+        return new Etapa<>(normalizados, System.nanoTime() - inicio);
+    }
+
+    private Etapa<Matriz> calcularMatriz(Vector[] normalizados, FactoryDistancia.TipoDistancia distancia) {
+        long inicio = System.nanoTime();
+        Matriz matriz = cache != null
+                ? cache.obtenerOCalcular(normalizados, distancia, token)
+                : new CalculadorMatrizDistancia().calcular(normalizados, distancia, token);
+        return new Etapa<>(matriz, System.nanoTime() - inicio);
+    }
+
+    private ResultadoBarrido agrupar(FactoryNormalizacion.TipoNormalizacion normalizacion,
+                                     FactoryDistancia.TipoDistancia distancia, MotorCluster.TipoEnlace enlace,
+                                     Etapa<Vector[]> etapaNormalizacion, Etapa<Matriz> etapaMatriz) {
+        long inicio = System.nanoTime();
+        OpcionesEnlace opciones = new OpcionesEnlace();
+        opciones.setToken(token);
+        ArregloEnlace arreglo = new MotorCluster(enlace)
+                .construirEnlaceSobreCopia(etapaMatriz.valor, etiquetas, opciones);
+        long nanosEnlace = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        double correlacion = CorrelacionCofenetica.calcular(etapaMatriz.valor, arreglo, token);
+        long nanosCorrelacion = System.nanoTime() - inicio;
+
+        return new ResultadoBarrido(normalizacion, distancia, enlace, arreglo, correlacion,
+                etapaNormalizacion.nanos / 1_000_000, etapaMatriz.nanos / 1_000_000,
+                nanosEnlace / 1_000_000, nanosCorrelacion / 1_000_000);
+    }
+
+    // la de mayor correlacion cofenetica, ignorando las que no se pudieron medir
+    public static ResultadoBarrido mejor(ResultadoBarrido[] resultados) {
+        ResultadoBarrido mejor = null;
+        for (ResultadoBarrido r : resultados) {
+            if (Double.isNaN(r.getCorrelacionCofenetica())) continue;
+            if (mejor == null || r.getCorrelacionCofenetica() > mejor.getCorrelacionCofenetica()) mejor = r;
+        }
+        return mejor;
+    }
+
+    public static void exportarCSV(ResultadoBarrido[] resultados, String ruta) throws IOException {
+        try (Writer salida = new BufferedWriter(new FileWriter(ruta))) {
+            escribirCSV(resultados, salida);
+        }
+    }
+
+    public static void escribirCSV(ResultadoBarrido[] resultados, Writer salida) throws IOException {
+        salida.write("normalizacion,distancia,enlace,correlacion_cofenetica," +
+                "ms_normalizacion,ms_matriz,ms_enlace,ms_correlacion\n");
+        for (ResultadoBarrido r : resultados) {
+            salida.write(r.getNormalizacion() + "," + r.getDistancia() + "," + r.getEnlace() + "," +
+                    String.format(Locale.ROOT, "%.6f", r.getCorrelacionCofenetica()) + "," +
+                    r.getMilisNormalizacion() + "," + r.getMilisMatriz() + "," +
+                    r.getMilisEnlace() + "," + r.getMilisCorrelacion() + "\n");
+        }
+    }
+
+    // valor de una etapa con lo que tardo en calcularse
+    private static final class Etapa<T> {
+        final T valor;
+        final long nanos;
+
+        Etapa(T valor, long nanos) {
+            this.valor = valor;
+            this.nanos = nanos;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BarridoParametros [vectores=" + vectores.length + ", columnas=" + nombresColumnas.length + "]";
+    }
+}
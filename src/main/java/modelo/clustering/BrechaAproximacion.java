@@ -0,0 +1,74 @@
+package modelo.clustering;
+
+// diferencia medida entre el motor particionado y el exacto sobre una misma muestra
+public final class BrechaAproximacion {
+
+    private final int tamanioMuestra;
+    private final int particiones;
+    private final int k;
+    private final double correlacionExacta;
+    private final double correlacionAproximada;
+    private final double randAjustado;
+    private final long milisExacto;
+    private final long milisAproximado;
+
+    public BrechaAproximacion(int tamanioMuestra, int particiones, int k, double correlacionExacta,
+                              double correlacionAproximada, double randAjustado,
+                              long milisExacto, long milisAproximado) {
+        this.tamanioMuestra = tamanioMuestra;
+        this.particiones = particiones;
+        this.k = k;
+        this.correlacionExacta = correlacionExacta;
+        this.correlacionAproximada = correlacionAproximada;
+        this.randAjustado = randAjustado;
+        this.milisExacto = milisExacto;
+        this.milisAproximado = milisAproximado;
+    }
+
+    public int getTamanioMuestra() {
+        return tamanioMuestra;
+    }
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public double getCorrelacionExacta() {
+        return correlacionExacta;
+    }
+
+    public double getCorrelacionAproximada() {
+        return correlacionAproximada;
+    }
+
+    // cuanto pierde la aproximacion en correlacion cofenetica (positivo = peor que el exacto)
+    public double getBrechaCorrelacion() {
+        return correlacionExacta - correlacionAproximada;
+    }
+
+    // 1 = los cortes en k coinciden, ~0 = acuerdo de azar
+    public double getRandAjustado() {
+        return randAjustado;
+    }
+
+    public long getMilisExacto() {
+        return milisExacto;
+    }
+
+    public long getMilisAproximado() {
+        return milisAproximado;
+    }
+
+    @Override
+    public String toString() {
+        return "BrechaAproximacion [muestra=" + tamanioMuestra + ", particiones=" + particiones +
+                ", cofenetica exacta=" + String.format("%.4f", correlacionExacta) +
+                ", aproximada=" + String.format("%.4f", correlacionAproximada) +
+                ", ARI(k=" + k + ")=" + String.format("%.4f", randAjustado) +
+                ", " + milisExacto + " ms vs " + milisAproximado + " ms]";
+    }
+}
@@ -0,0 +1,188 @@
+package modelo.clustering;
+
+import modelo.estructuras.IArbolEnlace;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.TokenCancelacion;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// correlacion de Pearson entre la distancia original y la cofenetica de todos los pares
+// no arma la matriz cofenetica: recorre las filas en el orden de hojas, donde el ancestro comun
+// de (p, q) es el hueco de menor profundidad entre p y q, y se mantiene al avanzar q
+// las filas se reparten en paralelo y cada bloque acumula co-momentos que se combinan al subir
+public final class CorrelacionCofenetica {
+
+    private CorrelacionCofenetica() {
+    }
+
+    // la matriz no se modifica; la fila i corresponde a la hoja i
+    public static double calcular(Matriz distancias, IArbolEnlace enlace) {
+        return calcular(distancias, enlace, TokenCancelacion.NINGUNO);
+    }
+
+    // el token se revisa en cada fila, como al calcular la matriz: son O(n^2) pares
+    public static double calcular(Matriz distancias, IArbolEnlace enlace, TokenCancelacion token) {
+        if (token == null) {
+            throw new IllegalArgumentException("El token no puede ser nulo, usar TokenCancelacion.NINGUNO");
+        }
+        int n = enlace.getNumeroHojas();
+        if (distancias == null || distancias.getDimension() != n) {
+            throw new IllegalArgumentException("La matriz debe tener una fila por hoja");
+        }
+        if (n < 3) {
+            return Double.NaN;
+        }
+
+        int[] orden = enlace.ordenHojas();
+
+        // profundidad de cada nodo, el padre siempre tiene id mayor que sus hijos
+        int[] profundidad = new int[enlace.getNumeroNodos()];
+        for (int id = enlace.getIdRaiz(); id >= n; id--) {
+            profundidad[enlace.hijoIzquierdo(id)] = profundidad[id] + 1;
+            profundidad[enlace.hijoDerecho(id)] = profundidad[id] + 1;
+        }
+
+        // el hueco entre el ultimo hoja del hijo izquierdo y la primera del derecho es la fusion
+        int[] inicio = new int[enlace.getNumeroNodos()];
+        for (int p = 0; p < n; p++) inicio[orden[p]] = p;
+        int[] nodoHueco = new int[n - 1];
+        for (int m = 0; m < enlace.getNumeroFusiones(); m++) {
+            int id = n + m;
+            inicio[id] = inicio[enlace.getIzquierdo(m)];
+            nodoHueco[inicio[enlace.getDerecho(m)] - 1] = id;
+        }
+
+        Momentos total = ForkJoinPool.commonPool().invoke(
+                new TareaFilas(distancias, enlace, token, orden, profundidad, nodoHueco, 0, n - 1));
+        return total.correlacion();
+    }
+
+    // co-momentos de (d, c) acumulados con Welford y combinados con la formula de Chan
+    private static final class Momentos {
+        long n;
+        double mediaD;
+        double mediaC;
+        double m2D;
+        double m2C;
+        double coMomento;
+
+        void agregar(double d, double c) {
+            n++;
+            double deltaD = d - mediaD;
+            mediaD += deltaD / n;
+            double deltaC = c - mediaC;
+            mediaC += deltaC / n;
+            m2D += deltaD * (d - mediaD);
+            m2C += deltaC * (c - mediaC);
+            coMomento += deltaD * (c - mediaC);
+        }
+
+        void combinar(Momentos otro) {
+            if (otro.n == 0) return;
+            if (n == 0) {
+                n = otro.n;
+                mediaD = otro.mediaD;
+                mediaC = otro.mediaC;
+                m2D = otro.m2D;
+                m2C = otro.m2C;
+                coMomento = otro.coMomento;
+                return;
+            }
+            long total = n + otro.n;
+            double factor = (double) n * otro.n / total;
+            double deltaD = otro.mediaD - mediaD;
+            double deltaC = otro.mediaC - mediaC;
+
+            m2D += otro.m2D + deltaD * deltaD * factor;
+            m2C += otro.m2C + deltaC * deltaC * factor;
+            coMomento += otro.coMomento + deltaD * deltaC * factor;
+            mediaD += deltaD * otro.n / total;
+            mediaC += deltaC * otro.n / total;
+            n = total;
+        }
+
+        double correlacion() {
+            double denominador = Math.sqrt(m2D * m2C);
+            return denominador == 0.0 ? Double.NaN : coMomento / denominador;
+        }
+    }
+
+    // filas [desde, hasta) del orden de hojas; la fila p cubre los pares (p, q) con q > p
+    private static final class TareaFilas extends RecursiveTask<Momentos> {
+        private static final long serialVersionUID = 1L;
+        // pares por bloque antes de dividir
+        private static final long UMBRAL_PARES = 1L << 15;
+
+        private final Matriz distancias;
+        private final IArbolEnlace enlace;
+        private final TokenCancelacion token;
+        private final int[] orden;
+        private final int[] profundidad;
+        private final int[] nodoHueco;
+        private final int desde;
+        private final int hasta;
+
+        TareaFilas(Matriz distancias, IArbolEnlace enlace, TokenCancelacion token, int[] orden, int[] profundidad,
+                   int[] nodoHueco, int desde, int hasta) {
+            this.distancias = distancias;
+            this.enlace = enlace;
+            this.token = token;
+            this.orden = orden;
+            this.profundidad = profundidad;
+            this.nodoHueco = nodoHueco;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected Momentos compute() {
+            if (hasta - desde > 1 && pares(desde, hasta) > UMBRAL_PARES) {
+                int medio = dividir();
+                TareaFilas izquierda = new TareaFilas(distancias, enlace, token, orden, profundidad, nodoHueco, desde,
+                        medio);
+                TareaFilas derecha = new TareaFilas(distancias, enlace, token, orden, profundidad, nodoHueco, medio,
+                        hasta);
+                izquierda.fork();
+                Momentos resultado = derecha.compute();
+                resultado.combinar(izquierda.join());
+                return resultado;
+            }
+
+            Momentos momentos = new Momentos();
+            int n = orden.length;
+            for (int p = desde; p < hasta; p++) {
+                token.verificar();
+                int hojaP = orden[p];
+                int comun = -1;
+                int menorProfundidad = Integer.MAX_VALUE;
+                double cofenetica = 0.0;
+
+                for (int q = p + 1; q < n; q++) {
+                    int hueco = nodoHueco[q - 1];
+                    if (profundidad[hueco] < menorProfundidad) {
+                        menorProfundidad = profundidad[hueco];
+                        comun = hueco;
+                        cofenetica = enlace.alturaDe(comun);
+                    }
+                    momentos.agregar(distancias.getPosicion(hojaP, orden[q]), cofenetica);
+                }
+            }
+            return momentos;
+        }
+
+        // las primeras filas tienen mas pares, se corta por la mitad del trabajo
+        private int dividir() {
+            long mitad = pares(desde, hasta) / 2;
+            int medio = desde + 1;
+            while (medio < hasta - 1 && pares(desde, medio) < mitad) medio++;
+            return medio;
+        }
+
+        private long pares(int a, int b) {
+            long n = orden.length;
+            // suma de (n - 1 - p) para p en [a, b)
+            return (b - a) * (n - 1) - ((long) (a + b - 1) * (b - a)) / 2;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package modelo.clustering;
+
+import modelo.datos.CargadorCSV;
+import modelo.datos.SelectorColumnas;
+import modelo.datos.TransformadorDatos;
+import modelo.datos.VariableConfig;
+import modelo.distancias.CalculadorMatrizDistancia;
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ListaDoble;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.Vector;
+import modelo.normalizacion.EstadisticasColumnas;
+import modelo.normalizacion.FactoryNormalizacion;
+
+import java.io.IOException;
+
+// dataset que solo crece por el final (un CSV al que se le agregan filas): mantiene la matriz de
+// distancias sin rehacerla en cada actualizacion
+// las filas nuevas se normalizan con las estadisticas congeladas en el ultimo recalculo completo y se
+// agregan como filas y columnas nuevas de la matriz; cuando las estadisticas acumuladas se alejan de las
+// congeladas mas que la tolerancia, los vectores viejos ya no son comparables y se recalcula todo
+public class CrecimientoIncremental {
+
+    private final CargadorCSV cargador;
+    private final SelectorColumnas selector;
+    private final ListaDoble<VariableConfig> configs;
+    private final Ponderador ponderador;
+    private final FactoryDistancia.TipoDistancia tipoDistancia;
+    private final CalculadorMatrizDistancia calculador;
+
+    private double tolerancia;
+
+    // estadisticas con que estan normalizados los vectores actuales
+    private EstadisticasColumnas referencia;
+    private Vector[] vectoresPreparados;
+    private boolean recalculado;
+    private double ultimaDeriva;
+
+    public CrecimientoIncremental(CargadorCSV cargador, SelectorColumnas selector,
+                                  ListaDoble<VariableConfig> configs, Ponderador ponderador,
+                                  FactoryDistancia.TipoDistancia tipoDistancia) {
+        if (cargador == null || selector == null || configs == null || tipoDistancia == null) {
+            throw new IllegalArgumentException("Cargador, selector, configuraciones y distancia no pueden ser nulos");
+        }
+        this.cargador = cargador;
+        this.selector = selector;
+        this.configs = configs;
+        this.ponderador = ponderador;
+        this.tipoDistancia = tipoDistancia;
+        this.calculador = new CalculadorMatrizDistancia();
+        this.tolerancia = 0.05;
+    }
+
+    // deriva maxima admitida, relativa a la escala de cada columna (ver INormalizacion.deriva)
+    public void setTolerancia(double tolerancia) {
+        if (tolerancia < 0.0) {
+            throw new IllegalArgumentException("La tolerancia no puede ser negativa");
+        }
+        this.tolerancia = tolerancia;
+    }
+
+    // matriz completa sobre lo que el cargador tiene ahora
+    public Matriz inicializar() {
+        return recalcular();
+    }
+
+    // lee las filas agregadas al archivo y deja la matriz al dia
+    public Matriz actualizar() throws IOException {
+        if (vectoresPreparados == null) {
+            throw new IllegalStateException("Debe inicializar primero");
+        }
+
+        Vector[] nuevos = cargador.anexarNuevasFilas();
+        if (nuevos == null) {
+            // el cargador releyo todo: cambio la codificacion y los vectores viejos no sirven
+            return recalcular();
+        }
+        recalculado = false;
+        if (nuevos.length == 0) {
+            return calculador.getMatriz();
+        }
+
+        ultimaDeriva = calcularDeriva(cargador.getEstadisticas());
+        if (ultimaDeriva > tolerancia) {
+            return recalcular();
+        }
+
+        Vector[] preparados = preparar(nuevos);
+        Vector[] todos = new Vector[vectoresPreparados.length + preparados.length];
+        System.arraycopy(vectoresPreparados, 0, todos, 0, vectoresPreparados.length);
+        System.arraycopy(preparados, 0, todos, vectoresPreparados.length, preparados.length);
+        vectoresPreparados = todos;
+        return calculador.extender(preparados);
+    }
+
+    private Matriz recalcular() {
+        // el cargador reemplaza el catalogo al anexar en vez de cambiarlo, no hace falta copiarlo
+        referencia = cargador.getEstadisticas();
+        vectoresPreparados = preparar(cargador.getVectores());
+        recalculado = true;
+        ultimaDeriva = 0.0;
+        return calculador.calcular(vectoresPreparados, tipoDistancia);
+    }
+
+    // mismo camino que la interfaz: seleccion, normalizacion por variable y pesos
+    private Vector[] preparar(Vector[] crudos) {
+        Vector[] seleccionados = selector.aplicarSeleccion(crudos);
+        TransformadorDatos transformador = new TransformadorDatos(configs, selector.getColumnasSeleccionadas(),
+                referencia);
+        Vector[] normalizados = transformador.normalizarPorVariable(seleccionados);
+        if (ponderador == null) {
+            return normalizados;
+        }
+        return ponderador.filtrarPesos(selector).aplicarPesos(normalizados);
+    }
+
+    // mayor deriva entre las columnas que se normalizan; una columna fuera del catalogo no se puede
+    // seguir por partes y obliga a recalcular
+    private double calcularDeriva(EstadisticasColumnas actual) {
+        double maxima = 0.0;
+        for (int i = 0; i < configs.tamanio(); i++) {
+            VariableConfig config = configs.obtener(i);
+            if (!config.isSeleccionada() || !selector.estaSeleccionada(config.getNombre())
+                    || "Ninguno".equals(config.getMetodoNormalizacion()) || !"Numérico".equals(config.getTipoDato())) {
+                continue;
+            }
+            int dimension = referencia.indiceDe(config.getNombre());
+            if (dimension < 0 || actual.indiceDe(config.getNombre()) != dimension) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double deriva = FactoryNormalizacion.crear(config.getMetodoNormalizacion())
+                    .deriva(referencia, actual, dimension);
+            maxima = Math.max(maxima, deriva);
+        }
+        return maxima;
+    }
+
+    public Matriz getMatriz() {
+        return calculador.getMatriz();
+    }
+
+    public Vector[] getVectoresPreparados() {
+        return vectoresPreparados;
+    }
+
+    public CalculadorMatrizDistancia getCalculador() {
+        return calculador;
+    }
+
+    // true si la ultima actualizacion (o la inicializacion) rehizo la matriz completa
+    public boolean isRecalculado() {
+        return recalculado;
+    }
+
+    public double getUltimaDeriva() {
+        return ultimaDeriva;
+    }
+
+    public double getTolerancia() {
+        return tolerancia;
+    }
+
+    @Override
+    public String toString() {
+        return "CrecimientoIncremental [vectores=" + (vectoresPreparados != null ? vectoresPreparados.length : 0) +
+                ", tolerancia=" + tolerancia + ", recalculado=" + recalculado + "]";
+    }
+}
@@ -0,0 +1,387 @@
+package modelo.clustering;
+
+import modelo.estructuras.UnionBusqueda;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// fusiones publicadas mientras el motor corre, para mostrar progreso o empezar a cortar antes del final
+// el motor es el unico escritor: anota cada fusion en arreglos primitivos y despues adelanta el contador
+// volatile publicadas, asi quien lee el contador ve completas todas las fusiones anteriores sin locks
+// los oyentes no corren en el hilo del motor: reciben lotes [desde, hasta) en el ejecutor, cuando se
+// juntan tamanioLote fusiones o paso intervaloMinimo desde el ultimo aviso; un oyente lento solo se
+// atrasa, el siguiente lote trae todo lo que se acumulo
+// un flujo sirve para una sola ejecucion
+public class FlujoFusiones {
+
+    public interface OyenteFusiones {
+        // fusiones desde..hasta-1 ya publicadas, se leen con getIzquierdo(m), getAltura(m), ...
+        void alPublicar(FlujoFusiones flujo, int desde, int hasta);
+
+        // despues del ultimo lote
+        default void alTerminar(FlujoFusiones flujo) {
+        }
+
+        // cancelada o con error; las fusiones publicadas siguen siendo validas
+        default void alFallar(FlujoFusiones flujo, Throwable causa) {
+        }
+    }
+
+    private enum Estado {
+        NUEVO,
+        EN_CURSO,
+        TERMINADO,
+        FALLIDO
+    }
+
+    private int tamanioLote = 4096;
+    private long intervaloMinimo = 100;
+    private Executor ejecutor = ForkJoinPool.commonPool();
+
+    private final CopyOnWriteArrayList<Suscripcion> suscripciones = new CopyOnWriteArrayList<>();
+
+    private String[] etiquetas;
+    private int numeroHojas;
+    // ids de nodo como en ArregloEnlace: hojas 0..n-1, la fusion m crea el nodo n+m
+    private int[] izquierdo;
+    private int[] derecho;
+    private double[] altura;
+    private int[] tamanio;
+    // una hoja de cada nodo interno, para cortar con union-busqueda
+    private int[] representante;
+
+    private volatile int publicadas;
+    private volatile Estado estado = Estado.NUEVO;
+    private volatile Throwable causa;
+    private long inicio;
+    private volatile long nanosTotales;
+
+    // cuando se aviso por ultima vez, para espaciar los lotes; solo los escribe y lee el hilo del motor
+    // (iniciar y publicar), terminar y fallar pueden llegar de otro hilo y despiertan sin tocarlos
+    private int ultimoAviso;
+    private long nanosUltimoAviso;
+
+    // antes de la primera fusion, desde el motor
+    synchronized void iniciar(String[] etiquetas) {
+        if (estado != Estado.NUEVO) {
+            throw new IllegalStateException("El flujo ya se usó en otra ejecución");
+        }
+        this.etiquetas = etiquetas.clone();
+        this.numeroHojas = etiquetas.length;
+        int total = Math.max(numeroHojas - 1, 0);
+        izquierdo = new int[total];
+        derecho = new int[total];
+        altura = new double[total];
+        tamanio = new int[total];
+        representante = new int[total];
+        inicio = System.nanoTime();
+        nanosUltimoAviso = inicio;
+        estado = Estado.EN_CURSO;
+    }
+
+    // en el hilo del motor despues de cada fusion: anota y, si toca, despierta a los oyentes
+    void publicar(int nodoIzquierdo, int nodoDerecho, double distancia, int hojas) {
+        int m = publicadas;
+        izquierdo[m] = nodoIzquierdo;
+        derecho[m] = nodoDerecho;
+        altura[m] = distancia;
+        tamanio[m] = hojas;
+        representante[m] = nodoIzquierdo < numeroHojas ? nodoIzquierdo : representante[nodoIzquierdo - numeroHojas];
+        publicadas = m + 1;
+
+        if (suscripciones.isEmpty()) return;
+        long ahora = System.nanoTime();
+        if (m + 1 - ultimoAviso >= tamanioLote || ahora - nanosUltimoAviso >= intervaloMinimo * 1_000_000L) {
+            ultimoAviso = m + 1;
+            nanosUltimoAviso = ahora;
+            despertar();
+        }
+    }
+
+    synchronized void terminar() {
+        if (estado != Estado.EN_CURSO) return;
+        nanosTotales = System.nanoTime() - inicio;
+        estado = Estado.TERMINADO;
+        despertar();
+    }
+
+    // el primer final es el que queda; puede llegar antes de iniciar (fallo al calcular la matriz)
+    synchronized void fallar(Throwable causa) {
+        if (estado == Estado.TERMINADO || estado == Estado.FALLIDO) return;
+        if (estado == Estado.EN_CURSO) {
+            nanosTotales = System.nanoTime() - inicio;
+        }
+        this.causa = causa;
+        estado = Estado.FALLIDO;
+        despertar();
+    }
+
+    private void despertar() {
+        for (Suscripcion s : suscripciones) {
+            s.programar();
+        }
+    }
+
+    // un oyente que se suscribe tarde recibe primero todo lo ya publicado
+    public void suscribir(OyenteFusiones oyente) {
+        if (oyente == null) {
+            throw new IllegalArgumentException("El oyente no puede ser nulo");
+        }
+        Suscripcion suscripcion = new Suscripcion(oyente);
+        suscripciones.add(suscripcion);
+        suscripcion.programar();
+    }
+
+    public void desuscribir(OyenteFusiones oyente) {
+        suscripciones.removeIf(s -> s.oyente == oyente);
+    }
+
+    // se completa cuando ya se puede cortar en k (ver cortar); falla si la ejecucion no llega
+    public CompletableFuture<int[]> corteCuandoEste(int k) {
+        CompletableFuture<int[]> futuro = new CompletableFuture<>();
+        suscribir(new OyenteFusiones() {
+            @Override
+            public void alPublicar(FlujoFusiones flujo, int desde, int hasta) {
+                if (!futuro.isDone() && puedeCortar(k)) {
+                    completar();
+                    desuscribir(this);
+                }
+            }
+
+            @Override
+            public void alTerminar(FlujoFusiones flujo) {
+                if (!futuro.isDone()) completar();
+            }
+
+            // con k fuera de rango se sabe recien al terminar
+            private void completar() {
+                try {
+                    futuro.complete(cortar(k));
+                } catch (RuntimeException e) {
+                    futuro.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void alFallar(FlujoFusiones flujo, Throwable causa) {
+                futuro.completeExceptionally(causa);
+            }
+        });
+        return futuro;
+    }
+
+    // el corte en k es el estado del motor tras n-k fusiones, que ya no cambia aunque falte la parte alta
+    // del arbol; coincide con CortadorDendrograma salvo inversiones del enlace por centroide
+    public boolean puedeCortar(int k) {
+        Estado actual = estado;
+        return actual != Estado.NUEVO && k >= 1 && k <= numeroHojas && publicadas >= numeroHojas - k;
+    }
+
+    // etiquetas 0..k-1 por hoja, numeradas en orden de primera aparicion
+    public int[] cortar(int k) {
+        if (estado == Estado.NUEVO) {
+            throw new IllegalStateException("La ejecución todavía no empezó");
+        }
+        if (k < 1 || k > numeroHojas) {
+            throw new IllegalArgumentException("k debe estar entre 1 y " + numeroHojas);
+        }
+        if (publicadas < numeroHojas - k) {
+            throw new IllegalStateException("Faltan " + (numeroHojas - k - publicadas) + " fusiones para cortar en " + k);
+        }
+
+        UnionBusqueda conjuntos = new UnionBusqueda(numeroHojas);
+        for (int m = 0; m < numeroHojas - k; m++) {
+            conjuntos.unir(hojaDe(izquierdo[m]), hojaDe(derecho[m]));
+        }
+
+        int[] etiquetasCorte = new int[numeroHojas];
+        int[] numeroDeRaiz = new int[numeroHojas];
+        Arrays.fill(numeroDeRaiz, -1);
+        int siguiente = 0;
+        for (int hoja = 0; hoja < numeroHojas; hoja++) {
+            int raiz = conjuntos.buscar(hoja);
+            if (numeroDeRaiz[raiz] < 0) numeroDeRaiz[raiz] = siguiente++;
+            etiquetasCorte[hoja] = numeroDeRaiz[raiz];
+        }
+        return etiquetasCorte;
+    }
+
+    private int hojaDe(int nodo) {
+        return nodo < numeroHojas ? nodo : representante[nodo - numeroHojas];
+    }
+
+    // solo fusiones m < getFusionesPublicadas()
+    public int getIzquierdo(int m) {
+        verificarPublicada(m);
+        return izquierdo[m];
+    }
+
+    public int getDerecho(int m) {
+        verificarPublicada(m);
+        return derecho[m];
+    }
+
+    public double getAltura(int m) {
+        verificarPublicada(m);
+        return altura[m];
+    }
+
+    public int getTamanio(int m) {
+        verificarPublicada(m);
+        return tamanio[m];
+    }
+
+    private void verificarPublicada(int m) {
+        if (m < 0 || m >= publicadas) {
+            throw new IndexOutOfBoundsException("Fusión no publicada: " + m);
+        }
+    }
+
+    public int getFusionesPublicadas() {
+        return publicadas;
+    }
+
+    public int getTotalFusiones() {
+        return Math.max(numeroHojas - 1, 0);
+    }
+
+    public int getNumeroHojas() {
+        return numeroHojas;
+    }
+
+    public String getEtiqueta(int hoja) {
+        return etiquetas[hoja];
+    }
+
+    public int getClustersRestantes() {
+        return numeroHojas - publicadas;
+    }
+
+    // fraccion de fusiones hechas
+    public double getProgreso() {
+        int total = getTotalFusiones();
+        return total == 0 ? (estado == Estado.NUEVO ? 0.0 : 1.0) : (double) publicadas / total;
+    }
+
+    // fraccion del trabajo del motor: cada busqueda recorre los pares vivos, asi que lo que falta
+    // crece como el cubo de los clusters restantes y las primeras fusiones son las caras
+    public double getFraccionTrabajo() {
+        if (numeroHojas == 0) return getProgreso();
+        double restante = (double) getClustersRestantes() / numeroHojas;
+        return 1.0 - restante * restante * restante;
+    }
+
+    // ultima altura publicada, NaN si todavia no hay fusiones
+    public double getAlturaActual() {
+        int m = publicadas;
+        return m == 0 ? Double.NaN : altura[m - 1];
+    }
+
+    public long getMilisegundosTranscurridos() {
+        if (estado == Estado.NUEVO) return 0;
+        long nanos = estado == Estado.EN_CURSO ? System.nanoTime() - inicio : nanosTotales;
+        return nanos / 1_000_000;
+    }
+
+    public boolean isTerminado() {
+        return estado == Estado.TERMINADO;
+    }
+
+    public boolean isFallido() {
+        return estado == Estado.FALLIDO;
+    }
+
+    public Throwable getCausa() {
+        return causa;
+    }
+
+    // fusiones por lote como maximo antes de avisar
+    public void setTamanioLote(int tamanioLote) {
+        if (tamanioLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo");
+        }
+        this.tamanioLote = tamanioLote;
+    }
+
+    // milisegundos minimos entre avisos si no se junto un lote completo
+    public void setIntervaloMinimo(long intervaloMinimo) {
+        if (intervaloMinimo < 0) {
+            throw new IllegalArgumentException("El intervalo no puede ser negativo");
+        }
+        this.intervaloMinimo = intervaloMinimo;
+    }
+
+    public void setEjecutor(Executor ejecutor) {
+        if (ejecutor == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser nulo");
+        }
+        this.ejecutor = ejecutor;
+    }
+
+    // entrega en orden para un oyente: como mucho una tarea suya en el ejecutor a la vez
+    private class Suscripcion {
+        private final OyenteFusiones oyente;
+        private final AtomicBoolean programada = new AtomicBoolean();
+        private int entregadas;
+        private boolean finAvisado;
+
+        Suscripcion(OyenteFusiones oyente) {
+            this.oyente = oyente;
+        }
+
+        void programar() {
+            if (programada.compareAndSet(false, true)) {
+                ejecutor.execute(this::entregar);
+            }
+        }
+
+        private void entregar() {
+            do {
+                try {
+                    entregarPendientes();
+                } catch (RuntimeException e) {
+                    System.err.println("Advertencia: un oyente de fusiones falló: " + e.getMessage());
+                    suscripciones.remove(this);
+                    finAvisado = true;
+                }
+                programada.set(false);
+                // lo publicado mientras se entregaba, sin esperar al siguiente aviso del motor
+            } while (hayPendiente() && programada.compareAndSet(false, true));
+        }
+
+        private void entregarPendientes() {
+            // el estado se lee antes que el contador: si ya termino, publicadas es el final
+            Estado actual = estado;
+            int hasta = publicadas;
+            if (hasta > entregadas) {
+                int desde = entregadas;
+                entregadas = hasta;
+                oyente.alPublicar(FlujoFusiones.this, desde, hasta);
+            }
+            if (!finAvisado && (actual == Estado.TERMINADO || actual == Estado.FALLIDO)) {
+                finAvisado = true;
+                if (actual == Estado.TERMINADO) {
+                    oyente.alTerminar(FlujoFusiones.this);
+                } else {
+                    oyente.alFallar(FlujoFusiones.this, causa);
+                }
+            }
+        }
+
+        private boolean hayPendiente() {
+            if (finAvisado) return false;
+            Estado actual = estado;
+            return publicadas > entregadas || actual == Estado.TERMINADO || actual == Estado.FALLIDO;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FlujoFusiones [publicadas=" + publicadas + "/" + getTotalFusiones() + ", estado=" + estado +
+                ", oyentes=" + suscripciones.size() + "]";
+    }
+}
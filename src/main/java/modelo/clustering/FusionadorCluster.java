@@ -1,36 +1,77 @@
 package modelo.clustering;
 
-import modelo.estructuras.ListaDoble;
+import modelo.estructuras.ArregloEnlace;
 import modelo.estructuras.Matriz;
-import modelo.estructuras.Nodo;
 
+// lleva los clusters vivos como posiciones (slots) de la matriz de distancias
+// al fusionar i y j el resultado ocupa el slot i y j se desactiva, asi la fila de la matriz
+// siempre corresponde al mismo cluster; las fusiones se anotan en arreglos primitivos
 public class FusionadorCluster {
 
-    private ListaDoble<Nodo> clusters;
+    private String[] etiquetas;
+
+    // slots activos en un arreglo compacto, posicionActivo[slot] = indice en activos o -1
+    private int[] activos;
+    private int[] posicionActivo;
+    private int numeroActivos;
+
+    private int[] idNodo;
+    // peso de cada slot para Lance-Williams y hojas que cubre; coinciden salvo con pesos iniciales
     private int[] tamanosClusters;
+    private int[] hojasClusters;
 
-    public FusionadorCluster() {
-        this.clusters = new ListaDoble<>();
-    }
+    private int[] izquierdo;
+    private int[] derecho;
+    private double[] altura;
+    private int[] tamanio;
+    private int fusiones;
 
     public void inicializar(String[] etiquetas) {
-        clusters.limpiar();
-        tamanosClusters = new int[etiquetas.length];
+        inicializar(etiquetas, null);
+    }
 
-        for (int i = 0; i < etiquetas.length; i++) {
-            clusters.agregar(new Nodo(etiquetas[i]));
-            tamanosClusters[i] = 1;
+    // pesos: cuantos puntos representa cada hoja (por ejemplo un micro-cluster), null = 1 cada una
+    public void inicializar(String[] etiquetas, int[] pesos) {
+        int n = etiquetas.length;
+        if (pesos != null && pesos.length != n) {
+            throw new IllegalArgumentException("Debe haber un peso por etiqueta");
         }
+        this.etiquetas = etiquetas.clone();
+
+        activos = new int[n];
+        posicionActivo = new int[n];
+        idNodo = new int[n];
+        tamanosClusters = new int[n];
+        hojasClusters = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (pesos != null && pesos[i] < 1) {
+                throw new IllegalArgumentException("Los pesos deben ser positivos");
+            }
+            activos[i] = i;
+            posicionActivo[i] = i;
+            idNodo[i] = i;
+            tamanosClusters[i] = pesos != null ? pesos[i] : 1;
+            hojasClusters[i] = 1;
+        }
+        numeroActivos = n;
+
+        int totalFusiones = Math.max(n - 1, 0);
+        izquierdo = new int[totalFusiones];
+        derecho = new int[totalFusiones];
+        altura = new double[totalFusiones];
+        tamanio = new int[totalFusiones];
+        fusiones = 0;
     }
 
-    // retorna Array [i, j] con los indices, o [-1, -1] si no hay par valido
+    // retorna Array [i, j] (slots, i < j) o [-1, -1] si no hay par valido
     public int[] encontrarParMasProximo(Matriz matrizDistancias) {
         double minimo = Double.MAX_VALUE;
         int[] resultado = new int[]{-1, -1};
-        int numClusters = clusters.tamanio();
 
-        for (int i = 0; i < numClusters; i++) {
-            for (int j = i + 1; j < numClusters; j++) {
+        for (int a = 0; a < numeroActivos; a++) {
+            for (int b = a + 1; b < numeroActivos; b++) {
+                int i = Math.min(activos[a], activos[b]);
+                int j = Math.max(activos[a], activos[b]);
                 double distancia = matrizDistancias.getPosicion(i, j);
 
                 if (esDistanciaInvalida(distancia)) {
@@ -38,7 +79,7 @@ public class FusionadorCluster {
                     continue;
                 }
 
-                if (distancia < minimo) {
+                if (distancia < minimo || (distancia == minimo && esParMenor(i, j, resultado))) {
                     minimo = distancia;
                     resultado[0] = i;
                     resultado[1] = j;
@@ -46,7 +87,7 @@ public class FusionadorCluster {
             }
         }
 
-        if (resultado[0] == -1 && numClusters > 1) {
+        if (resultado[0] == -1 && numeroActivos > 1) {
             System.err.println("No se encontró ningún par válido!");
             System.err.println("Mínima distancia encontrada: " + minimo);
         }
@@ -54,53 +95,79 @@ public class FusionadorCluster {
         return resultado;
     }
 
-    public Nodo fusionar(int i, int j, double distanciaFusion) {
-        Nodo clusterI = clusters.obtener(i);
-        Nodo clusterJ = clusters.obtener(j);
-        Nodo nuevoCluster = new Nodo(clusterI, clusterJ, distanciaFusion);
-
-        int nuevoTamano = tamanosClusters[i] + tamanosClusters[j];
-
-        // se elimina primero el mayor para no cambiar indices
-        if (i > j) {
-            clusters.eliminarElemento(clusterI);
-            tamanosClusters = removerIndice(tamanosClusters, i);
-            clusters.eliminarElemento(clusterJ);
-            tamanosClusters = removerIndice(tamanosClusters, j);
-        } else {
-            clusters.eliminarElemento(clusterJ);
-            tamanosClusters = removerIndice(tamanosClusters, j);
-            clusters.eliminarElemento(clusterI);
-            tamanosClusters = removerIndice(tamanosClusters, i);
+    // retorna el id del nodo creado (n + numero de fusion)
+    public int fusionar(int i, int j, double distanciaFusion) {
+        if (posicionActivo[i] < 0 || posicionActivo[j] < 0 || i == j) {
+            throw new IllegalArgumentException("Slots no activos: " + i + ", " + j);
         }
 
-        clusters.agregar(nuevoCluster);
-        tamanosClusters = agregarElemento(tamanosClusters, nuevoTamano);
+        int m = fusiones++;
+        izquierdo[m] = idNodo[i];
+        derecho[m] = idNodo[j];
+        altura[m] = distanciaFusion;
+        tamanio[m] = hojasClusters[i] + hojasClusters[j];
+
+        idNodo[i] = etiquetas.length + m;
+        tamanosClusters[i] += tamanosClusters[j];
+        hojasClusters[i] = tamanio[m];
+        desactivar(j);
 
-        return nuevoCluster;
+        return idNodo[i];
     }
 
+    private void desactivar(int slot) {
+        int pos = posicionActivo[slot];
+        int ultimo = activos[numeroActivos - 1];
+        activos[pos] = ultimo;
+        posicionActivo[ultimo] = pos;
+        posicionActivo[slot] = -1;
+        numeroActivos--;
+    }
+
+    // pesos indexados por slot (puntos representados, no hojas)
     public int[] getTamanosClusters() {
         return tamanosClusters.clone();
     }
 
+    // slots activos, solo las primeras getNumeroClusters() posiciones son validas
+    public int[] getActivos() {
+        return activos;
+    }
+
     public int getNumeroClusters() {
-        return clusters.tamanio();
+        return numeroActivos;
     }
 
-    public ListaDoble<Nodo> getClusters() {
-        return clusters;
+    public int getNumeroFusiones() {
+        return fusiones;
     }
 
-    public Nodo getClusterRaiz() {
-        if (clusters.tamanio() == 1) {
-            return clusters.obtener(0);
-        }
-        return null;
+    // fusion m en ids de nodo, para publicarla mientras corre el motor
+    int getIzquierdo(int m) {
+        return izquierdo[m];
+    }
+
+    int getDerecho(int m) {
+        return derecho[m];
+    }
+
+    double getAltura(int m) {
+        return altura[m];
+    }
+
+    int getTamanio(int m) {
+        return tamanio[m];
     }
 
     public boolean tieneMasDeUnCluster() {
-        return clusters.tamanio() > 1;
+        return numeroActivos > 1;
+    }
+
+    public ArregloEnlace getEnlace() {
+        if (fusiones != izquierdo.length) {
+            throw new IllegalStateException("Quedan " + numeroActivos + " clusters sin fusionar");
+        }
+        return new ArregloEnlace(etiquetas, izquierdo, derecho, altura, tamanio);
     }
 
     // HELPERS
@@ -109,26 +176,13 @@ public class FusionadorCluster {
         return Double.isNaN(distancia) || Double.isInfinite(distancia);
     }
 
-    private int[] removerIndice(int[] array, int indice) {
-        int[] resultado = new int[array.length - 1];
-        int pos = 0;
-        for (int i = 0; i < array.length; i++) {
-            if (i != indice) {
-                resultado[pos++] = array[i];
-            }
-        }
-        return resultado;
-    }
-
-    private int[] agregarElemento(int[] array, int elemento) {
-        int[] resultado = new int[array.length + 1];
-        System.arraycopy(array, 0, resultado, 0, array.length);
-        resultado[array.length] = elemento;
-        return resultado;
+    // en empate gana el par de slots menor, igual que un recorrido en orden de la matriz
+    private boolean esParMenor(int i, int j, int[] actual) {
+        return actual[0] == -1 || i < actual[0] || (i == actual[0] && j < actual[1]);
     }
 
     @Override
     public String toString() {
-        return "FusionadorClusters [clusters=" + clusters.tamanio() + "]";
+        return "FusionadorClusters [clusters=" + numeroActivos + "]";
     }
 }
@@ -0,0 +1,406 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.distancias.ICalculadorDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.OrdenamientoIndices;
+import modelo.estructuras.Vector;
+
+import java.util.Arrays;
+
+// agrega vectores nuevos a un dendrograma ya construido sin recalcular la matriz: por cada nuevo solo
+// se calcula su fila de distancias contra las hojas existentes, O(m * n) en total para m nuevos
+//
+// enlace MINIMO: exacto. El arbol previo se lee como un arbol de expansion minima "virtual" (la fusion a
+// altura h une un representante de cada lado con peso h, que conserva las distancias minimax) y cada
+// punto nuevo se inserta en el arbol en O(n) (Chin y Houck); el dendrograma sale del arbol final
+//
+// otros enlaces: con Lance-Williams se calcula la distancia del nuevo a cada nodo del arbol, se lo cuelga
+// del nodo con el que se fusionaria primero y se recalculan las alturas de sus ancestros. La estructura del
+// resto no cambia, asi que puede diferir del arbol recalculado; getDerivaMaxima() informa cuanto se movieron
+// las alturas y si los nuevos superan fraccionReconstruccion * n se reconstruye entero
+// no es seguro entre hilos: las estadisticas son de la ultima llamada
+public class InsercionIncremental {
+
+    private static final double FRACCION_DEFECTO = 0.1;
+
+    private final MotorCluster.TipoEnlace tipoEnlace;
+    private final FactoryDistancia.TipoDistancia tipoDistancia;
+    private final ActualizadorMatrizDistancias actualizador;
+    private double fraccionReconstruccion = FRACCION_DEFECTO;
+
+    private boolean reconstruido;
+    private int fusionesReparadas;
+    private double derivaMaxima;
+
+    public InsercionIncremental(MotorCluster.TipoEnlace tipoEnlace, FactoryDistancia.TipoDistancia tipoDistancia) {
+        if (tipoEnlace == null || tipoDistancia == null) {
+            throw new IllegalArgumentException("Debe indicar el tipo de enlace y de distancia");
+        }
+        this.tipoEnlace = tipoEnlace;
+        this.tipoDistancia = tipoDistancia;
+        this.actualizador = new ActualizadorMatrizDistancias(
+                ActualizadorMatrizDistancias.TipoEnlace.valueOf(tipoEnlace.name()));
+    }
+
+    // las hojas del resultado son los existentes (en el mismo orden que en previo) y despues los nuevos
+    public ArregloEnlace insertar(ArregloEnlace previo, Vector[] existentes, Vector[] nuevos) {
+        if (previo == null || existentes == null || previo.getNumeroHojas() != existentes.length) {
+            throw new IllegalArgumentException("El dendrograma previo debe tener una hoja por vector existente");
+        }
+        if (nuevos == null) {
+            throw new IllegalArgumentException("Array de vectores nuevos no puede ser nulo");
+        }
+
+        reconstruido = false;
+        fusionesReparadas = 0;
+        derivaMaxima = 0.0;
+        if (nuevos.length == 0) {
+            return previo;
+        }
+
+        int n = existentes.length;
+        int total = n + nuevos.length;
+        Vector[] todos = new Vector[total];
+        System.arraycopy(existentes, 0, todos, 0, n);
+        System.arraycopy(nuevos, 0, todos, n, nuevos.length);
+        String[] etiquetas = new String[total];
+        for (int i = 0; i < total; i++) etiquetas[i] = todos[i].getEtiqueta();
+
+        if (tipoEnlace != MotorCluster.TipoEnlace.MINIMO && nuevos.length > fraccionReconstruccion * n) {
+            reconstruido = true;
+            return new MotorCluster(tipoEnlace).construirEnlace(todos, tipoDistancia);
+        }
+
+        ICalculadorDistancia calculador = FactoryDistancia.crear(tipoDistancia);
+        if (tipoEnlace == MotorCluster.TipoEnlace.MINIMO) {
+            return insertarMinimo(previo, todos, etiquetas, calculador);
+        }
+        return insertarLanceWilliams(previo, todos, etiquetas, calculador);
+    }
+
+    // ENLACE MINIMO
+
+    private ArregloEnlace insertarMinimo(ArregloEnlace previo, Vector[] todos, String[] etiquetas,
+                                         ICalculadorDistancia calculador) {
+        int n = previo.getNumeroHojas();
+        int total = todos.length;
+        int[] origen = new int[total - 1];
+        int[] destino = new int[total - 1];
+        double[] peso = new double[total - 1];
+
+        // representante de cada nodo: su primera hoja
+        int[] representante = new int[2 * n - 1];
+        for (int i = 0; i < n; i++) representante[i] = i;
+        for (int f = 0; f < n - 1; f++) {
+            representante[n + f] = representante[previo.getIzquierdo(f)];
+            origen[f] = representante[previo.getIzquierdo(f)];
+            destino[f] = representante[previo.getDerecho(f)];
+            peso[f] = previo.getAltura(f);
+        }
+
+        double[] distancias = new double[total];
+        for (int p = n; p < total; p++) {
+            for (int i = 0; i < p; i++) distancias[i] = calculador.calcular(todos[p], todos[i]);
+            agregarVertice(p, distancias, origen, destino, peso);
+        }
+        return MotorBoruvka.enlaceDesdeArbol(etiquetas, origen, destino, peso);
+    }
+
+    // inserta el vertice p (con aristas a los vertices 0..p-1) en el arbol de expansion minima de esos
+    // vertices, que ocupa las primeras p - 1 aristas; deja el nuevo arbol en las primeras p aristas
+    // en post-orden cada subarbol devuelve su arista mas liviana hacia afuera: de cada ciclo que cierra
+    // una arista nueva se descarta la mas pesada
+    static void agregarVertice(int p, double[] distancias, int[] origen, int[] destino, double[] peso) {
+        int aristas = p - 1;
+
+        // adyacencia del arbol actual
+        int[] inicio = new int[p + 1];
+        for (int e = 0; e < aristas; e++) {
+            inicio[origen[e] + 1]++;
+            inicio[destino[e] + 1]++;
+        }
+        for (int i = 0; i < p; i++) inicio[i + 1] += inicio[i];
+        int[] incidentes = new int[2 * aristas];
+        int[] lleno = new int[p];
+        for (int e = 0; e < aristas; e++) {
+            incidentes[inicio[origen[e]] + lleno[origen[e]]++] = e;
+            incidentes[inicio[destino[e]] + lleno[destino[e]]++] = e;
+        }
+
+        // preorden desde el vertice 0 con la arista hacia el padre
+        int[] preorden = new int[p];
+        int[] aristaPadre = new int[p];
+        boolean[] visitado = new boolean[p];
+        int[] pila = new int[p];
+        int tope = 0;
+        int cuenta = 0;
+        pila[tope++] = 0;
+        aristaPadre[0] = -1;
+        visitado[0] = true;
+        while (tope > 0) {
+            int v = pila[--tope];
+            preorden[cuenta++] = v;
+            for (int s = inicio[v]; s < inicio[v + 1]; s++) {
+                int e = incidentes[s];
+                int w = origen[e] == v ? destino[e] : origen[e];
+                if (visitado[w]) continue;
+                visitado[w] = true;
+                aristaPadre[w] = e;
+                pila[tope++] = w;
+            }
+        }
+
+        // aristas candidatas: las del arbol (0..aristas-1) y la nueva p-v (aristas + v)
+        int[] mejor = new int[p];
+        for (int v = 0; v < p; v++) mejor[v] = aristas + v;
+        int[] nuevoOrigen = new int[p];
+        int[] nuevoDestino = new int[p];
+        double[] nuevoPeso = new double[p];
+        int escritas = 0;
+        for (int k = p - 1; k > 0; k--) {
+            int w = preorden[k];
+            int e = aristaPadre[w];
+            int padre = origen[e] == w ? destino[e] : origen[e];
+            int t = mejor[w];
+            boolean tMasPesada = pesoCandidata(t, aristas, distancias, peso) >
+                    pesoCandidata(e, aristas, distancias, peso);
+            int pesada = tMasPesada ? t : e;
+            int liviana = tMasPesada ? e : t;
+            escritas = anotar(liviana, aristas, p, distancias, origen, destino, peso,
+                    nuevoOrigen, nuevoDestino, nuevoPeso, escritas);
+            if (pesoCandidata(pesada, aristas, distancias, peso) < pesoCandidata(mejor[padre], aristas, distancias, peso)) {
+                mejor[padre] = pesada;
+            }
+        }
+        escritas = anotar(mejor[preorden[0]], aristas, p, distancias, origen, destino, peso,
+                nuevoOrigen, nuevoDestino, nuevoPeso, escritas);
+
+        System.arraycopy(nuevoOrigen, 0, origen, 0, escritas);
+        System.arraycopy(nuevoDestino, 0, destino, 0, escritas);
+        System.arraycopy(nuevoPeso, 0, peso, 0, escritas);
+    }
+
+    private static double pesoCandidata(int candidata, int aristas, double[] distancias, double[] peso) {
+        return candidata < aristas ? peso[candidata] : distancias[candidata - aristas];
+    }
+
+    private static int anotar(int candidata, int aristas, int p, double[] distancias,
+                              int[] origen, int[] destino, double[] peso,
+                              int[] nuevoOrigen, int[] nuevoDestino, double[] nuevoPeso, int escritas) {
+        if (candidata < aristas) {
+            nuevoOrigen[escritas] = origen[candidata];
+            nuevoDestino[escritas] = destino[candidata];
+            nuevoPeso[escritas] = peso[candidata];
+        } else {
+            nuevoOrigen[escritas] = p;
+            nuevoDestino[escritas] = candidata - aristas;
+            nuevoPeso[escritas] = distancias[candidata - aristas];
+        }
+        return escritas + 1;
+    }
+
+    // OTROS ENLACES
+
+    private ArregloEnlace insertarLanceWilliams(ArregloEnlace previo, Vector[] todos, String[] etiquetas,
+                                                ICalculadorDistancia calculador) {
+        int n = previo.getNumeroHojas();
+        Arbol arbol = new Arbol(previo, todos.length);
+        for (int p = n; p < todos.length; p++) {
+            insertarHoja(arbol, todos, p, calculador);
+        }
+        return arbol.aEnlace(etiquetas);
+    }
+
+    private void insertarHoja(Arbol arbol, Vector[] todos, int p, ICalculadorDistancia calculador) {
+        int hojas = arbol.capacidadHojas;
+        double[] distancia = arbol.distanciaNuevo;
+
+        // distancia del nuevo a cada hoja y, de abajo hacia arriba, a cada fusion del arbol actual
+        for (int i = 0; i < p; i++) distancia[i] = calculador.calcular(todos[p], todos[i]);
+        for (int k = 0; k < arbol.numeroFusiones; k++) {
+            int f = arbol.orden[k];
+            int a = arbol.izquierdo[f];
+            int b = arbol.derecho[f];
+            distancia[hojas + f] = actualizador.combinar(distancia[a], distancia[b], arbol.altura[f],
+                    arbol.tamanio(a), arbol.tamanio(b));
+        }
+
+        // se fusiona con el nodo mas cercano que siga vivo a esa distancia (antes de que lo absorba su padre)
+        int elegido = -1;
+        for (int nodo = 0; nodo < hojas + arbol.numeroFusiones; nodo++) {
+            if (nodo >= p && nodo < hojas) continue;
+            int padre = arbol.padre[nodo];
+            double limite = padre < 0 ? Double.POSITIVE_INFINITY : arbol.altura[padre];
+            if (distancia[nodo] < limite && (elegido < 0 || distancia[nodo] < distancia[elegido])) {
+                elegido = nodo;
+            }
+        }
+
+        int padreAnterior = arbol.padre[elegido];
+        double alturaNueva = Math.max(distancia[elegido], arbol.alturaDe(elegido));
+        int g = arbol.agregarFusion(elegido, p, alturaNueva);
+
+        // ancestros: el hijo del camino Z ahora incluye al nuevo, d(Z + p, Y) sale de Lance-Williams
+        int hijo = hojas + g;
+        int viejo = elegido;
+        int tamanioViejo = arbol.tamanio(elegido);
+        int ancestro = padreAnterior;
+        while (ancestro >= 0) {
+            int hermano = arbol.izquierdo[ancestro] == viejo ? arbol.derecho[ancestro] : arbol.izquierdo[ancestro];
+            if (arbol.izquierdo[ancestro] == viejo) arbol.izquierdo[ancestro] = hijo;
+            else arbol.derecho[ancestro] = hijo;
+
+            double antes = arbol.altura[ancestro];
+            double despues = actualizador.combinar(antes, distancia[hermano], distancia[viejo], tamanioViejo, 1);
+            despues = Math.max(despues, Math.max(arbol.alturaDe(hijo), arbol.alturaDe(hermano)));
+            arbol.altura[ancestro] = despues;
+            tamanioViejo = arbol.hojas[ancestro];
+            arbol.hojas[ancestro]++;
+            if (despues != antes) {
+                fusionesReparadas++;
+                derivaMaxima = Math.max(derivaMaxima, Math.abs(despues - antes));
+            }
+
+            viejo = hojas + ancestro;
+            hijo = viejo;
+            ancestro = arbol.padre[viejo];
+        }
+    }
+
+    // arbol editable: hoja i = nodo i, fusion f = nodo capacidadHojas + f; orden guarda las fusiones
+    // de hijos a padres (no necesariamente por altura)
+    private static final class Arbol {
+        final int capacidadHojas;
+        final int[] izquierdo;
+        final int[] derecho;
+        final double[] altura;
+        final int[] hojas;
+        final int[] padre;
+        final int[] orden;
+        final double[] distanciaNuevo;
+        int numeroFusiones;
+
+        Arbol(ArregloEnlace previo, int capacidadHojas) {
+            this.capacidadHojas = capacidadHojas;
+            int capacidadFusiones = capacidadHojas - 1;
+            izquierdo = new int[capacidadFusiones];
+            derecho = new int[capacidadFusiones];
+            altura = new double[capacidadFusiones];
+            hojas = new int[capacidadFusiones];
+            padre = new int[capacidadHojas + capacidadFusiones];
+            orden = new int[capacidadFusiones];
+            distanciaNuevo = new double[capacidadHojas + capacidadFusiones];
+            Arrays.fill(padre, -1);
+
+            int n = previo.getNumeroHojas();
+            for (int f = 0; f < previo.getNumeroFusiones(); f++) {
+                izquierdo[f] = convertir(previo.getIzquierdo(f), n);
+                derecho[f] = convertir(previo.getDerecho(f), n);
+                altura[f] = previo.getAltura(f);
+                hojas[f] = previo.getTamanio(f);
+                padre[izquierdo[f]] = f;
+                padre[derecho[f]] = f;
+                orden[f] = f;
+            }
+            numeroFusiones = previo.getNumeroFusiones();
+        }
+
+        private int convertir(int id, int n) {
+            return id < n ? id : capacidadHojas + (id - n);
+        }
+
+        int tamanio(int nodo) {
+            return nodo < capacidadHojas ? 1 : hojas[nodo - capacidadHojas];
+        }
+
+        double alturaDe(int nodo) {
+            return nodo < capacidadHojas ? 0.0 : altura[nodo - capacidadHojas];
+        }
+
+        // nueva fusion (nodo, hoja) en el lugar de nodo; en el orden va justo despues de nodo
+        int agregarFusion(int nodo, int hoja, double alturaFusion) {
+            int g = numeroFusiones;
+            izquierdo[g] = nodo;
+            derecho[g] = hoja;
+            altura[g] = alturaFusion;
+            hojas[g] = tamanio(nodo) + 1;
+            padre[capacidadHojas + g] = padre[nodo];
+            padre[nodo] = g;
+            padre[hoja] = g;
+
+            int posicion = 0;
+            if (nodo >= capacidadHojas) {
+                int f = nodo - capacidadHojas;
+                while (orden[posicion] != f) posicion++;
+                posicion++;
+            }
+            System.arraycopy(orden, posicion, orden, posicion + 1, numeroFusiones - posicion);
+            orden[posicion] = g;
+            numeroFusiones++;
+            return g;
+        }
+
+        // numeracion final: orden estable por altura monotona (cada fusion al menos tan alta como sus
+        // hijos), que respeta hijos antes que padres aunque haya inversiones
+        ArregloEnlace aEnlace(String[] etiquetas) {
+            int total = numeroFusiones;
+            double[] monotona = new double[total];
+            double[] alturaPorFusion = new double[total];
+            for (int k = 0; k < total; k++) {
+                int f = orden[k];
+                double h = altura[f];
+                if (izquierdo[f] >= capacidadHojas) h = Math.max(h, alturaPorFusion[izquierdo[f] - capacidadHojas]);
+                if (derecho[f] >= capacidadHojas) h = Math.max(h, alturaPorFusion[derecho[f] - capacidadHojas]);
+                alturaPorFusion[f] = h;
+                monotona[k] = h;
+            }
+            int[] ordenFinal = OrdenamientoIndices.ordenarPorClave(monotona);
+
+            int[] idFinal = new int[total];
+            for (int m = 0; m < total; m++) idFinal[orden[ordenFinal[m]]] = capacidadHojas + m;
+
+            int[] izq = new int[total];
+            int[] der = new int[total];
+            double[] alt = new double[total];
+            int[] tam = new int[total];
+            for (int m = 0; m < total; m++) {
+                int f = orden[ordenFinal[m]];
+                izq[m] = izquierdo[f] >= capacidadHojas ? idFinal[izquierdo[f] - capacidadHojas] : izquierdo[f];
+                der[m] = derecho[f] >= capacidadHojas ? idFinal[derecho[f] - capacidadHojas] : derecho[f];
+                alt[m] = altura[f];
+                tam[m] = hojas[f];
+            }
+            return new ArregloEnlace(etiquetas, izq, der, alt, tam);
+        }
+    }
+
+    // si los nuevos superan esta fraccion de los existentes se reconstruye todo (no aplica a MINIMO)
+    public void setFraccionReconstruccion(double fraccionReconstruccion) {
+        if (fraccionReconstruccion < 0.0) {
+            throw new IllegalArgumentException("La fracción no puede ser negativa");
+        }
+        this.fraccionReconstruccion = fraccionReconstruccion;
+    }
+
+    public double getFraccionReconstruccion() {
+        return fraccionReconstruccion;
+    }
+
+    public boolean isReconstruido() {
+        return reconstruido;
+    }
+
+    public int getFusionesReparadas() {
+        return fusionesReparadas;
+    }
+
+    public double getDerivaMaxima() {
+        return derivaMaxima;
+    }
+
+    @Override
+    public String toString() {
+        return "InsercionIncremental [" + tipoEnlace + ", " + tipoDistancia + "]";
+    }
+}
@@ -0,0 +1,361 @@
+package modelo.clustering;
+
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.ListaDoble;
+import modelo.estructuras.Nodo;
+import modelo.estructuras.OrdenamientoIndices;
+import modelo.estructuras.Vector;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// motor divisivo: parte cada cluster en dos con 2-means (mini-batch si es grande) hasta llegar a hojas
+// O(n * d * profundidad) en vez del O(n^2) de memoria del aglomerativo; la distancia es euclidiana
+// la altura de cada division es el SSE del cluster que se parte, que nunca es menor que el de sus partes,
+// asi el resultado es un arreglo de enlace valido igual al de MotorCluster
+public class MotorBiseccion {
+
+    private static final int ITERACIONES_DEFECTO = 10;
+    private static final int LOTE_DEFECTO = 4096;
+
+    private final int iteraciones;
+    private final int tamanioLote;
+    private final long semilla;
+
+    public MotorBiseccion() {
+        this(ITERACIONES_DEFECTO, LOTE_DEFECTO, 42L);
+    }
+
+    // clusters de mas de tamanioLote puntos aprenden los centros con mini-batches de ese tamaño
+    public MotorBiseccion(int iteraciones, int tamanioLote, long semilla) {
+        if (iteraciones < 1 || tamanioLote < 2) {
+            throw new IllegalArgumentException("Iteraciones y tamaño de lote deben ser positivos");
+        }
+        this.iteraciones = iteraciones;
+        this.tamanioLote = tamanioLote;
+        this.semilla = semilla;
+    }
+
+    public ArregloEnlace construirEnlace(Vector[] vectores) {
+        return construirEnlace(vectores, ForkJoinPool.commonPool());
+    }
+
+    public ArregloEnlace construirEnlace(Vector[] vectores, ForkJoinPool pool) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+
+        int n = vectores.length;
+        int dimension = vectores[0].dimension();
+        double[][] datos = new double[n][];
+        String[] etiquetas = new String[n];
+        for (int i = 0; i < n; i++) {
+            if (vectores[i].dimension() != dimension) {
+                throw new IllegalArgumentException("Todos los vectores deben tener la misma dimensión");
+            }
+            datos[i] = vectores[i].getDatos();
+            etiquetas[i] = vectores[i].getEtiqueta();
+        }
+
+        if (n == 1) {
+            return new ArregloEnlace(etiquetas, new int[0], new int[0], new double[0], new int[0]);
+        }
+
+        Divisiones divisiones = new Divisiones(n);
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) indices[i] = i;
+
+        int[] raiz = new int[1];
+        pool.invoke(new TareaDivision(datos, indices, 0, n, divisiones, raiz, 0));
+        return divisiones.aEnlace(etiquetas, raiz[0]);
+    }
+
+    public Nodo construirDendrograma(Vector[] vectores) {
+        return construirEnlace(vectores).getRaiz();
+    }
+
+    // divisiones registradas en cualquier orden; los hijos se referencian como hoja (0..n-1) o n + division
+    private static final class Divisiones {
+        final int n;
+        final int[] izquierdo;
+        final int[] derecho;
+        final double[] sse;
+        final AtomicInteger siguiente = new AtomicInteger();
+
+        Divisiones(int n) {
+            this.n = n;
+            izquierdo = new int[n - 1];
+            derecho = new int[n - 1];
+            sse = new double[n - 1];
+        }
+
+        int nueva(double sseCluster) {
+            int d = siguiente.getAndIncrement();
+            sse[d] = sseCluster;
+            return d;
+        }
+
+        // pasa a fusiones de abajo hacia arriba: recorrido en post-orden y orden estable por altura
+        ArregloEnlace aEnlace(String[] etiquetas, int raiz) {
+            int total = n - 1;
+            int[] postOrden = new int[total];
+            double[] altura = new double[total];
+            int[] hojas = new int[total];
+            int cuenta = 0;
+
+            int[] pila = new int[total];
+            boolean[] expandido = new boolean[total];
+            int tope = 0;
+            pila[tope++] = raiz - n;
+            while (tope > 0) {
+                int d = pila[tope - 1];
+                if (!expandido[d]) {
+                    expandido[d] = true;
+                    if (derecho[d] >= n) pila[tope++] = derecho[d] - n;
+                    if (izquierdo[d] >= n) pila[tope++] = izquierdo[d] - n;
+                    continue;
+                }
+                tope--;
+                // el redondeo podria dejar a un hijo apenas por encima del padre
+                double h = sse[d];
+                int hojasD = 0;
+                for (int hijo : new int[]{izquierdo[d], derecho[d]}) {
+                    if (hijo >= n) {
+                        h = Math.max(h, altura[hijo - n]);
+                        hojasD += hojas[hijo - n];
+                    } else {
+                        hojasD++;
+                    }
+                }
+                altura[d] = h;
+                hojas[d] = hojasD;
+                postOrden[cuenta++] = d;
+            }
+
+            double[] clave = new double[total];
+            for (int k = 0; k < total; k++) clave[k] = altura[postOrden[k]];
+            int[] orden = OrdenamientoIndices.ordenarPorClave(clave);
+
+            int[] idFinal = new int[total];
+            for (int m = 0; m < total; m++) idFinal[postOrden[orden[m]]] = n + m;
+
+            int[] izq = new int[total];
+            int[] der = new int[total];
+            double[] alt = new double[total];
+            int[] tam = new int[total];
+            for (int m = 0; m < total; m++) {
+                int d = postOrden[orden[m]];
+                izq[m] = izquierdo[d] >= n ? idFinal[izquierdo[d] - n] : izquierdo[d];
+                der[m] = derecho[d] >= n ? idFinal[derecho[d] - n] : derecho[d];
+                alt[m] = altura[d];
+                tam[m] = hojas[d];
+            }
+            return new ArregloEnlace(etiquetas, izq, der, alt, tam);
+        }
+    }
+
+    // parte el rango [desde, hasta) de indices; la mitad menor se delega y con la mayor sigue el bucle,
+    // asi la pila del hilo crece como mucho log n aunque las divisiones salgan desbalanceadas
+    private final class TareaDivision extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[][] datos;
+        private final int[] indices;
+        private final int desde;
+        private final int hasta;
+        private final Divisiones divisiones;
+        // donde anotar la referencia a este subarbol
+        private final int[] destino;
+        private final int posicion;
+
+        TareaDivision(double[][] datos, int[] indices, int desde, int hasta, Divisiones divisiones,
+                      int[] destino, int posicion) {
+            this.datos = datos;
+            this.indices = indices;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.divisiones = divisiones;
+            this.destino = destino;
+            this.posicion = posicion;
+        }
+
+        @Override
+        protected void compute() {
+            ListaDoble<TareaDivision> delegadas = new ListaDoble<>();
+            int a = desde;
+            int b = hasta;
+            int[] salida = destino;
+            int lugar = posicion;
+
+            while (true) {
+                if (b - a == 1) {
+                    salida[lugar] = indices[a];
+                    break;
+                }
+
+                int d = divisiones.nueva(sse(a, b));
+                salida[lugar] = divisiones.n + d;
+                int corte = bisecar(a, b);
+
+                boolean izquierdaMenor = corte - a <= b - corte;
+                TareaDivision menor = izquierdaMenor
+                        ? new TareaDivision(datos, indices, a, corte, divisiones, divisiones.izquierdo, d)
+                        : new TareaDivision(datos, indices, corte, b, divisiones, divisiones.derecho, d);
+                menor.fork();
+                delegadas.agregar(menor);
+
+                if (izquierdaMenor) {
+                    a = corte;
+                    salida = divisiones.derecho;
+                } else {
+                    b = corte;
+                    salida = divisiones.izquierdo;
+                }
+                lugar = d;
+            }
+
+            ListaDoble.IteradorLista<TareaDivision> it = delegadas.iterador();
+            while (it.tieneSiguiente()) {
+                it.siguiente().join();
+            }
+        }
+
+        private double sse(int a, int b) {
+            int dimension = datos[indices[a]].length;
+            double[] media = new double[dimension];
+            double total = 0.0;
+            // Welford por dimension, estable aunque los valores sean grandes
+            for (int k = a; k < b; k++) {
+                double[] x = datos[indices[k]];
+                int cuenta = k - a + 1;
+                for (int j = 0; j < dimension; j++) {
+                    double delta = x[j] - media[j];
+                    media[j] += delta / cuenta;
+                    total += delta * (x[j] - media[j]);
+                }
+            }
+            return total;
+        }
+
+        // reordena [a, b) para que el primer grupo quede en [a, corte) y retorna el corte
+        private int bisecar(int a, int b) {
+            double[][] centros = centrosIniciales(a, b);
+            int tamanio = b - a;
+
+            if (tamanio > tamanioLote) {
+                miniLotes(a, b, centros);
+            } else {
+                for (int it = 0; it < iteraciones; it++) {
+                    if (!lloyd(a, b, centros)) break;
+                }
+            }
+
+            int i = a;
+            int j = b - 1;
+            while (i <= j) {
+                if (masCercano(datos[indices[i]], centros) == 0) {
+                    i++;
+                } else {
+                    int t = indices[i];
+                    indices[i] = indices[j];
+                    indices[j--] = t;
+                }
+            }
+
+            // todos iguales o un centro vacio: se parte a la mitad
+            if (i == a || i == b) {
+                return a + tamanio / 2;
+            }
+            return i;
+        }
+
+        // el punto mas lejano a la media y el mas lejano a ese
+        private double[][] centrosIniciales(int a, int b) {
+            int dimension = datos[indices[a]].length;
+            double[] media = new double[dimension];
+            for (int k = a; k < b; k++) {
+                double[] x = datos[indices[k]];
+                for (int j = 0; j < dimension; j++) media[j] += x[j];
+            }
+            for (int j = 0; j < dimension; j++) media[j] /= (b - a);
+
+            double[] primero = masLejano(a, b, media);
+            double[] segundo = masLejano(a, b, primero);
+            return new double[][]{primero.clone(), segundo.clone()};
+        }
+
+        private double[] masLejano(int a, int b, double[] referencia) {
+            double mayor = -1.0;
+            double[] resultado = datos[indices[a]];
+            for (int k = a; k < b; k++) {
+                double d = distanciaCuadrada(datos[indices[k]], referencia);
+                if (d > mayor) {
+                    mayor = d;
+                    resultado = datos[indices[k]];
+                }
+            }
+            return resultado;
+        }
+
+        // una pasada completa; retorna false si los centros no se movieron
+        private boolean lloyd(int a, int b, double[][] centros) {
+            int dimension = centros[0].length;
+            double[][] sumas = new double[2][dimension];
+            int[] cuentas = new int[2];
+            for (int k = a; k < b; k++) {
+                double[] x = datos[indices[k]];
+                int c = masCercano(x, centros);
+                cuentas[c]++;
+                for (int j = 0; j < dimension; j++) sumas[c][j] += x[j];
+            }
+
+            boolean cambio = false;
+            for (int c = 0; c < 2; c++) {
+                if (cuentas[c] == 0) continue;
+                for (int j = 0; j < dimension; j++) {
+                    double nuevo = sumas[c][j] / cuentas[c];
+                    if (nuevo != centros[c][j]) cambio = true;
+                    centros[c][j] = nuevo;
+                }
+            }
+            return cambio;
+        }
+
+        // k-means por mini-batches: cada centro se mueve hacia sus puntos con tasa 1 / visitas
+        private void miniLotes(int a, int b, double[][] centros) {
+            Random aleatorio = new Random(semilla ^ ((long) a << 32) ^ b);
+            int dimension = centros[0].length;
+            long[] visitas = new long[2];
+            for (int it = 0; it < iteraciones; it++) {
+                for (int s = 0; s < tamanioLote; s++) {
+                    double[] x = datos[indices[a + aleatorio.nextInt(b - a)]];
+                    int c = masCercano(x, centros);
+                    double tasa = 1.0 / ++visitas[c];
+                    for (int j = 0; j < dimension; j++) {
+                        centros[c][j] += tasa * (x[j] - centros[c][j]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int masCercano(double[] x, double[][] centros) {
+        return distanciaCuadrada(x, centros[0]) <= distanciaCuadrada(x, centros[1]) ? 0 : 1;
+    }
+
+    private static double distanciaCuadrada(double[] x, double[] y) {
+        double total = 0.0;
+        for (int j = 0; j < x.length; j++) {
+            double diferencia = x[j] - y[j];
+            total += diferencia * diferencia;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "MotorBiseccion [iteraciones=" + iteraciones + ", lote=" + tamanioLote + "]";
+    }
+}
@@ -0,0 +1,148 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArbolKD;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.Nodo;
+import modelo.estructuras.OrdenamientoIndices;
+import modelo.estructuras.UnionBusqueda;
+import modelo.estructuras.Vector;
+
+import java.util.Arrays;
+
+// enlace simple exacto sin matriz: arbol de expansion minima por Boruvka sobre un KD-tree
+// en cada ronda cada componente busca su arista mas corta hacia otra con consultas podadas por el
+// arbol, y todas esas aristas se agregan; las componentes al menos se reducen a la mitad por ronda
+// para dimension baja queda cerca de O(n log n) y memoria O(n); el resultado es el mismo dendrograma
+// que MotorCluster con enlace MINIMO (salvo el orden entre fusiones de igual altura)
+public class MotorBoruvka {
+
+    public ArregloEnlace construirEnlace(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+
+        int n = vectores.length;
+        double[][] puntos = new double[n][];
+        String[] etiquetas = new String[n];
+        for (int i = 0; i < n; i++) {
+            puntos[i] = vectores[i].getDatos();
+            etiquetas[i] = vectores[i].getEtiqueta();
+        }
+
+        ArbolKD arbol = new ArbolKD(puntos, convertirMetrica(tipoDistancia));
+        int[] origen = new int[n - 1];
+        int[] destino = new int[n - 1];
+        double[] peso = new double[n - 1];
+        arbolExpansionMinima(arbol, n, origen, destino, peso);
+
+        return enlaceDesdeArbol(etiquetas, origen, destino, peso);
+    }
+
+    public Nodo construirDendrograma(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
+        return construirEnlace(vectores, tipoDistancia).getRaiz();
+    }
+
+    private void arbolExpansionMinima(ArbolKD arbol, int n, int[] origen, int[] destino, double[] peso) {
+        UnionBusqueda componentes = new UnionBusqueda(n);
+        int[] componente = new int[n];
+        int aristas = 0;
+
+        // mejor arista saliente de cada componente, indexada por su raiz
+        double[] mejorPeso = new double[n];
+        int[] mejorOrigen = new int[n];
+        int[] mejorDestino = new int[n];
+        double[] resultado = new double[1];
+
+        // lo aprendido de cada punto en rondas anteriores: como las componentes solo crecen, su distancia
+        // a la componente mas cercana nunca baja (cota inferior), y si el vecino hallado sigue afuera
+        // sigue siendo la respuesta exacta
+        int[] vecinoPrevio = new int[n];
+        double[] cotaInferior = new double[n];
+        Arrays.fill(vecinoPrevio, -1);
+
+        while (aristas < n - 1) {
+            for (int i = 0; i < n; i++) componente[i] = componentes.buscar(i);
+            arbol.actualizarComponentes(componente);
+            Arrays.fill(mejorPeso, Double.POSITIVE_INFINITY);
+            Arrays.fill(mejorDestino, -1);
+
+            for (int i = 0; i < n; i++) {
+                int c = componente[i];
+                if (cotaInferior[i] >= mejorPeso[c]) continue;
+
+                int vecino;
+                if (vecinoPrevio[i] >= 0 && componente[vecinoPrevio[i]] != c) {
+                    vecino = vecinoPrevio[i];
+                    resultado[0] = cotaInferior[i];
+                } else {
+                    // la cota es la mejor arista que ya tiene la componente
+                    vecino = arbol.masCercanoFuera(i, componente, mejorPeso[c], resultado);
+                    vecinoPrevio[i] = vecino;
+                    cotaInferior[i] = resultado[0];
+                }
+                if (vecino >= 0 && resultado[0] < mejorPeso[c]) {
+                    mejorPeso[c] = resultado[0];
+                    mejorOrigen[c] = i;
+                    mejorDestino[c] = vecino;
+                }
+            }
+
+            int agregadas = 0;
+            for (int c = 0; c < n; c++) {
+                if (mejorDestino[c] < 0) continue;
+                // dos componentes pueden elegirse mutuamente, la segunda union no hace nada
+                if (componentes.unir(mejorOrigen[c], mejorDestino[c]) == -1) continue;
+                origen[aristas] = mejorOrigen[c];
+                destino[aristas] = mejorDestino[c];
+                peso[aristas] = mejorPeso[c];
+                aristas++;
+                agregadas++;
+            }
+            if (agregadas == 0) {
+                throw new IllegalStateException("Boruvka no pudo unir las " + componentes.getNumeroConjuntos() +
+                        " componentes restantes");
+            }
+        }
+    }
+
+    // enlace simple = aristas del arbol en orden de peso, uniendo componentes (Kruskal sobre n - 1 aristas)
+    static ArregloEnlace enlaceDesdeArbol(String[] etiquetas, int[] origen, int[] destino, double[] peso) {
+        int n = etiquetas.length;
+        int fusiones = n - 1;
+        int[] orden = OrdenamientoIndices.ordenarPorClave(peso);
+
+        UnionBusqueda conjuntos = new UnionBusqueda(n);
+        int[] nodoDe = new int[n];
+        for (int i = 0; i < n; i++) nodoDe[i] = i;
+
+        int[] izquierdo = new int[fusiones];
+        int[] derecho = new int[fusiones];
+        double[] altura = new double[fusiones];
+        int[] tamanio = new int[fusiones];
+        for (int m = 0; m < fusiones; m++) {
+            int e = orden[m];
+            int a = nodoDe[conjuntos.buscar(origen[e])];
+            int b = nodoDe[conjuntos.buscar(destino[e])];
+            izquierdo[m] = Math.min(a, b);
+            derecho[m] = Math.max(a, b);
+            altura[m] = peso[e];
+            tamanio[m] = conjuntos.tamanioDe(origen[e]) + conjuntos.tamanioDe(destino[e]);
+            nodoDe[conjuntos.unir(origen[e], destino[e])] = n + m;
+        }
+        return new ArregloEnlace(etiquetas, izquierdo, derecho, altura, tamanio);
+    }
+
+    private ArbolKD.Metrica convertirMetrica(FactoryDistancia.TipoDistancia tipo) {
+        switch (tipo) {
+            case EUCLIDIANA: return ArbolKD.Metrica.EUCLIDIANA;
+            case MANHATTAN: return ArbolKD.Metrica.MANHATTAN;
+            default: throw new IllegalArgumentException("El KD-tree solo admite distancia euclidiana o Manhattan");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MotorBoruvka";
+    }
+}
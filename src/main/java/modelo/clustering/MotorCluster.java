@@ -1,9 +1,12 @@
 package modelo.clustering;
 
 import modelo.estructuras.*;
+import modelo.distancias.CacheMatrices;
 import modelo.distancias.CalculadorMatrizDistancia;
 import modelo.distancias.FactoryDistancia;
 
+// sin estado por ejecucion: la matriz y el fusionador son locales a cada llamada,
+// asi una misma instancia puede usarse desde varios hilos
 public class MotorCluster {
 
     public enum TipoEnlace {
@@ -13,41 +16,157 @@ public class MotorCluster {
         CENTROIDE
     }
 
-    private Vector[] vectores;
-    private Matriz matrizDistancias;
-    private CalculadorMatrizDistancia calculadorMatriz;
-
-    private ActualizadorMatrizDistancias actualizadorMatriz;
-    private FusionadorCluster fusionador;
+    // se reemplaza entero al cambiar el tipo, cada ejecucion usa el que leyo al empezar
+    private volatile ActualizadorMatrizDistancias actualizadorMatriz;
 
     public MotorCluster() {
         this(TipoEnlace.PROMEDIO);
     }
 
     public MotorCluster(TipoEnlace tipoEnlace) {
-        this.calculadorMatriz = new CalculadorMatrizDistancia();
         this.actualizadorMatriz = new ActualizadorMatrizDistancias(
                 convertirTipoEnlace(tipoEnlace)
         );
-        this.fusionador = new FusionadorCluster();
     }
 
-    public Nodo construirDendrograma(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
+    // resultado canonico: arreglo de enlace con n-1 fusiones
+    public ArregloEnlace construirEnlace(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
         if (vectores == null || vectores.length == 0) {
             throw new IllegalArgumentException("Array de vectores no puede estar vacío");
         }
 
-        this.vectores = vectores;
+        Matriz matriz = new CalculadorMatrizDistancia().calcular(vectores, tipoDistancia);
+        return construirEnlace(matriz, extraerEtiquetas(vectores));
+    }
+
+    // reutiliza la matriz de la cache si ya se calculo para estos vectores y distancia
+    public ArregloEnlace construirEnlace(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia,
+                                         CacheMatrices cache) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
 
-        matrizDistancias = calculadorMatriz.calcular(vectores, tipoDistancia);
+        Matriz compartida = cache.obtenerOCalcular(vectores, tipoDistancia);
+        return construirEnlaceSobreCopia(compartida, extraerEtiquetas(vectores));
+    }
+
+    // la matriz no se toca: solo se clona para las actualizaciones de Lance-Williams
+    public ArregloEnlace construirEnlaceSobreCopia(Matriz matriz, String[] etiquetas) {
+        return construirEnlaceSobreCopia(matriz, etiquetas, new OpcionesEnlace());
+    }
+
+    // al cancelar la copia queda sin referencias
+    public ArregloEnlace construirEnlaceSobreCopia(Matriz matriz, String[] etiquetas, OpcionesEnlace opciones) {
+        if (matriz == null) {
+            throw new IllegalArgumentException("La matriz no puede ser nula");
+        }
+        return construirEnlace(matriz.copiar(), etiquetas, opciones);
+    }
+
+    // pesos, punto de control, token y flujo van en las opciones; el token tambien corta el calculo de la
+    // matriz, y si ese calculo falla el flujo se entera
+    public ArregloEnlace construirEnlace(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia,
+                                         OpcionesEnlace opciones) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+        if (opciones == null) {
+            throw new IllegalArgumentException("Las opciones no pueden ser nulas");
+        }
+
+        Matriz matriz;
+        try {
+            matriz = new CalculadorMatrizDistancia().calcular(vectores, tipoDistancia, opciones.getToken());
+        } catch (RuntimeException e) {
+            if (opciones.getFlujo() != null) opciones.getFlujo().fallar(e);
+            throw e;
+        }
+        return construirEnlace(matriz, extraerEtiquetas(vectores), opciones);
+    }
+
+    // a partir de una matriz ya calculada, que se modifica durante las fusiones
+    public ArregloEnlace construirEnlace(Matriz matriz, String[] etiquetas) {
+        return construirEnlace(matriz, etiquetas, new OpcionesEnlace());
+    }
+
+    public ArregloEnlace construirEnlace(Matriz matriz, String[] etiquetas, OpcionesEnlace opciones) {
+        if (opciones == null) {
+            throw new IllegalArgumentException("Las opciones no pueden ser nulas");
+        }
+        FlujoFusiones flujo = opciones.getFlujo();
+        if (flujo == null) {
+            return ejecutar(matriz, etiquetas, opciones);
+        }
+        try {
+            ArregloEnlace enlace = ejecutar(matriz, etiquetas, opciones);
+            flujo.terminar();
+            return enlace;
+        } catch (RuntimeException | Error e) {
+            flujo.fallar(e);
+            throw e;
+        }
+    }
+
+    private ArregloEnlace ejecutar(Matriz matriz, String[] etiquetas, OpcionesEnlace opciones) {
+        int[] pesos = opciones.getPesos();
+        PuntoControl puntoControl = opciones.getPuntoControl();
+        TokenCancelacion token = opciones.getToken();
+        FlujoFusiones flujo = opciones.getFlujo();
+        if (matriz == null || etiquetas == null || matriz.getDimension() != etiquetas.length) {
+            throw new IllegalArgumentException("La matriz y las etiquetas deben tener el mismo tamaño");
+        }
+        if (etiquetas.length == 0) {
+            throw new IllegalArgumentException("Array de etiquetas no puede estar vacío");
+        }
 
         // inicializar clusters (uno por vector)
-        String[] etiquetas = extraerEtiquetas(vectores);
-        fusionador.inicializar(etiquetas);
+        FusionadorCluster fusionador = new FusionadorCluster();
+        fusionador.inicializar(etiquetas, pesos);
+        if (flujo != null) {
+            flujo.iniciar(etiquetas);
+        }
+
+        ActualizadorMatrizDistancias actualizador = actualizadorMatriz;
+        if (puntoControl == null) {
+            ejecutarAlgoritmo(matriz, fusionador, actualizador, null, token, flujo);
+            return fusionador.getEnlace();
+        }
+
+        TipoEnlace tipo = convertirDesdeActualizador(actualizador.getTipoEnlace());
+        long huella = PuntoControl.huella(matriz, etiquetas, pesos, tipo);
+        // si lo usa otra ejecucion falla aca, antes del finally que lo liberaria
+        puntoControl.retomar(huella, tipo, matriz, fusionador, actualizador);
+        boolean completo = false;
+        try {
+            if (flujo != null) {
+                // las fusiones repetidas del punto de control tambien son parte del arbol
+                for (int m = 0; m < fusionador.getNumeroFusiones(); m++) {
+                    publicar(flujo, fusionador, m);
+                }
+            }
+            ejecutarAlgoritmo(matriz, fusionador, actualizador, puntoControl, token, flujo);
+            completo = true;
+        } finally {
+            puntoControl.cerrar(completo);
+        }
+        return fusionador.getEnlace();
+    }
+
+    // solo se permiten fusiones entre clusters unidos por aristas del grafo (kNN o por radio), sin matriz:
+    // O(E log E) y memoria O(E); con un grafo completo da el mismo arbol que la matriz
+    public ArregloEnlace construirEnlace(GrafoVecinos grafo, String[] etiquetas) {
+        return new AglomeracionConectividad(actualizadorMatriz).construir(grafo, etiquetas);
+    }
 
-        ejecutarAlgoritmo();
+    public ArregloEnlace construirEnlace(Vector[] vectores, GrafoVecinos grafo) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+        return construirEnlace(grafo, extraerEtiquetas(vectores));
+    }
 
-        return fusionador.getClusterRaiz();
+    public Nodo construirDendrograma(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
+        return construirEnlace(vectores, tipoDistancia).getRaiz();
     }
 
     public Nodo construirDendrograma(Vector[] vectores, String nombreDistancia) {
@@ -57,11 +176,14 @@ public class MotorCluster {
         return construirDendrograma(vectores, tipo);
     }
 
-    private void ejecutarAlgoritmo() {
+    private void ejecutarAlgoritmo(Matriz matrizDistancias, FusionadorCluster fusionador,
+                                   ActualizadorMatrizDistancias actualizador, PuntoControl puntoControl,
+                                   TokenCancelacion token, FlujoFusiones flujo) {
         int iteracion = 0;
 
         while (fusionador.tieneMasDeUnCluster()) {
             iteracion++;
+            token.verificar();
 
             int[] parMin = fusionador.encontrarParMasProximo(matrizDistancias);
             int i = parMin[0];
@@ -70,25 +192,37 @@ public class MotorCluster {
             if (i == -1 || j == -1) {
                 System.err.println("  Error: No se encontró par válido en iteración " + iteracion);
                 System.err.println("  Clusters restantes: " + fusionador.getNumeroClusters());
-                break;
+                throw new IllegalStateException("No se encontró par válido en la iteración " + iteracion);
             }
 
             // obtener distancia de fusion
             double distanciaFusion = matrizDistancias.getPosicion(i, j);
 
-            // actualizar matriz de distancias
-            actualizadorMatriz.actualizarMatriz(
+            // actualizar matriz de distancias (el cluster nuevo queda en el slot i)
+            actualizador.actualizarMatriz(
                     matrizDistancias,
                     i, j,
                     distanciaFusion,
                     fusionador.getTamanosClusters(),
+                    fusionador.getActivos(),
                     fusionador.getNumeroClusters()
             );
 
             fusionador.fusionar(i, j, distanciaFusion);
+            if (puntoControl != null) {
+                puntoControl.anotar(i, j, distanciaFusion);
+            }
+            if (flujo != null) {
+                publicar(flujo, fusionador, fusionador.getNumeroFusiones() - 1);
+            }
         }
     }
 
+    private void publicar(FlujoFusiones flujo, FusionadorCluster fusionador, int m) {
+        flujo.publicar(fusionador.getIzquierdo(m), fusionador.getDerecho(m), fusionador.getAltura(m),
+                fusionador.getTamanio(m));
+    }
+
     private String[] extraerEtiquetas(Vector[] vectores) {
         String[] etiquetas = new String[vectores.length];
         for (int i = 0; i < vectores.length; i++) {
@@ -118,7 +252,7 @@ public class MotorCluster {
     }
 
     public void setTipoEnlace(TipoEnlace tipo) {
-        actualizadorMatriz.setTipoEnlace(convertirTipoEnlace(tipo));
+        actualizadorMatriz = new ActualizadorMatrizDistancias(convertirTipoEnlace(tipo));
     }
 
     public TipoEnlace getTipoEnlace() {
@@ -127,7 +261,6 @@ public class MotorCluster {
 
     @Override
     public String toString() {
-        return "MotorCluster [tipo=" + getTipoEnlace() + ", vectores=" +
-                (vectores != null ? vectores.length : 0) + "]";
+        return "MotorCluster [tipo=" + getTipoEnlace() + "]";
     }
 }
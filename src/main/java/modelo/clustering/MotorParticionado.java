@@ -0,0 +1,400 @@
+package modelo.clustering;
+
+import modelo.distancias.CalculadorMatrizDistancia;
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.ListaDoble;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.OrdenamientoIndices;
+import modelo.estructuras.Vector;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+// aglomeracion aproximada por particiones: los vectores se reparten en P bloques (por un k-means
+// corto o cortando el orden sobre una proyeccion aleatoria) y cada bloque corre un MotorCluster completo en paralelo;
+// luego los centroides de los bloques (pesados por su tamaño) se aglomeran y se cuelgan los arboles
+// parciales de esas hojas. Memoria O(n^2 / P) en vez de O(n^2)
+public class MotorParticionado {
+
+    public enum Particion {
+        // k-means con P centros: respeta mejor los grupos, los bloques pueden quedar desparejos
+        PRECLUSTER,
+        // P bloques de igual tamaño sobre una direccion aleatoria: memoria acotada a (n / P)^2
+        PROYECCION
+    }
+
+    private static final int ITERACIONES_PRECLUSTER = 5;
+
+    private final int particiones;
+    private final MotorCluster.TipoEnlace tipoEnlace;
+    private final long semilla;
+    private Executor ejecutor;
+    private Particion particion = Particion.PRECLUSTER;
+
+    public MotorParticionado(int particiones, MotorCluster.TipoEnlace tipoEnlace) {
+        this(particiones, tipoEnlace, 42L);
+    }
+
+    public MotorParticionado(int particiones, MotorCluster.TipoEnlace tipoEnlace, long semilla) {
+        if (particiones < 1) {
+            throw new IllegalArgumentException("Debe haber al menos una partición");
+        }
+        if (tipoEnlace == null) {
+            throw new IllegalArgumentException("Debe indicar el tipo de enlace");
+        }
+        this.particiones = particiones;
+        this.tipoEnlace = tipoEnlace;
+        this.semilla = semilla;
+        this.ejecutor = ForkJoinPool.commonPool();
+    }
+
+    public void setEjecutor(Executor ejecutor) {
+        if (ejecutor == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser nulo");
+        }
+        this.ejecutor = ejecutor;
+    }
+
+    public void setParticion(Particion particion) {
+        if (particion == null) {
+            throw new IllegalArgumentException("Debe indicar el tipo de partición");
+        }
+        this.particion = particion;
+    }
+
+    public ArregloEnlace construirEnlace(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+
+        int n = vectores.length;
+        int[] orden = new int[n];
+        int[] inicio = particion == Particion.PRECLUSTER
+                ? particionarPorCentros(vectores, Math.min(particiones, n), orden)
+                : particionarPorProyeccion(vectores, Math.min(particiones, n), orden);
+        int p = inicio.length - 1;
+
+        // en el orden de los bloques
+        ListaDoble<CompletableFuture<ArregloEnlace>> parciales = new ListaDoble<>();
+        for (int b = 0; b < p; b++) {
+            Vector[] bloque = new Vector[inicio[b + 1] - inicio[b]];
+            for (int k = 0; k < bloque.length; k++) bloque[k] = vectores[orden[inicio[b] + k]];
+            parciales.agregar(CompletableFuture.supplyAsync(
+                    () -> new MotorCluster(tipoEnlace).construirEnlace(bloque, tipoDistancia), ejecutor));
+        }
+
+        Vector[] representantes = new Vector[p];
+        int[] pesos = new int[p];
+        for (int b = 0; b < p; b++) {
+            pesos[b] = inicio[b + 1] - inicio[b];
+            representantes[b] = centroide(vectores, orden, inicio[b], inicio[b + 1], "particion " + b);
+        }
+        OpcionesEnlace opciones = new OpcionesEnlace();
+        opciones.setPesos(pesos);
+        ArregloEnlace superior = new MotorCluster(tipoEnlace).construirEnlace(representantes, tipoDistancia, opciones);
+
+        ArregloEnlace[] arboles = new ArregloEnlace[p];
+        ListaDoble.IteradorLista<CompletableFuture<ArregloEnlace>> it = parciales.iterador();
+        for (int b = 0; it.tieneSiguiente(); b++) arboles[b] = it.siguiente().join();
+        return unir(vectores, orden, inicio, arboles, superior);
+    }
+
+    // las dos particiones dejan en orden los indices agrupados por bloque y retornan donde empieza cada uno
+
+    // los vectores se ordenan por su producto con una direccion gaussiana y se cortan en bloques
+    // contiguos de tamaños que difieren a lo sumo en uno
+    private int[] particionarPorProyeccion(Vector[] vectores, int p, int[] orden) {
+        int n = vectores.length;
+        int dimension = vectores[0].dimension();
+        Random aleatorio = new Random(semilla);
+        double[] direccion = new double[dimension];
+        for (int j = 0; j < dimension; j++) direccion[j] = aleatorio.nextGaussian();
+
+        double[] proyeccion = new double[vectores.length];
+        for (int i = 0; i < vectores.length; i++) {
+            if (vectores[i].dimension() != dimension) {
+                throw new IllegalArgumentException("Todos los vectores deben tener la misma dimensión");
+            }
+            double total = 0.0;
+            for (int j = 0; j < dimension; j++) total += direccion[j] * vectores[i].getPosicion(j);
+            proyeccion[i] = total;
+        }
+        System.arraycopy(OrdenamientoIndices.ordenarPorClave(proyeccion), 0, orden, 0, n);
+
+        int[] inicio = new int[p + 1];
+        for (int b = 0; b <= p; b++) inicio[b] = (int) ((long) n * b / p);
+        return inicio;
+    }
+
+    // k-means euclidiano con siembra k-means++ y pocas pasadas de Lloyd; los centros vacios se descartan
+    private int[] particionarPorCentros(Vector[] vectores, int p, int[] orden) {
+        int n = vectores.length;
+        int dimension = vectores[0].dimension();
+        double[][] datos = new double[n][];
+        for (int i = 0; i < n; i++) {
+            if (vectores[i].dimension() != dimension) {
+                throw new IllegalArgumentException("Todos los vectores deben tener la misma dimensión");
+            }
+            datos[i] = vectores[i].getDatos();
+        }
+
+        Random aleatorio = new Random(semilla);
+        double[][] centros = new double[p][];
+        double[] menor = new double[n];
+        centros[0] = datos[aleatorio.nextInt(n)].clone();
+        for (int i = 0; i < n; i++) menor[i] = distanciaCuadrada(datos[i], centros[0]);
+        for (int c = 1; c < p; c++) {
+            double total = 0.0;
+            for (int i = 0; i < n; i++) total += menor[i];
+            int elegido = aleatorio.nextInt(n);
+            if (total > 0) {
+                double objetivo = aleatorio.nextDouble() * total;
+                for (int i = 0; i < n; i++) {
+                    objetivo -= menor[i];
+                    if (objetivo <= 0) {
+                        elegido = i;
+                        break;
+                    }
+                }
+            }
+            centros[c] = datos[elegido].clone();
+            for (int i = 0; i < n; i++) menor[i] = Math.min(menor[i], distanciaCuadrada(datos[i], centros[c]));
+        }
+
+        int[] asignacion = new int[n];
+        for (int it = 0; it < ITERACIONES_PRECLUSTER; it++) {
+            double[][] sumas = new double[p][dimension];
+            int[] cuentas = new int[p];
+            for (int i = 0; i < n; i++) {
+                int mejor = 0;
+                double distanciaMejor = Double.MAX_VALUE;
+                for (int c = 0; c < p; c++) {
+                    double d = distanciaCuadrada(datos[i], centros[c]);
+                    if (d < distanciaMejor) {
+                        distanciaMejor = d;
+                        mejor = c;
+                    }
+                }
+                asignacion[i] = mejor;
+                cuentas[mejor]++;
+                for (int j = 0; j < dimension; j++) sumas[mejor][j] += datos[i][j];
+            }
+            for (int c = 0; c < p; c++) {
+                if (cuentas[c] == 0) continue;
+                for (int j = 0; j < dimension; j++) centros[c][j] = sumas[c][j] / cuentas[c];
+            }
+        }
+
+        // conteo por bloque, sin los vacios, y reparto estable de los indices
+        int[] cuentas = new int[p];
+        for (int i = 0; i < n; i++) cuentas[asignacion[i]]++;
+        int[] bloqueDe = new int[p];
+        int bloques = 0;
+        for (int c = 0; c < p; c++) bloqueDe[c] = cuentas[c] > 0 ? bloques++ : -1;
+
+        int[] inicio = new int[bloques + 1];
+        for (int c = 0; c < p; c++) {
+            if (bloqueDe[c] >= 0) inicio[bloqueDe[c] + 1] = cuentas[c];
+        }
+        for (int b = 0; b < bloques; b++) inicio[b + 1] += inicio[b];
+
+        int[] siguiente = inicio.clone();
+        for (int i = 0; i < n; i++) orden[siguiente[bloqueDe[asignacion[i]]]++] = i;
+        return inicio;
+    }
+
+    private static double distanciaCuadrada(double[] x, double[] y) {
+        double total = 0.0;
+        for (int j = 0; j < x.length; j++) {
+            double diferencia = x[j] - y[j];
+            total += diferencia * diferencia;
+        }
+        return total;
+    }
+
+    private Vector centroide(Vector[] vectores, int[] orden, int desde, int hasta, String etiqueta) {
+        double[] media = new double[vectores[0].dimension()];
+        for (int k = desde; k < hasta; k++) {
+            Vector v = vectores[orden[k]];
+            for (int j = 0; j < media.length; j++) media[j] += v.getPosicion(j);
+        }
+        for (int j = 0; j < media.length; j++) media[j] /= (hasta - desde);
+        return new Vector(media, etiqueta);
+    }
+
+    // hojas globales = indices originales; primero las fusiones de cada bloque y despues las del nivel
+    // superior, donde la hoja b es la raiz del bloque b. Las alturas superiores se elevan a la de sus
+    // hijos y todo se ordena (estable) por altura monotona, asi los hijos siguen antes que los padres
+    // aunque un bloque por centroide tenga inversiones
+    private ArregloEnlace unir(Vector[] vectores, int[] orden, int[] inicio, ArregloEnlace[] arboles,
+                               ArregloEnlace superior) {
+        int n = vectores.length;
+        int total = n - 1;
+        int[] izquierdo = new int[total];
+        int[] derecho = new int[total];
+        double[] altura = new double[total];
+        int[] tamanio = new int[total];
+        double[] monotona = new double[total];
+        int m = 0;
+
+        // referencia global (hoja 0..n-1 o n + fusion provisional) de la raiz de cada bloque
+        int[] raizBloque = new int[arboles.length];
+        for (int b = 0; b < arboles.length; b++) {
+            ArregloEnlace arbol = arboles[b];
+            int hojas = arbol.getNumeroHojas();
+            int base = m;
+            for (int f = 0; f < arbol.getNumeroFusiones(); f++) {
+                izquierdo[m] = global(arbol.getIzquierdo(f), hojas, orden, inicio[b], n, base);
+                derecho[m] = global(arbol.getDerecho(f), hojas, orden, inicio[b], n, base);
+                altura[m] = arbol.getAltura(f);
+                tamanio[m] = arbol.getTamanio(f);
+                monotona[m] = Math.max(altura[m],
+                        Math.max(alturaDe(izquierdo[m], n, monotona), alturaDe(derecho[m], n, monotona)));
+                m++;
+            }
+            raizBloque[b] = global(arbol.getIdRaiz(), hojas, orden, inicio[b], n, base);
+        }
+
+        int bloques = arboles.length;
+        int baseSuperior = m;
+        for (int f = 0; f < superior.getNumeroFusiones(); f++) {
+            int a = superior.getIzquierdo(f);
+            int c = superior.getDerecho(f);
+            izquierdo[m] = a < bloques ? raizBloque[a] : n + baseSuperior + (a - bloques);
+            derecho[m] = c < bloques ? raizBloque[c] : n + baseSuperior + (c - bloques);
+            altura[m] = Math.max(superior.getAltura(f),
+                    Math.max(alturaDe(izquierdo[m], n, monotona), alturaDe(derecho[m], n, monotona)));
+            tamanio[m] = tamanioDe(izquierdo[m], n, tamanio) + tamanioDe(derecho[m], n, tamanio);
+            monotona[m] = altura[m];
+            m++;
+        }
+
+        int[] ordenFinal = OrdenamientoIndices.ordenarPorClave(monotona);
+        int[] idFinal = new int[total];
+        for (int k = 0; k < total; k++) idFinal[ordenFinal[k]] = n + k;
+
+        int[] izq = new int[total];
+        int[] der = new int[total];
+        double[] alt = new double[total];
+        int[] tam = new int[total];
+        for (int k = 0; k < total; k++) {
+            int f = ordenFinal[k];
+            izq[k] = izquierdo[f] >= n ? idFinal[izquierdo[f] - n] : izquierdo[f];
+            der[k] = derecho[f] >= n ? idFinal[derecho[f] - n] : derecho[f];
+            alt[k] = altura[f];
+            tam[k] = tamanio[f];
+        }
+
+        String[] etiquetas = new String[n];
+        for (int i = 0; i < n; i++) etiquetas[i] = vectores[i].getEtiqueta();
+        return new ArregloEnlace(etiquetas, izq, der, alt, tam);
+    }
+
+    private static int global(int idLocal, int hojasLocales, int[] orden, int desde, int n, int base) {
+        return idLocal < hojasLocales ? orden[desde + idLocal] : n + base + (idLocal - hojasLocales);
+    }
+
+    private static double alturaDe(int id, int n, double[] altura) {
+        return id < n ? 0.0 : altura[id - n];
+    }
+
+    private static int tamanioDe(int id, int n, int[] tamanio) {
+        return id < n ? 1 : tamanio[id - n];
+    }
+
+    // compara contra el motor exacto sobre una muestra aleatoria de hasta tamanioMuestra vectores:
+    // correlacion cofenetica de ambos y acuerdo (Rand ajustado) de sus cortes en k clusters
+    public BrechaAproximacion medirBrecha(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia,
+                                         int tamanioMuestra, int k) {
+        if (vectores == null || vectores.length < 3) {
+            throw new IllegalArgumentException("Se necesitan al menos 3 vectores para medir la brecha");
+        }
+
+        Vector[] muestra = muestrear(vectores, Math.max(3, Math.min(tamanioMuestra, vectores.length)));
+        int kEfectivo = Math.max(1, Math.min(k, muestra.length));
+
+        long inicio = System.nanoTime();
+        Matriz distancias = new CalculadorMatrizDistancia().calcular(muestra, tipoDistancia);
+        String[] etiquetas = new String[muestra.length];
+        for (int i = 0; i < muestra.length; i++) etiquetas[i] = muestra[i].getEtiqueta();
+        ArregloEnlace exacto = new MotorCluster(tipoEnlace).construirEnlaceSobreCopia(distancias, etiquetas);
+        long milisExacto = (System.nanoTime() - inicio) / 1_000_000;
+
+        inicio = System.nanoTime();
+        ArregloEnlace aproximado = construirEnlace(muestra, tipoDistancia);
+        long milisAproximado = (System.nanoTime() - inicio) / 1_000_000;
+
+        double randAjustado = randAjustado(new CortadorDendrograma(exacto).cortarEnK(kEfectivo),
+                new CortadorDendrograma(aproximado).cortarEnK(kEfectivo), kEfectivo);
+
+        return new BrechaAproximacion(muestra.length, Math.min(particiones, muestra.length), kEfectivo,
+                CorrelacionCofenetica.calcular(distancias, exacto),
+                CorrelacionCofenetica.calcular(distancias, aproximado),
+                randAjustado, milisExacto, milisAproximado);
+    }
+
+    // Fisher-Yates parcial con la semilla del motor
+    private Vector[] muestrear(Vector[] vectores, int tamanio) {
+        int[] indices = new int[vectores.length];
+        for (int i = 0; i < indices.length; i++) indices[i] = i;
+        Random aleatorio = new Random(semilla + 1);
+        Vector[] muestra = new Vector[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            int j = i + aleatorio.nextInt(indices.length - i);
+            int t = indices[i];
+            indices[i] = indices[j];
+            indices[j] = t;
+            muestra[i] = vectores[indices[i]];
+        }
+        return muestra;
+    }
+
+    // indice de Rand ajustado entre dos particiones con etiquetas 0..k-1
+    static double randAjustado(int[] a, int[] b, int k) {
+        long[][] tabla = new long[k][k];
+        long[] filas = new long[k];
+        long[] columnas = new long[k];
+        for (int i = 0; i < a.length; i++) {
+            tabla[a[i]][b[i]]++;
+            filas[a[i]]++;
+            columnas[b[i]]++;
+        }
+
+        double indice = 0.0;
+        double sumaFilas = 0.0;
+        double sumaColumnas = 0.0;
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < k; j++) indice += pares(tabla[i][j]);
+            sumaFilas += pares(filas[i]);
+            sumaColumnas += pares(columnas[i]);
+        }
+        double esperado = sumaFilas * sumaColumnas / pares(a.length);
+        double maximo = (sumaFilas + sumaColumnas) / 2.0;
+        return maximo == esperado ? 1.0 : (indice - esperado) / (maximo - esperado);
+    }
+
+    private static double pares(long x) {
+        return x * (x - 1) / 2.0;
+    }
+
+    public Particion getParticion() {
+        return particion;
+    }
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public MotorCluster.TipoEnlace getTipoEnlace() {
+        return tipoEnlace;
+    }
+
+    @Override
+    public String toString() {
+        return "MotorParticionado [particiones=" + particiones + ", " + particion + ", enlace=" + tipoEnlace + "]";
+    }
+}
@@ -0,0 +1,61 @@
+package modelo.clustering;
+
+import modelo.estructuras.TokenCancelacion;
+
+// opciones de una ejecucion del motor de matriz (ver MotorCluster.construirEnlace); sin tocar nada es
+// una ejecucion comun: sin pesos, sin punto de control, sin cancelacion y sin flujo
+// el punto de control y el flujo sirven para una sola ejecucion, asi que las opciones tampoco se reusan
+public class OpcionesEnlace {
+
+    private int[] pesos;
+    private PuntoControl puntoControl;
+    private TokenCancelacion token = TokenCancelacion.NINGUNO;
+    private FlujoFusiones flujo;
+
+    // cuantos puntos representa cada hoja (centroides de micro-clusters), null = 1 cada una; entran en las
+    // actualizaciones de promedio y centroide, las hojas del enlace siguen siendo los vectores
+    public void setPesos(int[] pesos) {
+        this.pesos = pesos;
+    }
+
+    // si es de esta misma matriz se siguen sus fusiones en vez de empezar de cero, y durante la ejecucion
+    // se va guardando (ver PuntoControl); un trabajo cancelado con punto de control se puede retomar
+    public void setPuntoControl(PuntoControl puntoControl) {
+        this.puntoControl = puntoControl;
+    }
+
+    // se revisa en cada fila de la matriz y en cada fusion
+    public void setToken(TokenCancelacion token) {
+        if (token == null) {
+            throw new IllegalArgumentException("El token no puede ser nulo, usar TokenCancelacion.NINGUNO");
+        }
+        this.token = token;
+    }
+
+    // cada fusion se publica mientras corre (ver FlujoFusiones); el flujo se entera tambien si falla
+    public void setFlujo(FlujoFusiones flujo) {
+        this.flujo = flujo;
+    }
+
+    public int[] getPesos() {
+        return pesos;
+    }
+
+    public PuntoControl getPuntoControl() {
+        return puntoControl;
+    }
+
+    public TokenCancelacion getToken() {
+        return token;
+    }
+
+    public FlujoFusiones getFlujo() {
+        return flujo;
+    }
+
+    @Override
+    public String toString() {
+        return "OpcionesEnlace [pesos=" + (pesos != null) + ", puntoControl=" + (puntoControl != null) +
+                ", token=" + token + ", flujo=" + (flujo != null) + "]";
+    }
+}
@@ -0,0 +1,322 @@
+package modelo.clustering;
+
+import modelo.estructuras.Matriz;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+// puntos de control de una ejecucion larga del motor de matriz, para retomarla si se cae la JVM
+// el estado del motor (matriz, slots activos, pesos) queda determinado por la matriz inicial y las fusiones
+// hechas: cada fusion es una actualizacion de Lance-Williams O(n), lo caro es buscar el par, O(n^2). Asi
+// que no se guarda la matriz (n^2 doubles en cada punto) sino una huella de la inicial y el registro de
+// fusiones; al retomar se verifica la huella y se repiten las actualizaciones sin buscar, con el mismo
+// resultado bit a bit. Cada punto agrega solo las fusiones nuevas, 16 bytes por fusion
+// las escrituras van en el ejecutor, no en el hilo del motor, y se espacian para que el tiempo escribiendo
+// no pase de fraccionMaxima del tiempo de la ejecucion
+//
+// formato, big-endian:
+//
+//   0  int    magico "PCTL"
+//   4  int    version
+//   8  int    n (hojas)
+//  12  int    tipo de enlace (ordinal)
+//  16  long   huella de la matriz inicial, etiquetas y pesos
+//  24  long   reservado
+//  32  fusiones: int i, int j, double distancia (slots como en FusionadorCluster)
+//      un registro incompleto al final (la JVM murio escribiendo) se descarta
+public class PuntoControl {
+
+    public static final int MAGICO = 0x5043544C;
+    public static final int VERSION = 1;
+    public static final int TAMANIO_CABECERA = 32;
+    private static final int TAMANIO_REGISTRO = 16;
+
+    private final Path ruta;
+    private long intervaloMinimo = 10_000;
+    private double fraccionMaxima = 0.02;
+    private Executor ejecutor = ForkJoinPool.commonPool();
+
+    // estado de la ejecucion en curso, solo el hilo del motor lo toca salvo los volatile
+    private boolean enUso;
+    private int[] slotI;
+    private int[] slotJ;
+    private double[] distancia;
+    private int pendientes;
+    private long ultimoPunto;
+    private CompletableFuture<Void> escritura;
+    private volatile long nanosUltimaEscritura;
+    private volatile long nanosEscribiendo;
+    private volatile IOException error;
+    private int fusionesRetomadas;
+    private volatile int puntosEscritos;
+
+    public PuntoControl(String ruta) {
+        if (ruta == null || ruta.isEmpty()) {
+            throw new IllegalArgumentException("La ruta del punto de control no puede estar vacía");
+        }
+        this.ruta = Paths.get(ruta);
+    }
+
+    // huella del problema: matriz inicial (triangulo superior), etiquetas, pesos y enlace
+    // se calcula antes de la primera fusion, que ya cambia la matriz
+    static long huella(Matriz matriz, String[] etiquetas, int[] pesos, MotorCluster.TipoEnlace tipoEnlace) {
+        int n = matriz.getDimension();
+        long h = 0x9E3779B97F4A7C15L ^ n;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                h = mezclar(h, Double.doubleToLongBits(matriz.getPosicion(i, j)));
+            }
+        }
+        for (String etiqueta : etiquetas) {
+            h = mezclar(h, etiqueta != null ? etiqueta.hashCode() : 0);
+        }
+        if (pesos != null) {
+            for (int peso : pesos) h = mezclar(h, peso);
+        }
+        return mezclar(h, tipoEnlace.ordinal());
+    }
+
+    private static long mezclar(long estado, long valor) {
+        long x = (estado ^ valor) * 0xBF58476D1CE4E5B9L;
+        x ^= x >>> 31;
+        return x * 0x94D049BB133111EBL ^ (x >>> 29);
+    }
+
+    // si hay un punto de control de este mismo problema repite sus fusiones sobre la matriz y el fusionador
+    // recien inicializados y retorna cuantas eran; si no, empieza un archivo nuevo y retorna 0
+    synchronized int retomar(long huella, MotorCluster.TipoEnlace tipoEnlace, Matriz matriz,
+                             FusionadorCluster fusionador, ActualizadorMatrizDistancias actualizador) {
+        if (enUso) {
+            throw new IllegalStateException("El punto de control ya lo usa otra ejecución");
+        }
+        enUso = true;
+
+        int n = matriz.getDimension();
+        slotI = new int[64];
+        slotJ = new int[64];
+        distancia = new double[64];
+        pendientes = 0;
+        escritura = CompletableFuture.completedFuture(null);
+        nanosUltimaEscritura = 0;
+        nanosEscribiendo = 0;
+        error = null;
+        fusionesRetomadas = 0;
+        puntosEscritos = 0;
+        ultimoPunto = System.nanoTime();
+
+        try {
+            int validas = leerRegistro(huella, tipoEnlace, n);
+            if (validas >= 0) {
+                for (int m = 0; m < validas; m++) {
+                    // el mismo paso que ejecutarAlgoritmo, sin la busqueda del par
+                    actualizador.actualizarMatriz(matriz, slotI[m], slotJ[m], distancia[m],
+                            fusionador.getTamanosClusters(), fusionador.getActivos(), fusionador.getNumeroClusters());
+                    fusionador.fusionar(slotI[m], slotJ[m], distancia[m]);
+                }
+                fusionesRetomadas = validas;
+                pendientes = 0;
+                truncar(TAMANIO_CABECERA + (long) validas * TAMANIO_REGISTRO);
+                System.out.println("Punto de control retomado: " + validas + " de " + (n - 1) + " fusiones");
+                return validas;
+            }
+            escribirCabecera(huella, tipoEnlace, n);
+        } catch (IOException e) {
+            System.err.println("Advertencia: punto de control no disponible, se sigue sin él: " + e.getMessage());
+            error = e;
+        }
+        return 0;
+    }
+
+    // -1 si no hay archivo o es de otro problema; si no, deja las fusiones en slotI/slotJ/distancia
+    private int leerRegistro(long huella, MotorCluster.TipoEnlace tipoEnlace, int n) throws IOException {
+        if (!Files.exists(ruta)) {
+            return -1;
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long bytes = canal.size();
+            if (bytes < TAMANIO_CABECERA) {
+                return -1;
+            }
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+            leerCompleto(canal, cabecera);
+            cabecera.flip();
+            if (cabecera.getInt() != MAGICO || cabecera.getInt() != VERSION || cabecera.getInt() != n
+                    || cabecera.getInt() != tipoEnlace.ordinal() || cabecera.getLong() != huella) {
+                System.out.println("Punto de control de otro problema, se empieza de cero: " + ruta);
+                return -1;
+            }
+
+            long registros = Math.min((bytes - TAMANIO_CABECERA) / TAMANIO_REGISTRO, Math.max(n - 1, 0));
+            int total = (int) registros;
+            asegurarCapacidad(total);
+            ByteBuffer cuerpo = ByteBuffer.allocate(total * TAMANIO_REGISTRO);
+            leerCompleto(canal, cuerpo);
+            cuerpo.flip();
+
+            // antes de tocar la matriz: cada fusion debe unir dos slots vivos, si no el archivo esta danado
+            boolean[] inactivo = new boolean[n];
+            for (int m = 0; m < total; m++) {
+                int i = cuerpo.getInt();
+                int j = cuerpo.getInt();
+                double d = cuerpo.getDouble();
+                if (i < 0 || j < 0 || i >= n || j >= n || i == j || inactivo[i] || inactivo[j] || Double.isNaN(d)) {
+                    System.out.println("Punto de control dañado en la fusión " + m + ", se empieza de cero");
+                    return -1;
+                }
+                inactivo[j] = true;
+                slotI[m] = i;
+                slotJ[m] = j;
+                distancia[m] = d;
+            }
+            return total;
+        }
+    }
+
+    private static void leerCompleto(FileChannel canal, ByteBuffer destino) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino) < 0) throw new IOException("Fin de archivo inesperado");
+        }
+    }
+
+    private void escribirCabecera(long huella, MotorCluster.TipoEnlace tipoEnlace, int n) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+        cabecera.putInt(MAGICO).putInt(VERSION).putInt(n).putInt(tipoEnlace.ordinal())
+                .putLong(huella).putLong(0L).flip();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (cabecera.hasRemaining()) canal.write(cabecera);
+            canal.force(false);
+        }
+    }
+
+    private void truncar(long bytes) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+            canal.truncate(bytes);
+        }
+    }
+
+    // en el hilo del motor despues de cada fusion: solo anota, y si toca lanza la escritura
+    void anotar(int i, int j, double distanciaFusion) {
+        if (error != null) return;
+        asegurarCapacidad(pendientes + 1);
+        slotI[pendientes] = i;
+        slotJ[pendientes] = j;
+        distancia[pendientes] = distanciaFusion;
+        pendientes++;
+
+        // espera minima, y al menos lo que tardo la ultima escritura dividido la fraccion permitida
+        long ahora = System.nanoTime();
+        long espera = Math.max(intervaloMinimo * 1_000_000L, (long) (nanosUltimaEscritura / fraccionMaxima));
+        if (ahora - ultimoPunto >= espera && escritura.isDone()) {
+            lanzarEscritura();
+            ultimoPunto = ahora;
+        }
+    }
+
+    private void lanzarEscritura() {
+        ByteBuffer lote = ByteBuffer.allocate(pendientes * TAMANIO_REGISTRO);
+        for (int m = 0; m < pendientes; m++) {
+            lote.putInt(slotI[m]).putInt(slotJ[m]).putDouble(distancia[m]);
+        }
+        lote.flip();
+        pendientes = 0;
+        escritura = escritura.thenRunAsync(() -> agregarAlArchivo(lote), ejecutor);
+    }
+
+    private void agregarAlArchivo(ByteBuffer lote) {
+        if (error != null) return;
+        long comienzo = System.nanoTime();
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (lote.hasRemaining()) canal.write(lote);
+            canal.force(false);
+        } catch (IOException e) {
+            System.err.println("Advertencia: no se pudo escribir el punto de control: " + e.getMessage());
+            error = e;
+        }
+        nanosUltimaEscritura = System.nanoTime() - comienzo;
+        nanosEscribiendo += nanosUltimaEscritura;
+        puntosEscritos++;
+    }
+
+    // al terminar la ejecucion: escribe lo que falte y espera; si se completo el archivo ya no hace falta
+    synchronized void cerrar(boolean completo) {
+        try {
+            if (!completo && pendientes > 0 && error == null) {
+                lanzarEscritura();
+            }
+            escritura.join();
+            if (completo) {
+                Files.deleteIfExists(ruta);
+            }
+        } catch (IOException e) {
+            System.err.println("Advertencia: no se pudo borrar el punto de control: " + e.getMessage());
+        } finally {
+            slotI = null;
+            slotJ = null;
+            distancia = null;
+            enUso = false;
+        }
+    }
+
+    private void asegurarCapacidad(int capacidad) {
+        if (capacidad <= slotI.length) return;
+        int nueva = Math.max(capacidad, slotI.length * 2);
+        slotI = Arrays.copyOf(slotI, nueva);
+        slotJ = Arrays.copyOf(slotJ, nueva);
+        distancia = Arrays.copyOf(distancia, nueva);
+    }
+
+    // tiempo minimo entre puntos de control, en milisegundos
+    public void setIntervaloMinimo(long intervaloMinimo) {
+        if (intervaloMinimo < 0) {
+            throw new IllegalArgumentException("El intervalo no puede ser negativo");
+        }
+        this.intervaloMinimo = intervaloMinimo;
+    }
+
+    // fraccion maxima del tiempo de la ejecucion que se puede ir en escribir puntos de control
+    public void setFraccionMaxima(double fraccionMaxima) {
+        if (fraccionMaxima <= 0.0 || fraccionMaxima > 1.0) {
+            throw new IllegalArgumentException("La fracción debe estar en (0, 1]");
+        }
+        this.fraccionMaxima = fraccionMaxima;
+    }
+
+    public void setEjecutor(Executor ejecutor) {
+        if (ejecutor == null) {
+            throw new IllegalArgumentException("El ejecutor no puede ser nulo");
+        }
+        this.ejecutor = ejecutor;
+    }
+
+    public String getRuta() {
+        return ruta.toString();
+    }
+
+    // fusiones que se repitieron desde el archivo en la ultima ejecucion
+    public int getFusionesRetomadas() {
+        return fusionesRetomadas;
+    }
+
+    public int getPuntosEscritos() {
+        return puntosEscritos;
+    }
+
+    public long getNanosEscribiendo() {
+        return nanosEscribiendo;
+    }
+
+    @Override
+    public String toString() {
+        return "PuntoControl [" + ruta + ", retomadas=" + fusionesRetomadas + ", puntos=" + puntosEscritos + "]";
+    }
+}
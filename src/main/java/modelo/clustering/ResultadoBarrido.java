@@ -0,0 +1,82 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.normalizacion.FactoryNormalizacion;
+
+// una configuracion del barrido con sus tiempos por etapa
+// normalizacion y matriz son compartidas: el mismo tiempo aparece en todas las configuraciones que las usan
+public final class ResultadoBarrido {
+
+    private final FactoryNormalizacion.TipoNormalizacion normalizacion;
+    private final FactoryDistancia.TipoDistancia distancia;
+    private final MotorCluster.TipoEnlace enlace;
+    private final ArregloEnlace arregloEnlace;
+    private final double correlacionCofenetica;
+    private final long milisNormalizacion;
+    private final long milisMatriz;
+    private final long milisEnlace;
+    private final long milisCorrelacion;
+
+    public ResultadoBarrido(FactoryNormalizacion.TipoNormalizacion normalizacion,
+                            FactoryDistancia.TipoDistancia distancia, MotorCluster.TipoEnlace enlace,
+                            ArregloEnlace arregloEnlace, double correlacionCofenetica,
+                            long milisNormalizacion, long milisMatriz, long milisEnlace, long milisCorrelacion) {
+        this.normalizacion = normalizacion;
+        this.distancia = distancia;
+        this.enlace = enlace;
+        this.arregloEnlace = arregloEnlace;
+        this.correlacionCofenetica = correlacionCofenetica;
+        this.milisNormalizacion = milisNormalizacion;
+        this.milisMatriz = milisMatriz;
+        this.milisEnlace = milisEnlace;
+        this.milisCorrelacion = milisCorrelacion;
+    }
+
+    public FactoryNormalizacion.TipoNormalizacion getNormalizacion() {
+        return normalizacion;
+    }
+
+    public FactoryDistancia.TipoDistancia getDistancia() {
+        return distancia;
+    }
+
+    public MotorCluster.TipoEnlace getEnlace() {
+        return enlace;
+    }
+
+    public ArregloEnlace getArregloEnlace() {
+        return arregloEnlace;
+    }
+
+    public double getCorrelacionCofenetica() {
+        return correlacionCofenetica;
+    }
+
+    public long getMilisNormalizacion() {
+        return milisNormalizacion;
+    }
+
+    public long getMilisMatriz() {
+        return milisMatriz;
+    }
+
+    public long getMilisEnlace() {
+        return milisEnlace;
+    }
+
+    public long getMilisCorrelacion() {
+        return milisCorrelacion;
+    }
+
+    // lo que costaria esta configuracion ejecutada sola
+    public long getMilisTotal() {
+        return milisNormalizacion + milisMatriz + milisEnlace + milisCorrelacion;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoBarrido [" + normalizacion + ", " + distancia + ", " + enlace +
+                ", cofenetica=" + String.format("%.4f", correlacionCofenetica) + ", " + getMilisTotal() + " ms]";
+    }
+}
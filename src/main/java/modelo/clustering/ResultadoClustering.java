@@ -0,0 +1,51 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+
+// salida inmutable de un trabajo del servicio
+public final class ResultadoClustering {
+
+    private final ArregloEnlace enlace;
+    private final double correlacionCofenetica;
+    private final FactoryDistancia.TipoDistancia tipoDistancia;
+    private final MotorCluster.TipoEnlace tipoEnlace;
+    private final long duracionMilis;
+
+    public ResultadoClustering(ArregloEnlace enlace, double correlacionCofenetica,
+                               FactoryDistancia.TipoDistancia tipoDistancia,
+                               MotorCluster.TipoEnlace tipoEnlace, long duracionMilis) {
+        this.enlace = enlace;
+        this.correlacionCofenetica = correlacionCofenetica;
+        this.tipoDistancia = tipoDistancia;
+        this.tipoEnlace = tipoEnlace;
+        this.duracionMilis = duracionMilis;
+    }
+
+    public ArregloEnlace getEnlace() {
+        return enlace;
+    }
+
+    public double getCorrelacionCofenetica() {
+        return correlacionCofenetica;
+    }
+
+    public FactoryDistancia.TipoDistancia getTipoDistancia() {
+        return tipoDistancia;
+    }
+
+    public MotorCluster.TipoEnlace getTipoEnlace() {
+        return tipoEnlace;
+    }
+
+    public long getDuracionMilis() {
+        return duracionMilis;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoClustering [hojas=" + enlace.getNumeroHojas() + ", enlace=" + tipoEnlace +
+                ", distancia=" + tipoDistancia + ", cofenetica=" + String.format("%.4f", correlacionCofenetica) +
+                ", " + duracionMilis + " ms]";
+    }
+}
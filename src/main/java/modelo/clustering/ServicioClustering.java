@@ -0,0 +1,240 @@
+package modelo.clustering;
+
+import modelo.distancias.CacheMatrices;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.TokenCancelacion;
+import modelo.estructuras.Vector;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// ejecuta trabajos de clustering concurrentes con un pool acotado y una cola limitada
+// cada trabajo reserva su memoria estimada antes de empezar; si no alcanza espera a que otro libere
+// el servicio no guarda estado de ninguna ejecucion, cada trabajo usa sus propias instancias;
+// lo unico compartido es la cache de matrices, que evita recalcular al cambiar solo el enlace
+// las matrices en cache se cobran del mismo presupuesto de memoria que los trabajos; un trabajo que
+// no alcanza a reservar hace expulsar las menos usadas antes de esperar a que otro termine
+// cada trabajo lleva un token: cancelar el futuro o el token detiene el trabajo en la siguiente fila de
+// la matriz o fusion del motor, y su memoria se libera en ese momento
+public class ServicioClustering implements AutoCloseable {
+
+    private static final int BYTES_POR_PERMISO = 1024;
+
+    private final ThreadPoolExecutor ejecutor;
+    private final Semaphore memoria;
+    private final int permisosTotales;
+    private final CacheMatrices cache;
+
+    public ServicioClustering() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 16,
+                Runtime.getRuntime().maxMemory() / 2,
+                new CacheMatrices(Runtime.getRuntime().maxMemory() / 4));
+    }
+
+    public ServicioClustering(int hilos, int capacidadCola, long memoriaMaxima) {
+        this(hilos, capacidadCola, memoriaMaxima, new CacheMatrices(0));
+    }
+
+    public ServicioClustering(int hilos, int capacidadCola, long memoriaMaxima, CacheMatrices cache) {
+        if (hilos < 1 || capacidadCola < 1 || memoriaMaxima < BYTES_POR_PERMISO) {
+            throw new IllegalArgumentException("Hilos, cola y memoria deben ser positivos");
+        }
+        if (cache == null) {
+            throw new IllegalArgumentException("La cache no puede ser nula");
+        }
+        this.cache = cache;
+
+        this.permisosTotales = (int) Math.min(Integer.MAX_VALUE, memoriaMaxima / BYTES_POR_PERMISO);
+        this.memoria = new Semaphore(permisosTotales, true);
+        cache.setPresupuesto(new CacheMatrices.Presupuesto() {
+            @Override
+            public boolean reservar(long bytes) {
+                return memoria.tryAcquire(permisosDeBytes(bytes));
+            }
+
+            @Override
+            public void liberar(long bytes) {
+                memoria.release(permisosDeBytes(bytes));
+            }
+        });
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), new FabricaHilos(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // lanza RejectedExecutionException si la cola esta llena
+    public CompletableFuture<ResultadoClustering> enviar(SolicitudClustering solicitud) {
+        return enviar(solicitud, new TokenCancelacion());
+    }
+
+    // con un token propio el llamador puede cancelar el trabajo sin guardar el futuro, por ejemplo al
+    // lanzar uno nuevo que lo reemplaza; el plazo de la solicitud corre aparte en un token derivado,
+    // asi vencerlo (o cancelar el futuro) no cancela el token del llamador
+    public CompletableFuture<ResultadoClustering> enviar(SolicitudClustering solicitud, TokenCancelacion token) {
+        return enviar(solicitud, token, null);
+    }
+
+    // las fusiones se publican en el flujo mientras el trabajo corre (ver FlujoFusiones); si el trabajo
+    // se cancela o falla antes de llegar al motor el flujo tambien se entera
+    public CompletableFuture<ResultadoClustering> enviar(SolicitudClustering solicitud, TokenCancelacion token,
+                                                         FlujoFusiones flujo) {
+        if (token == null) {
+            throw new IllegalArgumentException("El token no puede ser nulo");
+        }
+        TokenCancelacion efectivo = solicitud.getPlazoMilisegundos() > 0
+                ? token.derivarConPlazo(solicitud.getPlazoMilisegundos())
+                : token;
+        int permisos = permisosPara(solicitud);
+        if (permisos > permisosTotales) {
+            throw new IllegalArgumentException("El trabajo necesita ~" + (solicitud.estimarMemoria() >> 20) +
+                    " MB, más que la memoria asignada al servicio");
+        }
+
+        CompletableFuture<ResultadoClustering> futuro = new CompletableFuture<>();
+        futuro.whenComplete((resultado, error) -> {
+            if (futuro.isCancelled() && efectivo != TokenCancelacion.NINGUNO) efectivo.cancelar();
+        });
+        ejecutor.execute(() -> {
+            if (futuro.isDone()) { // cancelado mientras esperaba en la cola
+                if (flujo != null) flujo.fallar(new CancellationException("Cancelado en la cola"));
+                return;
+            }
+
+            boolean reservado = false;
+            ResultadoClustering resultado = null;
+            Throwable error = null;
+            try {
+                efectivo.verificar();
+                // sin bloquear indefinidamente: un trabajo cancelado deja de esperar memoria
+                while (!reservar(permisos)) {
+                    efectivo.verificar();
+                }
+                reservado = true;
+                resultado = ejecutar(solicitud, efectivo, flujo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            } catch (Throwable t) {
+                error = t;
+            } finally {
+                if (reservado) memoria.release(permisos);
+            }
+
+            // se completa con la memoria ya devuelta, asi quien espera el futuro la ve disponible
+            if (error != null) {
+                if (flujo != null) flujo.fallar(error);
+                futuro.completeExceptionally(error);
+            } else {
+                futuro.complete(resultado);
+            }
+        });
+        return futuro;
+    }
+
+    // sincronico, en el hilo que llama y sin pasar por la cola
+    public ResultadoClustering ejecutar(SolicitudClustering solicitud) {
+        return ejecutar(solicitud, TokenCancelacion.NINGUNO);
+    }
+
+    // lanza CancellationException si el token se cancela antes de terminar; el plazo de la solicitud
+    // no se aplica aca, es desde que se envia a la cola
+    public ResultadoClustering ejecutar(SolicitudClustering solicitud, TokenCancelacion token) {
+        return ejecutar(solicitud, token, null);
+    }
+
+    // si falla antes de llegar al motor (matriz cancelada, por ejemplo) el flujo tambien se entera; despues
+    // de la ultima fusion el flujo ya termino y un fallo en la correlacion no lo cambia
+    public ResultadoClustering ejecutar(SolicitudClustering solicitud, TokenCancelacion token, FlujoFusiones flujo) {
+        try {
+            long inicio = System.nanoTime();
+            Vector[] vectores = solicitud.vectores();
+
+            // compartida con otros trabajos: solo se lee
+            Matriz original = cache.obtenerOCalcular(vectores, solicitud.getTipoDistancia(), token);
+            String[] etiquetas = new String[vectores.length];
+            for (int i = 0; i < vectores.length; i++) {
+                etiquetas[i] = vectores[i].getEtiqueta();
+            }
+
+            OpcionesEnlace opciones = new OpcionesEnlace();
+            opciones.setToken(token);
+            opciones.setFlujo(flujo);
+            ArregloEnlace enlace = new MotorCluster(solicitud.getTipoEnlace()).construirEnlaceSobreCopia(original,
+                    etiquetas, opciones);
+            double correlacion = CorrelacionCofenetica.calcular(original, enlace, token);
+
+            long duracion = (System.nanoTime() - inicio) / 1_000_000;
+            return new ResultadoClustering(enlace, correlacion, solicitud.getTipoDistancia(),
+                    solicitud.getTipoEnlace(), duracion);
+        } catch (RuntimeException | Error e) {
+            if (flujo != null) flujo.fallar(e);
+            throw e;
+        }
+    }
+
+    public int getTrabajosEnCola() {
+        return ejecutor.getQueue().size();
+    }
+
+    public int getTrabajosActivos() {
+        return ejecutor.getActiveCount();
+    }
+
+    public CacheMatrices getCache() {
+        return cache;
+    }
+
+    // descontadas las matrices que estan en cache
+    public long getMemoriaDisponible() {
+        return (long) memoria.availablePermits() * BYTES_POR_PERMISO;
+    }
+
+    // no acepta trabajos nuevos, los encolados terminan
+    @Override
+    public void close() {
+        ejecutor.shutdown();
+    }
+
+    // primero la cache devuelve matrices, despues se espera un rato a que otro trabajo libere
+    private boolean reservar(int permisos) throws InterruptedException {
+        while (!memoria.tryAcquire(permisos)) {
+            if (!cache.expulsarMenosUsada()) {
+                return memoria.tryAcquire(permisos, 50, TimeUnit.MILLISECONDS);
+            }
+        }
+        return true;
+    }
+
+    private int permisosPara(SolicitudClustering solicitud) {
+        return Math.max(1, permisosDeBytes(solicitud.estimarMemoria()));
+    }
+
+    private static int permisosDeBytes(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + BYTES_POR_PERMISO - 1) / BYTES_POR_PERMISO);
+    }
+
+    // hilos daemon con nombre, para no impedir que la aplicacion se cierre
+    private static class FabricaHilos implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable tarea) {
+            Thread hilo = new Thread(tarea, "clustering-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ServicioClustering [hilos=" + ejecutor.getMaximumPoolSize() + ", activos=" + getTrabajosActivos() +
+                ", en cola=" + getTrabajosEnCola() + "]";
+    }
+}
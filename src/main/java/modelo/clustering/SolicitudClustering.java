@@ -0,0 +1,87 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.Vector;
+
+// entrada inmutable de un trabajo: copia los vectores, asi el llamador puede seguir modificando los suyos
+public final class SolicitudClustering {
+
+    private final Vector[] vectores;
+    private final FactoryDistancia.TipoDistancia tipoDistancia;
+    private final MotorCluster.TipoEnlace tipoEnlace;
+    private final long plazoMilisegundos;
+
+    public SolicitudClustering(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia,
+                               MotorCluster.TipoEnlace tipoEnlace) {
+        this(vectores, tipoDistancia, tipoEnlace, 0);
+    }
+
+    // plazo en milisegundos desde que se envia, incluida la espera en la cola; 0 es sin plazo
+    public SolicitudClustering(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia,
+                               MotorCluster.TipoEnlace tipoEnlace, long plazoMilisegundos) {
+        if (plazoMilisegundos < 0) {
+            throw new IllegalArgumentException("El plazo no puede ser negativo");
+        }
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+        if (tipoDistancia == null || tipoEnlace == null) {
+            throw new IllegalArgumentException("Debe indicar distancia y enlace");
+        }
+
+        this.vectores = new Vector[vectores.length];
+        for (int i = 0; i < vectores.length; i++) {
+            this.vectores[i] = new Vector(vectores[i]);
+        }
+        this.tipoDistancia = tipoDistancia;
+        this.tipoEnlace = tipoEnlace;
+        this.plazoMilisegundos = plazoMilisegundos;
+    }
+
+    // copia defensiva
+    public Vector[] getVectores() {
+        Vector[] copia = new Vector[vectores.length];
+        for (int i = 0; i < vectores.length; i++) {
+            copia[i] = new Vector(vectores[i]);
+        }
+        return copia;
+    }
+
+    // sin copiar, solo para el servicio
+    Vector[] vectores() {
+        return vectores;
+    }
+
+    public int getNumeroVectores() {
+        return vectores.length;
+    }
+
+    public int getDimension() {
+        return vectores[0].dimension();
+    }
+
+    public FactoryDistancia.TipoDistancia getTipoDistancia() {
+        return tipoDistancia;
+    }
+
+    public MotorCluster.TipoEnlace getTipoEnlace() {
+        return tipoEnlace;
+    }
+
+    public long getPlazoMilisegundos() {
+        return plazoMilisegundos;
+    }
+
+    // matriz original + copia que el motor modifica + vectores + arreglo de enlace
+    public long estimarMemoria() {
+        long n = vectores.length;
+        return 2 * 8 * n * n + 8 * n * getDimension() + 40 * n;
+    }
+
+    @Override
+    public String toString() {
+        return "SolicitudClustering [vectores=" + vectores.length + ", distancia=" + tipoDistancia +
+                ", enlace=" + tipoEnlace +
+                (plazoMilisegundos > 0 ? ", plazo=" + plazoMilisegundos + " ms" : "") + "]";
+    }
+}
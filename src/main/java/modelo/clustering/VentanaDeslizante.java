@@ -0,0 +1,643 @@
+package modelo.clustering;
+
+import modelo.datos.CargadorCSV;
+import modelo.distancias.FactoryDistancia;
+import modelo.distancias.ICalculadorDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.OrdenamientoIndices;
+import modelo.estructuras.UnionBusqueda;
+import modelo.estructuras.Vector;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+// dendrograma en linea sobre los ultimos N vectores de un flujo: al llegar uno nuevo con la ventana
+// llena se desaloja el mas viejo. Cada vector guarda su fila de distancias al resto de la ventana, asi
+// un evento cuesta una fila (O(N) distancias) y nunca se recalcula la matriz
+//
+// enlace MINIMO: exacto. Se mantiene el arbol de expansion minima de la ventana: la insercion es la de
+// InsercionIncremental en O(N) y al desalojar un vertice sus componentes se vuelven a unir con Prim sobre
+// componentes, O((N - L) * N) con L el tamanio de la mayor (casi nada si el vertice era una hoja del arbol)
+//
+// otros enlaces: el nuevo se cuelga con Lance-Williams del nodo con el que se fusionaria primero y el
+// desalojado se quita colapsando su padre; despues se rehace desde las filas guardadas el mayor subarbol
+// alrededor del cambio con a lo sumo tamanioLocal hojas. Cada intervaloReconstruccion eventos se rehace el
+// arbol entero desde las filas (sin calcular distancias) para acotar lo que se aleja del recalculado
+// no es seguro entre hilos
+public class VentanaDeslizante {
+
+    private static final int TAMANIO_LOCAL_DEFECTO = 32;
+
+    private final int capacidad;
+    private final MotorCluster.TipoEnlace tipoEnlace;
+    private final ICalculadorDistancia calculador;
+    private final ActualizadorMatrizDistancias actualizador;
+    private final MotorCluster motor;
+
+    // anillo de slots: el mas viejo esta en inicio; distancias[a][b] entre slots vivos
+    private final Vector[] vectores;
+    private final double[][] distancias;
+    private int inicio;
+    private int tamanio;
+
+    // enlace MINIMO: aristas del arbol de expansion minima, entre slots
+    private final int[] origen;
+    private final int[] destino;
+    private final double[] peso;
+    private int aristas;
+
+    // otros enlaces: arbol editable, hoja = slot y fusion f = nodo capacidad + f
+    private final int[] izquierdo;
+    private final int[] derecho;
+    private final double[] altura;
+    private final int[] hojas;
+    private final int[] padre;
+    private final int[] libres;
+    private int numeroLibres;
+    private int raiz;
+    private final double[] distanciaNuevo;
+
+    private int tamanioLocal = TAMANIO_LOCAL_DEFECTO;
+    private int intervaloReconstruccion;
+    private int eventosDesdeReconstruccion;
+
+    private long eventos;
+    private int reconstrucciones;
+    private long ultimaLatencia;
+    private ArregloEnlace enlace;
+
+    public VentanaDeslizante(int capacidad, MotorCluster.TipoEnlace tipoEnlace,
+                             FactoryDistancia.TipoDistancia tipoDistancia) {
+        if (capacidad < 2) {
+            throw new IllegalArgumentException("La ventana debe tener capacidad para al menos 2 vectores");
+        }
+        if (tipoEnlace == null || tipoDistancia == null) {
+            throw new IllegalArgumentException("Debe indicar el tipo de enlace y de distancia");
+        }
+        this.capacidad = capacidad;
+        this.tipoEnlace = tipoEnlace;
+        this.calculador = FactoryDistancia.crear(tipoDistancia);
+        this.actualizador = new ActualizadorMatrizDistancias(
+                ActualizadorMatrizDistancias.TipoEnlace.valueOf(tipoEnlace.name()));
+        this.motor = new MotorCluster(tipoEnlace);
+        this.intervaloReconstruccion = capacidad;
+
+        this.vectores = new Vector[capacidad];
+        this.distancias = new double[capacidad][capacidad];
+
+        boolean minimo = esMinimo();
+        this.origen = new int[minimo ? capacidad - 1 : 0];
+        this.destino = new int[minimo ? capacidad - 1 : 0];
+        this.peso = new double[minimo ? capacidad - 1 : 0];
+
+        int fusiones = minimo ? 0 : capacidad - 1;
+        this.izquierdo = new int[fusiones];
+        this.derecho = new int[fusiones];
+        this.altura = new double[fusiones];
+        this.hojas = new int[fusiones];
+        this.libres = new int[fusiones];
+        this.padre = new int[minimo ? 0 : capacidad + fusiones];
+        this.distanciaNuevo = new double[minimo ? 0 : capacidad + fusiones];
+        vaciar();
+    }
+
+    // agrega al final de la ventana; si esta llena primero desaloja el mas viejo
+    public void agregar(Vector vector) {
+        if (vector == null) {
+            throw new IllegalArgumentException("El vector no puede ser nulo");
+        }
+        if (tamanio > 0 && vector.dimension() != vectores[inicio].dimension()) {
+            throw new IllegalArgumentException("El vector no tiene la dimensión de la ventana");
+        }
+
+        long comienzo = System.nanoTime();
+        if (tamanio == capacidad) quitarMasViejo();
+
+        int slot = (inicio + tamanio) % capacidad;
+        vectores[slot] = vector;
+        double[] fila = distancias[slot];
+        for (int k = 0; k < tamanio; k++) {
+            int t = slotEn(k);
+            double d = calculador.calcular(vector, vectores[t]);
+            fila[t] = d;
+            distancias[t][slot] = d;
+        }
+        fila[slot] = 0.0;
+        tamanio++;
+
+        if (esMinimo()) insertarEnArbolMinimo(slot);
+        else insertarHoja(slot);
+        terminarEvento(comienzo);
+    }
+
+    public void agregarTodos(Vector[] nuevos) {
+        if (nuevos == null) {
+            throw new IllegalArgumentException("Array de vectores nuevos no puede ser nulo");
+        }
+        // los que saldrian en la misma tanda no llegan a entrar
+        for (int i = Math.max(0, nuevos.length - capacidad); i < nuevos.length; i++) {
+            agregar(nuevos[i]);
+        }
+    }
+
+    // quita el mas viejo y lo retorna
+    public Vector desalojar() {
+        if (tamanio == 0) {
+            throw new IllegalStateException("La ventana está vacía");
+        }
+        long comienzo = System.nanoTime();
+        Vector viejo = quitarMasViejo();
+        terminarEvento(comienzo);
+        return viejo;
+    }
+
+    // fuente de prueba: las filas agregadas al final del CSV desde la ultima lectura (ver
+    // CargadorCSV.anexarNuevasFilas), pasadas por preparador (seleccion, normalizacion, pesos) si no es null
+    // si el cargador tuvo que releer todo, la ventana se rearma con las ultimas filas del archivo
+    public int seguir(CargadorCSV cargador, UnaryOperator<Vector[]> preparador) throws IOException {
+        Vector[] nuevos = cargador.anexarNuevasFilas();
+        if (nuevos == null) {
+            vaciar();
+            Vector[] todos = cargador.getVectores();
+            nuevos = Arrays.copyOfRange(todos, Math.max(0, todos.length - capacidad), todos.length);
+        }
+        if (nuevos.length == 0) {
+            return 0;
+        }
+        if (preparador != null) {
+            nuevos = preparador.apply(nuevos);
+        }
+        agregarTodos(nuevos);
+        return nuevos.length;
+    }
+
+    public void vaciar() {
+        Arrays.fill(vectores, null);
+        inicio = 0;
+        tamanio = 0;
+        aristas = 0;
+        raiz = -1;
+        Arrays.fill(padre, -1);
+        numeroLibres = libres.length;
+        for (int i = 0; i < libres.length; i++) libres[i] = capacidad + libres.length - 1 - i;
+        eventosDesdeReconstruccion = 0;
+        enlace = null;
+    }
+
+    // rehace el arbol entero desde las filas guardadas; con MINIMO no hace falta, el arbol es exacto
+    public void reconstruir() {
+        eventosDesdeReconstruccion = 0;
+        if (esMinimo() || raiz < capacidad) return;
+        reconstruirSubarbol(raiz);
+        reconstrucciones++;
+        enlace = null;
+    }
+
+    // hojas en orden de llegada, la 0 es la mas vieja
+    public ArregloEnlace getEnlace() {
+        if (tamanio == 0) {
+            throw new IllegalStateException("La ventana está vacía");
+        }
+        if (enlace == null) {
+            enlace = esMinimo() ? enlaceMinimo() : enlaceArbol();
+        }
+        return enlace;
+    }
+
+    public Vector[] getVectores() {
+        Vector[] resultado = new Vector[tamanio];
+        for (int k = 0; k < tamanio; k++) resultado[k] = vectores[slotEn(k)];
+        return resultado;
+    }
+
+    private Vector quitarMasViejo() {
+        int slot = inicio;
+        Vector viejo = vectores[slot];
+        if (esMinimo()) quitarDeArbolMinimo(slot);
+        else quitarHoja(slot);
+        vectores[slot] = null;
+        inicio = (inicio + 1) % capacidad;
+        tamanio--;
+        return viejo;
+    }
+
+    private void terminarEvento(long comienzo) {
+        eventos++;
+        enlace = null;
+        if (!esMinimo() && intervaloReconstruccion > 0 && ++eventosDesdeReconstruccion >= intervaloReconstruccion) {
+            reconstruir();
+        }
+        ultimaLatencia = System.nanoTime() - comienzo;
+    }
+
+    private boolean esMinimo() {
+        return tipoEnlace == MotorCluster.TipoEnlace.MINIMO;
+    }
+
+    private int slotEn(int posicion) {
+        return (inicio + posicion) % capacidad;
+    }
+
+    private int posicionDe(int slot) {
+        return (slot - inicio + capacidad) % capacidad;
+    }
+
+    // ENLACE MINIMO
+
+    private void insertarEnArbolMinimo(int slot) {
+        int p = tamanio - 1;
+        if (p == 0) return;
+
+        // InsercionIncremental trabaja con vertices 0..p-1 y el nuevo en p: posiciones en la ventana
+        int[] o = new int[p];
+        int[] d = new int[p];
+        double[] w = new double[p];
+        for (int e = 0; e < aristas; e++) {
+            o[e] = posicionDe(origen[e]);
+            d[e] = posicionDe(destino[e]);
+            w[e] = peso[e];
+        }
+        double[] fila = new double[p];
+        for (int k = 0; k < p; k++) fila[k] = distancias[slot][slotEn(k)];
+
+        InsercionIncremental.agregarVertice(p, fila, o, d, w);
+        for (int e = 0; e < p; e++) {
+            origen[e] = slotEn(o[e]);
+            destino[e] = slotEn(d[e]);
+            peso[e] = w[e];
+        }
+        aristas = p;
+    }
+
+    // sin el vertice el arbol queda en tantas componentes como aristas tenia; se unen con Prim tomando
+    // cada componente entera: la mayor es el arbol inicial y solo se recorren las filas de las demas
+    private void quitarDeArbolMinimo(int slot) {
+        int quedan = 0;
+        for (int e = 0; e < aristas; e++) {
+            if (origen[e] == slot || destino[e] == slot) continue;
+            origen[quedan] = origen[e];
+            destino[quedan] = destino[e];
+            peso[quedan] = peso[e];
+            quedan++;
+        }
+        aristas = quedan;
+        if (tamanio <= 2 || aristas == tamanio - 2) return;
+
+        UnionBusqueda componentes = new UnionBusqueda(capacidad);
+        for (int e = 0; e < aristas; e++) componentes.unir(origen[e], destino[e]);
+
+        int mayor = -1;
+        for (int k = 0; k < tamanio; k++) {
+            int t = slotEn(k);
+            if (t == slot) continue;
+            if (mayor < 0 || componentes.tamanioDe(t) > componentes.tamanioDe(mayor)) mayor = t;
+        }
+        int raizMayor = componentes.buscar(mayor);
+
+        // fuera del arbol: los vivos de las otras componentes, con su arista mas liviana hacia el arbol
+        int[] fuera = new int[tamanio];
+        int[] dentro = new int[tamanio];
+        int numeroFuera = 0;
+        int numeroDentro = 0;
+        for (int k = 0; k < tamanio; k++) {
+            int t = slotEn(k);
+            if (t == slot) continue;
+            if (componentes.buscar(t) == raizMayor) dentro[numeroDentro++] = t;
+            else fuera[numeroFuera++] = t;
+        }
+        double[] clave = new double[numeroFuera];
+        int[] hacia = new int[numeroFuera];
+        Arrays.fill(clave, Double.POSITIVE_INFINITY);
+        actualizarClaves(fuera, numeroFuera, clave, hacia, dentro, numeroDentro);
+
+        int[] absorbidos = new int[numeroFuera];
+        while (numeroFuera > 0) {
+            int mejor = 0;
+            for (int f = 1; f < numeroFuera; f++) {
+                if (clave[f] < clave[mejor]) mejor = f;
+            }
+            origen[aristas] = fuera[mejor];
+            destino[aristas] = hacia[mejor];
+            peso[aristas] = clave[mejor];
+            aristas++;
+
+            // la componente del elegido entra entera
+            int raizComponente = componentes.buscar(fuera[mejor]);
+            int numeroAbsorbidos = 0;
+            int restantes = 0;
+            for (int f = 0; f < numeroFuera; f++) {
+                if (componentes.buscar(fuera[f]) == raizComponente) {
+                    absorbidos[numeroAbsorbidos++] = fuera[f];
+                } else {
+                    fuera[restantes] = fuera[f];
+                    clave[restantes] = clave[f];
+                    hacia[restantes] = hacia[f];
+                    restantes++;
+                }
+            }
+            numeroFuera = restantes;
+            actualizarClaves(fuera, numeroFuera, clave, hacia, absorbidos, numeroAbsorbidos);
+        }
+    }
+
+    private void actualizarClaves(int[] fuera, int numeroFuera, double[] clave, int[] hacia,
+                                  int[] nuevos, int numeroNuevos) {
+        for (int f = 0; f < numeroFuera; f++) {
+            double[] fila = distancias[fuera[f]];
+            for (int k = 0; k < numeroNuevos; k++) {
+                double d = fila[nuevos[k]];
+                if (d < clave[f]) {
+                    clave[f] = d;
+                    hacia[f] = nuevos[k];
+                }
+            }
+        }
+    }
+
+    private ArregloEnlace enlaceMinimo() {
+        int[] o = new int[aristas];
+        int[] d = new int[aristas];
+        for (int e = 0; e < aristas; e++) {
+            o[e] = posicionDe(origen[e]);
+            d[e] = posicionDe(destino[e]);
+        }
+        return MotorBoruvka.enlaceDesdeArbol(etiquetasVentana(), o, d, Arrays.copyOf(peso, aristas));
+    }
+
+    // OTROS ENLACES
+
+    private void insertarHoja(int slot) {
+        if (raiz < 0) {
+            raiz = slot;
+            return;
+        }
+
+        // distancia del nuevo a cada nodo, de las hojas hacia arriba
+        int[] postorden = postorden(raiz);
+        double[] fila = distancias[slot];
+        int elegido = -1;
+        for (int nodo : postorden) {
+            if (nodo < capacidad) {
+                distanciaNuevo[nodo] = fila[nodo];
+            } else {
+                int f = nodo - capacidad;
+                distanciaNuevo[nodo] = actualizador.combinar(distanciaNuevo[izquierdo[f]], distanciaNuevo[derecho[f]],
+                        altura[f], tamanioDe(izquierdo[f]), tamanioDe(derecho[f]));
+            }
+        }
+
+        // el nodo mas cercano que siga vivo a esa distancia (antes de que lo absorba su padre)
+        for (int nodo : postorden) {
+            double limite = padre[nodo] < 0 ? Double.POSITIVE_INFINITY : altura[padre[nodo] - capacidad];
+            if (distanciaNuevo[nodo] < limite && (elegido < 0 || distanciaNuevo[nodo] < distanciaNuevo[elegido])) {
+                elegido = nodo;
+            }
+        }
+        if (elegido < 0) elegido = raiz;
+
+        int ancestro = padre[elegido];
+        int g = nuevaFusion(elegido, slot, Math.max(distanciaNuevo[elegido], alturaDe(elegido)));
+        reemplazarHijo(ancestro, elegido, g);
+
+        // ancestros: d(Z + p, Y) por Lance-Williams, como en InsercionIncremental
+        int hijo = g;
+        int viejo = elegido;
+        int tamanioViejo = tamanioDe(elegido);
+        while (ancestro >= 0) {
+            int f = ancestro - capacidad;
+            int hermano = izquierdo[f] == hijo ? derecho[f] : izquierdo[f];
+            double despues = actualizador.combinar(altura[f], distanciaNuevo[hermano], distanciaNuevo[viejo],
+                    tamanioViejo, 1);
+            altura[f] = Math.max(despues, Math.max(alturaDe(hijo), alturaDe(hermano)));
+            tamanioViejo = hojas[f];
+            hojas[f]++;
+            viejo = ancestro;
+            hijo = ancestro;
+            ancestro = padre[ancestro];
+        }
+
+        reconstruirAlrededor(g);
+    }
+
+    // el padre del desalojado desaparece y el hermano ocupa su lugar
+    private void quitarHoja(int slot) {
+        int p = padre[slot];
+        padre[slot] = -1;
+        if (p < 0) {
+            raiz = -1;
+            return;
+        }
+        int f = p - capacidad;
+        int hermano = izquierdo[f] == slot ? derecho[f] : izquierdo[f];
+        int abuelo = padre[p];
+        reemplazarHijo(abuelo, p, hermano);
+        liberar(p);
+        for (int a = abuelo; a >= 0; a = padre[a]) hojas[a - capacidad]--;
+
+        if (abuelo >= 0) reconstruirAlrededor(abuelo);
+    }
+
+    // el mayor subarbol que contiene al nodo y tiene a lo sumo tamanioLocal hojas
+    private void reconstruirAlrededor(int nodo) {
+        while (padre[nodo] >= 0 && hojas[padre[nodo] - capacidad] <= tamanioLocal) nodo = padre[nodo];
+        if (nodo >= capacidad && hojas[nodo - capacidad] > 2) reconstruirSubarbol(nodo);
+    }
+
+    // aglomeracion exacta de las hojas del subarbol con las filas guardadas, y se lo reemplaza
+    private void reconstruirSubarbol(int nodo) {
+        int[] recorrido = postorden(nodo);
+        int[] slots = new int[hojas[nodo - capacidad]];
+        int m = 0;
+        for (int x : recorrido) {
+            if (x < capacidad) slots[m++] = x;
+        }
+        Arrays.sort(slots);
+
+        Matriz matriz = new Matriz(m);
+        String[] etiquetas = new String[m];
+        for (int a = 0; a < m; a++) {
+            etiquetas[a] = vectores[slots[a]].getEtiqueta();
+            for (int b = a + 1; b < m; b++) {
+                double d = distancias[slots[a]][slots[b]];
+                matriz.setPosicion(a, b, d);
+                matriz.setPosicion(b, a, d);
+            }
+        }
+        ArregloEnlace local = motor.construirEnlace(matriz, etiquetas);
+
+        int ancestro = padre[nodo];
+        for (int x : recorrido) {
+            if (x >= capacidad) liberar(x);
+        }
+        int[] idDe = new int[2 * m - 1];
+        System.arraycopy(slots, 0, idDe, 0, m);
+        for (int f = 0; f < m - 1; f++) {
+            idDe[m + f] = nuevaFusion(idDe[local.getIzquierdo(f)], idDe[local.getDerecho(f)], local.getAltura(f));
+        }
+        int nuevo = idDe[2 * m - 2];
+        padre[nuevo] = ancestro;
+        reemplazarHijo(ancestro, nodo, nuevo);
+
+        // la altura del subarbol pudo cambiar: los ancestros no quedan por debajo
+        for (int a = ancestro; a >= 0; a = padre[a]) {
+            int f = a - capacidad;
+            double minima = Math.max(alturaDe(izquierdo[f]), alturaDe(derecho[f]));
+            if (altura[f] >= minima) break;
+            altura[f] = minima;
+        }
+    }
+
+    private int nuevaFusion(int a, int b, double alturaFusion) {
+        int nodo = libres[--numeroLibres];
+        int f = nodo - capacidad;
+        izquierdo[f] = a;
+        derecho[f] = b;
+        altura[f] = alturaFusion;
+        hojas[f] = tamanioDe(a) + tamanioDe(b);
+        padre[nodo] = -1;
+        padre[a] = nodo;
+        padre[b] = nodo;
+        return nodo;
+    }
+
+    private void liberar(int nodo) {
+        padre[nodo] = -1;
+        libres[numeroLibres++] = nodo;
+    }
+
+    // en el lugar de viejo (hijo de ancestro, o raiz si ancestro < 0) queda nuevo
+    private void reemplazarHijo(int ancestro, int viejo, int nuevo) {
+        padre[nuevo] = ancestro;
+        if (ancestro < 0) {
+            raiz = nuevo;
+            return;
+        }
+        int f = ancestro - capacidad;
+        if (izquierdo[f] == viejo) izquierdo[f] = nuevo;
+        else derecho[f] = nuevo;
+    }
+
+    private int tamanioDe(int nodo) {
+        return nodo < capacidad ? 1 : hojas[nodo - capacidad];
+    }
+
+    private double alturaDe(int nodo) {
+        return nodo < capacidad ? 0.0 : altura[nodo - capacidad];
+    }
+
+    // hijos antes que padres
+    private int[] postorden(int desde) {
+        int[] resultado = new int[2 * tamanioDe(desde) - 1];
+        int[] pila = new int[resultado.length];
+        int tope = 0;
+        int cuenta = resultado.length;
+        pila[tope++] = desde;
+        // preorden con el hijo derecho primero, invertido queda un postorden
+        while (tope > 0) {
+            int nodo = pila[--tope];
+            resultado[--cuenta] = nodo;
+            if (nodo >= capacidad) {
+                pila[tope++] = izquierdo[nodo - capacidad];
+                pila[tope++] = derecho[nodo - capacidad];
+            }
+        }
+        return resultado;
+    }
+
+    // numeracion final: orden estable por altura monotona, que respeta hijos antes que padres
+    private ArregloEnlace enlaceArbol() {
+        int[] recorrido = postorden(raiz);
+        int fusiones = tamanio - 1;
+        int[] nodos = new int[fusiones];
+        double[] monotona = new double[fusiones];
+        double[] alturaAcumulada = new double[capacidad + izquierdo.length];
+        int k = 0;
+        for (int nodo : recorrido) {
+            if (nodo < capacidad) continue;
+            int f = nodo - capacidad;
+            alturaAcumulada[nodo] = Math.max(altura[f],
+                    Math.max(alturaAcumulada[izquierdo[f]], alturaAcumulada[derecho[f]]));
+            nodos[k] = nodo;
+            monotona[k++] = alturaAcumulada[nodo];
+        }
+        int[] orden = OrdenamientoIndices.ordenarPorClave(monotona);
+
+        int[] idFinal = new int[capacidad + izquierdo.length];
+        for (int t = 0; t < tamanio; t++) idFinal[slotEn(t)] = t;
+        int[] izq = new int[fusiones];
+        int[] der = new int[fusiones];
+        double[] alt = new double[fusiones];
+        int[] tam = new int[fusiones];
+        for (int m = 0; m < fusiones; m++) {
+            int nodo = nodos[orden[m]];
+            int f = nodo - capacidad;
+            idFinal[nodo] = tamanio + m;
+            izq[m] = idFinal[izquierdo[f]];
+            der[m] = idFinal[derecho[f]];
+            alt[m] = altura[f];
+            tam[m] = hojas[f];
+        }
+        return new ArregloEnlace(etiquetasVentana(), izq, der, alt, tam);
+    }
+
+    private String[] etiquetasVentana() {
+        String[] etiquetas = new String[tamanio];
+        for (int k = 0; k < tamanio; k++) etiquetas[k] = vectores[slotEn(k)].getEtiqueta();
+        return etiquetas;
+    }
+
+    // CONFIGURACION Y ESTADISTICAS
+
+    // hojas del mayor subarbol que se rehace en cada evento (no aplica a MINIMO)
+    public void setTamanioLocal(int tamanioLocal) {
+        if (tamanioLocal < 2) {
+            throw new IllegalArgumentException("El tamaño local debe ser al menos 2");
+        }
+        this.tamanioLocal = tamanioLocal;
+    }
+
+    // eventos entre reconstrucciones completas, 0 para no hacerlas nunca (no aplica a MINIMO)
+    public void setIntervaloReconstruccion(int intervaloReconstruccion) {
+        if (intervaloReconstruccion < 0) {
+            throw new IllegalArgumentException("El intervalo no puede ser negativo");
+        }
+        this.intervaloReconstruccion = intervaloReconstruccion;
+    }
+
+    public int getTamanioLocal() {
+        return tamanioLocal;
+    }
+
+    public int getIntervaloReconstruccion() {
+        return intervaloReconstruccion;
+    }
+
+    public int getTamanio() {
+        return tamanio;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public long getEventos() {
+        return eventos;
+    }
+
+    public int getReconstrucciones() {
+        return reconstrucciones;
+    }
+
+    // duracion del ultimo agregar o desalojar, en nanosegundos
+    public long getUltimaLatencia() {
+        return ultimaLatencia;
+    }
+
+    @Override
+    public String toString() {
+        return "VentanaDeslizante [tamanio=" + tamanio + "/" + capacidad + ", enlace=" + tipoEnlace +
+                ", eventos=" + eventos + "]";
+    }
+}
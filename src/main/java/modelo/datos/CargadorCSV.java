@@ -3,6 +3,7 @@ package modelo.datos;
 import modelo.estructuras.IDiccionario;
 import modelo.estructuras.ListaDoble;
 import modelo.estructuras.Vector;
+import modelo.normalizacion.EstadisticasColumnas;
 
 import java.io.IOException;
 
@@ -17,8 +18,14 @@ public class CargadorCSV {
     private NombreDimGen generadorNombres;
 
     private String rutaArchivo;
+    // limite de la carga, se respeta tambien al recargar desde el modo anexar
+    private int limite;
     private ListaDoble<IDiccionario<String, String>> datos;
 
+    // resultado de la transformacion hecha al cargar, null si hay que rehacerla
+    private Vector[] vectores;
+    private EstadisticasColumnas estadisticas;
+
     public CargadorCSV() {
         this.parser = new ParserCSV();
         this.configurador = new ConfiguradorColumnas();
@@ -29,6 +36,7 @@ public class CargadorCSV {
 
     public void cargar(String ruta, int limite) throws IOException {
         this.rutaArchivo = ruta;
+        this.limite = limite;
 
         // parsear archivo CSV
         parser.parsear(ruta, limite);
@@ -52,10 +60,103 @@ public class CargadorCSV {
         System.out.println("CSV cargado: " + datos.tamanio() + " películas");
         System.out.println("- Dimensiones numéricas: " + configurador.getColumnasNumericas().length);
         System.out.println("- Dimensiones categóricas (one-hot): " + extractorCategorias.contarDimensionesOneHot());
-        System.out.println("- Dimensiones de conteo: " +
-                (configurador.getColumnasConteo().length + configurador.getColumnasJsonArray().length));
+        System.out.println("- Dimensiones de conteo/multi-hot: " +
+                (totalDimensiones - configurador.getColumnasNumericas().length
+                        - extractorCategorias.contarDimensionesOneHot() - 1));
         System.out.println("- Dimensión temporal: 1");
         System.out.println("- Total dimensiones: " + totalDimensiones);
+
+        // una sola pasada: vectores y catalogo de estadisticas por dimension
+        transformarDatos();
+    }
+
+    // modo anexar: lee solo las filas agregadas al final del archivo desde la ultima carga, las transforma
+    // y suma sus estadisticas a las existentes (combinar, sin volver a recorrer lo viejo)
+    // despues de una carga con limite las filas que no entraron no cuentan como nuevas (ver ParserCSV)
+    // retorna los vectores nuevos, o null si hubo que recargar todo: archivo reemplazado o con otro
+    // encabezado, una categoria que no estaba (cambia el one-hot) o una fecha fuera del rango (cambia la escala)
+    public Vector[] anexarNuevasFilas() throws IOException {
+        if (transformador == null) {
+            throw new IllegalStateException("Debe cargar un archivo CSV primero");
+        }
+
+        ListaDoble<IDiccionario<String, String>> nuevas;
+        try {
+            nuevas = parser.parsearNuevas(rutaArchivo);
+        } catch (IOException e) {
+            System.out.println("Recarga completa: " + e.getMessage());
+            cargar(rutaArchivo, limite);
+            return null;
+        }
+
+        if (!cabeEnCodificacion(nuevas)) {
+            System.out.println("Recarga completa: categorías o fechas fuera de lo conocido");
+            cargar(rutaArchivo, limite);
+            return null;
+        }
+
+        if (vectores == null) {
+            // invalidado por un cambio de multi-hot: se rehace todo, ya incluye las nuevas
+            transformarDatos();
+            Vector[] agregados = new Vector[nuevas.tamanio()];
+            System.arraycopy(vectores, vectores.length - agregados.length, agregados, 0, agregados.length);
+            return agregados;
+        }
+
+        Vector[] agregados = transformador.transformar(nuevas);
+        if (agregados.length == 0) {
+            return agregados;
+        }
+
+        // copia para no cambiar el catalogo que otros ya tienen en la mano
+        EstadisticasColumnas combinadas = estadisticas.copiar();
+        combinadas.combinar(transformador.getEstadisticas());
+        estadisticas = combinadas;
+
+        Vector[] todos = new Vector[vectores.length + agregados.length];
+        System.arraycopy(vectores, 0, todos, 0, vectores.length);
+        System.arraycopy(agregados, 0, todos, vectores.length, agregados.length);
+        vectores = todos;
+
+        System.out.println(" Filas anexadas: " + agregados.length + " (total " + vectores.length + ")");
+        return agregados;
+    }
+
+    private boolean cabeEnCodificacion(ListaDoble<IDiccionario<String, String>> nuevas) {
+        String[] categoricas = configurador.getColumnasCategoricas();
+        String columnaFecha = configurador.getColumnaFecha();
+
+        ListaDoble.IteradorLista<IDiccionario<String, String>> it = nuevas.iterador();
+        while (it.tieneSiguiente()) {
+            IDiccionario<String, String> fila = it.siguiente();
+            for (String columna : categoricas) {
+                if (!extractorCategorias.conoce(columna, fila.obtener(columna))) return false;
+            }
+            if (columnaFecha != null && !normalizadorFechas.contiene(fila.obtener(columnaFecha))) return false;
+        }
+        return true;
+    }
+
+    // la columna pasa de conteo a multi-hot con hashing trick, cambia la dimension
+    // asi que los vectores y el catalogo se recalculan en el siguiente getVectores
+    public void activarMultiHot(String columna, int cubetas) {
+        configurador.activarMultiHot(columna, cubetas);
+        invalidar();
+    }
+
+    public void desactivarMultiHot(String columna) {
+        configurador.desactivarMultiHot(columna);
+        invalidar();
+    }
+
+    // columnas que admiten multi-hot (conteo y JSON array)
+    public String[] getColumnasLista() {
+        String[] conteo = configurador.getColumnasConteo();
+        String[] json = configurador.getColumnasJsonArray();
+        String[] columnas = new String[conteo.length + json.length];
+        System.arraycopy(conteo, 0, columnas, 0, conteo.length);
+        System.arraycopy(json, 0, columnas, conteo.length, json.length);
+        return columnas;
     }
 
     public Vector[] getVectores() {
@@ -63,12 +164,37 @@ public class CargadorCSV {
             throw new IllegalStateException("Debe cargar un archivo CSV primero");
         }
 
-        Vector[] vectores = transformador.transformar(datos);
+        if (vectores == null) {
+            transformarDatos();
+        }
+        return vectores;
+    }
+
+    // estadisticas por dimension calculadas al transformar (count, min, max, media, M2, nulos)
+    public EstadisticasColumnas getEstadisticas() {
+        if (transformador == null) {
+            throw new IllegalStateException("Debe cargar un archivo CSV primero");
+        }
+
+        if (estadisticas == null) {
+            transformarDatos();
+        }
+        return estadisticas;
+    }
+
+    private void transformarDatos() {
+        vectores = transformador.transformar(datos);
+        estadisticas = transformador.getEstadisticas();
+
         System.out.println(" Vectores creados: " + vectores.length);
         if (vectores.length > 0) {
             System.out.println("  - Dimensión de cada vector: " + vectores[0].dimension());
         }
-        return vectores;
+    }
+
+    private void invalidar() {
+        vectores = null;
+        estadisticas = null;
     }
 
     public int getDimensiones() {
@@ -17,34 +17,44 @@ public class CodificadorCaracteristicas {
     }
 
     public int contarElementos(String texto) {
-        if (texto == null || texto.isEmpty() || texto.equals("null")) {
+        if (DecodificadorCampos.esNulo(texto)) {
             return 0;
         }
 
-        // dividir por espacios o comas
-        String[] elementos = texto.split("[,\\s]+");
-        return elementos.length;
+        // tokens separados por espacios o comas
+        return DecodificadorCampos.contarTokens(texto, 0, texto.length());
     }
 
     public int contarElementosJson(String json) {
-        if (json == null || json.isEmpty() || json.equals("null")) {
+        if (DecodificadorCampos.esNulo(json)) {
             return 0;
         }
 
-        // contar llaves abiertas (cada objeto es un elemento)
-        return json.split("\\{").length - 1;
+        // cada objeto de primer nivel es un elemento
+        return DecodificadorCampos.contarObjetosJson(json, 0, json.length());
+    }
+
+    // multi-hot con hashing trick, retorna solo las cubetas activas (salida dispersa)
+    public int codificarMultiHot(String texto, boolean esJson, int cubetas, int[] cubetasActivas) {
+        if (DecodificadorCampos.esNulo(texto)) {
+            return 0;
+        }
+
+        if (esJson) {
+            return DecodificadorCampos.cubetasObjetosJson(texto, 0, texto.length(), cubetas, cubetasActivas);
+        }
+        return DecodificadorCampos.cubetasTokens(texto, 0, texto.length(), cubetas, cubetasActivas);
     }
 
     public double parsearNumerico(String valor) {
-        if (valor == null || valor.isEmpty() || valor.equals("null")) {
+        if (DecodificadorCampos.esNulo(valor)) {
             return 0.0;
         }
 
-        try {
-            double num = Double.parseDouble(valor);
-            return num < 0 ? 0.0 : num;
-        } catch (NumberFormatException e) {
+        double num = DecodificadorCampos.parsearDouble(valor, 0, valor.length());
+        if (Double.isNaN(num)) {
             return 0.0;
         }
+        return num < 0 ? 0.0 : num;
     }
-}
\ No newline at end of file
+}
@@ -30,10 +30,18 @@ public class ConfiguradorColumnas {
     private static final String COLUMNA_IDENTIFICADOR = "title";
     private static final String COLUMNA_FECHA = "release_date";
 
+    public static final int CUBETAS_POR_DEFECTO = 32;
+
+    public enum TipoCodificacion {
+        CONTEO,
+        MULTI_HOT
+    }
+
     private IDiccionario<String, Integer> indicesColumnasNumericas;
     private IDiccionario<String, Integer> indicesColumnasCategoricas;
     private IDiccionario<String, Integer> indicesColumnasConteo;
     private IDiccionario<String, Integer> indicesColumnasJsonArray;
+    private IDiccionario<String, Integer> cubetasMultiHot;
     private int indiceIdentificador;
     private int indiceFecha;
 
@@ -42,6 +50,7 @@ public class ConfiguradorColumnas {
         this.indicesColumnasCategoricas = new Diccionario<>();
         this.indicesColumnasConteo = new Diccionario<>();
         this.indicesColumnasJsonArray = new Diccionario<>();
+        this.cubetasMultiHot = new Diccionario<>();
         this.indiceIdentificador = -1;
         this.indiceFecha = -1;
     }
@@ -84,6 +93,45 @@ public class ConfiguradorColumnas {
         }
     }
 
+    // columnas de conteo o JSON array codificadas como multi-hot en un numero fijo de cubetas
+    public void activarMultiHot(String columna, int cubetas) {
+        if (!esColumnaLista(columna)) {
+            throw new IllegalArgumentException("Columna sin lista de elementos: " + columna);
+        }
+        if (cubetas < 1) {
+            throw new IllegalArgumentException("El número de cubetas debe ser al menos 1");
+        }
+        cubetasMultiHot.poner(columna, cubetas);
+    }
+
+    public void activarMultiHot(String columna) {
+        activarMultiHot(columna, CUBETAS_POR_DEFECTO);
+    }
+
+    public void desactivarMultiHot(String columna) {
+        cubetasMultiHot.eliminar(columna);
+    }
+
+    public TipoCodificacion getCodificacion(String columna) {
+        return cubetasMultiHot.contieneClave(columna) ? TipoCodificacion.MULTI_HOT : TipoCodificacion.CONTEO;
+    }
+
+    // dimensiones que ocupa la columna en el vector: 1 para conteo, cubetas para multi-hot
+    public int getCubetas(String columna) {
+        Integer cubetas = cubetasMultiHot.obtener(columna);
+        return cubetas != null ? cubetas : 1;
+    }
+
+    public boolean esColumnaLista(String columna) {
+        for (String col : COLUMNAS_CONTEO) {
+            if (col.equals(columna)) return true;
+        }
+        for (String col : COLUMNAS_JSON_ARRAY) {
+            if (col.equals(columna)) return true;
+        }
+        return false;
+    }
+
     // getters
     public String[] getColumnasNumericas() {
         return COLUMNAS_NUMERICAS.clone();
@@ -0,0 +1,378 @@
+package modelo.datos;
+
+// decodificadores sin asignaciones que leen directamente sobre el texto del campo [inicio, fin)
+public class DecodificadorCampos {
+
+    // valor devuelto por diaEpoca cuando la fecha no es valida
+    public static final long FECHA_INVALIDA = Long.MIN_VALUE;
+
+    // potencias exactas en double (10^22 es la mayor representable sin error)
+    private static final double[] POTENCIAS_DIEZ = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int MAX_DIGITOS_EXACTOS = 15;
+
+    // FNV-1a de 32 bits para el hashing trick
+    private static final int FNV_INICIAL = 0x811C9DC5;
+    private static final int FNV_PRIMO = 0x01000193;
+    private static final String CLAVE_NOMBRE = "name";
+
+    private DecodificadorCampos() {
+    }
+
+    // vacio, solo espacios o el literal "null"
+    public static boolean esNulo(CharSequence texto, int inicio, int fin) {
+        if (texto == null) return true;
+        while (inicio < fin && esEspacio(texto.charAt(inicio))) inicio++;
+        while (fin > inicio && esEspacio(texto.charAt(fin - 1))) fin--;
+
+        if (inicio == fin) return true;
+        return fin - inicio == 4
+                && texto.charAt(inicio) == 'n'
+                && texto.charAt(inicio + 1) == 'u'
+                && texto.charAt(inicio + 2) == 'l'
+                && texto.charAt(inicio + 3) == 'l';
+    }
+
+    public static boolean esNulo(CharSequence texto) {
+        return texto == null || esNulo(texto, 0, texto.length());
+    }
+
+    // [signo] digitos [. digitos] [(e|E) [signo] digitos], retorna NaN si la sintaxis no es valida
+    public static double parsearDouble(CharSequence texto, int inicio, int fin) {
+        while (inicio < fin && esEspacio(texto.charAt(inicio))) inicio++;
+        while (fin > inicio && esEspacio(texto.charAt(fin - 1))) fin--;
+        if (inicio == fin) return Double.NaN;
+
+        int i = inicio;
+        boolean negativo = false;
+        char c = texto.charAt(i);
+        if (c == '-' || c == '+') {
+            negativo = c == '-';
+            i++;
+        }
+
+        long mantisa = 0;
+        int digitosSignificativos = 0;
+        int exponenteDecimal = 0;
+        boolean hayDigitos = false;
+        boolean truncado = false;
+
+        // parte entera
+        while (i < fin && esDigito(c = texto.charAt(i))) {
+            hayDigitos = true;
+            if (digitosSignificativos < 18) {
+                if (mantisa != 0 || c != '0') {
+                    mantisa = mantisa * 10 + (c - '0');
+                    digitosSignificativos++;
+                }
+            } else {
+                exponenteDecimal++;
+                truncado |= c != '0';
+            }
+            i++;
+        }
+
+        // parte fraccionaria
+        if (i < fin && texto.charAt(i) == '.') {
+            i++;
+            while (i < fin && esDigito(c = texto.charAt(i))) {
+                hayDigitos = true;
+                if (digitosSignificativos < 18) {
+                    if (mantisa != 0 || c != '0') {
+                        mantisa = mantisa * 10 + (c - '0');
+                        digitosSignificativos++;
+                    }
+                    exponenteDecimal--;
+                } else {
+                    truncado |= c != '0';
+                }
+                i++;
+            }
+        }
+
+        if (!hayDigitos) return Double.NaN;
+
+        // exponente
+        if (i < fin && ((c = texto.charAt(i)) == 'e' || c == 'E')) {
+            i++;
+            boolean expNegativo = false;
+            if (i < fin && ((c = texto.charAt(i)) == '-' || c == '+')) {
+                expNegativo = c == '-';
+                i++;
+            }
+            if (i == fin) return Double.NaN;
+
+            int exponente = 0;
+            while (i < fin && esDigito(c = texto.charAt(i))) {
+                if (exponente < 100000) exponente = exponente * 10 + (c - '0');
+                i++;
+            }
+            exponenteDecimal += expNegativo ? -exponente : exponente;
+        }
+
+        if (i != fin) return Double.NaN;
+
+        double valor;
+        if (mantisa == 0) {
+            valor = 0.0;
+        } else if (!truncado && digitosSignificativos <= MAX_DIGITOS_EXACTOS
+                && exponenteDecimal >= -22 && exponenteDecimal <= 22) {
+            // camino rapido: mantisa y potencia exactas, una sola operacion redondeada
+            valor = exponenteDecimal < 0
+                    ? mantisa / POTENCIAS_DIEZ[-exponenteDecimal]
+                    : mantisa * POTENCIAS_DIEZ[exponenteDecimal];
+        } else {
+            // sintaxis ya validada, el camino lento no puede lanzar excepcion
+            return Double.parseDouble(texto.subSequence(inicio, fin).toString());
+        }
+        return negativo ? -valor : valor;
+    }
+
+    // yyyy-MM-dd a dias desde 1970-01-01, FECHA_INVALIDA si no cumple el formato
+    // un dia fuera del mes (p. ej. 02-30) se ajusta al ultimo dia valido como hace LocalDate.parse
+    public static long diaEpoca(CharSequence texto, int inicio, int fin) {
+        while (inicio < fin && esEspacio(texto.charAt(inicio))) inicio++;
+        while (fin > inicio && esEspacio(texto.charAt(fin - 1))) fin--;
+        if (fin - inicio != 10) return FECHA_INVALIDA;
+        if (texto.charAt(inicio + 4) != '-' || texto.charAt(inicio + 7) != '-') return FECHA_INVALIDA;
+
+        int anio = leerEntero(texto, inicio, inicio + 4);
+        int mes = leerEntero(texto, inicio + 5, inicio + 7);
+        int dia = leerEntero(texto, inicio + 8, inicio + 10);
+        if (anio < 1 || mes < 1 || mes > 12 || dia < 1 || dia > 31) return FECHA_INVALIDA;
+
+        int diasMes = diasDelMes(anio, mes);
+        if (dia > diasMes) dia = diasMes;
+
+        return aDiaEpoca(anio, mes, dia);
+    }
+
+    public static long diaEpoca(CharSequence texto) {
+        if (texto == null) return FECHA_INVALIDA;
+        return diaEpoca(texto, 0, texto.length());
+    }
+
+    // equivalente a texto.split("[,\\s]+").length sin crear el arreglo
+    public static int contarTokens(CharSequence texto, int inicio, int fin) {
+        int tokens = 0;
+        boolean dentroToken = false;
+        boolean empiezaConSeparador = inicio < fin && esSeparadorToken(texto.charAt(inicio));
+
+        for (int i = inicio; i < fin; i++) {
+            if (esSeparadorToken(texto.charAt(i))) {
+                dentroToken = false;
+            } else if (!dentroToken) {
+                dentroToken = true;
+                tokens++;
+            }
+        }
+
+        // split conserva el vacio inicial cuando el texto empieza con separador
+        if (tokens > 0 && empiezaConSeparador) tokens++;
+        return tokens;
+    }
+
+    // cuenta los objetos de primer nivel de un arreglo JSON ([{...}, {...}])
+    // las llaves dentro de cadenas entre comillas no se cuentan
+    public static int contarObjetosJson(CharSequence texto, int inicio, int fin) {
+        int objetos = 0;
+        int profundidad = 0;
+        boolean dentroCadena = false;
+
+        for (int i = inicio; i < fin; i++) {
+            char c = texto.charAt(i);
+
+            if (dentroCadena) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    dentroCadena = false;
+                }
+                continue;
+            }
+
+            if (c == '"') {
+                dentroCadena = true;
+            } else if (c == '{') {
+                if (profundidad == 0) objetos++;
+                profundidad++;
+            } else if (c == '}' && profundidad > 0) {
+                profundidad--;
+            }
+        }
+        return objetos;
+    }
+
+    // hashing trick: escribe en destino las cubetas activas (sin repetir) de cada token
+    // destino debe tener al menos 'cubetas' posiciones, retorna cuantas se escribieron
+    public static int cubetasTokens(CharSequence texto, int inicio, int fin, int cubetas, int[] destino) {
+        int total = 0;
+        int hash = FNV_INICIAL;
+        boolean dentroToken = false;
+
+        for (int i = inicio; i <= fin; i++) {
+            if (i < fin && !esSeparadorToken(texto.charAt(i))) {
+                if (!dentroToken) {
+                    hash = FNV_INICIAL;
+                    dentroToken = true;
+                }
+                hash = mezclar(hash, texto.charAt(i));
+            } else if (dentroToken) {
+                total = agregarCubeta(destino, total, cubeta(hash, cubetas));
+                dentroToken = false;
+            }
+        }
+        return total;
+    }
+
+    // igual que cubetasTokens pero cada objeto de primer nivel aporta el valor de su clave "name"
+    // (o todo su contenido si no la tiene)
+    public static int cubetasObjetosJson(CharSequence texto, int inicio, int fin, int cubetas, int[] destino) {
+        int total = 0;
+        int profundidad = 0;
+        int hashObjeto = FNV_INICIAL;
+        int hashNombre = FNV_INICIAL;
+        boolean tieneNombre = false;
+        boolean esperandoClave = false;
+        boolean esperandoNombre = false;
+
+        for (int i = inicio; i < fin; i++) {
+            char c = texto.charAt(i);
+
+            if (c == '"') {
+                boolean esClave = profundidad == 1 && esperandoClave;
+                boolean leyendoNombre = profundidad == 1 && !esperandoClave && esperandoNombre;
+                boolean claveEsNombre = esClave;
+                int posicion = 0;
+                int hashCadena = FNV_INICIAL;
+
+                int j = i + 1;
+                while (j < fin) {
+                    char d = texto.charAt(j);
+                    if (d == '"') break;
+                    if (d == '\\' && j + 1 < fin) d = texto.charAt(++j);
+
+                    if (profundidad > 0) hashObjeto = mezclar(hashObjeto, d);
+                    if (claveEsNombre) {
+                        claveEsNombre = posicion < CLAVE_NOMBRE.length() && CLAVE_NOMBRE.charAt(posicion) == d;
+                        posicion++;
+                    }
+                    if (leyendoNombre) hashCadena = mezclar(hashCadena, d);
+                    j++;
+                }
+
+                if (esClave) {
+                    esperandoNombre = claveEsNombre && posicion == CLAVE_NOMBRE.length();
+                    esperandoClave = false;
+                } else if (leyendoNombre) {
+                    hashNombre = hashCadena;
+                    tieneNombre = true;
+                    esperandoNombre = false;
+                }
+                i = j;
+                continue;
+            }
+
+            if (profundidad == 0) {
+                if (c == '{') {
+                    profundidad = 1;
+                    hashObjeto = FNV_INICIAL;
+                    tieneNombre = false;
+                    esperandoClave = true;
+                    esperandoNombre = false;
+                }
+                continue;
+            }
+
+            hashObjeto = mezclar(hashObjeto, c);
+            if (c == '{' || c == '[') {
+                profundidad++;
+            } else if (c == '}' || c == ']') {
+                profundidad--;
+                if (profundidad == 0) {
+                    int hash = tieneNombre ? hashNombre : hashObjeto;
+                    total = agregarCubeta(destino, total, cubeta(hash, cubetas));
+                }
+            } else if (c == ',' && profundidad == 1) {
+                esperandoClave = true;
+                esperandoNombre = false;
+            }
+        }
+        return total;
+    }
+
+    // HELPERS
+
+    private static int mezclar(int hash, char c) {
+        return (hash ^ c) * FNV_PRIMO;
+    }
+
+    private static int cubeta(int hash, int cubetas) {
+        return (hash & 0x7fffffff) % cubetas;
+    }
+
+    private static int agregarCubeta(int[] destino, int total, int cubeta) {
+        for (int k = 0; k < total; k++) {
+            if (destino[k] == cubeta) return total;
+        }
+        destino[total] = cubeta;
+        return total + 1;
+    }
+
+    static boolean esEspacio(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
+    static boolean esSeparadorToken(char c) {
+        return c == ',' || esEspacio(c) || c == '\u000B';
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int leerEntero(CharSequence texto, int inicio, int fin) {
+        int valor = 0;
+        for (int i = inicio; i < fin; i++) {
+            char c = texto.charAt(i);
+            if (!esDigito(c)) return -1;
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    private static boolean esBisiesto(long anio) {
+        return (anio & 3) == 0 && (anio % 100 != 0 || anio % 400 == 0);
+    }
+
+    private static int diasDelMes(int anio, int mes) {
+        switch (mes) {
+            case 2: return esBisiesto(anio) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11: return 30;
+            default: return 31;
+        }
+    }
+
+    // mismo calculo que LocalDate.toEpochDay
+    static long aDiaEpoca(long anio, int mes, int dia) {
+        long total = 365 * anio;
+        if (anio >= 0) {
+            total += (anio + 3) / 4 - (anio + 99) / 100 + (anio + 399) / 400;
+        } else {
+            total -= anio / -4 - anio / -100 + anio / -400;
+        }
+        total += (367 * mes - 362) / 12;
+        total += dia - 1;
+        if (mes > 2) {
+            total--;
+            if (!esBisiesto(anio)) total--;
+        }
+        return total - 719528;
+    }
+}
@@ -21,7 +21,7 @@ public class ExtractorCategorias {
             for (int i = 0; i < filas.tamanio(); i++) {
                 IDiccionario<String, String> fila = filas.obtener(i);
                 String valor = fila.obtener(columna);
-                if (valor != null && !valor.isEmpty() && !valor.equals("null") && !valor.contains(" ") && valor.length() < 25) {
+                if (esValorValido(valor)) {
                     unicos.poner(valor.trim(), true);
                 }
             }
@@ -64,6 +64,17 @@ public class ExtractorCategorias {
         return ordenadas;
     }
 
+    // true si el valor no agregaria una categoria nueva a la columna (los invalidos nunca agregan)
+    public boolean conoce(String columna, String valor) {
+        if (!esValorValido(valor)) return true;
+        ListaDoble<String> categorias = categoriasUnicas.obtener(columna);
+        return categorias != null && categorias.contiene(valor.trim());
+    }
+
+    private static boolean esValorValido(String valor) {
+        return valor != null && !valor.isEmpty() && !valor.equals("null") && !valor.contains(" ") && valor.length() < 25;
+    }
+
     public ListaDoble<String> obtenerCategorias(String columna) {
         return categoriasUnicas.obtener(columna);
     }
@@ -35,12 +35,12 @@ public class NombreDimGen {
 
         // columnas de conteo
         for (String col : configurador.getColumnasConteo()) {
-            nombres.agregar(col + "_conteo");
+            agregarNombresLista(col, nombres);
         }
 
         // columnas de JSON array
         for (String col : configurador.getColumnasJsonArray()) {
-            nombres.agregar(col + "_conteo");
+            agregarNombresLista(col, nombres);
         }
 
         // fecha normalizada
@@ -57,9 +57,25 @@ public class NombreDimGen {
         int total = 0;
         total += configurador.getColumnasNumericas().length;
         total += extractorCategorias.contarDimensionesOneHot();
-        total += configurador.getColumnasConteo().length;
-        total += configurador.getColumnasJsonArray().length;
+        for (String col : configurador.getColumnasConteo()) {
+            total += configurador.getCubetas(col);
+        }
+        for (String col : configurador.getColumnasJsonArray()) {
+            total += configurador.getCubetas(col);
+        }
         total += 1; // Fecha
         return total;
     }
+
+    // conteo: una dimension, multi-hot: una por cubeta
+    private void agregarNombresLista(String columna, ListaDoble<String> nombres) {
+        if (configurador.getCodificacion(columna) == ConfiguradorColumnas.TipoCodificacion.CONTEO) {
+            nombres.agregar(columna + "_conteo");
+            return;
+        }
+        int cubetas = configurador.getCubetas(columna);
+        for (int i = 0; i < cubetas; i++) {
+            nombres.agregar(columna + "_h" + i);
+        }
+    }
 }
\ No newline at end of file
@@ -4,85 +4,75 @@ import modelo.estructuras.IDiccionario;
 import modelo.estructuras.ListaDoble;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 public class NormalizadorFecha {
 
-    private LocalDate fechaMinima;
-    private LocalDate fechaMaxima;
-    private DateTimeFormatter formateador;
+    private long diaMinimo;
+    private long diaMaximo;
 
     public NormalizadorFecha() {
-        this.formateador = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        this.fechaMinima = LocalDate.of(1900, 1, 1);
-        this.fechaMaxima = LocalDate.now();
+        this.diaMinimo = LocalDate.of(1900, 1, 1).toEpochDay();
+        this.diaMaximo = LocalDate.now().toEpochDay();
     }
 
     public void extraerRango(ListaDoble<IDiccionario<String, String>> filas, String columnaFecha) {
-        ListaDoble<LocalDate> fechas = new ListaDoble<>();
-
-        for (int i = 0; i < filas.tamanio(); i++) {
-            IDiccionario<String, String> fila = filas.obtener(i);
-            String fechaStr = fila.obtener(columnaFecha);
-            if (fechaStr != null && !fechaStr.isEmpty() && !fechaStr.equals("null")) {
-                try {
-                    LocalDate fecha = LocalDate.parse(fechaStr.trim(), formateador);
-                    fechas.agregar(fecha);
-                } catch (Exception e) {
-                    // ignorar fechas invalidas
-                }
-            }
-        }
+        long minimo = Long.MAX_VALUE;
+        long maximo = Long.MIN_VALUE;
+        boolean hayFechas = false;
+
+        ListaDoble.IteradorLista<IDiccionario<String, String>> it = filas.iterador();
+        while (it.tieneSiguiente()) {
+            String fechaStr = it.siguiente().obtener(columnaFecha);
+            if (fechaStr == null) continue;
 
-        if (fechas.tamanio() > 0) {
-            fechaMinima = encontrarMinimo(fechas);
-            fechaMaxima = encontrarMaximo(fechas);
+            // las fechas invalidas se ignoran
+            long dia = DecodificadorCampos.diaEpoca(fechaStr);
+            if (dia == DecodificadorCampos.FECHA_INVALIDA) continue;
+
+            if (dia < minimo) minimo = dia;
+            if (dia > maximo) maximo = dia;
+            hayFechas = true;
         }
-    }
 
-    private LocalDate encontrarMinimo(ListaDoble<LocalDate> fechas) {
-        LocalDate min = fechas.obtener(0);
-        for (int i = 1; i < fechas.tamanio(); i++) {
-            LocalDate actual = fechas.obtener(i);
-            if (actual.isBefore(min)) {
-                min = actual;
-            }
+        if (hayFechas) {
+            diaMinimo = minimo;
+            diaMaximo = maximo;
         }
-        return min;
     }
 
-    private LocalDate encontrarMaximo(ListaDoble<LocalDate> fechas) {
-        LocalDate max = fechas.obtener(0);
-        for (int i = 1; i < fechas.tamanio(); i++) {
-            LocalDate actual = fechas.obtener(i);
-            if (actual.isAfter(max)) {
-                max = actual;
-            }
-        }
-        return max;
+    // true si la fecha cae dentro del rango extraido; faltantes e invalidas no lo cambian
+    public boolean contiene(String fechaStr) {
+        if (fechaStr == null) return true;
+        long dia = DecodificadorCampos.diaEpoca(fechaStr);
+        return dia == DecodificadorCampos.FECHA_INVALIDA || (dia >= diaMinimo && dia <= diaMaximo);
     }
 
     public double convertirANumero(String fechaStr) {
-        if (fechaStr == null || fechaStr.isEmpty() || fechaStr.equals("null")) {
-            long diasDesdeMinimo = java.time.temporal.ChronoUnit.DAYS.between(fechaMinima, fechaMaxima) / 2;
-            return (double) diasDesdeMinimo;
+        if (fechaStr == null) {
+            return valorPorDefecto();
         }
+        return convertirANumero(fechaStr, 0, fechaStr.length());
+    }
 
-        try {
-            LocalDate fecha = LocalDate.parse(fechaStr.trim(), formateador);
-            long diasDesdeMinimo = java.time.temporal.ChronoUnit.DAYS.between(fechaMinima, fecha);
-            return (double) diasDesdeMinimo;
-        } catch (Exception e) {
-            long diasDesdeMinimo = java.time.temporal.ChronoUnit.DAYS.between(fechaMinima, fechaMaxima) / 2;
-            return (double) diasDesdeMinimo;
+    // dias desde la fecha minima, leyendo el campo sin crear subcadenas
+    public double convertirANumero(CharSequence texto, int inicio, int fin) {
+        long dia = DecodificadorCampos.diaEpoca(texto, inicio, fin);
+        if (dia == DecodificadorCampos.FECHA_INVALIDA) {
+            return valorPorDefecto();
         }
+        return (double) (dia - diaMinimo);
+    }
+
+    // fechas faltantes o invalidas van a la mitad del rango
+    private double valorPorDefecto() {
+        return (double) ((diaMaximo - diaMinimo) / 2);
     }
 
     public LocalDate getFechaMinima() {
-        return fechaMinima;
+        return LocalDate.ofEpochDay(diaMinimo);
     }
 
     public LocalDate getFechaMaxima() {
-        return fechaMaxima;
+        return LocalDate.ofEpochDay(diaMaximo);
     }
 }
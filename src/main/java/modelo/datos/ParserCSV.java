@@ -6,47 +6,111 @@ import modelo.estructuras.ListaDoble;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public class ParserCSV {
 
     private String[] encabezados;
     private ListaDoble<IDiccionario<String, String>> filas;
 
+    // byte siguiente a la ultima linea leida, desde donde sigue el modo anexar
+    private long bytesLeidos;
+    private String lineaEncabezado;
+    // la carga completa tomo una ultima linea sin salto, que pudo estar a medio escribir
+    private boolean ultimaSinSalto;
+    // lineas fisicas consumidas despues del encabezado (vacias y salteadas incluidas), para numerar
+    // las advertencias tambien en el modo anexar
+    private int lineasLeidas;
+    // limite de la ultima carga completa, 0 si se leyo todo
+    private int limite;
+
     public ParserCSV() {
         this.encabezados = new String[0];
         this.filas = new ListaDoble<>();
     }
 
     // si limite es 0 o negativo es para leer todas las lineas
+    // con limite, las lineas que no entran se saltean sin parsear hasta el final del archivo: el modo
+    // anexar sigue desde ahi y solo toma como nuevas las filas agregadas despues de esta carga
     public void parsear(String rutaArchivo, int limite) throws IOException {
         this.filas.limpiar();
+        this.limite = Math.max(limite, 0);
 
-        try (BufferedReader lector = new BufferedReader(
-                new InputStreamReader(new FileInputStream(rutaArchivo), StandardCharsets.UTF_8))) {
+        try (LectorLineas lector = new LectorLineas(new FileInputStream(rutaArchivo), 0L)) {
 
-            String primeraLinea = lector.readLine();
+            String primeraLinea = lector.leerLinea(true);
             if (primeraLinea == null) {
                 throw new IOException("Archivo vacío");
             }
 
+            this.lineaEncabezado = primeraLinea;
             this.encabezados = parsearLinea(primeraLinea);
+            this.bytesLeidos = lector.getPosicion();
+            this.ultimaSinSalto = false;
+            this.lineasLeidas = 0;
 
-            String linea;
-            int numeroLinea = 2;
-            while ((linea = lector.readLine()) != null) {
-                if (limite > 0 && filas.tamanio() >= limite) {
-                    break;
-                }
-                if (linea.trim().isEmpty()) continue;
-
-                try {
-                    String[] valores = parsearLinea(linea);
-                    IDiccionario<String, String> fila = construirFila(valores);
-                    filas.agregar(fila);
-                } catch (Exception e) {
-                    System.err.println("Advertencia línea " + numeroLinea + ": " + e.getMessage());
-                }
-                numeroLinea++;
+            leerFilas(lector, this.limite, true, filas);
+            if (this.limite > 0) {
+                lineasLeidas += lector.saltarHastaElFinal();
+                bytesLeidos = lector.getPosicion();
+                ultimaSinSalto = lector.isSinSalto();
+            }
+        }
+    }
+
+    // modo anexar: lee solo lo agregado al final del archivo desde la ultima lectura, agrega esas filas
+    // a getFilas() y las retorna aparte; una ultima linea sin salto puede estar a medio escribir y se
+    // deja para la proxima vez. Falla si el archivo se acorto o cambio el encabezado (hay que releerlo)
+    public ListaDoble<IDiccionario<String, String>> parsearNuevas(String rutaArchivo) throws IOException {
+        if (lineaEncabezado == null) {
+            throw new IllegalStateException("Debe parsear el archivo completo primero");
+        }
+
+        File archivo = new File(rutaArchivo);
+        if (archivo.length() < bytesLeidos) {
+            throw new IOException("El archivo es más corto que lo ya leído, fue reemplazado");
+        }
+        if (ultimaSinSalto && archivo.length() > bytesLeidos) {
+            throw new IOException("La última línea leída estaba incompleta");
+        }
+        try (LectorLineas lector = new LectorLineas(new FileInputStream(archivo), 0L)) {
+            if (!lineaEncabezado.equals(lector.leerLinea(true))) {
+                throw new IOException("El encabezado del archivo cambió");
+            }
+        }
+
+        ListaDoble<IDiccionario<String, String>> nuevas = new ListaDoble<>();
+        try (FileInputStream entrada = new FileInputStream(archivo);
+             LectorLineas lector = new LectorLineas(entrada, bytesLeidos)) {
+            entrada.getChannel().position(bytesLeidos);
+            leerFilas(lector, 0, false, nuevas);
+        }
+
+        ListaDoble.IteradorLista<IDiccionario<String, String>> it = nuevas.iterador();
+        while (it.tieneSiguiente()) {
+            filas.agregar(it.siguiente());
+        }
+        return nuevas;
+    }
+
+    private void leerFilas(LectorLineas lector, int limite, boolean aceptarSinSalto,
+                           ListaDoble<IDiccionario<String, String>> destino) throws IOException {
+        String linea;
+        while (limite <= 0 || destino.tamanio() < limite) {
+            linea = lector.leerLinea(aceptarSinSalto);
+            if (linea == null) break;
+            bytesLeidos = lector.getPosicion();
+            ultimaSinSalto = lector.isSinSalto();
+            lineasLeidas++;
+            if (linea.trim().isEmpty()) continue;
+
+            try {
+                String[] valores = parsearLinea(linea);
+                IDiccionario<String, String> fila = construirFila(valores);
+                destino.agregar(fila);
+            } catch (Exception e) {
+                // el encabezado es la linea 1
+                System.err.println("Advertencia línea " + (lineasLeidas + 1) + ": " + e.getMessage());
             }
         }
     }
@@ -113,4 +177,108 @@ public class ParserCSV {
     public int getNumeroFilas() {
         return filas.tamanio();
     }
+
+    public long getBytesLeidos() {
+        return bytesLeidos;
+    }
+
+    public int getLineasLeidas() {
+        return lineasLeidas;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    // lineas UTF-8 contando bytes, para saber exactamente hasta donde se leyo (BufferedReader no lo dice)
+    // como readLine, corta en \n y quita el \r final
+    private static final class LectorLineas implements Closeable {
+        private final InputStream entrada;
+        private final byte[] buffer = new byte[1 << 16];
+        private int inicio;
+        private int fin;
+        private long posicion;
+        private byte[] linea = new byte[256];
+        private boolean sinSalto;
+
+        LectorLineas(InputStream entrada, long posicionInicial) {
+            this.entrada = entrada;
+            this.posicion = posicionInicial;
+        }
+
+        // null al final del archivo; sin aceptarSinSalto una linea final sin \n no se consume
+        String leerLinea(boolean aceptarSinSalto) throws IOException {
+            int largo = 0;
+            long consumidos = 0;
+            while (true) {
+                if (inicio == fin) {
+                    fin = entrada.read(buffer, 0, buffer.length);
+                    inicio = 0;
+                    if (fin <= 0) {
+                        fin = 0;
+                        if (consumidos == 0 || !aceptarSinSalto) return null;
+                        posicion += consumidos;
+                        sinSalto = true;
+                        return decodificar(largo);
+                    }
+                }
+                byte b = buffer[inicio++];
+                consumidos++;
+                if (b == '\n') {
+                    posicion += consumidos;
+                    return decodificar(largo);
+                }
+                if (largo == linea.length) linea = Arrays.copyOf(linea, largo * 2);
+                linea[largo++] = b;
+            }
+        }
+
+        private String decodificar(int largo) {
+            if (largo > 0 && linea[largo - 1] == '\r') largo--;
+            return new String(linea, 0, largo, StandardCharsets.UTF_8);
+        }
+
+        // consume el resto sin decodificar y retorna cuantas lineas habia; una final sin salto cuenta
+        int saltarHastaElFinal() throws IOException {
+            int lineas = 0;
+            long consumidos = 0;
+            while (true) {
+                if (inicio == fin) {
+                    fin = entrada.read(buffer, 0, buffer.length);
+                    inicio = 0;
+                    if (fin <= 0) {
+                        fin = 0;
+                        if (consumidos > 0) {
+                            posicion += consumidos;
+                            sinSalto = true;
+                            lineas++;
+                        }
+                        return lineas;
+                    }
+                }
+                for (; inicio < fin; inicio++) {
+                    consumidos++;
+                    if (buffer[inicio] == '\n') {
+                        posicion += consumidos;
+                        consumidos = 0;
+                        lineas++;
+                    }
+                }
+            }
+        }
+
+        // la ultima linea retornada termino por fin de archivo y no por salto
+        boolean isSinSalto() {
+            return sinSalto;
+        }
+
+        long getPosicion() {
+            return posicion;
+        }
+
+        @Override
+        public void close() throws IOException {
+            entrada.close();
+        }
+    }
 }
@@ -4,11 +4,19 @@ import modelo.estructuras.IDiccionario;
 import modelo.estructuras.Vector;
 import modelo.estructuras.ListaDoble;
 import modelo.estructuras.Diccionario;
+import modelo.estructuras.TokenCancelacion;
+import modelo.normalizacion.EstadisticasColumnas;
 import modelo.normalizacion.FactoryNormalizacion;
 import modelo.normalizacion.INormalizacion;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public class TransformadorDatos {
 
+    // filas entre revisiones del token
+    private static final int BLOQUE_CANCELACION = 4096;
+
     private ConfiguradorColumnas configurador;
     private ExtractorCategorias extractorCategorias;
     private NormalizadorFecha normalizadorFechas;
@@ -16,6 +24,7 @@ public class TransformadorDatos {
 
     private ListaDoble<VariableConfig> configs;
     private String[] nombresColumnas;
+    private EstadisticasColumnas estadisticas;
 
     public TransformadorDatos(ConfiguradorColumnas configurador,
                               ExtractorCategorias extractorCategorias,
@@ -31,13 +40,26 @@ public class TransformadorDatos {
         this.nombresColumnas = nombresColumnas;
     }
 
+    // con el catalogo de la carga los normalizadores no vuelven a recorrer los datos
+    public TransformadorDatos(ListaDoble<VariableConfig> configs, String[] nombresColumnas,
+                              EstadisticasColumnas estadisticas) {
+        this(configs, nombresColumnas);
+        this.estadisticas = estadisticas;
+    }
+
     public Vector[] normalizarPorVariable(Vector[] vectores) {
+        return normalizarPorVariable(vectores, TokenCancelacion.NINGUNO);
+    }
+
+    // el token se revisa cada BLOQUE_CANCELACION filas en las copias y dentro de cada estrategia
+    public Vector[] normalizarPorVariable(Vector[] vectores, TokenCancelacion token) {
         if (vectores == null || vectores.length == 0) {
             return new Vector[0];
         }
 
         Vector[] vectoresNormalizados = new Vector[vectores.length];
         for (int i = 0; i < vectores.length; i++) {
+            if (i % BLOQUE_CANCELACION == 0) token.verificar();
             vectoresNormalizados[i] = new Vector(vectores[i]);
         }
 
@@ -64,27 +86,36 @@ public class TransformadorDatos {
         ListaDoble<String> metodos = indicesPorMetodo.conjuntoClaves();
         for (int i = 0; i < metodos.tamanio(); i++) {
             String metodo = metodos.obtener(i);
-            ListaDoble<Integer> indices = indicesPorMetodo.obtener(metodo);
-            int numColumnas = indices.tamanio();
+            ListaDoble<Integer> listaIndices = indicesPorMetodo.obtener(metodo);
+            int numColumnas = listaIndices.tamanio();
 
             if (numColumnas == 0) continue;
 
+            int[] indices = new int[numColumnas];
+            ListaDoble.IteradorLista<Integer> it = listaIndices.iterador();
+            for (int k = 0; it.tieneSiguiente(); k++) {
+                indices[k] = it.siguiente();
+            }
+
             Vector[] subVectores = new Vector[vectores.length];
             for (int j = 0; j < vectores.length; j++) {
+                if (j % BLOQUE_CANCELACION == 0) token.verificar();
                 double[] subDatos = new double[numColumnas];
                 for (int k = 0; k < numColumnas; k++) {
-                    subDatos[k] = vectores[j].getPosicion(indices.obtener(k));
+                    subDatos[k] = vectores[j].getPosicion(indices[k]);
                 }
                 subVectores[j] = new Vector(subDatos, "");
             }
 
             INormalizacion estrategia = FactoryNormalizacion.crear(metodo);
-            Vector[] subVectoresNormalizados = estrategia.normalizar(subVectores);
+            EstadisticasColumnas subEstadisticas = estadisticasDe(indices);
+            Vector[] subVectoresNormalizados = estrategia.normalizar(subVectores, subEstadisticas, token);
 
             for (int j = 0; j < vectoresNormalizados.length; j++) {
+                if (j % BLOQUE_CANCELACION == 0) token.verificar();
                 for (int k = 0; k < numColumnas; k++) {
                     double valorNormalizado = subVectoresNormalizados[j].getPosicion(k);
-                    vectoresNormalizados[j].setValor(indices.obtener(k), valorNormalizado);
+                    vectoresNormalizados[j].setValor(indices[k], valorNormalizado);
                 }
             }
         }
@@ -92,80 +123,207 @@ public class TransformadorDatos {
         return vectoresNormalizados;
     }
 
-    public Vector[] transformar(ListaDoble<IDiccionario<String, String>> filas) {
-        ListaDoble<Vector> vectores = new ListaDoble<>();
+    // estadisticas de las columnas seleccionadas, null si alguna no esta en el catalogo
+    private EstadisticasColumnas estadisticasDe(int[] indicesSeleccion) {
+        if (estadisticas == null) {
+            return null;
+        }
 
-        for (int k = 0; k < filas.tamanio(); k++) {
-            IDiccionario<String, String> fila = filas.obtener(k);
-            String identificador = fila.obtener(configurador.getColumnaIdentificador());
-            if (identificador == null || identificador.isEmpty()) {
-                continue;
+        int[] indicesCatalogo = new int[indicesSeleccion.length];
+        for (int k = 0; k < indicesSeleccion.length; k++) {
+            int indice = estadisticas.indiceDe(nombresColumnas[indicesSeleccion[k]]);
+            if (indice < 0) {
+                return null;
             }
+            indicesCatalogo[k] = indice;
+        }
+        return estadisticas.subconjunto(indicesCatalogo);
+    }
 
-            ListaDoble<Double> datosVector = new ListaDoble<>();
+    public Vector[] transformar(ListaDoble<IDiccionario<String, String>> filas) {
+        Disposicion disposicion = new Disposicion();
 
-            agregarColumnasNumericas(fila, datosVector);
-            agregarColumnasCategoricas(fila, datosVector);
-            agregarColumnasConteo(fila, datosVector);
-            agregarColumnasJsonArray(fila, datosVector);
-            agregarColumnaFechaSinNormalizar(fila, datosVector);
+        // una sola pasada O(n) sobre la lista enlazada, despues acceso directo por indice
+        Object[] arregloFilas = filas.aArreglo();
+        Vector[] porFila = new Vector[arregloFilas.length];
 
-            double[] datos = new double[datosVector.tamanio()];
-            for (int i = 0; i < datosVector.tamanio(); i++) {
-                datos[i] = datosVector.obtener(i);
-            }
-            Vector v = new Vector(datos, identificador);
-            vectores.agregar(v);
-        }
+        // el catalogo de estadisticas se arma en la misma pasada
+        estadisticas = ForkJoinPool.commonPool().invoke(
+                new TareaTransformacion(arregloFilas, porFila, 0, arregloFilas.length, disposicion));
 
-        Vector[] resultado = new Vector[vectores.tamanio()];
-        for (int i = 0; i < vectores.tamanio(); i++) {
-            resultado[i] = vectores.obtener(i);
+        // compactar, las filas sin identificador quedaron en null
+        int validos = 0;
+        for (Vector v : porFila) {
+            if (v != null) validos++;
+        }
+        Vector[] resultado = new Vector[validos];
+        int pos = 0;
+        for (Vector v : porFila) {
+            if (v != null) resultado[pos++] = v;
         }
         return resultado;
     }
 
-    private void agregarColumnasNumericas(IDiccionario<String, String> fila, ListaDoble<Double> datosVector) {
-        for (String columna : configurador.getColumnasNumericas()) {
-            String valor = fila.obtener(columna);
-            datosVector.agregar(codificador.parsearNumerico(valor));
-        }
+    // estadisticas por dimension de la ultima transformacion (valores sin normalizar)
+    public EstadisticasColumnas getEstadisticas() {
+        return estadisticas;
     }
 
-    private void agregarColumnasCategoricas(IDiccionario<String, String> fila, ListaDoble<Double> datosVector) {
-        for (String columna : configurador.getColumnasCategoricas()) {
+    // escribe la fila en el buffer, retorna su identificador o null si no tiene
+    // las celdas vacias se anotan como nulos en el catalogo parcial
+    @SuppressWarnings("unchecked")
+    private String escribirFila(Object filaObj, Disposicion d, double[] buffer, int[] cubetasActivas,
+                                EstadisticasColumnas parcial) {
+        IDiccionario<String, String> fila = (IDiccionario<String, String>) filaObj;
+        String identificador = fila.obtener(configurador.getColumnaIdentificador());
+        if (identificador == null || identificador.isEmpty()) {
+            return null;
+        }
+
+        for (int i = 0; i < buffer.length; i++) buffer[i] = 0.0;
+
+        int pos = 0;
+
+        // numericas
+        for (String columna : d.numericas) {
             String valor = fila.obtener(columna);
-            ListaDoble<String> categorias = extractorCategorias.obtenerCategorias(columna);
+            if (DecodificadorCampos.esNulo(valor)) parcial.agregarNulo(pos);
+            buffer[pos++] = codificador.parsearNumerico(valor);
+        }
 
-            if (categorias != null) {
-                double[] oneHot = codificador.codificarOneHot(valor, categorias);
-                for (double val : oneHot) {
-                    datosVector.agregar(val);
-                }
+        // categoricas (one-hot)
+        for (int c = 0; c < d.categoricas.length; c++) {
+            String[] categorias = d.categorias[c];
+            String valor = fila.obtener(d.categoricas[c]);
+            if (DecodificadorCampos.esNulo(valor)) {
+                valor = "desconocido";
+                for (int k = 0; k < categorias.length; k++) parcial.agregarNulo(pos + k);
+            }
+            for (int k = 0; k < categorias.length; k++) {
+                if (valor.equals(categorias[k])) buffer[pos + k] = 1.0;
             }
+            pos += categorias.length;
         }
-    }
 
-    private void agregarColumnasConteo(IDiccionario<String, String> fila, ListaDoble<Double> datosVector) {
-        for (String columna : configurador.getColumnasConteo()) {
-            String valor = fila.obtener(columna);
-            int conteo = codificador.contarElementos(valor);
-            datosVector.agregar((double) conteo);
+        // conteo o multi-hot
+        for (int c = 0; c < d.listas.length; c++) {
+            String valor = fila.obtener(d.listas[c]);
+            int cubetas = d.cubetas[c];
+            if (DecodificadorCampos.esNulo(valor)) {
+                for (int k = 0; k < Math.max(cubetas, 1); k++) parcial.agregarNulo(pos + k);
+            }
+            if (cubetas == 0) {
+                buffer[pos++] = d.esJson[c]
+                        ? codificador.contarElementosJson(valor)
+                        : codificador.contarElementos(valor);
+                continue;
+            }
+            int activas = codificador.codificarMultiHot(valor, d.esJson[c], cubetas, cubetasActivas);
+            for (int k = 0; k < activas; k++) {
+                buffer[pos + cubetasActivas[k]] = 1.0;
+            }
+            pos += cubetas;
         }
-    }
 
-    private void agregarColumnasJsonArray(IDiccionario<String, String> fila, ListaDoble<Double> datosVector) {
-        for (String columna : configurador.getColumnasJsonArray()) {
-            String valor = fila.obtener(columna);
-            int conteo = codificador.contarElementosJson(valor);
-            datosVector.agregar((double) conteo);
+        // fecha sin normalizar
+        String fecha = fila.obtener(configurador.getColumnaFecha());
+        if (fecha == null || DecodificadorCampos.diaEpoca(fecha) == DecodificadorCampos.FECHA_INVALIDA) {
+            parcial.agregarNulo(pos);
         }
+        buffer[pos] = normalizadorFechas.convertirANumero(fecha);
+
+        parcial.agregar(buffer);
+        return identificador;
     }
 
-    private void agregarColumnaFechaSinNormalizar(IDiccionario<String, String> fila, ListaDoble<Double> datosVector) {
-        String fechaStr = fila.obtener(configurador.getColumnaFecha());
-        double fechaEnDias = normalizadorFechas.convertirANumero(fechaStr);
-        datosVector.agregar(fechaEnDias);
+    // layout del vector calculado una vez por transformacion
+    private class Disposicion {
+        final int dimension;
+        final String[] nombres;
+        final String[] numericas;
+        final String[] categoricas;
+        final String[][] categorias;
+        final String[] listas;
+        final boolean[] esJson;
+        final int[] cubetas; // 0 = conteo
+        final int maxCubetas;
+
+        Disposicion() {
+            NombreDimGen generador = new NombreDimGen(configurador, extractorCategorias);
+            this.dimension = generador.calcularTotalDimensiones();
+            this.nombres = generador.generar();
+            this.numericas = configurador.getColumnasNumericas();
+
+            this.categoricas = configurador.getColumnasCategoricas();
+            this.categorias = new String[categoricas.length][];
+            for (int c = 0; c < categoricas.length; c++) {
+                ListaDoble<String> lista = extractorCategorias.obtenerCategorias(categoricas[c]);
+                Object[] arreglo = lista != null ? lista.aArreglo() : new Object[0];
+                categorias[c] = new String[arreglo.length];
+                for (int k = 0; k < arreglo.length; k++) categorias[c][k] = (String) arreglo[k];
+            }
+
+            String[] conteo = configurador.getColumnasConteo();
+            String[] json = configurador.getColumnasJsonArray();
+            this.listas = new String[conteo.length + json.length];
+            this.esJson = new boolean[listas.length];
+            this.cubetas = new int[listas.length];
+            int max = 0;
+            for (int c = 0; c < listas.length; c++) {
+                listas[c] = c < conteo.length ? conteo[c] : json[c - conteo.length];
+                esJson[c] = c >= conteo.length;
+                if (configurador.getCodificacion(listas[c]) == ConfiguradorColumnas.TipoCodificacion.MULTI_HOT) {
+                    cubetas[c] = configurador.getCubetas(listas[c]);
+                    max = Math.max(max, cubetas[c]);
+                }
+            }
+            this.maxCubetas = max;
+        }
     }
 
-}
\ No newline at end of file
+    // bloques de filas en paralelo, cada hoja reutiliza su propio buffer primitivo
+    // y arma un catalogo parcial que se combina al subir
+    private class TareaTransformacion extends RecursiveTask<EstadisticasColumnas> {
+        private static final long serialVersionUID = 1L;
+        private static final int UMBRAL = 256;
+
+        private final Object[] filas;
+        private final Vector[] destino;
+        private final int inicio;
+        private final int fin;
+        private final Disposicion disposicion;
+
+        TareaTransformacion(Object[] filas, Vector[] destino, int inicio, int fin, Disposicion disposicion) {
+            this.filas = filas;
+            this.destino = destino;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.disposicion = disposicion;
+        }
+
+        @Override
+        protected EstadisticasColumnas compute() {
+            if (fin - inicio > UMBRAL) {
+                int medio = (inicio + fin) >>> 1;
+                TareaTransformacion izquierda = new TareaTransformacion(filas, destino, inicio, medio, disposicion);
+                TareaTransformacion derecha = new TareaTransformacion(filas, destino, medio, fin, disposicion);
+                izquierda.fork();
+                EstadisticasColumnas resultadoDerecha = derecha.compute();
+                EstadisticasColumnas resultado = izquierda.join();
+                resultado.combinar(resultadoDerecha);
+                return resultado;
+            }
+
+            EstadisticasColumnas parcial = new EstadisticasColumnas(disposicion.nombres);
+            double[] buffer = new double[disposicion.dimension];
+            int[] cubetasActivas = new int[disposicion.maxCubetas];
+            for (int k = inicio; k < fin; k++) {
+                String identificador = escribirFila(filas[k], disposicion, buffer, cubetasActivas, parcial);
+                if (identificador != null) {
+                    destino[k] = new Vector(buffer, identificador);
+                }
+            }
+            return parcial;
+        }
+    }
+}
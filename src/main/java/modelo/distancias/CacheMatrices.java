@@ -0,0 +1,167 @@
+package modelo.distancias;
+
+import modelo.estructuras.Diccionario;
+import modelo.estructuras.IDiccionario;
+import modelo.estructuras.ListaDoble;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.TokenCancelacion;
+import modelo.estructuras.Vector;
+
+// cache de matrices de distancia por huella, con expulsion LRU por tamaño en bytes
+// las matrices guardadas son compartidas: quien las reciba no debe modificarlas
+// (el motor trabaja sobre una copia, ver MotorCluster.construirEnlaceSobreCopia)
+// guarda pocas matrices grandes, por eso la lista de uso reciente lineal alcanza
+// con un presupuesto asignado cada matriz guardada se cobra de la misma memoria que usan los trabajos
+// (ver ServicioClustering) y se devuelve al expulsarla; si el presupuesto no alcanza se expulsan las
+// menos usadas y, si aun asi no entra, la matriz no se guarda
+public class CacheMatrices {
+
+    public interface Presupuesto {
+        // sin bloquear; false si no hay memoria libre
+        boolean reservar(long bytes);
+
+        void liberar(long bytes);
+    }
+
+    private static final Presupuesto SIN_PRESUPUESTO = new Presupuesto() {
+        @Override
+        public boolean reservar(long bytes) {
+            return true;
+        }
+
+        @Override
+        public void liberar(long bytes) {
+        }
+    };
+
+    private final long capacidadBytes;
+    private Presupuesto presupuesto = SIN_PRESUPUESTO;
+    private final IDiccionario<HuellaMatriz, Matriz> matrices;
+    // la mas reciente al inicio
+    private final ListaDoble<HuellaMatriz> usoReciente;
+    private long bytesOcupados;
+    private long aciertos;
+    private long fallos;
+
+    public CacheMatrices(long capacidadBytes) {
+        if (capacidadBytes < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        this.capacidadBytes = capacidadBytes;
+        this.matrices = new Diccionario<>();
+        this.usoReciente = new ListaDoble<>();
+    }
+
+    // la calcula fuera del candado si no esta; dos hilos con la misma huella pueden calcularla a la vez
+    public Matriz obtenerOCalcular(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
+        return obtenerOCalcular(vectores, tipoDistancia, TokenCancelacion.NINGUNO);
+    }
+
+    // un calculo cancelado no llega a guardarse
+    public Matriz obtenerOCalcular(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia,
+                                   TokenCancelacion token) {
+        HuellaMatriz huella = HuellaMatriz.de(vectores, tipoDistancia);
+        Matriz matriz = obtener(huella);
+        if (matriz != null) {
+            return matriz;
+        }
+
+        matriz = new CalculadorMatrizDistancia().calcular(vectores, tipoDistancia, token);
+        guardar(huella, matriz);
+        return matriz;
+    }
+
+    public synchronized Matriz obtener(HuellaMatriz huella) {
+        Matriz matriz = matrices.obtener(huella);
+        if (matriz == null) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        usoReciente.eliminarElemento(huella);
+        usoReciente.agregarAlInicio(huella);
+        return matriz;
+    }
+
+    // una matriz mas grande que toda la capacidad no se guarda
+    public synchronized void guardar(HuellaMatriz huella, Matriz matriz) {
+        long bytes = huella.bytesMatriz();
+        if (bytes > capacidadBytes || matrices.contieneClave(huella)) {
+            return;
+        }
+
+        // bytes <= capacidad: con la cache vacia ya entra
+        while (bytesOcupados + bytes > capacidadBytes) {
+            expulsarMenosUsada();
+        }
+        while (!presupuesto.reservar(bytes)) {
+            if (!expulsarMenosUsada()) {
+                return;
+            }
+        }
+
+        matrices.poner(huella, matriz);
+        usoReciente.agregarAlInicio(huella);
+        bytesOcupados += bytes;
+    }
+
+    // false si no habia ninguna; la usa el servicio para ceder memoria a un trabajo que espera
+    public synchronized boolean expulsarMenosUsada() {
+        if (usoReciente.estaVacia()) {
+            return false;
+        }
+        HuellaMatriz menosUsada = usoReciente.obtener(usoReciente.tamanio() - 1);
+        usoReciente.eliminarElemento(menosUsada);
+        matrices.eliminar(menosUsada);
+        bytesOcupados -= menosUsada.bytesMatriz();
+        presupuesto.liberar(menosUsada.bytesMatriz());
+        return true;
+    }
+
+    // de a una, para devolver al presupuesto lo mismo que se reservo por cada matriz
+    public synchronized void limpiar() {
+        while (!usoReciente.estaVacia()) {
+            expulsarMenosUsada();
+        }
+    }
+
+    // una sola vez y con la cache vacia, asi lo reservado y lo liberado siempre coinciden
+    public synchronized void setPresupuesto(Presupuesto presupuesto) {
+        if (presupuesto == null) {
+            throw new IllegalArgumentException("El presupuesto no puede ser nulo");
+        }
+        if (this.presupuesto != SIN_PRESUPUESTO) {
+            throw new IllegalStateException("La cache ya tiene un presupuesto asignado");
+        }
+        if (bytesOcupados > 0) {
+            throw new IllegalStateException("El presupuesto se asigna con la cache vacia");
+        }
+        this.presupuesto = presupuesto;
+    }
+
+    public synchronized int getNumeroMatrices() {
+        return matrices.tamanio();
+    }
+
+    public synchronized long getBytesOcupados() {
+        return bytesOcupados;
+    }
+
+    public long getCapacidadBytes() {
+        return capacidadBytes;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CacheMatrices [matrices=" + matrices.tamanio() + ", " + (bytesOcupados >> 20) + "/" +
+                (capacidadBytes >> 20) + " MB, aciertos=" + aciertos + ", fallos=" + fallos + "]";
+    }
+}
@@ -1,7 +1,10 @@
 package modelo.distancias;
 
+import modelo.estructuras.Diccionario;
+import modelo.estructuras.IDiccionario;
 import modelo.estructuras.Vector;
 import modelo.estructuras.Matriz;
+import modelo.estructuras.TokenCancelacion;
 
 public class CalculadorMatrizDistancia {
 
@@ -9,15 +12,23 @@ public class CalculadorMatrizDistancia {
     private Matriz matrizDistancias;
     private ICalculadorDistancia calculador;
     private String[] etiquetas;
+    private IDiccionario<String, Integer> indicePorEtiqueta;
 
     public CalculadorMatrizDistancia() {
         this.vectores = new Vector[0];
         this.matrizDistancias = null;
         this.calculador = null;
         this.etiquetas = new String[0];
+        this.indicePorEtiqueta = new Diccionario<>();
     }
 
     public Matriz calcular(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
+        return calcular(vectores, tipoDistancia, TokenCancelacion.NINGUNO);
+    }
+
+    // revisa el token en cada fila; si se cancela no queda referencia a la matriz a medio hacer
+    public Matriz calcular(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia,
+                           TokenCancelacion token) {
         if (vectores == null || vectores.length == 0) {
             throw new IllegalArgumentException("Array de vectores no puede estar vacío");
         }
@@ -25,6 +36,7 @@ public class CalculadorMatrizDistancia {
         this.vectores = vectores;
         this.calculador = FactoryDistancia.crear(tipoDistancia);
         this.etiquetas = extraerEtiquetas(vectores);
+        this.indicePorEtiqueta = indexarEtiquetas(etiquetas);
 
         // crear matriz cuadrada n x n
         int n = vectores.length;
@@ -32,6 +44,11 @@ public class CalculadorMatrizDistancia {
 
         // calcular distancias
         for (int i = 0; i < n; i++) {
+            if (token.isCancelado()) {
+                this.matrizDistancias = null;
+                token.verificar();
+            }
+
             // Diagonal: distancia de un elemento consigo mismo = 0
             matrizDistancias.setPosicion(i, i, 0.0);
 
@@ -47,6 +64,42 @@ public class CalculadorMatrizDistancia {
         return this.matrizDistancias;
     }
 
+    // agrega vectores al final sin recalcular lo que ya estaba: solo las filas y columnas nuevas,
+    // O(m * n) distancias en vez de O(n^2); usa la misma distancia del ultimo calcular
+    public Matriz extender(Vector[] nuevos) {
+        if (matrizDistancias == null) {
+            throw new IllegalStateException("No hay matriz calculada");
+        }
+        if (nuevos == null || nuevos.length == 0) {
+            return matrizDistancias;
+        }
+
+        int previos = vectores.length;
+        int n = previos + nuevos.length;
+        Vector[] todos = new Vector[n];
+        System.arraycopy(vectores, 0, todos, 0, previos);
+        System.arraycopy(nuevos, 0, todos, previos, nuevos.length);
+
+        Matriz ampliada = matrizDistancias.ampliar(n);
+        for (int i = previos; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                double distancia = calculador.calcular(todos[i], todos[j]);
+                ampliada.setPosicion(i, j, distancia);
+                ampliada.setPosicion(j, i, distancia);
+            }
+        }
+
+        this.vectores = todos;
+        this.etiquetas = extraerEtiquetas(todos);
+        for (int i = previos; i < n; i++) {
+            if (etiquetas[i] != null && !indicePorEtiqueta.contieneClave(etiquetas[i])) {
+                indicePorEtiqueta.poner(etiquetas[i], i);
+            }
+        }
+        this.matrizDistancias = ampliada;
+        return ampliada;
+    }
+
     // calcular usando distancia pasada por parametro
     public Matriz calcular(Vector[] vectores, String nombreDistancia) {
         FactoryDistancia.TipoDistancia tipo = FactoryDistancia.TipoDistancia.valueOf(
@@ -90,14 +143,21 @@ public class CalculadorMatrizDistancia {
         return getDistancia(i, j);
     }
 
-    // encuentra el indice de una etiqueta
+    // encuentra el indice de una etiqueta, O(1) con el diccionario
     private int obtenerIndiceEtiqueta(String etiqueta) {
+        Integer i = indicePorEtiqueta.obtener(etiqueta);
+        return i != null ? i : -1;
+    }
+
+    // con etiquetas repetidas se conserva la primera, igual que la busqueda lineal
+    private IDiccionario<String, Integer> indexarEtiquetas(String[] etiquetas) {
+        IDiccionario<String, Integer> indice = new Diccionario<>(etiquetas.length * 2 + 1);
         for (int i = 0; i < etiquetas.length; i++) {
-            if (etiquetas[i].equals(etiqueta)) {
-                return i;
+            if (etiquetas[i] != null && !indice.contieneClave(etiquetas[i])) {
+                indice.poner(etiquetas[i], i);
             }
         }
-        return -1;
+        return indice;
     }
 
     public int[] getParMasProximo() {
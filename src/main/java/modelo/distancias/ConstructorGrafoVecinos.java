@@ -0,0 +1,474 @@
+package modelo.distancias;
+
+import modelo.estructuras.GrafoVecinos;
+import modelo.estructuras.Vector;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+// grafo de los k vecinos mas cercanos aproximado por NN-descent (Dong et al.)
+// parte de vecinos al azar y en cada ronda compara entre si a los vecinos de cada punto ("un vecino de
+// mi vecino probablemente es mi vecino"); converge en pocas rondas con O(n * k^2) distancias por ronda
+// en vez de las n^2 / 2 de la matriz completa
+// funciona con cualquier ICalculadorDistancia; el resultado no es deterministico entre corridas
+// paralelas porque el orden de las actualizaciones depende de los hilos
+public class ConstructorGrafoVecinos {
+
+    private static final int ITERACIONES_DEFECTO = 12;
+    private static final double DELTA_DEFECTO = 0.001;
+    private static final double MUESTREO_DEFECTO = 1.0;
+    private static final int CERROJOS = 1024;
+    private static final int RANGO_MINIMO = 256;
+
+    private final ICalculadorDistancia calculador;
+    private final int k;
+    private final int iteraciones;
+    private final double delta;
+    private final double muestreo;
+    private final long semilla;
+
+    public ConstructorGrafoVecinos(ICalculadorDistancia calculador, int k) {
+        this(calculador, k, ITERACIONES_DEFECTO, DELTA_DEFECTO, MUESTREO_DEFECTO, 42L);
+    }
+
+    // delta: se detiene cuando una ronda cambia menos de delta * n * k vecinos
+    // muestreo: fraccion de k de candidatos nuevos (y de inversos) que entra en cada ronda
+    public ConstructorGrafoVecinos(ICalculadorDistancia calculador, int k, int iteraciones, double delta,
+                                   double muestreo, long semilla) {
+        if (calculador == null) {
+            throw new IllegalArgumentException("Debe indicar el calculador de distancia");
+        }
+        if (k < 1 || iteraciones < 1) {
+            throw new IllegalArgumentException("k e iteraciones deben ser positivos");
+        }
+        if (delta < 0.0 || muestreo <= 0.0 || muestreo > 1.0) {
+            throw new IllegalArgumentException("Delta debe ser >= 0 y muestreo debe estar en (0, 1]");
+        }
+        this.calculador = calculador;
+        this.k = k;
+        this.iteraciones = iteraciones;
+        this.delta = delta;
+        this.muestreo = muestreo;
+        this.semilla = semilla;
+    }
+
+    public GrafoVecinos construir(Vector[] vectores) {
+        return construir(vectores, ForkJoinPool.commonPool());
+    }
+
+    public GrafoVecinos construir(Vector[] vectores, ForkJoinPool pool) {
+        validar(vectores);
+        int n = vectores.length;
+        int kEfectivo = Math.min(k, n - 1);
+        long huella = huella(vectores);
+        if (kEfectivo == 0) {
+            return GrafoVecinos.desdeFilas(n, 0, new int[0], new float[0], huella);
+        }
+
+        Vecindario vecindario = new Vecindario(n, kEfectivo);
+        if (kEfectivo == n - 1) {
+            // pocos puntos: todos son vecinos de todos, se calcula exacto
+            enParalelo(pool, n, i -> {
+                for (int j = 0; j < n; j++) {
+                    if (j != i) vecindario.agregarInicial(i, j, (float) calculador.calcular(vectores[i], vectores[j]));
+                }
+            });
+            return GrafoVecinos.desdeFilas(n, kEfectivo, vecindario.ids, vecindario.distancias, huella);
+        }
+
+        enParalelo(pool, n, i -> {
+            SplittableRandom aleatorio = new SplittableRandom(semilla ^ (0x9E3779B97F4A7C15L * (i + 1)));
+            while (vecindario.cuenta[i] < kEfectivo) {
+                int j = aleatorio.nextInt(n);
+                if (j != i && !vecindario.contiene(i, j)) {
+                    vecindario.agregarInicial(i, j, (float) calculador.calcular(vectores[i], vectores[j]));
+                }
+            }
+        });
+
+        int tamanioMuestra = Math.max(1, (int) Math.ceil(muestreo * kEfectivo));
+        long umbral = (long) Math.ceil(delta * n * kEfectivo);
+        for (int ronda = 0; ronda < iteraciones; ronda++) {
+            Candidatos candidatos = new Candidatos(vecindario, tamanioMuestra,
+                    new SplittableRandom(semilla + 31L * (ronda + 1)));
+            LongAdder cambios = new LongAdder();
+            enParalelo(pool, n, v -> cambios.add(unionLocal(vectores, vecindario, candidatos, v)));
+            if (cambios.sum() <= umbral) break;
+        }
+
+        return GrafoVecinos.desdeFilas(n, kEfectivo, vecindario.ids, vecindario.distancias, huella);
+    }
+
+    // grafo por radio exacto: todas las aristas de distancia <= radio
+    // calcula los n^2 / 2 pares (en paralelo por filas) pero guarda solo las aristas, no la matriz
+    public GrafoVecinos construirPorRadio(Vector[] vectores, double radio) {
+        return construirPorRadio(vectores, radio, ForkJoinPool.commonPool());
+    }
+
+    public GrafoVecinos construirPorRadio(Vector[] vectores, double radio, ForkJoinPool pool) {
+        validar(vectores);
+        if (Double.isNaN(radio) || radio < 0.0) {
+            throw new IllegalArgumentException("El radio no puede ser negativo");
+        }
+        int n = vectores.length;
+        int[][] filas = new int[n][];
+        float[][] distanciasFilas = new float[n][];
+        int[] cuentas = new int[n];
+        enParalelo(pool, n, i -> {
+            int[] ids = new int[8];
+            float[] dist = new float[8];
+            int c = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double d = calculador.calcular(vectores[i], vectores[j]);
+                if (d > radio) continue;
+                if (c == ids.length) {
+                    ids = Arrays.copyOf(ids, c * 2);
+                    dist = Arrays.copyOf(dist, c * 2);
+                }
+                ids[c] = j;
+                dist[c++] = (float) d;
+            }
+            filas[i] = ids;
+            distanciasFilas[i] = dist;
+            cuentas[i] = c;
+        });
+        // la huella de radio no sirve para reutilizar un kNN: se marca con el radio en vez de k
+        long huella = HuellaMatriz.hashContenido(vectores) * 31 + calculador.getNombre().hashCode();
+        return GrafoVecinos.desdeListas(filas, distanciasFilas, cuentas, huella * 31 + Double.hashCode(radio));
+    }
+
+    // compara todos los pares nuevo-nuevo y nuevo-viejo entre los candidatos de v
+    private int unionLocal(Vector[] vectores, Vecindario vecindario, Candidatos candidatos, int v) {
+        int[] nuevos = candidatos.nuevos[v];
+        int[] viejos = candidatos.viejos[v];
+        int numeroNuevos = candidatos.cuentaNuevos[v];
+        int numeroViejos = candidatos.cuentaViejos[v];
+        int cambios = 0;
+        for (int a = 0; a < numeroNuevos; a++) {
+            int p = nuevos[a];
+            for (int b = a + 1; b < numeroNuevos; b++) {
+                cambios += comparar(vectores, vecindario, p, nuevos[b]);
+            }
+            for (int b = 0; b < numeroViejos; b++) {
+                cambios += comparar(vectores, vecindario, p, viejos[b]);
+            }
+        }
+        return cambios;
+    }
+
+    private int comparar(Vector[] vectores, Vecindario vecindario, int p, int q) {
+        if (p == q) return 0;
+        float d = (float) calculador.calcular(vectores[p], vectores[q]);
+        int cambios = 0;
+        if (vecindario.actualizar(p, q, d)) cambios++;
+        if (vecindario.actualizar(q, p, d)) cambios++;
+        return cambios;
+    }
+
+    // REUTILIZACION
+
+    // carga el grafo de la ruta si se construyo con los mismos datos, distancia y k; si no, lo construye
+    // y lo guarda ahi para la proxima corrida
+    public GrafoVecinos construirOReutilizar(Vector[] vectores, String ruta) throws IOException {
+        validar(vectores);
+        long huella = huella(vectores);
+        if (new File(ruta).isFile()) {
+            try {
+                GrafoVecinos guardado = GrafoVecinos.leer(ruta);
+                if (guardado.getHuella() == huella && guardado.getNumeroNodos() == vectores.length) {
+                    return guardado;
+                }
+            } catch (IOException e) {
+                // archivo viejo o danado: se reconstruye encima
+            }
+        }
+        GrafoVecinos grafo = construir(vectores);
+        grafo.escribir(ruta);
+        return grafo;
+    }
+
+    // contenido de los datos + distancia + k: cambiar cualquiera invalida el archivo
+    public long huella(Vector[] vectores) {
+        long h = HuellaMatriz.hashContenido(vectores);
+        h = h * 31 + calculador.getNombre().hashCode();
+        return h * 31 + k;
+    }
+
+    // CALIDAD
+
+    // fraccion de los k vecinos exactos que aparecen en el grafo, medida por fuerza bruta sobre una muestra
+    // de puntos (cada uno contra todos) con el mismo calculador; con empates cuenta cualquier vecino que
+    // este a la distancia del k-esimo exacto o menos
+    public double recall(GrafoVecinos grafo, Vector[] vectores, int tamanioMuestra) {
+        validar(vectores);
+        int n = vectores.length;
+        if (grafo.getNumeroNodos() != n) {
+            throw new IllegalArgumentException("El grafo no corresponde a los vectores");
+        }
+        if (tamanioMuestra < 1) {
+            throw new IllegalArgumentException("La muestra debe tener al menos un punto");
+        }
+
+        int[] muestra = muestrear(n, Math.min(tamanioMuestra, n), new SplittableRandom(semilla));
+        long aciertos = 0;
+        long esperados = 0;
+        double[] exactas = new double[n - 1];
+        for (int i : muestra) {
+            int kFila = grafo.grado(i);
+            if (kFila == 0) continue;
+            int c = 0;
+            for (int j = 0; j < n; j++) {
+                if (j != i) exactas[c++] = calculador.calcular(vectores[i], vectores[j]);
+            }
+            Arrays.sort(exactas);
+            // el grafo guarda float: se compara con la misma precision
+            float limite = (float) exactas[kFila - 1];
+            for (int j = 0; j < kFila; j++) {
+                if (grafo.getDistancia(i, j) <= limite) aciertos++;
+            }
+            esperados += kFila;
+        }
+        return esperados == 0 ? 1.0 : (double) aciertos / esperados;
+    }
+
+    private static int[] muestrear(int n, int tamanio, SplittableRandom aleatorio) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) indices[i] = i;
+        for (int i = 0; i < tamanio; i++) {
+            int j = i + aleatorio.nextInt(n - i);
+            int t = indices[i];
+            indices[i] = indices[j];
+            indices[j] = t;
+        }
+        return Arrays.copyOf(indices, tamanio);
+    }
+
+    private static void validar(Vector[] vectores) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public ICalculadorDistancia getCalculador() {
+        return calculador;
+    }
+
+    // ESTRUCTURAS INTERNAS
+
+    // k vecinos por punto como max-heap en arreglos planos (la raiz es el peor), con marca de "nuevo"
+    // las filas se protegen con cerrojos por franjas para que varios hilos actualicen a la vez
+    private static final class Vecindario {
+        final int k;
+        final int[] ids;
+        final float[] distancias;
+        final boolean[] nuevo;
+        final int[] cuenta;
+        final Object[] cerrojos = new Object[CERROJOS];
+
+        Vecindario(int n, int k) {
+            this.k = k;
+            ids = new int[n * k];
+            distancias = new float[n * k];
+            nuevo = new boolean[n * k];
+            cuenta = new int[n];
+            for (int i = 0; i < CERROJOS; i++) cerrojos[i] = new Object();
+        }
+
+        boolean contiene(int fila, int id) {
+            int base = fila * k;
+            for (int s = 0; s < cuenta[fila]; s++) {
+                if (ids[base + s] == id) return true;
+            }
+            return false;
+        }
+
+        // solo durante la inicializacion, cada fila la llena un unico hilo
+        void agregarInicial(int fila, int id, float d) {
+            int base = fila * k;
+            int s = cuenta[fila]++;
+            ids[base + s] = id;
+            distancias[base + s] = d;
+            nuevo[base + s] = true;
+            // subir en el heap
+            while (s > 0) {
+                int padre = (s - 1) / 2;
+                if (distancias[base + padre] >= distancias[base + s]) break;
+                intercambiar(base + padre, base + s);
+                s = padre;
+            }
+        }
+
+        // reemplaza al peor vecino si id esta mas cerca y todavia no es vecino
+        boolean actualizar(int fila, int id, float d) {
+            int base = fila * k;
+            // lectura sin cerrojo para descartar rapido, se confirma adentro
+            if (d >= distancias[base]) return false;
+            synchronized (cerrojos[fila & (CERROJOS - 1)]) {
+                if (d >= distancias[base] || contiene(fila, id)) return false;
+                ids[base] = id;
+                distancias[base] = d;
+                nuevo[base] = true;
+                int s = 0;
+                while (true) {
+                    int izq = 2 * s + 1;
+                    if (izq >= k) break;
+                    int mayor = izq + 1 < k && distancias[base + izq + 1] > distancias[base + izq] ? izq + 1 : izq;
+                    if (distancias[base + mayor] <= distancias[base + s]) break;
+                    intercambiar(base + mayor, base + s);
+                    s = mayor;
+                }
+                return true;
+            }
+        }
+
+        private void intercambiar(int a, int b) {
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float d = distancias[a];
+            distancias[a] = distancias[b];
+            distancias[b] = d;
+            boolean marca = nuevo[a];
+            nuevo[a] = nuevo[b];
+            nuevo[b] = marca;
+        }
+    }
+
+    // listas de candidatos de una ronda: vecinos nuevos (muestreados) y viejos de cada punto, mas los
+    // puntos que lo tienen como vecino (inversos, tambien muestreados)
+    private static final class Candidatos {
+        final int[][] nuevos;
+        final int[][] viejos;
+        final int[] cuentaNuevos;
+        final int[] cuentaViejos;
+
+        Candidatos(Vecindario vecindario, int tamanioMuestra, SplittableRandom aleatorio) {
+            int n = vecindario.cuenta.length;
+            int k = vecindario.k;
+            nuevos = new int[n][];
+            viejos = new int[n][];
+            cuentaNuevos = new int[n];
+            cuentaViejos = new int[n];
+
+            int[][] inversosNuevos = new int[n][];
+            int[][] inversosViejos = new int[n][];
+            int[] cuentaInversosNuevos = new int[n];
+            int[] cuentaInversosViejos = new int[n];
+            int[] marcados = new int[k];
+
+            for (int v = 0; v < n; v++) {
+                nuevos[v] = new int[2 * tamanioMuestra];
+                viejos[v] = new int[k + tamanioMuestra];
+                int base = v * k;
+
+                // los nuevos que no entran en la muestra quedan marcados para la proxima ronda
+                int numeroMarcados = 0;
+                for (int s = 0; s < k; s++) {
+                    if (vecindario.nuevo[base + s]) {
+                        marcados[numeroMarcados++] = s;
+                    } else {
+                        viejos[v][cuentaViejos[v]++] = vecindario.ids[base + s];
+                    }
+                }
+                int tomar = Math.min(tamanioMuestra, numeroMarcados);
+                for (int t = 0; t < tomar; t++) {
+                    int r = t + aleatorio.nextInt(numeroMarcados - t);
+                    int s = marcados[r];
+                    marcados[r] = marcados[t];
+                    vecindario.nuevo[base + s] = false;
+                    nuevos[v][cuentaNuevos[v]++] = vecindario.ids[base + s];
+                }
+            }
+
+            // inversos a partir de las listas directas
+            for (int v = 0; v < n; v++) {
+                for (int t = 0; t < cuentaNuevos[v]; t++) {
+                    int u = nuevos[v][t];
+                    inversosNuevos[u] = agregar(inversosNuevos[u], cuentaInversosNuevos[u]++, v);
+                }
+                for (int t = 0; t < cuentaViejos[v]; t++) {
+                    int u = viejos[v][t];
+                    inversosViejos[u] = agregar(inversosViejos[u], cuentaInversosViejos[u]++, v);
+                }
+            }
+
+            for (int v = 0; v < n; v++) {
+                cuentaNuevos[v] = unirMuestra(nuevos[v], cuentaNuevos[v], inversosNuevos[v],
+                        cuentaInversosNuevos[v], tamanioMuestra, aleatorio);
+                int capacidad = cuentaViejos[v] + Math.min(tamanioMuestra, cuentaInversosViejos[v]);
+                if (capacidad > viejos[v].length) viejos[v] = Arrays.copyOf(viejos[v], capacidad);
+                cuentaViejos[v] = unirMuestra(viejos[v], cuentaViejos[v], inversosViejos[v],
+                        cuentaInversosViejos[v], tamanioMuestra, aleatorio);
+            }
+        }
+
+        private static int[] agregar(int[] lista, int posicion, int valor) {
+            if (lista == null) lista = new int[4];
+            else if (posicion == lista.length) lista = Arrays.copyOf(lista, lista.length * 2);
+            lista[posicion] = valor;
+            return lista;
+        }
+
+        // agrega a destino hasta 'tamanio' inversos al azar que no esten ya; retorna la nueva cuenta
+        private static int unirMuestra(int[] destino, int cuenta, int[] inversos, int cuentaInversos,
+                                       int tamanio, SplittableRandom aleatorio) {
+            if (inversos == null) return cuenta;
+            int tomar = Math.min(tamanio, cuentaInversos);
+            for (int t = 0; t < tomar; t++) {
+                int r = t + aleatorio.nextInt(cuentaInversos - t);
+                int u = inversos[r];
+                inversos[r] = inversos[t];
+                inversos[t] = u;
+                boolean repetido = false;
+                for (int s = 0; s < cuenta && !repetido; s++) repetido = destino[s] == u;
+                if (!repetido) destino[cuenta++] = u;
+            }
+            return cuenta;
+        }
+    }
+
+    private static void enParalelo(ForkJoinPool pool, int n, IntConsumer accion) {
+        pool.invoke(new TareaRango(0, n, accion));
+    }
+
+    // reparte [desde, hasta) en mitades hasta rangos chicos
+    private static final class TareaRango extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int desde;
+        private final int hasta;
+        private final IntConsumer accion;
+
+        TareaRango(int desde, int hasta, IntConsumer accion) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.accion = accion;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= RANGO_MINIMO) {
+                for (int i = desde; i < hasta; i++) accion.accept(i);
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaRango(desde, medio, accion), new TareaRango(medio, hasta, accion));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConstructorGrafoVecinos [k=" + k + ", " + calculador.getNombre() + "]";
+    }
+}
@@ -0,0 +1,111 @@
+package modelo.distancias;
+
+import modelo.estructuras.Vector;
+
+// identifica una matriz de distancias por el contenido de los vectores que la generan
+// los vectores ya llegan seleccionados, normalizados y ponderados, asi que dataset, columnas,
+// pesos y normalizacion quedan cubiertos sin tener que describir cada uno por separado
+// se usan dos hashes de 64 bits independientes para que una colision sea despreciable
+public final class HuellaMatriz {
+
+    private final long hashA;
+    private final long hashB;
+    private final int numeroVectores;
+    private final int dimension;
+    private final FactoryDistancia.TipoDistancia tipoDistancia;
+
+    private HuellaMatriz(long hashA, long hashB, int numeroVectores, int dimension,
+                         FactoryDistancia.TipoDistancia tipoDistancia) {
+        this.hashA = hashA;
+        this.hashB = hashB;
+        this.numeroVectores = numeroVectores;
+        this.dimension = dimension;
+        this.tipoDistancia = tipoDistancia;
+    }
+
+    public static HuellaMatriz de(Vector[] vectores, FactoryDistancia.TipoDistancia tipoDistancia) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+        if (tipoDistancia == null) {
+            throw new IllegalArgumentException("Debe indicar el tipo de distancia");
+        }
+
+        long[] hashes = hashes(vectores);
+        return new HuellaMatriz(hashes[0], hashes[1], vectores.length, vectores[0].dimension(), tipoDistancia);
+    }
+
+    // un solo valor para identificar datos guardados en disco junto a otras estructuras (grafos, etc.)
+    public static long hashContenido(Vector[] vectores) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+        long[] hashes = hashes(vectores);
+        return mezclar(hashes[0], hashes[1]);
+    }
+
+    private static long[] hashes(Vector[] vectores) {
+        long a = 0x9E3779B97F4A7C15L;
+        long b = 0xC2B2AE3D27D4EB4FL;
+        int dimension = vectores[0].dimension();
+
+        for (Vector v : vectores) {
+            if (v.dimension() != dimension) {
+                throw new IllegalArgumentException("Todos los vectores deben tener la misma dimensión");
+            }
+            // la etiqueta importa: las hojas del dendrograma salen de ella
+            long etiqueta = v.getEtiqueta() != null ? v.getEtiqueta().hashCode() : 0L;
+            a = mezclar(a, etiqueta);
+            b = mezclar(b ^ 0x5851F42D4C957F2DL, etiqueta);
+            for (int j = 0; j < dimension; j++) {
+                // +0.0 y -0.0 dan la misma distancia, se tratan igual
+                double valor = v.getPosicion(j);
+                long bits = Double.doubleToLongBits(valor == 0.0 ? 0.0 : valor);
+                a = mezclar(a, bits);
+                b = mezclar(b ^ 0x5851F42D4C957F2DL, bits);
+            }
+        }
+        return new long[]{a, b};
+    }
+
+    // paso de splitmix64 sobre el estado combinado con el valor
+    private static long mezclar(long estado, long valor) {
+        long z = (estado ^ valor) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public int getNumeroVectores() {
+        return numeroVectores;
+    }
+
+    public FactoryDistancia.TipoDistancia getTipoDistancia() {
+        return tipoDistancia;
+    }
+
+    // memoria de la matriz n x n que identifica
+    public long bytesMatriz() {
+        return 8L * numeroVectores * numeroVectores;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof HuellaMatriz)) return false;
+        HuellaMatriz otra = (HuellaMatriz) obj;
+        return hashA == otra.hashA && hashB == otra.hashB && numeroVectores == otra.numeroVectores &&
+                dimension == otra.dimension && tipoDistancia == otra.tipoDistancia;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hashA);
+    }
+
+    @Override
+    public String toString() {
+        return "HuellaMatriz [" + Long.toHexString(hashA) + ", n=" + numeroVectores + ", dim=" + dimension +
+                ", " + tipoDistancia + "]";
+    }
+}
@@ -0,0 +1,303 @@
+package modelo.estructuras;
+
+import java.util.Arrays;
+
+// KD-tree sobre puntos de baja dimension con cajas envolventes por nodo para podar
+// el arbol se guarda en arreglos: nodos en preorden (los hijos siempre tienen indice mayor que el padre)
+// y cada nodo cubre un rango contiguo de la permutacion de puntos
+// ademas de vecino mas cercano responde "vecino mas cercano fuera de mi componente", la consulta de Boruvka:
+// cada nodo anota si todos sus puntos son de una misma componente para saltearlo entero
+public class ArbolKD {
+
+    public enum Metrica {
+        EUCLIDIANA,
+        MANHATTAN
+    }
+
+    private static final int TAMANIO_HOJA = 16;
+    private static final int SIN_COMPONENTE = -1;
+
+    private final double[][] puntos;
+    private final int dimension;
+    private final Metrica metrica;
+
+    private final int[] permutacion;
+    private int[] desde;
+    private int[] hasta;
+    private int[] izquierdo;
+    private int[] derecho;
+    private double[] minimos;
+    private double[] maximos;
+    private int numeroNodos;
+
+    // componente comun de todos los puntos del nodo o SIN_COMPONENTE
+    private int[] componenteNodo;
+
+    public ArbolKD(double[][] puntos, Metrica metrica) {
+        if (puntos == null || puntos.length == 0) {
+            throw new IllegalArgumentException("Debe haber al menos un punto");
+        }
+        this.puntos = puntos;
+        this.dimension = puntos[0].length;
+        this.metrica = metrica;
+        for (double[] p : puntos) {
+            if (p.length != dimension) {
+                throw new IllegalArgumentException("Todos los puntos deben tener la misma dimensión");
+            }
+        }
+
+        int n = puntos.length;
+        permutacion = new int[n];
+        for (int i = 0; i < n; i++) permutacion[i] = i;
+
+        int capacidad = Math.max(1, 2 * ((n + TAMANIO_HOJA - 1) / TAMANIO_HOJA) * 2);
+        desde = new int[capacidad];
+        hasta = new int[capacidad];
+        izquierdo = new int[capacidad];
+        derecho = new int[capacidad];
+        minimos = new double[capacidad * dimension];
+        maximos = new double[capacidad * dimension];
+        construir();
+        componenteNodo = new int[numeroNodos];
+    }
+
+    // division por la mediana de la dimension mas extendida, con pila explicita
+    private void construir() {
+        int[] pila = new int[64];
+        int tope = 0;
+        pila[tope++] = nuevoNodo(0, puntos.length);
+
+        while (tope > 0) {
+            int nodo = pila[--tope];
+            calcularCaja(nodo);
+            int a = desde[nodo];
+            int b = hasta[nodo];
+            if (b - a <= TAMANIO_HOJA) {
+                izquierdo[nodo] = -1;
+                derecho[nodo] = -1;
+                continue;
+            }
+
+            int eje = 0;
+            double mayor = -1.0;
+            for (int d = 0; d < dimension; d++) {
+                double extension = maximos[nodo * dimension + d] - minimos[nodo * dimension + d];
+                if (extension > mayor) {
+                    mayor = extension;
+                    eje = d;
+                }
+            }
+            if (mayor <= 0.0) {
+                // todos los puntos iguales: queda como hoja aunque sea grande
+                izquierdo[nodo] = -1;
+                derecho[nodo] = -1;
+                continue;
+            }
+
+            int medio = (a + b) >>> 1;
+            seleccionar(a, b - 1, medio, eje);
+            izquierdo[nodo] = nuevoNodo(a, medio);
+            derecho[nodo] = nuevoNodo(medio, b);
+
+            if (tope + 2 > pila.length) pila = Arrays.copyOf(pila, pila.length * 2);
+            pila[tope++] = derecho[nodo];
+            pila[tope++] = izquierdo[nodo];
+        }
+    }
+
+    private int nuevoNodo(int a, int b) {
+        if (numeroNodos == desde.length) {
+            int capacidad = desde.length * 2;
+            desde = Arrays.copyOf(desde, capacidad);
+            hasta = Arrays.copyOf(hasta, capacidad);
+            izquierdo = Arrays.copyOf(izquierdo, capacidad);
+            derecho = Arrays.copyOf(derecho, capacidad);
+            minimos = Arrays.copyOf(minimos, capacidad * dimension);
+            maximos = Arrays.copyOf(maximos, capacidad * dimension);
+        }
+        desde[numeroNodos] = a;
+        hasta[numeroNodos] = b;
+        return numeroNodos++;
+    }
+
+    private void calcularCaja(int nodo) {
+        int base = nodo * dimension;
+        for (int d = 0; d < dimension; d++) {
+            minimos[base + d] = Double.POSITIVE_INFINITY;
+            maximos[base + d] = Double.NEGATIVE_INFINITY;
+        }
+        for (int k = desde[nodo]; k < hasta[nodo]; k++) {
+            double[] p = puntos[permutacion[k]];
+            for (int d = 0; d < dimension; d++) {
+                if (p[d] < minimos[base + d]) minimos[base + d] = p[d];
+                if (p[d] > maximos[base + d]) maximos[base + d] = p[d];
+            }
+        }
+    }
+
+    // quickselect: deja en k el elemento k-esimo sobre el eje, menores a la izquierda
+    private void seleccionar(int izquierda, int derecha, int k, int eje) {
+        while (izquierda < derecha) {
+            double pivote = puntos[permutacion[(izquierda + derecha) >>> 1]][eje];
+            int i = izquierda;
+            int j = derecha;
+            while (i <= j) {
+                while (puntos[permutacion[i]][eje] < pivote) i++;
+                while (puntos[permutacion[j]][eje] > pivote) j--;
+                if (i <= j) {
+                    int t = permutacion[i];
+                    permutacion[i++] = permutacion[j];
+                    permutacion[j--] = t;
+                }
+            }
+            if (k <= j) derecha = j;
+            else if (k >= i) izquierda = i;
+            else return;
+        }
+    }
+
+    // CONSULTAS
+
+    public double distancia(double[] a, double[] b) {
+        double suma = 0.0;
+        if (metrica == Metrica.MANHATTAN) {
+            for (int d = 0; d < dimension; d++) suma += Math.abs(a[d] - b[d]);
+            return suma;
+        }
+        for (int d = 0; d < dimension; d++) {
+            double diferencia = a[d] - b[d];
+            suma += diferencia * diferencia;
+        }
+        return Math.sqrt(suma);
+    }
+
+    // cota inferior, en escala reducida, de la distancia del punto a cualquier punto de la caja del nodo
+    // escala reducida: cuadrado para euclidiana (evita la raiz en cada comparacion), igual para Manhattan
+    private double distanciaCajaReducida(double[] q, int nodo) {
+        int base = nodo * dimension;
+        double suma = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            double hueco = 0.0;
+            if (q[d] < minimos[base + d]) hueco = minimos[base + d] - q[d];
+            else if (q[d] > maximos[base + d]) hueco = q[d] - maximos[base + d];
+            suma += metrica == Metrica.MANHATTAN ? hueco : hueco * hueco;
+        }
+        return suma;
+    }
+
+    // corta en cuanto la suma parcial alcanza el limite: el punto ya no puede mejorar
+    private double distanciaReducida(double[] a, double[] b, double limite) {
+        double suma = 0.0;
+        for (int d = 0; d < dimension && suma < limite; d++) {
+            double diferencia = a[d] - b[d];
+            suma += metrica == Metrica.MANHATTAN ? Math.abs(diferencia) : diferencia * diferencia;
+        }
+        return suma;
+    }
+
+    private double reducir(double distancia) {
+        return metrica == Metrica.MANHATTAN ? distancia : distancia * distancia;
+    }
+
+    // anota en cada nodo si todos sus puntos comparten componente, de las hojas hacia la raiz
+    public void actualizarComponentes(int[] componente) {
+        for (int nodo = numeroNodos - 1; nodo >= 0; nodo--) {
+            if (izquierdo[nodo] < 0) {
+                int c = componente[permutacion[desde[nodo]]];
+                for (int k = desde[nodo] + 1; k < hasta[nodo] && c != SIN_COMPONENTE; k++) {
+                    if (componente[permutacion[k]] != c) c = SIN_COMPONENTE;
+                }
+                componenteNodo[nodo] = c;
+            } else {
+                int a = componenteNodo[izquierdo[nodo]];
+                componenteNodo[nodo] = a == componenteNodo[derecho[nodo]] ? a : SIN_COMPONENTE;
+            }
+        }
+    }
+
+    // punto mas cercano a 'consulta' cuya componente no sea la suya; solo busca por debajo de cota
+    // retorna el indice o -1, y deja la distancia en resultado[0]
+    // requiere actualizarComponentes con el mismo arreglo antes de consultar
+    public int masCercanoFuera(int consulta, int[] componente, double cota, double[] resultado) {
+        double[] q = puntos[consulta];
+        int propia = componente[consulta];
+        int mejor = -1;
+        double limite = reducir(cota);
+
+        // cada nodo se apila con su cota de caja, asi no se recalcula al sacarlo
+        int[] pila = new int[64];
+        double[] cotas = new double[64];
+        int tope = 0;
+        pila[tope] = 0;
+        cotas[tope++] = distanciaCajaReducida(q, 0);
+        while (tope > 0) {
+            int nodo = pila[--tope];
+            if (cotas[tope] >= limite || componenteNodo[nodo] == propia) continue;
+
+            if (izquierdo[nodo] < 0) {
+                for (int k = desde[nodo]; k < hasta[nodo]; k++) {
+                    int p = permutacion[k];
+                    if (componente[p] == propia) continue;
+                    double d = distanciaReducida(q, puntos[p], limite);
+                    if (d < limite) {
+                        limite = d;
+                        mejor = p;
+                    }
+                }
+                continue;
+            }
+
+            // primero el hijo mas cercano, que se apila ultimo
+            int cerca = izquierdo[nodo];
+            int lejos = derecho[nodo];
+            double cotaCerca = distanciaCajaReducida(q, cerca);
+            double cotaLejos = distanciaCajaReducida(q, lejos);
+            if (cotaLejos < cotaCerca) {
+                int t = cerca;
+                cerca = lejos;
+                lejos = t;
+                double c = cotaCerca;
+                cotaCerca = cotaLejos;
+                cotaLejos = c;
+            }
+            if (tope + 2 > pila.length) {
+                pila = Arrays.copyOf(pila, pila.length * 2);
+                cotas = Arrays.copyOf(cotas, cotas.length * 2);
+            }
+            if (cotaLejos < limite) {
+                pila[tope] = lejos;
+                cotas[tope++] = cotaLejos;
+            }
+            if (cotaCerca < limite) {
+                pila[tope] = cerca;
+                cotas[tope++] = cotaCerca;
+            }
+        }
+
+        // la distancia final se recalcula entera para que coincida con la de la metrica
+        resultado[0] = mejor >= 0 ? distancia(q, puntos[mejor]) : cota;
+        return mejor;
+    }
+
+    public int getNumeroPuntos() {
+        return puntos.length;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public Metrica getMetrica() {
+        return metrica;
+    }
+
+    public int getNumeroNodos() {
+        return numeroNodos;
+    }
+
+    @Override
+    public String toString() {
+        return "ArbolKD [puntos=" + puntos.length + ", dimension=" + dimension + ", nodos=" + numeroNodos +
+                ", " + metrica + "]";
+    }
+}
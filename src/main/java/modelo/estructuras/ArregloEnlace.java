@@ -0,0 +1,133 @@
+package modelo.estructuras;
+
+// dendrograma como arreglo de enlace (estilo scipy)
+// las hojas son los nodos 0..n-1 y la fusion m crea el nodo n+m
+// inmutable; cada fusion guarda sus dos hijos, la altura y el numero de hojas, todo en arreglos primitivos
+public class ArregloEnlace implements IArbolEnlace {
+
+    private final int numeroHojas;
+    private final int[] izquierdo;
+    private final int[] derecho;
+    private final double[] altura;
+    private final int[] tamanio;
+    private final String[] etiquetas;
+
+    public ArregloEnlace(String[] etiquetas, int[] izquierdo, int[] derecho, double[] altura, int[] tamanio) {
+        if (etiquetas == null || etiquetas.length == 0) {
+            throw new IllegalArgumentException("Debe haber al menos una hoja");
+        }
+        int fusiones = etiquetas.length - 1;
+        if (izquierdo == null || derecho == null || altura == null || tamanio == null ||
+                izquierdo.length != fusiones || derecho.length != fusiones ||
+                altura.length != fusiones || tamanio.length != fusiones) {
+            throw new IllegalArgumentException("Se esperaban " + fusiones + " fusiones");
+        }
+
+        this.numeroHojas = etiquetas.length;
+        this.etiquetas = etiquetas.clone();
+        this.izquierdo = izquierdo.clone();
+        this.derecho = derecho.clone();
+        this.altura = altura.clone();
+        this.tamanio = tamanio.clone();
+
+        validar();
+    }
+
+    // cada hijo debe existir antes de la fusion y usarse una sola vez
+    private void validar() {
+        boolean[] usado = new boolean[2 * numeroHojas - 1];
+        for (int m = 0; m < izquierdo.length; m++) {
+            int id = numeroHojas + m;
+            int a = izquierdo[m];
+            int b = derecho[m];
+
+            if (a < 0 || b < 0 || a >= id || b >= id || a == b) {
+                throw new IllegalArgumentException("Fusión " + m + " con hijos inválidos: " + a + ", " + b);
+            }
+            if (usado[a] || usado[b]) {
+                throw new IllegalArgumentException("Fusión " + m + " reutiliza un nodo ya fusionado");
+            }
+            if (Double.isNaN(altura[m])) {
+                throw new IllegalArgumentException("Fusión " + m + " con altura NaN");
+            }
+            if (tamanio[m] != tamanioDe(a) + tamanioDe(b)) {
+                throw new IllegalArgumentException("Fusión " + m + " con tamaño inconsistente");
+            }
+            usado[a] = true;
+            usado[b] = true;
+        }
+    }
+
+    @Override
+    public int getNumeroHojas() {
+        return numeroHojas;
+    }
+
+    @Override
+    public int getNumeroFusiones() {
+        return izquierdo.length;
+    }
+
+    public Nodo getRaiz() {
+        return new Nodo(this, getIdRaiz());
+    }
+
+    public Nodo getNodo(int id) {
+        verificarNodo(id);
+        return new Nodo(this, id);
+    }
+
+    @Override
+    public int getIzquierdo(int fusion) {
+        return izquierdo[fusion];
+    }
+
+    @Override
+    public int getDerecho(int fusion) {
+        return derecho[fusion];
+    }
+
+    @Override
+    public double getAltura(int fusion) {
+        return altura[fusion];
+    }
+
+    @Override
+    public int getTamanio(int fusion) {
+        return tamanio[fusion];
+    }
+
+    @Override
+    public String getEtiqueta(int hoja) {
+        return etiquetas[hoja];
+    }
+
+    // niveles de fusion bajo el nodo (0 para una hoja), en O(n) sin recursion
+    public int profundidad(int id) {
+        verificarNodo(id);
+        if (esHoja(id)) return 0;
+
+        // los hijos siempre tienen id menor, basta un recorrido en orden de fusion
+        int ultima = id - numeroHojas;
+        int[] niveles = new int[ultima + 1];
+        for (int m = 0; m <= ultima; m++) {
+            int a = izquierdo[m];
+            int b = derecho[m];
+            int na = esHoja(a) ? 0 : niveles[a - numeroHojas];
+            int nb = esHoja(b) ? 0 : niveles[b - numeroHojas];
+            niveles[m] = 1 + Math.max(na, nb);
+        }
+        return niveles[ultima];
+    }
+
+    private void verificarNodo(int id) {
+        if (id < 0 || id >= getNumeroNodos()) {
+            throw new IndexOutOfBoundsException("Nodo fuera de rango: " + id);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ArregloEnlace [hojas=" + numeroHojas + ", fusiones=" + izquierdo.length + "]";
+    }
+}
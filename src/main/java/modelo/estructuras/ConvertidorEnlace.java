@@ -0,0 +1,117 @@
+package modelo.estructuras;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// convierte un dendrograma (en memoria o mapeado) a formatos de otras herramientas
+// escribe en streaming, sin armar el texto completo
+public final class ConvertidorEnlace {
+
+    private ConvertidorEnlace() {
+    }
+
+    public static void exportarNewick(IArbolEnlace enlace, String ruta) throws IOException {
+        try (Writer writer = abrir(ruta)) {
+            escribirNewick(enlace, writer);
+        }
+    }
+
+    public static void exportarCSV(IArbolEnlace enlace, String ruta) throws IOException {
+        try (Writer writer = abrir(ruta)) {
+            escribirCSV(enlace, writer);
+        }
+    }
+
+    // Newick con largo de rama = altura del padre - altura del hijo, p. ej. ((a:1.0,b:1.0):3.0,c:4.0);
+    public static void escribirNewick(IArbolEnlace enlace, Writer writer) throws IOException {
+        int raiz = enlace.getIdRaiz();
+        int[] padre = padres(enlace);
+
+        int actual = raiz;
+        int anterior = -1;
+        while (actual != -1) {
+            int siguiente;
+            if (anterior == padre[actual] || anterior == -1) {
+                if (enlace.esHoja(actual)) {
+                    escribirEtiqueta(writer, enlace.getEtiqueta(actual));
+                    escribirLargoRama(enlace, writer, actual, padre[actual]);
+                    siguiente = padre[actual];
+                } else {
+                    writer.write('(');
+                    siguiente = enlace.hijoIzquierdo(actual);
+                }
+            } else if (anterior == enlace.hijoIzquierdo(actual)) {
+                writer.write(',');
+                siguiente = enlace.hijoDerecho(actual);
+            } else {
+                writer.write(')');
+                escribirLargoRama(enlace, writer, actual, padre[actual]);
+                siguiente = padre[actual];
+            }
+            anterior = actual;
+            actual = siguiente;
+        }
+        writer.write(";\n");
+        writer.flush();
+    }
+
+    // matriz de enlace como la de scipy: una fila por fusion
+    public static void escribirCSV(IArbolEnlace enlace, Writer writer) throws IOException {
+        writer.write("izquierdo,derecho,altura,tamanio\n");
+        for (int m = 0; m < enlace.getNumeroFusiones(); m++) {
+            writer.write(Integer.toString(enlace.getIzquierdo(m)));
+            writer.write(',');
+            writer.write(Integer.toString(enlace.getDerecho(m)));
+            writer.write(',');
+            writer.write(Double.toString(enlace.getAltura(m)));
+            writer.write(',');
+            writer.write(Integer.toString(enlace.getTamanio(m)));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static int[] padres(IArbolEnlace enlace) {
+        int[] padre = new int[enlace.getNumeroNodos()];
+        padre[enlace.getIdRaiz()] = -1;
+        for (int m = 0; m < enlace.getNumeroFusiones(); m++) {
+            int id = enlace.getNumeroHojas() + m;
+            padre[enlace.getIzquierdo(m)] = id;
+            padre[enlace.getDerecho(m)] = id;
+        }
+        return padre;
+    }
+
+    private static void escribirLargoRama(IArbolEnlace enlace, Writer writer, int nodo, int padre) throws IOException {
+        if (padre == -1) return;
+        writer.write(':');
+        writer.write(Double.toString(enlace.alturaDe(padre) - enlace.alturaDe(nodo)));
+    }
+
+    // las etiquetas con caracteres reservados van entre comillas simples, duplicando las internas
+    private static void escribirEtiqueta(Writer writer, String etiqueta) throws IOException {
+        if (etiqueta == null) return;
+
+        boolean requiereComillas = etiqueta.isEmpty();
+        for (int i = 0; i < etiqueta.length() && !requiereComillas; i++) {
+            char c = etiqueta.charAt(i);
+            requiereComillas = Character.isWhitespace(c) || "()[]':;,".indexOf(c) >= 0;
+        }
+
+        if (!requiereComillas) {
+            writer.write(etiqueta);
+            return;
+        }
+        writer.write('\'');
+        writer.write(etiqueta.replace("'", "''"));
+        writer.write('\'');
+    }
+
+    private static Writer abrir(String ruta) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(ruta), StandardCharsets.UTF_8), 1 << 16);
+    }
+}
@@ -0,0 +1,206 @@
+package modelo.estructuras;
+
+// cortes del dendrograma para cualquier k o altura
+// las fusiones se ordenan una sola vez por altura monotona h'(m) = max(h(m), h'(hijos)),
+// que corrige las inversiones del enlace por centroide; cortar en k equivale a deshacer
+// las k-1 fusiones mas altas, asi que cada corte es una pasada de union-busqueda en O(n)
+public class CortadorDendrograma {
+
+    public interface ConsumidorCorte {
+        // etiquetas[hoja] = id de una hoja representante de su cluster, el arreglo se reutiliza
+        void aceptar(int k, int[] etiquetas);
+    }
+
+    private final IArbolEnlace enlace;
+    private final int numeroHojas;
+
+    // fusiones de menor a mayor h', en empate primero la de id menor (los hijos van antes)
+    private final int[] orden;
+    private final double[] alturasOrdenadas;
+    // una hoja cualquiera de cada nodo, para unir en el union-busqueda
+    private final int[] hojaRepresentante;
+
+    public CortadorDendrograma(IArbolEnlace enlace) {
+        this.enlace = enlace;
+        this.numeroHojas = enlace.getNumeroHojas();
+        int fusiones = enlace.getNumeroFusiones();
+
+        double[] monotona = new double[fusiones];
+        hojaRepresentante = new int[enlace.getNumeroNodos()];
+        for (int i = 0; i < numeroHojas; i++) hojaRepresentante[i] = i;
+
+        for (int m = 0; m < fusiones; m++) {
+            int a = enlace.getIzquierdo(m);
+            int b = enlace.getDerecho(m);
+            double h = enlace.getAltura(m);
+            if (!enlace.esHoja(a)) h = Math.max(h, monotona[a - numeroHojas]);
+            if (!enlace.esHoja(b)) h = Math.max(h, monotona[b - numeroHojas]);
+            monotona[m] = h;
+            hojaRepresentante[numeroHojas + m] = hojaRepresentante[a];
+        }
+
+        orden = OrdenamientoIndices.ordenarPorClave(monotona);
+        alturasOrdenadas = new double[fusiones];
+        for (int i = 0; i < fusiones; i++) alturasOrdenadas[i] = monotona[orden[i]];
+    }
+
+    // etiquetas 0..k-1 por hoja, numeradas en orden de primera aparicion
+    public int[] cortarEnK(int k) {
+        verificarK(k);
+
+        UnionBusqueda conjuntos = new UnionBusqueda(numeroHojas);
+        for (int i = 0; i < numeroHojas - k; i++) {
+            int m = orden[i];
+            conjuntos.unir(hojaRepresentante[enlace.getIzquierdo(m)], hojaRepresentante[enlace.getDerecho(m)]);
+        }
+        return numerar(conjuntos);
+    }
+
+    // clusters cuya distancia cofenetica interna (h') no supera el umbral
+    public int[] cortarEnAltura(double umbral) {
+        return cortarEnK(numeroClustersEnAltura(umbral));
+    }
+
+    public int numeroClustersEnAltura(double umbral) {
+        return numeroHojas - fusionesHasta(umbral);
+    }
+
+    // altura monotona de la fusion que se deshace al pasar de k-1 a k clusters
+    public double alturaDeCorte(int k) {
+        verificarK(k);
+        if (k == 1) return Double.NaN;
+        return alturasOrdenadas[numeroHojas - k];
+    }
+
+    // todos los cortes en una sola pasada, de k = n hasta k = 1
+    // el cluster menor se reetiqueta hacia el mayor, O(n log n) en total
+    public void recorrerCortes(ConsumidorCorte consumidor) {
+        int[] etiquetas = new int[numeroHojas];
+        int[] siguiente = new int[numeroHojas];   // lista circular de miembros por cluster
+        int[] tamanio = new int[numeroHojas];
+        for (int i = 0; i < numeroHojas; i++) {
+            etiquetas[i] = i;
+            siguiente[i] = i;
+            tamanio[i] = 1;
+        }
+
+        consumidor.aceptar(numeroHojas, etiquetas);
+        for (int i = 0; i < orden.length; i++) {
+            int m = orden[i];
+            int a = etiquetas[hojaRepresentante[enlace.getIzquierdo(m)]];
+            int b = etiquetas[hojaRepresentante[enlace.getDerecho(m)]];
+            if (tamanio[a] < tamanio[b]) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+
+            int miembro = b;
+            do {
+                etiquetas[miembro] = a;
+                miembro = siguiente[miembro];
+            } while (miembro != b);
+
+            int t = siguiente[a];
+            siguiente[a] = siguiente[b];
+            siguiente[b] = t;
+            tamanio[a] += tamanio[b];
+
+            consumidor.aceptar(numeroHojas - i - 1, etiquetas);
+        }
+    }
+
+    // raices de los k subarboles bajo el nodo dado, de izquierda a derecha
+    public int[] raicesEnK(int nodo, int k) {
+        if (k < 1 || k > enlace.tamanioDe(nodo)) {
+            throw new IllegalArgumentException("K debe estar entre 1 y " + enlace.tamanioDe(nodo));
+        }
+
+        // fusiones dentro del subarbol
+        boolean[] enSubarbol = new boolean[enlace.getNumeroFusiones()];
+        int[] pila = new int[enlace.tamanioDe(nodo)];
+        int tope = 0;
+        pila[tope++] = nodo;
+        while (tope > 0) {
+            int actual = pila[--tope];
+            if (enlace.esHoja(actual)) continue;
+            enSubarbol[actual - numeroHojas] = true;
+            pila[tope++] = enlace.hijoDerecho(actual);
+            pila[tope++] = enlace.hijoIzquierdo(actual);
+        }
+
+        // se deshacen las k-1 fusiones mas altas del subarbol
+        boolean[] deshecha = new boolean[enlace.getNumeroFusiones()];
+        int restantes = k - 1;
+        for (int i = orden.length - 1; i >= 0 && restantes > 0; i--) {
+            if (enSubarbol[orden[i]]) {
+                deshecha[orden[i]] = true;
+                restantes--;
+            }
+        }
+
+        int[] raices = new int[k];
+        int pos = 0;
+        pila[tope++] = nodo;
+        while (tope > 0) {
+            int actual = pila[--tope];
+            if (enlace.esHoja(actual) || !deshecha[actual - numeroHojas]) {
+                raices[pos++] = actual;
+            } else {
+                pila[tope++] = enlace.hijoDerecho(actual);
+                pila[tope++] = enlace.hijoIzquierdo(actual);
+            }
+        }
+        return raices;
+    }
+
+    public int[] raicesEnK(int k) {
+        return raicesEnK(enlace.getIdRaiz(), k);
+    }
+
+    public int getNumeroHojas() {
+        return numeroHojas;
+    }
+
+    // cantidad de fusiones con h' <= umbral (busqueda binaria)
+    private int fusionesHasta(double umbral) {
+        int bajo = 0;
+        int alto = alturasOrdenadas.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (alturasOrdenadas[medio] <= umbral) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private int[] numerar(UnionBusqueda conjuntos) {
+        int[] etiquetaRaiz = new int[numeroHojas];
+        for (int i = 0; i < numeroHojas; i++) etiquetaRaiz[i] = -1;
+
+        int[] etiquetas = new int[numeroHojas];
+        int siguienteEtiqueta = 0;
+        for (int i = 0; i < numeroHojas; i++) {
+            int raiz = conjuntos.buscar(i);
+            if (etiquetaRaiz[raiz] == -1) {
+                etiquetaRaiz[raiz] = siguienteEtiqueta++;
+            }
+            etiquetas[i] = etiquetaRaiz[raiz];
+        }
+        return etiquetas;
+    }
+
+    private void verificarK(int k) {
+        if (k < 1 || k > numeroHojas) {
+            throw new IllegalArgumentException("K debe estar entre 1 y " + numeroHojas);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CortadorDendrograma [hojas=" + numeroHojas + "]";
+    }
+}
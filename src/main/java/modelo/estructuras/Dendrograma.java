@@ -1,113 +1,148 @@
 package modelo.estructuras;
 
 public class Dendrograma {
-    private static Dendrograma instancia;
+    // sin estado, se crea al cargar la clase para que getInstancia sea seguro entre hilos
+    private static final Dendrograma instancia = new Dendrograma();
 
     private Dendrograma() {
 
     }
 
     public static Dendrograma getInstancia() {
-        if (instancia == null) {
-            instancia = new Dendrograma();
-        }
         return instancia;
     }
 
-    public String toJSON(Nodo raiz) {
-        return toJSONRec(raiz,0);
-    }
+    // recorridos iterativos sobre el arreglo de enlace, sin riesgo de desbordar la pila
+    // en arboles encadenados (enlace simple)
 
-    private String toJSONRec(Nodo nodo, int nivel) {
-        if (nodo == null) return "";
+    public String toJSON(Nodo raiz) {
+        if (raiz == null) return "";
 
-        String indent = repetirEspacios(nivel * 2);
+        ArregloEnlace enlace = raiz.getEnlace();
         StringBuilder sb = new StringBuilder();
 
-        sb.append(indent).append("{\n");
-        sb.append(indent).append("  \"n\": \"").append(nodo.getNombre()).append("\",\n");
-        sb.append(indent).append("  \"d\": ").append(nodo.getDistancia()).append(",\n");
-        sb.append(indent).append("  \"c\": ");
-
-        if (nodo.esHoja()) {
-            sb.append("[]");
-        } else {
-            sb.append("[\n");
-            sb.append(toJSONRec(nodo.getIzquierdo(), nivel + 2)).append(",\n");
-            sb.append(toJSONRec(nodo.getDerecho(), nivel + 2)).append("\n");
-            sb.append(indent).append("  ]");
+        // cada marco es (nodo, nivel, etapa): 0 = abrir, 1 = entre hijos, 2 = cerrar
+        int capacidad = raiz.getTamanio() + 1;
+        int[] pilaNodos = new int[capacidad];
+        int[] pilaNiveles = new int[capacidad];
+        int[] pilaEtapas = new int[capacidad];
+        int tope = 0;
+
+        pilaNodos[tope] = raiz.getId();
+        pilaNiveles[tope] = 0;
+        pilaEtapas[tope] = 0;
+        tope++;
+
+        while (tope > 0) {
+            int marco = tope - 1;
+            int id = pilaNodos[marco];
+            int nivel = pilaNiveles[marco];
+            String indent = repetirEspacios(nivel * 2);
+
+            if (pilaEtapas[marco] == 0) {
+                sb.append(indent).append("{\n");
+                sb.append(indent).append("  \"n\": \"").append(nombreDe(enlace, id)).append("\",\n");
+                sb.append(indent).append("  \"d\": ").append(enlace.alturaDe(id)).append(",\n");
+                sb.append(indent).append("  \"c\": ");
+
+                if (enlace.esHoja(id)) {
+                    sb.append("[]");
+                    sb.append("\n").append(indent).append("}");
+                    tope--;
+                } else {
+                    sb.append("[\n");
+                    pilaEtapas[marco] = 1;
+                    apilar(pilaNodos, pilaNiveles, pilaEtapas, tope++, enlace.hijoIzquierdo(id), nivel + 2);
+                }
+            } else if (pilaEtapas[marco] == 1) {
+                sb.append(",\n");
+                pilaEtapas[marco] = 2;
+                apilar(pilaNodos, pilaNiveles, pilaEtapas, tope++, enlace.hijoDerecho(id), nivel + 2);
+            } else {
+                sb.append("\n");
+                sb.append(indent).append("  ]");
+                sb.append("\n").append(indent).append("}");
+                tope--;
+            }
         }
-
-        sb.append("\n").append(indent).append("}");
         return sb.toString();
     }
 
+    private void apilar(int[] nodos, int[] niveles, int[] etapas, int pos, int id, int nivel) {
+        nodos[pos] = id;
+        niveles[pos] = nivel;
+        etapas[pos] = 0;
+    }
+
+    private String nombreDe(ArregloEnlace enlace, int id) {
+        return enlace.getNodo(id).getNombre();
+    }
+
     private String repetirEspacios(int n) {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < n; i++) sb.append(" ");
         return sb.toString();
     }
 
+    // O(1), cada fusion guarda su numero de hojas
     public int contarHojas(Nodo nodo) {
         if (nodo == null) return 0;
-        if (nodo.esHoja()) return 1;
-        return contarHojas(nodo.getIzquierdo()) + contarHojas(nodo.getDerecho());
+        return nodo.getTamanio();
     }
 
     public int altura(Nodo nodo) {
         if (nodo == null) return 0;
-        if (nodo.esHoja()) return 0;
-        return 1 + Math.max(altura(nodo.getIzquierdo()), altura(nodo.getDerecho()));
+        return nodo.getEnlace().profundidad(nodo.getId());
     }
 
     public String[] obtenerEtiquetasHojas(Nodo nodo) {
-        ListaDoble<String> lista = new ListaDoble<>();
-        obtenerEtiquetasHojasRec(nodo, lista);
+        if (nodo == null) return new String[0];
 
-        Object[] arr = lista.aArreglo();
-        String[] res = new String[arr.length];
-        for (int i = 0; i < arr.length; i++) res[i] = (String) arr[i];
+        ArregloEnlace enlace = nodo.getEnlace();
+        int[] hojas = enlace.hojas(nodo.getId());
+        String[] res = new String[hojas.length];
+        for (int i = 0; i < hojas.length; i++) res[i] = enlace.getEtiqueta(hojas[i]);
         return res;
     }
 
-    private void obtenerEtiquetasHojasRec(Nodo nodo, ListaDoble<String> lista) {
-        if (nodo == null) return;
-
-        if (nodo.esHoja()) {
-            ListaDoble.IteradorLista<String> it = nodo.getElementos().iterador();
-            while (it.tieneSiguiente()) {
-                lista.agregar(it.siguiente());
-            }
-        } else {
-            obtenerEtiquetasHojasRec(nodo.getIzquierdo(), lista);
-            obtenerEtiquetasHojasRec(nodo.getDerecho(), lista);
-        }
-    }
-
     public String toStringArbol(Nodo nodo) {
-        return toStringArbolRec(nodo, 0);
-    }
-
-    private String toStringArbolRec(Nodo nodo, int nivel) {
         if (nodo == null) return "";
-        StringBuilder sb = new StringBuilder();
-        String indent = "  ".repeat(nivel);
 
-        sb.append(indent)
-                .append(nodo.getNombre())
-                .append(" [d=")
-                .append(String.format("%.2f", nodo.getDistancia()))
-                .append("]\n");
+        ArregloEnlace enlace = nodo.getEnlace();
+        StringBuilder sb = new StringBuilder();
 
-        if (!nodo.esHoja()) {
-            sb.append(toStringArbolRec(nodo.getIzquierdo(), nivel + 1));
-            sb.append(toStringArbolRec(nodo.getDerecho(), nivel + 1));
+        // preorden con pila explicita, el derecho se apila antes que el izquierdo
+        int capacidad = nodo.getTamanio() + 1;
+        int[] pilaNodos = new int[capacidad];
+        int[] pilaNiveles = new int[capacidad];
+        int tope = 0;
+        pilaNodos[tope] = nodo.getId();
+        pilaNiveles[tope++] = 0;
+
+        while (tope > 0) {
+            tope--;
+            int id = pilaNodos[tope];
+            int nivel = pilaNiveles[tope];
+
+            sb.append("  ".repeat(nivel))
+                    .append(nombreDe(enlace, id))
+                    .append(" [d=")
+                    .append(String.format("%.2f", enlace.alturaDe(id)))
+                    .append("]\n");
+
+            if (!enlace.esHoja(id)) {
+                pilaNodos[tope] = enlace.hijoDerecho(id);
+                pilaNiveles[tope++] = nivel + 1;
+                pilaNodos[tope] = enlace.hijoIzquierdo(id);
+                pilaNiveles[tope++] = nivel + 1;
+            }
         }
 
         return sb.toString();
     }
 
 
+    // k subarboles deshaciendo las k-1 fusiones mas altas, O(n log n) con el cortador
     public ListaDoble<Nodo> cortarArbol(Nodo raiz, int k) {
         if (k < 1) {
             throw new IllegalArgumentException("K debe ser al menos 1.");
@@ -116,31 +151,13 @@ public class Dendrograma {
             throw new IllegalArgumentException("K no puede ser mayor que el número de elementos.");
         }
 
-        ListaDoble<Nodo> lista = new ListaDoble<>();
-        lista.agregar(raiz);
-
-        while (lista.tamanio() < k) {
-            Nodo mayor = obtenerMayorDistancia(lista);
-            if (mayor == null || mayor.esHoja()) break;
+        ArregloEnlace enlace = raiz.getEnlace();
+        int[] raices = new CortadorDendrograma(enlace).raicesEnK(raiz.getId(), k);
 
-            lista.eliminarElemento(mayor);
-            lista.agregar(mayor.getIzquierdo());
-            lista.agregar(mayor.getDerecho());
+        ListaDoble<Nodo> lista = new ListaDoble<>();
+        for (int id : raices) {
+            lista.agregar(enlace.getNodo(id));
         }
-
         return lista;
     }
-
-    private Nodo obtenerMayorDistancia(ListaDoble<Nodo> lista) {
-        if (lista.estaVacia()) return null;
-
-        Nodo max = lista.obtener(0);
-        for (int i = 1; i < lista.tamanio(); i++) {
-            Nodo actual = lista.obtener(i);
-            if (actual.getDistancia() > max.getDistancia()) {
-                max = actual;
-            }
-        }
-        return max;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package modelo.estructuras;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+// dendrograma leido directamente del archivo binario mapeado, sin parsear
+// cada acceso lee del buffer, las etiquetas se decodifican al pedirlas
+public class EnlaceMapeado implements IArbolEnlace {
+
+    private final MappedByteBuffer buffer;
+    private final int numeroHojas;
+
+    private final int inicioAlturas;
+    private final int inicioIzquierdo;
+    private final int inicioDerecho;
+    private final int inicioTamanio;
+    private final int inicioOrden;
+    private final int inicioDesplazamientos;
+    private final int inicioCadenas;
+
+    EnlaceMapeado(String ruta) throws IOException {
+        try (RandomAccessFile archivo = new RandomAccessFile(ruta, "r");
+             FileChannel canal = archivo.getChannel()) {
+            long tamanio = canal.size();
+            if (tamanio < FormatoBinarioEnlace.TAMANIO_CABECERA) {
+                throw new IOException("Archivo demasiado corto para un dendrograma binario");
+            }
+            if (tamanio > Integer.MAX_VALUE) {
+                throw new IOException("Archivo de más de 2 GB, no se puede mapear en un solo buffer");
+            }
+            // el mapeo sigue valido despues de cerrar el canal
+            buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanio);
+        }
+
+        if (buffer.getInt(0) != FormatoBinarioEnlace.MAGICO) {
+            throw new IOException("No es un archivo de dendrograma binario");
+        }
+        int version = buffer.getInt(4);
+        if (version != FormatoBinarioEnlace.VERSION) {
+            throw new IOException("Versión no soportada: " + version);
+        }
+
+        numeroHojas = buffer.getInt(8);
+        long bytesCadenas = buffer.getLong(16);
+        if (numeroHojas < 1 || bytesCadenas < 0 ||
+                FormatoBinarioEnlace.tamanioEsperado(numeroHojas, bytesCadenas) != buffer.capacity()) {
+            throw new IOException("Cabecera inconsistente con el tamaño del archivo");
+        }
+
+        int fusiones = numeroHojas - 1;
+        inicioAlturas = FormatoBinarioEnlace.TAMANIO_CABECERA;
+        inicioIzquierdo = inicioAlturas + fusiones * 8;
+        inicioDerecho = inicioIzquierdo + fusiones * 4;
+        inicioTamanio = inicioDerecho + fusiones * 4;
+        inicioOrden = inicioTamanio + fusiones * 4;
+        inicioDesplazamientos = inicioOrden + numeroHojas * 4;
+        inicioCadenas = inicioDesplazamientos + (numeroHojas + 1) * 4;
+    }
+
+    @Override
+    public int getNumeroHojas() {
+        return numeroHojas;
+    }
+
+    @Override
+    public int getNumeroFusiones() {
+        return numeroHojas - 1;
+    }
+
+    @Override
+    public int getIzquierdo(int fusion) {
+        return buffer.getInt(inicioIzquierdo + verificarFusion(fusion) * 4);
+    }
+
+    @Override
+    public int getDerecho(int fusion) {
+        return buffer.getInt(inicioDerecho + verificarFusion(fusion) * 4);
+    }
+
+    @Override
+    public double getAltura(int fusion) {
+        return buffer.getDouble(inicioAlturas + verificarFusion(fusion) * 8);
+    }
+
+    @Override
+    public int getTamanio(int fusion) {
+        return buffer.getInt(inicioTamanio + verificarFusion(fusion) * 4);
+    }
+
+    @Override
+    public String getEtiqueta(int hoja) {
+        if (hoja < 0 || hoja >= numeroHojas) {
+            throw new IndexOutOfBoundsException("Hoja fuera de rango: " + hoja);
+        }
+        int desde = buffer.getInt(inicioDesplazamientos + hoja * 4);
+        int hasta = buffer.getInt(inicioDesplazamientos + (hoja + 1) * 4);
+
+        byte[] bytes = new byte[hasta - desde];
+        buffer.get(inicioCadenas + desde, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // el orden ya viene guardado en el archivo
+    @Override
+    public int[] ordenHojas() {
+        int[] orden = new int[numeroHojas];
+        for (int i = 0; i < numeroHojas; i++) {
+            orden[i] = buffer.getInt(inicioOrden + i * 4);
+        }
+        return orden;
+    }
+
+    // copia validada en memoria, para volver a clusterizar o usar la vista Nodo
+    public ArregloEnlace aArregloEnlace() {
+        int fusiones = getNumeroFusiones();
+        String[] etiquetas = new String[numeroHojas];
+        int[] izquierdo = new int[fusiones];
+        int[] derecho = new int[fusiones];
+        double[] altura = new double[fusiones];
+        int[] tamanio = new int[fusiones];
+
+        for (int i = 0; i < numeroHojas; i++) etiquetas[i] = getEtiqueta(i);
+        for (int m = 0; m < fusiones; m++) {
+            izquierdo[m] = getIzquierdo(m);
+            derecho[m] = getDerecho(m);
+            altura[m] = getAltura(m);
+            tamanio[m] = getTamanio(m);
+        }
+        return new ArregloEnlace(etiquetas, izquierdo, derecho, altura, tamanio);
+    }
+
+    private int verificarFusion(int fusion) {
+        if (fusion < 0 || fusion >= numeroHojas - 1) {
+            throw new IndexOutOfBoundsException("Fusión fuera de rango: " + fusion);
+        }
+        return fusion;
+    }
+
+    @Override
+    public String toString() {
+        return "EnlaceMapeado [hojas=" + numeroHojas + ", bytes=" + buffer.capacity() + "]";
+    }
+}
@@ -0,0 +1,192 @@
+package modelo.estructuras;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+// exporta el dendrograma en streaming, sin armar el JSON en memoria
+// esquema compacto: las etiquetas van una sola vez en "hojas" y el arbol solo lleva ids
+//   {"hojas":["a","b","c"],"arbol":{"id":4,"d":4.0,"c":[{"id":3,"d":1.0,"c":[{"id":0},{"id":1}]},{"id":2}]}}
+// el recorrido usa punteros al padre, memoria extra O(n) enteros y tiempo lineal
+public class ExportadorJSON {
+
+    private static final int TAMANIO_BUFFER = 1 << 16;
+    private static final long[] POTENCIAS_10 = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+    };
+
+    // -1 = representacion exacta de Double.toString
+    private final int decimales;
+    private final char[] digitos = new char[20];
+
+    public ExportadorJSON() {
+        this(-1);
+    }
+
+    // alturas con un numero fijo de decimales (0..9), mas rapido y mas compacto
+    public ExportadorJSON(int decimales) {
+        if (decimales < -1 || decimales >= POTENCIAS_10.length) {
+            throw new IllegalArgumentException("Decimales debe estar entre 0 y " + (POTENCIAS_10.length - 1));
+        }
+        this.decimales = decimales;
+    }
+
+    // si la ruta termina en .gz se comprime
+    public void exportar(IArbolEnlace enlace, String ruta) throws IOException {
+        try (OutputStream salida = new FileOutputStream(ruta)) {
+            escribir(enlace, salida, ruta.endsWith(".gz"));
+        }
+    }
+
+    public void escribir(IArbolEnlace enlace, OutputStream salida, boolean gzip) throws IOException {
+        OutputStream destino = gzip ? new GZIPOutputStream(salida, TAMANIO_BUFFER) : salida;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), TAMANIO_BUFFER);
+        escribir(enlace, writer);
+        writer.flush();
+        if (gzip) {
+            ((GZIPOutputStream) destino).finish();
+        }
+    }
+
+    // no cierra el writer
+    public void escribir(IArbolEnlace enlace, Writer writer) throws IOException {
+        int n = enlace.getNumeroHojas();
+
+        writer.write("{\"hojas\":[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) writer.write(',');
+            escribirCadena(writer, enlace.getEtiqueta(i));
+        }
+        writer.write("],\"arbol\":");
+        escribirArbol(enlace, writer);
+        writer.write("}\n");
+    }
+
+    private void escribirArbol(IArbolEnlace enlace, Writer writer) throws IOException {
+        int raiz = enlace.getIdRaiz();
+        int[] padre = new int[enlace.getNumeroNodos()];
+        padre[raiz] = -1;
+        for (int m = 0; m < enlace.getNumeroFusiones(); m++) {
+            int id = enlace.getNumeroHojas() + m;
+            padre[enlace.getIzquierdo(m)] = id;
+            padre[enlace.getDerecho(m)] = id;
+        }
+
+        int actual = raiz;
+        int anterior = -1;
+        while (actual != -1) {
+            int siguiente;
+            if (anterior == padre[actual] || anterior == -1) {
+                // bajando: se abre el nodo
+                writer.write("{\"id\":");
+                escribirEntero(writer, actual);
+                if (enlace.esHoja(actual)) {
+                    writer.write('}');
+                    siguiente = padre[actual];
+                } else {
+                    writer.write(",\"d\":");
+                    escribirDouble(writer, enlace.alturaDe(actual));
+                    writer.write(",\"c\":[");
+                    siguiente = enlace.hijoIzquierdo(actual);
+                }
+            } else if (anterior == enlace.hijoIzquierdo(actual)) {
+                writer.write(',');
+                siguiente = enlace.hijoDerecho(actual);
+            } else {
+                // volviendo del hijo derecho
+                writer.write("]}");
+                siguiente = padre[actual];
+            }
+            anterior = actual;
+            actual = siguiente;
+        }
+    }
+
+    private void escribirCadena(Writer writer, String texto) throws IOException {
+        writer.write('"');
+        if (texto != null) {
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                switch (c) {
+                    case '"': writer.write("\\\""); break;
+                    case '\\': writer.write("\\\\"); break;
+                    case '\n': writer.write("\\n"); break;
+                    case '\r': writer.write("\\r"); break;
+                    case '\t': writer.write("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            writer.write("\\u00");
+                            writer.write(Character.forDigit(c >> 4, 16));
+                            writer.write(Character.forDigit(c & 0xF, 16));
+                        } else {
+                            writer.write(c);
+                        }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    // digitos a un buffer propio, sin crear Strings
+    private void escribirEntero(Writer writer, long valor) throws IOException {
+        if (valor == Long.MIN_VALUE) {
+            writer.write(Long.toString(valor));
+            return;
+        }
+        if (valor < 0) {
+            writer.write('-');
+            valor = -valor;
+        }
+        int pos = digitos.length;
+        do {
+            digitos[--pos] = (char) ('0' + (valor % 10));
+            valor /= 10;
+        } while (valor != 0);
+        writer.write(digitos, pos, digitos.length - pos);
+    }
+
+    private void escribirDouble(Writer writer, double valor) throws IOException {
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) {
+            // JSON no admite NaN ni infinito
+            writer.write("null");
+            return;
+        }
+        if (decimales < 0) {
+            if (valor == Math.rint(valor) && Math.abs(valor) < 1e15) {
+                escribirEntero(writer, (long) valor);
+                writer.write(".0");
+            } else {
+                writer.write(Double.toString(valor));
+            }
+            return;
+        }
+
+        long escala = POTENCIAS_10[decimales];
+        double escalado = Math.abs(valor) * escala;
+        if (escalado >= 9.0e18) {
+            writer.write(Double.toString(valor));
+            return;
+        }
+
+        long redondeado = Math.round(escalado);
+        if (valor < 0 && redondeado != 0) writer.write('-');
+        escribirEntero(writer, redondeado / escala);
+        if (decimales > 0) {
+            writer.write('.');
+            long fraccion = redondeado % escala;
+            for (long p = escala / 10; p > 0; p /= 10) {
+                writer.write((char) ('0' + (fraccion / p) % 10));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExportadorJSON [decimales=" + (decimales < 0 ? "exactos" : decimales) + "]";
+    }
+}
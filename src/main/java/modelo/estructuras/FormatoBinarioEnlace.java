@@ -0,0 +1,94 @@
+package modelo.estructuras;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// formato binario del dendrograma, big-endian, pensado para mapearse en memoria
+//
+//   0  int    magico "DNDG"
+//   4  int    version
+//   8  int    n (hojas)
+//  12  int    reservado
+//  16  long   bytes de la tabla de cadenas
+//  24  long   reservado
+//  32  double altura[n-1]
+//      int    izquierdo[n-1], derecho[n-1], tamanio[n-1]
+//      int    ordenHojas[n]
+//      int    desplazamiento[n+1] (inicio de cada etiqueta en la tabla, el ultimo es el total)
+//      byte   tabla de cadenas UTF-8
+public final class FormatoBinarioEnlace {
+
+    public static final int MAGICO = 0x444E4447;
+    public static final int VERSION = 1;
+    public static final int TAMANIO_CABECERA = 32;
+
+    private FormatoBinarioEnlace() {
+    }
+
+    public static void escribir(IArbolEnlace enlace, String ruta) throws IOException {
+        try (OutputStream salida = new FileOutputStream(ruta)) {
+            escribir(enlace, salida);
+        }
+    }
+
+    // no cierra el stream
+    public static void escribir(IArbolEnlace enlace, OutputStream salida) throws IOException {
+        int n = enlace.getNumeroHojas();
+        int fusiones = enlace.getNumeroFusiones();
+
+        // primera pasada solo para medir la tabla de cadenas
+        long bytesCadenas = 0;
+        for (int i = 0; i < n; i++) {
+            bytesCadenas += bytesEtiqueta(enlace, i).length;
+        }
+        if (bytesCadenas > Integer.MAX_VALUE) {
+            throw new IOException("Tabla de etiquetas demasiado grande: " + bytesCadenas + " bytes");
+        }
+
+        DataOutputStream datos = new DataOutputStream(new BufferedOutputStream(salida, 1 << 16));
+        datos.writeInt(MAGICO);
+        datos.writeInt(VERSION);
+        datos.writeInt(n);
+        datos.writeInt(0);
+        datos.writeLong(bytesCadenas);
+        datos.writeLong(0L);
+
+        for (int m = 0; m < fusiones; m++) datos.writeDouble(enlace.getAltura(m));
+        for (int m = 0; m < fusiones; m++) datos.writeInt(enlace.getIzquierdo(m));
+        for (int m = 0; m < fusiones; m++) datos.writeInt(enlace.getDerecho(m));
+        for (int m = 0; m < fusiones; m++) datos.writeInt(enlace.getTamanio(m));
+
+        for (int hoja : enlace.ordenHojas()) datos.writeInt(hoja);
+
+        int desplazamiento = 0;
+        for (int i = 0; i < n; i++) {
+            datos.writeInt(desplazamiento);
+            desplazamiento += bytesEtiqueta(enlace, i).length;
+        }
+        datos.writeInt(desplazamiento);
+
+        for (int i = 0; i < n; i++) {
+            datos.write(bytesEtiqueta(enlace, i));
+        }
+        datos.flush();
+    }
+
+    public static EnlaceMapeado abrir(String ruta) throws IOException {
+        return new EnlaceMapeado(ruta);
+    }
+
+    // tamanio total del archivo para n hojas y la tabla de cadenas dada
+    static long tamanioEsperado(int n, long bytesCadenas) {
+        long fusiones = n - 1L;
+        return TAMANIO_CABECERA + fusiones * 8 + fusiones * 3 * 4 + (long) n * 4 + (n + 1L) * 4 + bytesCadenas;
+    }
+
+    private static byte[] bytesEtiqueta(IArbolEnlace enlace, int hoja) {
+        String etiqueta = enlace.getEtiqueta(hoja);
+        return etiqueta == null ? new byte[0] : etiqueta.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,280 @@
+package modelo.estructuras;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+// grafo de vecinos en formato compacto (CSR): los vecinos del nodo i estan en
+// vecinos[inicio[i] .. inicio[i + 1]) con sus distancias en el mismo rango de distancias,
+// de menor a mayor distancia; un grafo kNN tiene k por fila, pero se admite grado variable
+//
+// formato en disco, big-endian:
+//
+//   0  int    magico "KNNG"
+//   4  int    version
+//   8  int    n (nodos)
+//  12  int    reservado
+//  16  long   aristas
+//  24  long   huella de los datos con que se construyo
+//  32  int    inicio[n+1]
+//      int    vecinos[aristas]
+//      float  distancias[aristas]
+public class GrafoVecinos {
+
+    public static final int MAGICO = 0x4B4E4E47;
+    public static final int VERSION = 1;
+    private static final int FILA_CORTA = 32;
+
+    private final int[] inicio;
+    private final int[] vecinos;
+    private final float[] distancias;
+    private final long huella;
+
+    public GrafoVecinos(int[] inicio, int[] vecinos, float[] distancias, long huella) {
+        if (inicio == null || inicio.length == 0 || vecinos == null || distancias == null) {
+            throw new IllegalArgumentException("Arreglos del grafo no pueden ser nulos");
+        }
+        if (vecinos.length != distancias.length || inicio[0] != 0 || inicio[inicio.length - 1] != vecinos.length) {
+            throw new IllegalArgumentException("Arreglos del grafo inconsistentes");
+        }
+        int n = inicio.length - 1;
+        for (int i = 0; i < n; i++) {
+            if (inicio[i + 1] < inicio[i]) {
+                throw new IllegalArgumentException("Inicio de filas no puede decrecer en el nodo " + i);
+            }
+        }
+        for (int v : vecinos) {
+            if (v < 0 || v >= n) {
+                throw new IllegalArgumentException("Vecino fuera de rango: " + v);
+            }
+        }
+        this.inicio = inicio;
+        this.vecinos = vecinos;
+        this.distancias = distancias;
+        this.huella = huella;
+    }
+
+    // grafo de grado variable desde filas sueltas en cualquier orden (filas[i] con cuentas[i] vecinos)
+    public static GrafoVecinos desdeListas(int[][] filas, float[][] distanciasFilas, int[] cuentas, long huella) {
+        int n = filas.length;
+        int[] inicio = new int[n + 1];
+        for (int i = 0; i < n; i++) inicio[i + 1] = inicio[i] + cuentas[i];
+        int[] ids = new int[inicio[n]];
+        float[] dist = new float[inicio[n]];
+        for (int i = 0; i < n; i++) {
+            if (cuentas[i] == 0) continue;
+            System.arraycopy(filas[i], 0, ids, inicio[i], cuentas[i]);
+            System.arraycopy(distanciasFilas[i], 0, dist, inicio[i], cuentas[i]);
+            ordenarFila(ids, dist, inicio[i], inicio[i + 1]);
+        }
+        return new GrafoVecinos(inicio, ids, dist, huella);
+    }
+
+    // grafo kNN desde filas de k vecinos en cualquier orden (como quedan en un heap); ordena cada fila
+    public static GrafoVecinos desdeFilas(int n, int k, int[] ids, float[] dist, long huella) {
+        if (ids == null || dist == null || ids.length != (long) n * k || dist.length != ids.length) {
+            throw new IllegalArgumentException("Las filas deben tener n * k vecinos");
+        }
+        int[] inicio = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            inicio[i + 1] = inicio[i] + k;
+            ordenarFila(ids, dist, inicio[i], inicio[i + 1]);
+        }
+        return new GrafoVecinos(inicio, ids, dist, huella);
+    }
+
+    public int getNumeroNodos() {
+        return inicio.length - 1;
+    }
+
+    public int getNumeroAristas() {
+        return vecinos.length;
+    }
+
+    public int grado(int nodo) {
+        return inicio[nodo + 1] - inicio[nodo];
+    }
+
+    // j-esimo vecino mas cercano del nodo
+    public int getVecino(int nodo, int j) {
+        return vecinos[inicio[nodo] + j];
+    }
+
+    public float getDistancia(int nodo, int j) {
+        return distancias[inicio[nodo] + j];
+    }
+
+    public long getHuella() {
+        return huella;
+    }
+
+    // grafo no dirigido: cada arista aparece en las dos filas, sin repetidos
+    public GrafoVecinos simetrico() {
+        int n = getNumeroNodos();
+        int[] grado = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int k = inicio[i]; k < inicio[i + 1]; k++) {
+                grado[i]++;
+                grado[vecinos[k]]++;
+            }
+        }
+
+        int[] nuevoInicio = new int[n + 1];
+        for (int i = 0; i < n; i++) nuevoInicio[i + 1] = nuevoInicio[i] + grado[i];
+        int[] nuevosVecinos = new int[nuevoInicio[n]];
+        float[] nuevasDistancias = new float[nuevoInicio[n]];
+        int[] lleno = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int k = inicio[i]; k < inicio[i + 1]; k++) {
+                int j = vecinos[k];
+                int a = nuevoInicio[i] + lleno[i]++;
+                nuevosVecinos[a] = j;
+                nuevasDistancias[a] = distancias[k];
+                int b = nuevoInicio[j] + lleno[j]++;
+                nuevosVecinos[b] = i;
+                nuevasDistancias[b] = distancias[k];
+            }
+        }
+
+        // cada fila se ordena por distancia y se quitan las aristas que estaban en ambos sentidos,
+        // quedando la de menor distancia; visto[j] = ultima fila que ya tiene a j
+        int[] compactoInicio = new int[n + 1];
+        int[] visto = new int[n];
+        Arrays.fill(visto, -1);
+        int escritos = 0;
+        for (int i = 0; i < n; i++) {
+            int desde = nuevoInicio[i];
+            int hasta = nuevoInicio[i + 1];
+            ordenarFila(nuevosVecinos, nuevasDistancias, desde, hasta);
+            for (int k = desde; k < hasta; k++) {
+                if (visto[nuevosVecinos[k]] == i) continue;
+                visto[nuevosVecinos[k]] = i;
+                nuevosVecinos[escritos] = nuevosVecinos[k];
+                nuevasDistancias[escritos++] = nuevasDistancias[k];
+            }
+            compactoInicio[i + 1] = escritos;
+        }
+        return new GrafoVecinos(compactoInicio, Arrays.copyOf(nuevosVecinos, escritos),
+                Arrays.copyOf(nuevasDistancias, escritos), huella);
+    }
+
+    // grafo por umbral: solo las aristas de distancia <= umbral (las filas ya estan ordenadas)
+    public GrafoVecinos filtrarPorUmbral(double umbral) {
+        int n = getNumeroNodos();
+        int[] nuevoInicio = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int grado = 0;
+            while (grado < grado(i) && distancias[inicio[i] + grado] <= umbral) grado++;
+            nuevoInicio[i + 1] = nuevoInicio[i] + grado;
+        }
+        int[] nuevosVecinos = new int[nuevoInicio[n]];
+        float[] nuevasDistancias = new float[nuevoInicio[n]];
+        for (int i = 0; i < n; i++) {
+            int grado = nuevoInicio[i + 1] - nuevoInicio[i];
+            System.arraycopy(vecinos, inicio[i], nuevosVecinos, nuevoInicio[i], grado);
+            System.arraycopy(distancias, inicio[i], nuevasDistancias, nuevoInicio[i], grado);
+        }
+        return new GrafoVecinos(nuevoInicio, nuevosVecinos, nuevasDistancias, huella);
+    }
+
+    // por distancia y en empate por id; insercion para filas cortas (lo normal en un kNN)
+    static void ordenarFila(int[] ids, float[] dist, int desde, int hasta) {
+        int largo = hasta - desde;
+        if (largo > FILA_CORTA) {
+            ordenarFilaLarga(ids, dist, desde, largo);
+            return;
+        }
+        for (int a = desde + 1; a < hasta; a++) {
+            int id = ids[a];
+            float d = dist[a];
+            int b = a - 1;
+            while (b >= desde && (dist[b] > d || (dist[b] == d && ids[b] > id))) {
+                ids[b + 1] = ids[b];
+                dist[b + 1] = dist[b];
+                b--;
+            }
+            ids[b + 1] = id;
+            dist[b + 1] = d;
+        }
+    }
+
+    // filas largas (grafos por radio, nodos muy conectados): dos pasadas estables, por id y por distancia
+    private static void ordenarFilaLarga(int[] ids, float[] dist, int desde, int largo) {
+        double[] clave = new double[largo];
+        for (int t = 0; t < largo; t++) clave[t] = ids[desde + t];
+        int[] porId = OrdenamientoIndices.ordenarPorClave(clave);
+        for (int t = 0; t < largo; t++) clave[t] = dist[desde + porId[t]];
+        int[] porDistancia = OrdenamientoIndices.ordenarPorClave(clave);
+
+        int[] idsOrdenados = new int[largo];
+        float[] distOrdenadas = new float[largo];
+        for (int t = 0; t < largo; t++) {
+            int origen = desde + porId[porDistancia[t]];
+            idsOrdenados[t] = ids[origen];
+            distOrdenadas[t] = dist[origen];
+        }
+        System.arraycopy(idsOrdenados, 0, ids, desde, largo);
+        System.arraycopy(distOrdenadas, 0, dist, desde, largo);
+    }
+
+    // PERSISTENCIA
+
+    public void escribir(String ruta) throws IOException {
+        try (DataOutputStream datos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(ruta), 1 << 16))) {
+            int n = getNumeroNodos();
+            datos.writeInt(MAGICO);
+            datos.writeInt(VERSION);
+            datos.writeInt(n);
+            datos.writeInt(0);
+            datos.writeLong(vecinos.length);
+            datos.writeLong(huella);
+            for (int x : inicio) datos.writeInt(x);
+            for (int x : vecinos) datos.writeInt(x);
+            for (float x : distancias) datos.writeFloat(x);
+        }
+    }
+
+    public static GrafoVecinos leer(String ruta) throws IOException {
+        try (DataInputStream datos = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(ruta), 1 << 16))) {
+            if (datos.readInt() != MAGICO) {
+                throw new IOException("No es un archivo de grafo de vecinos: " + ruta);
+            }
+            int version = datos.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versión de grafo no soportada: " + version);
+            }
+            int n = datos.readInt();
+            datos.readInt();
+            long aristas = datos.readLong();
+            long huella = datos.readLong();
+            if (n < 0 || aristas < 0 || aristas > Integer.MAX_VALUE) {
+                throw new IOException("Cabecera de grafo inválida");
+            }
+
+            int[] inicio = new int[n + 1];
+            int[] vecinos = new int[(int) aristas];
+            float[] distancias = new float[(int) aristas];
+            for (int i = 0; i <= n; i++) inicio[i] = datos.readInt();
+            for (int i = 0; i < vecinos.length; i++) vecinos[i] = datos.readInt();
+            for (int i = 0; i < distancias.length; i++) distancias[i] = datos.readFloat();
+            return new GrafoVecinos(inicio, vecinos, distancias, huella);
+        } catch (EOFException e) {
+            throw new IOException("Archivo de grafo truncado: " + ruta, e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Archivo de grafo corrupto: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GrafoVecinos [nodos=" + getNumeroNodos() + ", aristas=" + vecinos.length + "]";
+    }
+}
@@ -0,0 +1,79 @@
+package modelo.estructuras;
+
+// acceso de solo lectura a un dendrograma en forma de arreglo de enlace
+// hojas 0..n-1, la fusion m crea el nodo n+m; puede estar en memoria o mapeado desde archivo
+public interface IArbolEnlace {
+
+    int getNumeroHojas();
+
+    int getNumeroFusiones();
+
+    int getIzquierdo(int fusion);
+
+    int getDerecho(int fusion);
+
+    double getAltura(int fusion);
+
+    int getTamanio(int fusion);
+
+    String getEtiqueta(int hoja);
+
+    default int getNumeroNodos() {
+        return 2 * getNumeroHojas() - 1;
+    }
+
+    // la ultima fusion, o la unica hoja
+    default int getIdRaiz() {
+        return 2 * getNumeroHojas() - 2;
+    }
+
+    default boolean esHoja(int id) {
+        return id < getNumeroHojas();
+    }
+
+    // -1 si es hoja
+    default int hijoIzquierdo(int id) {
+        return esHoja(id) ? -1 : getIzquierdo(id - getNumeroHojas());
+    }
+
+    default int hijoDerecho(int id) {
+        return esHoja(id) ? -1 : getDerecho(id - getNumeroHojas());
+    }
+
+    default double alturaDe(int id) {
+        return esHoja(id) ? 0.0 : getAltura(id - getNumeroHojas());
+    }
+
+    default int tamanioDe(int id) {
+        return esHoja(id) ? 1 : getTamanio(id - getNumeroHojas());
+    }
+
+    // hojas del subarbol de izquierda a derecha, recorrido iterativo con pila de enteros
+    default int[] hojas(int id) {
+        if (id < 0 || id >= getNumeroNodos()) {
+            throw new IndexOutOfBoundsException("Nodo fuera de rango: " + id);
+        }
+        int[] resultado = new int[tamanioDe(id)];
+        int[] pila = new int[resultado.length];
+        int tope = 0;
+        int pos = 0;
+
+        pila[tope++] = id;
+        while (tope > 0) {
+            int actual = pila[--tope];
+            if (esHoja(actual)) {
+                resultado[pos++] = actual;
+            } else {
+                // el derecho se apila primero para visitar antes el izquierdo
+                pila[tope++] = hijoDerecho(actual);
+                pila[tope++] = hijoIzquierdo(actual);
+            }
+        }
+        return resultado;
+    }
+
+    // orden de las hojas en el dibujo del dendrograma
+    default int[] ordenHojas() {
+        return hojas(getIdRaiz());
+    }
+}
@@ -0,0 +1,217 @@
+package modelo.estructuras;
+
+// consultas sobre un dendrograma ya construido:
+// - ancestro comun (LCA) en O(1) con recorrido de Euler y sparse table de minimos de profundidad
+// - distancia cofenetica = altura del ancestro comun, tambien por etiqueta con un diccionario
+// - cluster que contiene una hoja a una altura dada, en O(log n) sobre los huecos del orden de hojas
+public class IndiceCofenetico {
+
+    private final IArbolEnlace enlace;
+    private final int numeroHojas;
+
+    // recorrido de Euler
+    private final int[] recorrido;
+    private final int[] profundidad;
+    private final int[] primeraVisita;
+    private final int[][] minimos;
+    private final int[] logaritmo;
+
+    // orden de hojas y altura monotona del ancestro comun de cada par vecino
+    private final int[] posicionHoja;
+    private final int[] ordenHojas;
+    private final double[][] maximosHuecos;
+
+    private final IDiccionario<String, Integer> indicePorEtiqueta;
+
+    public IndiceCofenetico(IArbolEnlace enlace) {
+        this.enlace = enlace;
+        this.numeroHojas = enlace.getNumeroHojas();
+        int nodos = enlace.getNumeroNodos();
+
+        recorrido = new int[2 * nodos - 1];
+        profundidad = new int[recorrido.length];
+        primeraVisita = new int[nodos];
+        construirRecorrido();
+
+        logaritmo = new int[recorrido.length + 1];
+        for (int i = 2; i <= recorrido.length; i++) logaritmo[i] = logaritmo[i / 2] + 1;
+        minimos = construirTablaMinimos();
+
+        ordenHojas = enlace.ordenHojas();
+        posicionHoja = new int[numeroHojas];
+        for (int p = 0; p < numeroHojas; p++) posicionHoja[ordenHojas[p]] = p;
+        maximosHuecos = construirTablaHuecos();
+
+        indicePorEtiqueta = new Diccionario<>(numeroHojas * 2 + 1);
+        for (int i = 0; i < numeroHojas; i++) {
+            String etiqueta = enlace.getEtiqueta(i);
+            if (etiqueta != null && !indicePorEtiqueta.contieneClave(etiqueta)) {
+                indicePorEtiqueta.poner(etiqueta, i);
+            }
+        }
+    }
+
+    // recorrido de Euler iterativo: cada nodo se anota al entrar y al volver de cada hijo
+    private void construirRecorrido() {
+        int[] pilaNodos = new int[enlace.getNumeroNodos()];
+        int[] pilaEtapas = new int[pilaNodos.length];
+        int tope = 0;
+        int pos = 0;
+
+        pilaNodos[tope] = enlace.getIdRaiz();
+        pilaEtapas[tope++] = 0;
+        while (tope > 0) {
+            int marco = tope - 1;
+            int nodo = pilaNodos[marco];
+            int etapa = pilaEtapas[marco];
+
+            if (etapa == 0) primeraVisita[nodo] = pos;
+            recorrido[pos] = nodo;
+            profundidad[pos] = marco;
+            pos++;
+
+            if (enlace.esHoja(nodo) || etapa == 2) {
+                tope--;
+                continue;
+            }
+            pilaEtapas[marco] = etapa + 1;
+            pilaNodos[tope] = etapa == 0 ? enlace.hijoIzquierdo(nodo) : enlace.hijoDerecho(nodo);
+            pilaEtapas[tope++] = 0;
+        }
+    }
+
+    // minimos[k][i] = posicion del recorrido con menor profundidad en [i, i + 2^k)
+    private int[][] construirTablaMinimos() {
+        int largo = recorrido.length;
+        int niveles = logaritmo[largo] + 1;
+        int[][] tabla = new int[niveles][];
+        tabla[0] = new int[largo];
+        for (int i = 0; i < largo; i++) tabla[0][i] = i;
+
+        for (int k = 1; k < niveles; k++) {
+            int mitad = 1 << (k - 1);
+            tabla[k] = new int[largo - (1 << k) + 1];
+            for (int i = 0; i < tabla[k].length; i++) {
+                int a = tabla[k - 1][i];
+                int b = tabla[k - 1][i + mitad];
+                tabla[k][i] = profundidad[a] <= profundidad[b] ? a : b;
+            }
+        }
+        return tabla;
+    }
+
+    // maximosHuecos[k][g] = mayor altura monotona entre los huecos g .. g + 2^k - 1
+    private double[][] construirTablaHuecos() {
+        int huecos = numeroHojas - 1;
+        double[] monotona = alturasMonotonas();
+        int niveles = huecos > 0 ? logaritmo[huecos] + 1 : 0;
+
+        double[][] tabla = new double[niveles][];
+        if (niveles == 0) return tabla;
+
+        tabla[0] = new double[huecos];
+        for (int g = 0; g < huecos; g++) {
+            int comun = ancestroComun(ordenHojas[g], ordenHojas[g + 1]);
+            tabla[0][g] = monotona[comun - numeroHojas];
+        }
+        for (int k = 1; k < niveles; k++) {
+            int mitad = 1 << (k - 1);
+            tabla[k] = new double[huecos - (1 << k) + 1];
+            for (int g = 0; g < tabla[k].length; g++) {
+                tabla[k][g] = Math.max(tabla[k - 1][g], tabla[k - 1][g + mitad]);
+            }
+        }
+        return tabla;
+    }
+
+    // h'(m) = max(h(m), h'(hijos)), corrige las inversiones del enlace por centroide
+    private double[] alturasMonotonas() {
+        double[] monotona = new double[enlace.getNumeroFusiones()];
+        for (int m = 0; m < monotona.length; m++) {
+            double h = enlace.getAltura(m);
+            int a = enlace.getIzquierdo(m);
+            int b = enlace.getDerecho(m);
+            if (!enlace.esHoja(a)) h = Math.max(h, monotona[a - numeroHojas]);
+            if (!enlace.esHoja(b)) h = Math.max(h, monotona[b - numeroHojas]);
+            monotona[m] = h;
+        }
+        return monotona;
+    }
+
+    // O(1)
+    public int ancestroComun(int nodoA, int nodoB) {
+        int i = primeraVisita[nodoA];
+        int j = primeraVisita[nodoB];
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        int k = logaritmo[j - i + 1];
+        int a = minimos[k][i];
+        int b = minimos[k][j - (1 << k) + 1];
+        return recorrido[profundidad[a] <= profundidad[b] ? a : b];
+    }
+
+    public int ancestroComun(String etiquetaA, String etiquetaB) {
+        return ancestroComun(hojaDe(etiquetaA), hojaDe(etiquetaB));
+    }
+
+    // altura a la que se unen las dos hojas por primera vez, O(1)
+    public double distanciaCofenetica(int hojaA, int hojaB) {
+        if (hojaA == hojaB) return 0.0;
+        return enlace.alturaDe(ancestroComun(hojaA, hojaB));
+    }
+
+    public double distanciaCofenetica(String etiquetaA, String etiquetaB) {
+        return distanciaCofenetica(hojaDe(etiquetaA), hojaDe(etiquetaB));
+    }
+
+    // raiz del cluster que contiene la hoja al cortar a esa altura (usa h')
+    // se extiende el intervalo del orden de hojas mientras los huecos no superen la altura
+    public int clusterEnAltura(int hoja, double altura) {
+        int p = posicionHoja[hoja];
+
+        int izquierda = p;
+        for (int k = maximosHuecos.length - 1; k >= 0; k--) {
+            int desde = izquierda - (1 << k);
+            if (desde >= 0 && maximosHuecos[k][desde] <= altura) izquierda = desde;
+        }
+
+        int derecha = p;
+        for (int k = maximosHuecos.length - 1; k >= 0; k--) {
+            if (derecha + (1 << k) <= numeroHojas - 1 && maximosHuecos[k][derecha] <= altura) {
+                derecha += 1 << k;
+            }
+        }
+
+        return ancestroComun(ordenHojas[izquierda], ordenHojas[derecha]);
+    }
+
+    public int clusterEnAltura(String etiqueta, double altura) {
+        return clusterEnAltura(hojaDe(etiqueta), altura);
+    }
+
+    // -1 si no existe
+    public int indiceHoja(String etiqueta) {
+        Integer i = indicePorEtiqueta.obtener(etiqueta);
+        return i != null ? i : -1;
+    }
+
+    public IArbolEnlace getEnlace() {
+        return enlace;
+    }
+
+    private int hojaDe(String etiqueta) {
+        int i = indiceHoja(etiqueta);
+        if (i == -1) {
+            throw new IllegalArgumentException("Etiqueta no encontrada: " + etiqueta);
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return "IndiceCofenetico [hojas=" + numeroHojas + "]";
+    }
+}
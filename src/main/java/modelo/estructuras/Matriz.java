@@ -39,6 +39,22 @@ public class Matriz {
         return 0.0;
     }
 
+    public Matriz copiar() {
+        return new Matriz(datos);
+    }
+
+    // matriz mas grande con esta en la esquina superior izquierda y ceros en el resto
+    public Matriz ampliar(int nuevaDimension) {
+        if (nuevaDimension < dimension) {
+            throw new IllegalArgumentException("La nueva dimensión no puede ser menor que la actual");
+        }
+        Matriz ampliada = new Matriz(nuevaDimension);
+        for (int i = 0; i < dimension; i++) {
+            System.arraycopy(datos[i], 0, ampliada.datos[i], 0, dimension);
+        }
+        return ampliada;
+    }
+
     public int getDimension() {
         return dimension;
     }
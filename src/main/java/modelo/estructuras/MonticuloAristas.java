@@ -0,0 +1,122 @@
+package modelo.estructuras;
+
+import java.util.Arrays;
+
+// min-heap de aristas (peso, a, b) en arreglos paralelos, sin objetos por arista
+// no soporta borrar ni cambiar la clave: quien lo usa inserta la version nueva y descarta
+// las entradas viejas al sacarlas (borrado perezoso)
+public class MonticuloAristas {
+
+    private double[] pesos;
+    private int[] extremosA;
+    private int[] extremosB;
+    private int tamanio;
+
+    public MonticuloAristas() {
+        this(16);
+    }
+
+    public MonticuloAristas(int capacidadInicial) {
+        int capacidad = Math.max(1, capacidadInicial);
+        pesos = new double[capacidad];
+        extremosA = new int[capacidad];
+        extremosB = new int[capacidad];
+    }
+
+    public void insertar(double peso, int a, int b) {
+        if (tamanio == pesos.length) {
+            int capacidad = pesos.length * 2;
+            pesos = Arrays.copyOf(pesos, capacidad);
+            extremosA = Arrays.copyOf(extremosA, capacidad);
+            extremosB = Arrays.copyOf(extremosB, capacidad);
+        }
+        int s = tamanio++;
+        colocar(s, peso, a, b);
+        while (s > 0) {
+            int padre = (s - 1) / 2;
+            if (!menor(s, padre)) break;
+            intercambiar(s, padre);
+            s = padre;
+        }
+    }
+
+    public boolean estaVacio() {
+        return tamanio == 0;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    // datos de la arista minima, sin sacarla
+    public double pesoMinimo() {
+        verificarNoVacio();
+        return pesos[0];
+    }
+
+    public int extremoAMinimo() {
+        verificarNoVacio();
+        return extremosA[0];
+    }
+
+    public int extremoBMinimo() {
+        verificarNoVacio();
+        return extremosB[0];
+    }
+
+    public void eliminarMinimo() {
+        verificarNoVacio();
+        tamanio--;
+        if (tamanio == 0) return;
+        colocar(0, pesos[tamanio], extremosA[tamanio], extremosB[tamanio]);
+        int s = 0;
+        while (true) {
+            int izq = 2 * s + 1;
+            if (izq >= tamanio) break;
+            int hijo = izq + 1 < tamanio && menor(izq + 1, izq) ? izq + 1 : izq;
+            if (!menor(hijo, s)) break;
+            intercambiar(hijo, s);
+            s = hijo;
+        }
+    }
+
+    public void limpiar() {
+        tamanio = 0;
+    }
+
+    // en empate de peso decide el par menor, asi el orden no depende de la insercion
+    private boolean menor(int x, int y) {
+        if (pesos[x] != pesos[y]) return pesos[x] < pesos[y];
+        if (extremosA[x] != extremosA[y]) return extremosA[x] < extremosA[y];
+        return extremosB[x] < extremosB[y];
+    }
+
+    private void colocar(int s, double peso, int a, int b) {
+        pesos[s] = peso;
+        extremosA[s] = a;
+        extremosB[s] = b;
+    }
+
+    private void intercambiar(int x, int y) {
+        double p = pesos[x];
+        pesos[x] = pesos[y];
+        pesos[y] = p;
+        int a = extremosA[x];
+        extremosA[x] = extremosA[y];
+        extremosA[y] = a;
+        int b = extremosB[x];
+        extremosB[x] = extremosB[y];
+        extremosB[y] = b;
+    }
+
+    private void verificarNoVacio() {
+        if (tamanio == 0) {
+            throw new IllegalStateException("El montículo está vacío");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MonticuloAristas [tamanio=" + tamanio + "]";
+    }
+}
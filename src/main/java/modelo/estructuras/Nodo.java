@@ -1,69 +1,87 @@
 package modelo.estructuras;
 
+// vista liviana de un nodo dentro de un ArregloEnlace, no copia hojas ni etiquetas
 public class Nodo {
 
-    private Nodo izquierdo;
-    private Nodo derecho;
-    private double distancia;
-    private ListaDoble<String> elementos;
-    private String nombre; // Nuevo campo para el nombre
-
-    public Nodo(String elemento) {
-        this.elementos = new ListaDoble<>();
-        this.elementos.agregar(elemento);
-        this.distancia = 0.0;
-        this.izquierdo = null;
-        this.derecho = null;
-        this.nombre = elemento; // Para hojas, el nombre es el elemento
-    }
+    private final ArregloEnlace enlace;
+    private final int id;
 
-    public Nodo(Nodo izquierdo, Nodo derecho, double distancia) {
-        this.izquierdo = izquierdo;
-        this.derecho = derecho;
-        this.distancia = distancia;
-        this.elementos = new ListaDoble<>();
-        ListaDoble.IteradorLista<String> it1 = izquierdo.getElementos().iterador();
-        while (it1.tieneSiguiente()) this.elementos.agregar(it1.siguiente());
-
-        ListaDoble.IteradorLista<String> it2 = derecho.getElementos().iterador();
-        while (it2.tieneSiguiente()) this.elementos.agregar(it2.siguiente());
-        this.nombre = null; // Por defecto, los nodos internos no tienen nombre explícito
+    Nodo(ArregloEnlace enlace, int id) {
+        this.enlace = enlace;
+        this.id = id;
     }
 
     public boolean esHoja() {
-        return izquierdo == null && derecho == null;
+        return enlace.esHoja(id);
     }
 
+    // para hojas la etiqueta, para nodos internos se arma al pedirlo a partir de sus hojas
     public String getNombre() {
-        if (nombre != null) {
-            return nombre;
+        if (esHoja()) {
+            return enlace.getEtiqueta(id);
         }
-        return "(" + elementos.toString().replace(", ", ";") + ")";
-    }
 
-    public void setNombre(String nombre) {
-        this.nombre = nombre;
+        int[] hojas = enlace.hojas(id);
+        StringBuilder sb = new StringBuilder("([");
+        for (int i = 0; i < hojas.length; i++) {
+            if (i > 0) sb.append(";");
+            sb.append(enlace.getEtiqueta(hojas[i]));
+        }
+        sb.append("])");
+        return sb.toString();
     }
 
     public Nodo getIzquierdo() {
-        return izquierdo;
+        return esHoja() ? null : new Nodo(enlace, enlace.hijoIzquierdo(id));
     }
 
     public Nodo getDerecho() {
-        return derecho;
+        return esHoja() ? null : new Nodo(enlace, enlace.hijoDerecho(id));
     }
 
     public double getDistancia() {
-        return distancia;
+        return enlace.alturaDe(id);
+    }
+
+    // numero de hojas en O(1)
+    public int getTamanio() {
+        return enlace.tamanioDe(id);
     }
 
+    // etiquetas de las hojas, se enumeran en cada llamada
     public ListaDoble<String> getElementos() {
+        ListaDoble<String> elementos = new ListaDoble<>();
+        for (int hoja : enlace.hojas(id)) {
+            elementos.agregar(enlace.getEtiqueta(hoja));
+        }
         return elementos;
     }
 
+    public int getId() {
+        return id;
+    }
+
+    public ArregloEnlace getEnlace() {
+        return enlace;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Nodo)) return false;
+        Nodo otro = (Nodo) obj;
+        return enlace == otro.enlace && id == otro.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(enlace) + id;
+    }
+
     @Override
     public String toString() {
-        return getNombre() + " [d=" + String.format("%.2f", distancia)
-                + ", elementos=" + elementos.tamanio() + "]";
+        String nombre = esHoja() ? getNombre() : "nodo " + id;
+        return nombre + " [d=" + String.format("%.2f", getDistancia())
+                + ", elementos=" + getTamanio() + "]";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package modelo.estructuras;
+
+// ordenamiento de indices por clave primitiva, sin boxing
+// merge sort iterativo y estable: en empate queda primero el indice menor
+public final class OrdenamientoIndices {
+
+    private OrdenamientoIndices() {
+    }
+
+    public static int[] ordenarPorClave(double[] claves) {
+        int n = claves.length;
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) indices[i] = i;
+
+        int[] auxiliar = new int[n];
+        for (int ancho = 1; ancho < n; ancho *= 2) {
+            for (int inicio = 0; inicio < n - ancho; inicio += 2 * ancho) {
+                int medio = inicio + ancho;
+                int fin = Math.min(inicio + 2 * ancho, n);
+                mezclar(claves, indices, auxiliar, inicio, medio, fin);
+            }
+        }
+        return indices;
+    }
+
+    private static void mezclar(double[] claves, int[] indices, int[] auxiliar, int inicio, int medio, int fin) {
+        // si ya estan en orden no hay nada que mezclar
+        if (Double.compare(claves[indices[medio - 1]], claves[indices[medio]]) <= 0) return;
+
+        System.arraycopy(indices, inicio, auxiliar, inicio, fin - inicio);
+        int i = inicio;
+        int j = medio;
+        int k = inicio;
+        while (i < medio && j < fin) {
+            if (Double.compare(claves[auxiliar[j]], claves[auxiliar[i]]) < 0) {
+                indices[k++] = auxiliar[j++];
+            } else {
+                indices[k++] = auxiliar[i++];
+            }
+        }
+        while (i < medio) indices[k++] = auxiliar[i++];
+        while (j < fin) indices[k++] = auxiliar[j++];
+    }
+}
@@ -0,0 +1,87 @@
+package modelo.estructuras;
+
+import java.util.concurrent.CancellationException;
+
+// cancelacion cooperativa: quien lanza el trabajo cancela el token y el trabajo lo revisa entre filas
+// o iteraciones, sin interrumpir hilos; con plazo se cancela solo al vencer
+// verificar() lanza CancellationException, que el trabajo deja subir sin atrapar
+// un token derivado se cancela con su padre o con su propio plazo, sin cancelar al padre
+public final class TokenCancelacion {
+
+    // para las llamadas sin cancelacion; no se puede cancelar
+    public static final TokenCancelacion NINGUNO = new TokenCancelacion(Long.MAX_VALUE, null);
+
+    private final long limiteNanos;
+    private final TokenCancelacion padre;
+    private volatile String motivo;
+
+    public TokenCancelacion() {
+        this(Long.MAX_VALUE, null);
+    }
+
+    private TokenCancelacion(long limiteNanos, TokenCancelacion padre) {
+        this.limiteNanos = limiteNanos;
+        this.padre = padre;
+    }
+
+    // se cancela solo pasados esos milisegundos desde ahora
+    public static TokenCancelacion conPlazo(long milisegundos) {
+        if (milisegundos <= 0) {
+            throw new IllegalArgumentException("El plazo debe ser positivo");
+        }
+        return new TokenCancelacion(System.nanoTime() + milisegundos * 1_000_000L, null);
+    }
+
+    // se cancela cuando se cancela este o pasados esos milisegundos desde ahora; cancelarlo no cancela
+    // a este, asi un trabajo puede tener un plazo propio sin afectar al resto de lo que usa el mismo token
+    public TokenCancelacion derivarConPlazo(long milisegundos) {
+        if (milisegundos <= 0) {
+            throw new IllegalArgumentException("El plazo debe ser positivo");
+        }
+        return new TokenCancelacion(System.nanoTime() + milisegundos * 1_000_000L, this == NINGUNO ? null : this);
+    }
+
+    public void cancelar() {
+        cancelar("Trabajo cancelado");
+    }
+
+    // el primer motivo es el que queda
+    public void cancelar(String motivo) {
+        if (this == NINGUNO) {
+            throw new IllegalStateException("El token NINGUNO no se puede cancelar");
+        }
+        if (this.motivo == null) {
+            this.motivo = motivo;
+        }
+    }
+
+    public boolean isCancelado() {
+        if (motivo != null) {
+            return true;
+        }
+        if (padre != null && padre.isCancelado()) {
+            cancelar(padre.getMotivo());
+            return true;
+        }
+        if (limiteNanos != Long.MAX_VALUE && System.nanoTime() - limiteNanos >= 0) {
+            cancelar("Plazo vencido");
+            return true;
+        }
+        return false;
+    }
+
+    public void verificar() {
+        if (isCancelado()) {
+            throw new CancellationException(motivo);
+        }
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenCancelacion [" + (motivo != null ? motivo : "activo") + "]";
+    }
+}
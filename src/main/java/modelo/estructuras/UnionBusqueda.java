@@ -0,0 +1,68 @@
+package modelo.estructuras;
+
+// conjuntos disjuntos sobre 0..n-1, union por tamanio y compresion de caminos por mitades
+public class UnionBusqueda {
+
+    private final int[] padre;
+    private final int[] tamanio;
+    private int numeroConjuntos;
+
+    public UnionBusqueda(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("El tamaño no puede ser negativo");
+        }
+        this.padre = new int[n];
+        this.tamanio = new int[n];
+        for (int i = 0; i < n; i++) {
+            padre[i] = i;
+            tamanio[i] = 1;
+        }
+        this.numeroConjuntos = n;
+    }
+
+    public int buscar(int x) {
+        while (padre[x] != x) {
+            padre[x] = padre[padre[x]];
+            x = padre[x];
+        }
+        return x;
+    }
+
+    // retorna la nueva raiz, o -1 si ya estaban juntos
+    public int unir(int a, int b) {
+        int ra = buscar(a);
+        int rb = buscar(b);
+        if (ra == rb) return -1;
+
+        if (tamanio[ra] < tamanio[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        padre[rb] = ra;
+        tamanio[ra] += tamanio[rb];
+        numeroConjuntos--;
+        return ra;
+    }
+
+    public boolean conectados(int a, int b) {
+        return buscar(a) == buscar(b);
+    }
+
+    public int tamanioDe(int x) {
+        return tamanio[buscar(x)];
+    }
+
+    public int getNumeroConjuntos() {
+        return numeroConjuntos;
+    }
+
+    public int getTamanio() {
+        return padre.length;
+    }
+
+    @Override
+    public String toString() {
+        return "UnionBusqueda [elementos=" + padre.length + ", conjuntos=" + numeroConjuntos + "]";
+    }
+}
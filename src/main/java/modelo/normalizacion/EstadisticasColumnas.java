@@ -0,0 +1,184 @@
+package modelo.normalizacion;
+
+import modelo.estructuras.Diccionario;
+import modelo.estructuras.IDiccionario;
+
+// catalogo de estadisticas por dimension (conteo, min, max, media, M2 y nulos)
+// se acumula con Welford en una sola pasada y las particiones se combinan con la formula de Chan
+public class EstadisticasColumnas {
+
+    private String[] nombres;
+    private long[] conteos;
+    private long[] nulos;
+    private double[] minimos;
+    private double[] maximos;
+    private double[] medias;
+    private double[] m2;
+    private IDiccionario<String, Integer> indicePorNombre;
+
+    public EstadisticasColumnas(String[] nombres) {
+        if (nombres == null) {
+            throw new IllegalArgumentException("Los nombres no pueden ser null");
+        }
+        int dimension = nombres.length;
+        this.nombres = nombres.clone();
+        this.conteos = new long[dimension];
+        this.nulos = new long[dimension];
+        this.minimos = new double[dimension];
+        this.maximos = new double[dimension];
+        this.medias = new double[dimension];
+        this.m2 = new double[dimension];
+
+        this.indicePorNombre = new Diccionario<>(dimension * 2 + 1);
+
+        for (int i = 0; i < dimension; i++) {
+            minimos[i] = Double.POSITIVE_INFINITY;
+            maximos[i] = Double.NEGATIVE_INFINITY;
+            if (!indicePorNombre.contieneClave(nombres[i])) indicePorNombre.poner(nombres[i], i);
+        }
+    }
+
+    // agrega una fila completa (valores ya codificados, incluidos los imputados)
+    public void agregar(double[] fila) {
+        if (fila.length != nombres.length) {
+            throw new IllegalArgumentException("Fila de dimensión " + fila.length +
+                    ", se esperaba " + nombres.length);
+        }
+        for (int i = 0; i < fila.length; i++) {
+            agregar(i, fila[i]);
+        }
+    }
+
+    public void agregar(int dimension, double valor) {
+        long n = ++conteos[dimension];
+        double delta = valor - medias[dimension];
+        medias[dimension] += delta / n;
+        m2[dimension] += delta * (valor - medias[dimension]);
+
+        if (valor < minimos[dimension]) minimos[dimension] = valor;
+        if (valor > maximos[dimension]) maximos[dimension] = valor;
+    }
+
+    // la celda original estaba vacia o era invalida
+    public void agregarNulo(int dimension) {
+        nulos[dimension]++;
+    }
+
+    public void combinar(EstadisticasColumnas otra) {
+        if (otra.nombres.length != nombres.length) {
+            throw new IllegalArgumentException("Catálogos de distinta dimensión");
+        }
+
+        for (int i = 0; i < nombres.length; i++) {
+            long na = conteos[i];
+            long nb = otra.conteos[i];
+            nulos[i] += otra.nulos[i];
+            if (nb == 0) continue;
+
+            if (na == 0) {
+                conteos[i] = nb;
+                medias[i] = otra.medias[i];
+                m2[i] = otra.m2[i];
+            } else {
+                long n = na + nb;
+                double delta = otra.medias[i] - medias[i];
+                medias[i] += delta * nb / n;
+                m2[i] += otra.m2[i] + delta * delta * ((double) na * nb / n);
+                conteos[i] = n;
+            }
+            minimos[i] = Math.min(minimos[i], otra.minimos[i]);
+            maximos[i] = Math.max(maximos[i], otra.maximos[i]);
+        }
+    }
+
+    // catalogo restringido a las dimensiones dadas, en ese orden
+    public EstadisticasColumnas subconjunto(int[] indices) {
+        String[] subNombres = new String[indices.length];
+        for (int k = 0; k < indices.length; k++) {
+            subNombres[k] = nombres[indices[k]];
+        }
+
+        EstadisticasColumnas sub = new EstadisticasColumnas(subNombres);
+        for (int k = 0; k < indices.length; k++) {
+            int i = indices[k];
+            sub.conteos[k] = conteos[i];
+            sub.nulos[k] = nulos[i];
+            sub.minimos[k] = minimos[i];
+            sub.maximos[k] = maximos[i];
+            sub.medias[k] = medias[i];
+            sub.m2[k] = m2[i];
+        }
+        return sub;
+    }
+
+    public EstadisticasColumnas copiar() {
+        int[] todos = new int[nombres.length];
+        for (int i = 0; i < todos.length; i++) todos[i] = i;
+        return subconjunto(todos);
+    }
+
+    // -1 si no existe
+    public int indiceDe(String nombre) {
+        Integer i = indicePorNombre.obtener(nombre);
+        return i != null ? i : -1;
+    }
+
+    public int getDimension() {
+        return nombres.length;
+    }
+
+    public String getNombre(int dimension) {
+        return nombres[dimension];
+    }
+
+    public long getConteo(int dimension) {
+        return conteos[dimension];
+    }
+
+    public long getNulos(int dimension) {
+        return nulos[dimension];
+    }
+
+    public double getMinimo(int dimension) {
+        return minimos[dimension];
+    }
+
+    public double getMaximo(int dimension) {
+        return maximos[dimension];
+    }
+
+    public double getMedia(int dimension) {
+        return medias[dimension];
+    }
+
+    public double getM2(int dimension) {
+        return m2[dimension];
+    }
+
+    // varianza poblacional, la misma que usa Z-Score
+    public double getVarianza(int dimension) {
+        return conteos[dimension] > 0 ? m2[dimension] / conteos[dimension] : 0.0;
+    }
+
+    public double getDesviacionEstandar(int dimension) {
+        return Math.sqrt(getVarianza(dimension));
+    }
+
+    // perfil corto para mostrar en la interfaz
+    public String describir(int dimension) {
+        if (conteos[dimension] == 0) {
+            return nombres[dimension] + ": sin datos";
+        }
+        return nombres[dimension] +
+                "\nn=" + conteos[dimension] + ", nulos=" + nulos[dimension] +
+                "\nmin=" + String.format("%.4f", minimos[dimension]) +
+                ", max=" + String.format("%.4f", maximos[dimension]) +
+                "\nmedia=" + String.format("%.4f", medias[dimension]) +
+                ", σ=" + String.format("%.4f", getDesviacionEstandar(dimension));
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticasColumnas [dimensiones=" + nombres.length + "]";
+    }
+}
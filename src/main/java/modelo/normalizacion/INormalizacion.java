@@ -1,9 +1,30 @@
 package modelo.normalizacion;
 
+import modelo.estructuras.TokenCancelacion;
 import modelo.estructuras.Vector;
 
 public interface INormalizacion {
 
     Vector[] normalizar(Vector[] vectores);
+
+    // usa estadisticas ya calculadas (una por dimension de los vectores) en vez de recorrer los datos
+    default Vector[] normalizar(Vector[] vectores, EstadisticasColumnas estadisticas) {
+        return normalizar(vectores);
+    }
+
+    // version cancelable, estadisticas puede ser null; las estrategias que recorren las filas revisan
+    // el token por bloques, esta solo antes de empezar
+    default Vector[] normalizar(Vector[] vectores, EstadisticasColumnas estadisticas, TokenCancelacion token) {
+        token.verificar();
+        return estadisticas != null ? normalizar(vectores, estadisticas) : normalizar(vectores);
+    }
+
+    // cuanto se movieron los parametros de la dimension entre dos catalogos, relativo a la escala de
+    // referencia; 0 si la estrategia no depende de los datos. Sirve para decidir si los vectores ya
+    // normalizados con la referencia siguen valiendo o hay que normalizar todo de nuevo
+    default double deriva(EstadisticasColumnas referencia, EstadisticasColumnas actual, int dimension) {
+        return 0.0;
+    }
+
     String getNombre();
 }
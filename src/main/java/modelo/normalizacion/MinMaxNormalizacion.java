@@ -1,9 +1,13 @@
 package modelo.normalizacion;
 
+import modelo.estructuras.TokenCancelacion;
 import modelo.estructuras.Vector;
 
 public class MinMaxNormalizacion implements INormalizacion {
 
+    // filas entre revisiones del token
+    private static final int BLOQUE_CANCELACION = 4096;
+
     @Override
     public Vector[] normalizar(Vector[] vectores) {
         if (vectores == null || vectores.length == 0) {
@@ -11,7 +15,6 @@ public class MinMaxNormalizacion implements INormalizacion {
         }
 
         int dimension = vectores[0].dimension();
-        Vector[] resultado = new Vector[vectores.length];
 
         // Calcular mín y máx para cada dimensión
         double[] minimos = new double[dimension];
@@ -31,8 +34,66 @@ public class MinMaxNormalizacion implements INormalizacion {
             }
         }
 
+        return aplicar(vectores, minimos, maximos, TokenCancelacion.NINGUNO);
+    }
+
+    // sin recorrer los datos, los extremos salen del catalogo
+    @Override
+    public Vector[] normalizar(Vector[] vectores, EstadisticasColumnas estadisticas) {
+        return normalizarConCatalogo(vectores, estadisticas, TokenCancelacion.NINGUNO);
+    }
+
+    @Override
+    public Vector[] normalizar(Vector[] vectores, EstadisticasColumnas estadisticas, TokenCancelacion token) {
+        if (estadisticas == null) {
+            token.verificar();
+            return normalizar(vectores);
+        }
+        return normalizarConCatalogo(vectores, estadisticas, token);
+    }
+
+    private Vector[] normalizarConCatalogo(Vector[] vectores, EstadisticasColumnas estadisticas,
+                                           TokenCancelacion token) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+
+        int dimension = vectores[0].dimension();
+        if (estadisticas == null || estadisticas.getDimension() != dimension) {
+            throw new IllegalArgumentException("Las estadísticas no corresponden a la dimensión de los vectores");
+        }
+
+        double[] minimos = new double[dimension];
+        double[] maximos = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            minimos[i] = estadisticas.getMinimo(i);
+            maximos[i] = estadisticas.getMaximo(i);
+        }
+
+        return aplicar(vectores, minimos, maximos, token);
+    }
+
+    // desplazamiento de los extremos sobre el rango de referencia; un rango nulo que cambio es infinito
+    @Override
+    public double deriva(EstadisticasColumnas referencia, EstadisticasColumnas actual, int dimension) {
+        double minimo = referencia.getMinimo(dimension);
+        double maximo = referencia.getMaximo(dimension);
+        double desplazamiento = Math.max(Math.abs(actual.getMinimo(dimension) - minimo),
+                Math.abs(actual.getMaximo(dimension) - maximo));
+        double rango = maximo - minimo;
+        if (rango == 0.0) {
+            return desplazamiento == 0.0 ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return desplazamiento / rango;
+    }
+
+    private Vector[] aplicar(Vector[] vectores, double[] minimos, double[] maximos, TokenCancelacion token) {
+        int dimension = minimos.length;
+        Vector[] resultado = new Vector[vectores.length];
+
         // Normalizar cada vector
         for (int v = 0; v < vectores.length; v++) {
+            if (v % BLOQUE_CANCELACION == 0) token.verificar();
             double[] datosNormalizados = new double[dimension];
 
             for (int i = 0; i < dimension; i++) {
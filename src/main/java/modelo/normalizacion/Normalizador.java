@@ -25,6 +25,10 @@ public class Normalizador {
         return estrategia.normalizar(vectores);
     }
 
+    public Vector[] normalizar(Vector[] vectores, EstadisticasColumnas estadisticas) {
+        return estrategia.normalizar(vectores, estadisticas);
+    }
+
     public void setEstrategia(INormalizacion nueva) {
         if (nueva == null) {
             throw new IllegalArgumentException("La estrategia no puede ser null");
@@ -1,9 +1,13 @@
 package modelo.normalizacion;
 
+import modelo.estructuras.TokenCancelacion;
 import modelo.estructuras.Vector;
 
 public class ZScoreNormalizacion implements INormalizacion {
 
+    // filas entre revisiones del token
+    private static final int BLOQUE_CANCELACION = 4096;
+
     @Override
     public Vector[] normalizar(Vector[] vectores) {
         if (vectores == null || vectores.length == 0) {
@@ -11,7 +15,6 @@ public class ZScoreNormalizacion implements INormalizacion {
         }
 
         int dimension = vectores[0].dimension();
-        Vector[] resultado = new Vector[vectores.length];
 
         // Calcular media para cada dimensión
         double[] medias = new double[dimension];
@@ -35,8 +38,64 @@ public class ZScoreNormalizacion implements INormalizacion {
             desviacionesEstandar[i] = Math.sqrt(varianza);
         }
 
+        return aplicar(vectores, medias, desviacionesEstandar, TokenCancelacion.NINGUNO);
+    }
+
+    // media y desviacion (poblacional) tomadas del catalogo, sin las dos pasadas
+    @Override
+    public Vector[] normalizar(Vector[] vectores, EstadisticasColumnas estadisticas) {
+        return normalizarConCatalogo(vectores, estadisticas, TokenCancelacion.NINGUNO);
+    }
+
+    @Override
+    public Vector[] normalizar(Vector[] vectores, EstadisticasColumnas estadisticas, TokenCancelacion token) {
+        if (estadisticas == null) {
+            token.verificar();
+            return normalizar(vectores);
+        }
+        return normalizarConCatalogo(vectores, estadisticas, token);
+    }
+
+    private Vector[] normalizarConCatalogo(Vector[] vectores, EstadisticasColumnas estadisticas,
+                                           TokenCancelacion token) {
+        if (vectores == null || vectores.length == 0) {
+            throw new IllegalArgumentException("Array de vectores no puede estar vacío");
+        }
+
+        int dimension = vectores[0].dimension();
+        if (estadisticas == null || estadisticas.getDimension() != dimension) {
+            throw new IllegalArgumentException("Las estadísticas no corresponden a la dimensión de los vectores");
+        }
+
+        double[] medias = new double[dimension];
+        double[] desviacionesEstandar = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            medias[i] = estadisticas.getMedia(i);
+            desviacionesEstandar[i] = estadisticas.getDesviacionEstandar(i);
+        }
+
+        return aplicar(vectores, medias, desviacionesEstandar, token);
+    }
+
+    // cambio de media y de desviacion medidos en desviaciones de referencia
+    @Override
+    public double deriva(EstadisticasColumnas referencia, EstadisticasColumnas actual, int dimension) {
+        double sigma = referencia.getDesviacionEstandar(dimension);
+        double desplazamiento = Math.max(Math.abs(actual.getMedia(dimension) - referencia.getMedia(dimension)),
+                Math.abs(actual.getDesviacionEstandar(dimension) - sigma));
+        if (sigma == 0.0) {
+            return desplazamiento == 0.0 ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return desplazamiento / sigma;
+    }
+
+    private Vector[] aplicar(Vector[] vectores, double[] medias, double[] desviacionesEstandar, TokenCancelacion token) {
+        int dimension = medias.length;
+        Vector[] resultado = new Vector[vectores.length];
+
         // normalizar cada vector
         for (int v = 0; v < vectores.length; v++) {
+            if (v % BLOQUE_CANCELACION == 0) token.verificar();
             double[] datosNormalizados = new double[dimension];
 
             for (int i = 0; i < dimension; i++) {
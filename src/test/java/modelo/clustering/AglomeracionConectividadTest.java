@@ -0,0 +1,82 @@
+package modelo.clustering;
+
+import modelo.distancias.ConstructorGrafoVecinos;
+import modelo.distancias.DistanciaEuclidiana;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.GrafoVecinos;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AglomeracionConectividadTest {
+
+    // con el grafo completo es el motor de matriz; la matriz se arma con las mismas distancias float del
+    // grafo para que ambos partan de los mismos valores
+    @Test
+    void grafoCompletoIgualQueMatriz() {
+        Random azar = new Random(29);
+        Vector[] puntos = new Vector[120];
+        String[] etiquetas = new String[puntos.length];
+        for (int i = 0; i < puntos.length; i++) {
+            puntos[i] = new Vector(new double[]{azar.nextDouble(), azar.nextDouble()}, "p" + i);
+            etiquetas[i] = "p" + i;
+        }
+        GrafoVecinos completo = new ConstructorGrafoVecinos(new DistanciaEuclidiana(), 5)
+                .construirPorRadio(puntos, Double.MAX_VALUE);
+        assertEquals(120 * 119, completo.getNumeroAristas());
+
+        Matriz matriz = new Matriz(puntos.length);
+        for (int i = 0; i < puntos.length; i++) {
+            for (int s = 0; s < completo.grado(i); s++) {
+                matriz.setPosicion(i, completo.getVecino(i, s), completo.getDistancia(i, s));
+            }
+        }
+
+        for (MotorCluster.TipoEnlace tipo : new MotorCluster.TipoEnlace[]{
+                MotorCluster.TipoEnlace.MINIMO, MotorCluster.TipoEnlace.MAXIMO, MotorCluster.TipoEnlace.PROMEDIO}) {
+            MotorCluster motor = new MotorCluster(tipo);
+            ArregloEnlace esperado = motor.construirEnlaceSobreCopia(matriz, etiquetas);
+            ArregloEnlace grafo = motor.construirEnlace(completo, etiquetas);
+
+            for (int m = 0; m < esperado.getNumeroFusiones(); m++) {
+                assertEquals(esperado.getAltura(m), grafo.getAltura(m), 1e-9, tipo + " fusion " + m);
+            }
+            CortadorDendrograma a = new CortadorDendrograma(esperado);
+            CortadorDendrograma b = new CortadorDendrograma(grafo);
+            for (int k = 1; k <= puntos.length; k++) {
+                assertTrue(DatosClustering.mismaParticion(a.cortarEnK(k), b.cortarEnK(k)), tipo + " k=" + k);
+            }
+        }
+    }
+
+    // dos grupos lejanos con un kNN chico no se tocan: se unen al final a la mayor altura vista
+    @Test
+    void grafoNoConexoSeCompletaArriba() {
+        Vector[] puntos = new Vector[40];
+        int[] grupo = new int[puntos.length];
+        for (int i = 0; i < puntos.length; i++) {
+            grupo[i] = i % 2;
+            puntos[i] = new Vector(new double[]{1000.0 * grupo[i] + i}, "p" + i);
+        }
+        GrafoVecinos knn = new ConstructorGrafoVecinos(new DistanciaEuclidiana(), 3).construirPorRadio(puntos, 10);
+
+        ArregloEnlace enlace = new MotorCluster(MotorCluster.TipoEnlace.MINIMO).construirEnlace(puntos, knn);
+        assertEquals(39, enlace.getNumeroFusiones());
+        assertEquals(40, enlace.tamanioDe(enlace.getIdRaiz()));
+        assertEquals(enlace.getAltura(37), enlace.getAltura(38));
+        assertTrue(DatosClustering.mismaParticion(grupo, new CortadorDendrograma(enlace).cortarEnK(2)));
+    }
+
+    @Test
+    void grafoDeOtroTamanioSeRechaza() {
+        GrafoVecinos grafo = new ConstructorGrafoVecinos(new DistanciaEuclidiana(), 1)
+                .construirPorRadio(DatosClustering.puntosEnRecta(0, 1, 2), 5);
+        assertThrows(IllegalArgumentException.class,
+                () -> new MotorCluster().construirEnlace(grafo, new String[]{"a", "b"}));
+    }
+}
@@ -0,0 +1,123 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbolCFTest {
+
+    @Test
+    void umbralCeroUneSoloPuntosRepetidos() {
+        ArbolCF arbol = new ArbolCF(0.0);
+        arbol.agregarTodos(DatosClustering.puntosEnRecta(1, 2, 1, 3, 2, 1));
+
+        assertEquals(6, arbol.getNumeroPuntos());
+        assertEquals(3, arbol.getNumeroMicroClusters());
+        int[] asignaciones = arbol.getAsignaciones();
+        assertEquals(asignaciones[0], asignaciones[2]);
+        assertEquals(asignaciones[0], asignaciones[5]);
+        assertEquals(asignaciones[1], asignaciones[4]);
+        assertNotEquals(asignaciones[0], asignaciones[3]);
+        assertEquals(3, arbol.getConteos()[asignaciones[0]]);
+        assertEquals("p0 (+2)", arbol.getCentroides()[asignaciones[0]].getEtiqueta());
+    }
+
+    // cada centroide es la media de los puntos asignados y los conteos suman todos los puntos,
+    // tambien despues de reconstruir por pasarse del maximo de micro-clusters
+    @Test
+    void centroidesYConteosConsistentes() {
+        Vector[] puntos = DatosClustering.grupos(500, 4, 13);
+        ArbolCF arbol = new ArbolCF(0.05, 4, 4, 60);
+        arbol.agregarTodos(puntos);
+
+        assertTrue(arbol.getReconstrucciones() > 0);
+        assertTrue(arbol.getNumeroMicroClusters() <= 60);
+        assertTrue(arbol.getUmbral() > 0.05);
+
+        Vector[] centroides = arbol.getCentroides();
+        int[] conteos = arbol.getConteos();
+        int[] asignaciones = arbol.getAsignaciones();
+        assertEquals(arbol.getNumeroMicroClusters(), centroides.length);
+
+        double[][] sumas = new double[centroides.length][2];
+        int[] cuenta = new int[centroides.length];
+        for (int p = 0; p < puntos.length; p++) {
+            cuenta[asignaciones[p]]++;
+            sumas[asignaciones[p]][0] += puntos[p].getPosicion(0);
+            sumas[asignaciones[p]][1] += puntos[p].getPosicion(1);
+        }
+        int total = 0;
+        for (int c = 0; c < centroides.length; c++) {
+            assertEquals(conteos[c], cuenta[c]);
+            assertEquals(sumas[c][0] / cuenta[c], centroides[c].getPosicion(0), 1e-9);
+            assertEquals(sumas[c][1] / cuenta[c], centroides[c].getPosicion(1), 1e-9);
+            total += conteos[c];
+        }
+        assertEquals(puntos.length, total);
+    }
+
+    // grupos bien separados: el corte en 4 del enlace de micro-clusters los recupera
+    @Test
+    void agruparRecuperaLosGrupos() {
+        Vector[] puntos = DatosClustering.grupos(400, 4, 21);
+        ArbolCF arbol = new ArbolCF(0.5);
+        arbol.agregarTodos(puntos);
+
+        ArregloEnlace enlace = arbol.agrupar(new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO),
+                FactoryDistancia.TipoDistancia.EUCLIDIANA);
+        assertEquals(arbol.getNumeroMicroClusters(), enlace.getNumeroHojas());
+        // el tamanio cuenta hojas del enlace (micro-clusters), los pesos no
+        assertEquals(arbol.getNumeroMicroClusters(), enlace.tamanioDe(enlace.getIdRaiz()));
+
+        int[] corte = new CortadorDendrograma(enlace).cortarEnK(4);
+        int[] asignaciones = arbol.getAsignaciones();
+        int[] porPunto = new int[puntos.length];
+        int[] grupo = new int[puntos.length];
+        for (int p = 0; p < puntos.length; p++) {
+            porPunto[p] = corte[asignaciones[p]];
+            grupo[p] = p % 4;
+        }
+        assertTrue(DatosClustering.mismaParticion(grupo, porPunto));
+    }
+
+    // un centroide de peso 2 cuenta como dos puntos repetidos: 0 (x2), 3, 10 con enlace promedio
+    @Test
+    void enlacePonderadoIgualQueRepetirPuntos() {
+        FactoryDistancia.TipoDistancia euclidiana = FactoryDistancia.TipoDistancia.EUCLIDIANA;
+        MotorCluster motor = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO);
+
+        ArregloEnlace ponderado = motor.construirEnlace(DatosClustering.puntosEnRecta(0, 3, 10), euclidiana,
+                conPesos(new int[]{2, 1, 1}));
+        assertEquals(3.0, ponderado.getAltura(0), 1e-12);
+        assertEquals(9.0, ponderado.getAltura(1), 1e-12);
+
+        Vector[] puntos = DatosClustering.grupos(30, 3, 4);
+        int[] unos = new int[30];
+        Arrays.fill(unos, 1);
+        DatosClustering.assertMismoEnlace(motor.construirEnlace(puntos, euclidiana),
+                motor.construirEnlace(puntos, euclidiana, conPesos(unos)));
+    }
+
+    private static OpcionesEnlace conPesos(int[] pesos) {
+        OpcionesEnlace opciones = new OpcionesEnlace();
+        opciones.setPesos(pesos);
+        return opciones;
+    }
+
+    @Test
+    void validaciones() {
+        assertThrows(IllegalArgumentException.class, () -> new ArbolCF(-1));
+        assertThrows(IllegalArgumentException.class, () -> new ArbolCF(1, 1, 10, 10));
+        ArbolCF arbol = new ArbolCF(1);
+        assertThrows(IllegalStateException.class,
+                () -> arbol.agrupar(new MotorCluster(), FactoryDistancia.TipoDistancia.EUCLIDIANA));
+        arbol.agregar(new Vector(new double[]{1, 2}, "a"));
+        assertThrows(IllegalArgumentException.class, () -> arbol.agregar(new Vector(new double[]{1}, "b")));
+    }
+}
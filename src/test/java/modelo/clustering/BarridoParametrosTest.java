@@ -0,0 +1,151 @@
+package modelo.clustering;
+
+import modelo.datos.TransformadorDatos;
+import modelo.datos.VariableConfig;
+import modelo.distancias.CacheMatrices;
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.ListaDoble;
+import modelo.estructuras.TokenCancelacion;
+import modelo.estructuras.Vector;
+import modelo.normalizacion.FactoryNormalizacion;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BarridoParametrosTest {
+
+    private static final String[] COLUMNAS = {"x", "y"};
+
+    private static final FactoryNormalizacion.TipoNormalizacion[] NORMALIZACIONES = {
+            FactoryNormalizacion.TipoNormalizacion.MIN_MAX, FactoryNormalizacion.TipoNormalizacion.Z_SCORE};
+    private static final FactoryDistancia.TipoDistancia[] DISTANCIAS = {
+            FactoryDistancia.TipoDistancia.EUCLIDIANA, FactoryDistancia.TipoDistancia.MANHATTAN};
+    private static final MotorCluster.TipoEnlace[] ENLACES = {
+            MotorCluster.TipoEnlace.MINIMO, MotorCluster.TipoEnlace.PROMEDIO};
+
+    // cada combinacion da lo mismo que normalizar y agrupar por separado, en orden normalizacion, distancia, enlace
+    @Test
+    void cadaCombinacionIgualQueSuEjecucionDirecta() {
+        Vector[] puntos = DatosClustering.grupos(30, 3, 9);
+        BarridoParametros barrido = new BarridoParametros(puntos, COLUMNAS, configs("Ninguno"), null, null);
+        CacheMatrices cache = new CacheMatrices(1 << 20);
+        barrido.setCache(cache);
+
+        ResultadoBarrido[] resultados = barrido.ejecutar(NORMALIZACIONES, DISTANCIAS, ENLACES);
+        assertEquals(8, resultados.length);
+        assertEquals(4, cache.getNumeroMatrices());
+
+        int k = 0;
+        for (FactoryNormalizacion.TipoNormalizacion normalizacion : NORMALIZACIONES) {
+            Vector[] normalizados = new TransformadorDatos(configs(normalizacion.name()), COLUMNAS)
+                    .normalizarPorVariable(puntos);
+            for (FactoryDistancia.TipoDistancia distancia : DISTANCIAS) {
+                for (MotorCluster.TipoEnlace enlace : ENLACES) {
+                    ResultadoBarrido r = resultados[k++];
+                    assertEquals(normalizacion, r.getNormalizacion());
+                    assertEquals(distancia, r.getDistancia());
+                    assertEquals(enlace, r.getEnlace());
+
+                    ArregloEnlace esperado = new MotorCluster(enlace).construirEnlace(normalizados, distancia);
+                    DatosClustering.assertMismoEnlace(esperado, r.getArregloEnlace());
+                }
+            }
+        }
+
+        ResultadoBarrido mejor = BarridoParametros.mejor(resultados);
+        for (ResultadoBarrido r : resultados) {
+            assertTrue(r.getCorrelacionCofenetica() <= mejor.getCorrelacionCofenetica());
+        }
+    }
+
+    // una cache con lugar para una sola matriz: cada matriz se calcula una vez, la cache nunca pasa de su
+    // capacidad y los resultados no cambian
+    @Test
+    void cacheChicaNoCambiaLosResultados() {
+        Vector[] puntos = DatosClustering.grupos(30, 3, 9);
+        long bytesMatriz = 8L * 30 * 30;
+        CacheMatrices chica = new CacheMatrices(bytesMatriz + bytesMatriz / 2);
+        long[] reservados = new long[2];
+        chica.setPresupuesto(new CacheMatrices.Presupuesto() {
+            @Override
+            public synchronized boolean reservar(long bytes) {
+                reservados[0] += bytes;
+                reservados[1] = Math.max(reservados[1], reservados[0]);
+                return true;
+            }
+
+            @Override
+            public synchronized void liberar(long bytes) {
+                reservados[0] -= bytes;
+            }
+        });
+
+        BarridoParametros barrido = new BarridoParametros(puntos, COLUMNAS, configs("Ninguno"), null, null);
+        barrido.setCache(chica);
+        ResultadoBarrido[] conCache = barrido.ejecutar(NORMALIZACIONES, DISTANCIAS, ENLACES);
+
+        assertEquals(1, chica.getNumeroMatrices());
+        assertEquals(4, chica.getFallos());
+        assertEquals(bytesMatriz, reservados[1]);
+
+        ResultadoBarrido[] sinCache = new BarridoParametros(puntos, COLUMNAS, configs("Ninguno"), null, null)
+                .ejecutar(NORMALIZACIONES, DISTANCIAS, ENLACES);
+        assertEquals(sinCache.length, conCache.length);
+        for (int i = 0; i < sinCache.length; i++) {
+            DatosClustering.assertMismoEnlace(sinCache[i].getArregloEnlace(), conCache[i].getArregloEnlace());
+            assertEquals(sinCache[i].getCorrelacionCofenetica(), conCache[i].getCorrelacionCofenetica(), 1e-12);
+        }
+    }
+
+    @Test
+    void csvConUnaFilaPorCombinacion() throws Exception {
+        BarridoParametros barrido = new BarridoParametros(DatosClustering.grupos(12, 2, 1), COLUMNAS,
+                configs("Ninguno"), null, null);
+        StringWriter salida = new StringWriter();
+        BarridoParametros.escribirCSV(barrido.ejecutar(NORMALIZACIONES, DISTANCIAS, ENLACES), salida);
+
+        String[] lineas = salida.toString().split("\n");
+        assertEquals(9, lineas.length);
+        assertTrue(lineas[0].startsWith("normalizacion,distancia,enlace,correlacion_cofenetica"));
+        assertTrue(lineas[1].startsWith("MIN_MAX,EUCLIDIANA,MINIMO,"));
+        assertTrue(lineas[8].startsWith("Z_SCORE,MANHATTAN,PROMEDIO,"));
+    }
+
+    @Test
+    void barridoVacioSeRechaza() {
+        BarridoParametros barrido = new BarridoParametros(DatosClustering.grupos(5, 1, 1), COLUMNAS,
+                configs("Ninguno"), null, null);
+        assertThrows(IllegalArgumentException.class,
+                () -> barrido.ejecutar(NORMALIZACIONES, new FactoryDistancia.TipoDistancia[0], ENLACES));
+    }
+
+    // cancelado el barrido no devuelve resultados a medias ni deja matrices en la cache
+    @Test
+    void tokenCanceladoCortaElBarrido() {
+        BarridoParametros barrido = new BarridoParametros(DatosClustering.grupos(30, 3, 5), COLUMNAS,
+                configs("Ninguno"), null, null);
+        CacheMatrices cache = new CacheMatrices(1 << 20);
+        barrido.setCache(cache);
+        TokenCancelacion token = new TokenCancelacion();
+        token.cancelar("prueba");
+        barrido.setToken(token);
+
+        CancellationException e = assertThrows(CancellationException.class,
+                () -> barrido.ejecutar(NORMALIZACIONES, DISTANCIAS, ENLACES));
+        assertTrue(e.getMessage().contains("prueba"));
+        assertEquals(0, cache.getNumeroMatrices());
+        assertThrows(IllegalArgumentException.class, () -> barrido.setToken(null));
+    }
+
+    private static ListaDoble<VariableConfig> configs(String metodo) {
+        ListaDoble<VariableConfig> configs = new ListaDoble<>();
+        for (String columna : COLUMNAS) {
+            configs.agregar(new VariableConfig(columna, true, "Numérico", metodo));
+        }
+        return configs;
+    }
+}
@@ -0,0 +1,96 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.IndiceCofenetico;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.TokenCancelacion;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorrelacionCofeneticaTest {
+
+    // puntos 0, 1, 5, 6, 20: 10 pares, d y c a mano
+    @Test
+    void cincoPuntosEnRecta() {
+        double[] x = {0, 1, 5, 6, 20};
+        Matriz distancias = DatosClustering.matrizEnRecta(x);
+        ArregloEnlace enlace = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO)
+                .construirEnlace(DatosClustering.puntosEnRecta(x), FactoryDistancia.TipoDistancia.EUCLIDIANA);
+
+        double[] d = {1, 5, 6, 20, 4, 5, 19, 1, 15, 14};
+        double[] c = {1, 5, 5, 17, 5, 5, 17, 1, 17, 17};
+        assertEquals(pearson(d, c), CorrelacionCofenetica.calcular(distancias, enlace), 1e-12);
+    }
+
+    // suficientes pares para que el calculo se reparta en varios bloques
+    @Test
+    void coincideConPearsonDeTodosLosPares() {
+        Random azar = new Random(3);
+        Vector[] puntos = new Vector[400];
+        for (int i = 0; i < puntos.length; i++) {
+            puntos[i] = new Vector(new double[]{azar.nextGaussian(), azar.nextGaussian()}, "p" + i);
+        }
+        ArregloEnlace enlace = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO)
+                .construirEnlace(puntos, FactoryDistancia.TipoDistancia.EUCLIDIANA);
+        Matriz distancias = DatosClustering.matrizEuclidiana(puntos);
+
+        IndiceCofenetico indice = new IndiceCofenetico(enlace);
+        int n = puntos.length;
+        double[] d = new double[n * (n - 1) / 2];
+        double[] c = new double[d.length];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                d[k] = distancias.getPosicion(i, j);
+                c[k++] = indice.distanciaCofenetica(i, j);
+            }
+        }
+        assertEquals(pearson(d, c), CorrelacionCofenetica.calcular(distancias, enlace), 1e-9);
+    }
+
+    @Test
+    void casosBorde() {
+        ArregloEnlace dos = new ArregloEnlace(new String[]{"a", "b"}, new int[]{0}, new int[]{1},
+                new double[]{1}, new int[]{2});
+        assertTrue(Double.isNaN(CorrelacionCofenetica.calcular(DatosClustering.matrizEnRecta(0, 1), dos)));
+        assertThrows(IllegalArgumentException.class,
+                () -> CorrelacionCofenetica.calcular(DatosClustering.matrizEnRecta(0, 1, 2), dos));
+    }
+
+    @Test
+    void tokenCanceladoDetieneElCalculo() {
+        Vector[] puntos = DatosClustering.grupos(300, 3, 2);
+        Matriz distancias = DatosClustering.matrizEuclidiana(puntos);
+        ArregloEnlace enlace = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO)
+                .construirEnlace(puntos, FactoryDistancia.TipoDistancia.EUCLIDIANA);
+
+        TokenCancelacion token = new TokenCancelacion();
+        assertEquals(CorrelacionCofenetica.calcular(distancias, enlace),
+                CorrelacionCofenetica.calcular(distancias, enlace, token), 1e-12);
+        token.cancelar();
+        assertThrows(CancellationException.class, () -> CorrelacionCofenetica.calcular(distancias, enlace, token));
+    }
+
+    static double pearson(double[] x, double[] y) {
+        double mx = 0, my = 0;
+        for (int i = 0; i < x.length; i++) {
+            mx += x[i];
+            my += y[i];
+        }
+        mx /= x.length;
+        my /= y.length;
+        double sxy = 0, sxx = 0, syy = 0;
+        for (int i = 0; i < x.length; i++) {
+            sxy += (x[i] - mx) * (y[i] - my);
+            sxx += (x[i] - mx) * (x[i] - mx);
+            syy += (y[i] - my) * (y[i] - my);
+        }
+        return sxy / Math.sqrt(sxx * syy);
+    }
+}
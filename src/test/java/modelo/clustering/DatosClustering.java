@@ -0,0 +1,79 @@
+package modelo.clustering;
+
+import modelo.estructuras.IArbolEnlace;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.Vector;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// datos chicos y deterministicos para las pruebas de los motores
+final class DatosClustering {
+
+    private DatosClustering() {
+    }
+
+    static Vector[] puntosEnRecta(double... posiciones) {
+        Vector[] vectores = new Vector[posiciones.length];
+        for (int i = 0; i < posiciones.length; i++) {
+            vectores[i] = new Vector(new double[]{posiciones[i]}, "p" + i);
+        }
+        return vectores;
+    }
+
+    // puntos gaussianos en 2D alrededor de unos pocos centros separados
+    static Vector[] grupos(int n, int centros, long semilla) {
+        Random azar = new Random(semilla);
+        Vector[] vectores = new Vector[n];
+        for (int i = 0; i < n; i++) {
+            int c = i % centros;
+            vectores[i] = new Vector(new double[]{10.0 * c + azar.nextGaussian(), 5.0 * (c % 2) + azar.nextGaussian()},
+                    "p" + i);
+        }
+        return vectores;
+    }
+
+    static Matriz matrizEnRecta(double... posiciones) {
+        return matrizEuclidiana(puntosEnRecta(posiciones));
+    }
+
+    static Matriz matrizEuclidiana(Vector[] puntos) {
+        int n = puntos.length;
+        Matriz matriz = new Matriz(n);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double suma = 0.0;
+                for (int k = 0; k < puntos[i].dimension(); k++) {
+                    double diferencia = puntos[i].getPosicion(k) - puntos[j].getPosicion(k);
+                    suma += diferencia * diferencia;
+                }
+                matriz.setPosicion(i, j, Math.sqrt(suma));
+                matriz.setPosicion(j, i, Math.sqrt(suma));
+            }
+        }
+        return matriz;
+    }
+
+    // misma secuencia de fusiones, alturas con tolerancia relativa
+    static void assertMismoEnlace(IArbolEnlace esperado, IArbolEnlace real) {
+        assertEquals(esperado.getNumeroHojas(), real.getNumeroHojas());
+        for (int m = 0; m < esperado.getNumeroFusiones(); m++) {
+            assertEquals(esperado.getIzquierdo(m), real.getIzquierdo(m), "izquierdo de la fusion " + m);
+            assertEquals(esperado.getDerecho(m), real.getDerecho(m), "derecho de la fusion " + m);
+            assertEquals(esperado.getAltura(m), real.getAltura(m), 1e-9 * Math.max(1.0, Math.abs(esperado.getAltura(m))),
+                    "altura de la fusion " + m);
+            assertEquals(esperado.getTamanio(m), real.getTamanio(m), "tamanio de la fusion " + m);
+        }
+    }
+
+    // mismas parejas juntas y separadas, sin importar como se numeran los clusters
+    static boolean mismaParticion(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            for (int j = i + 1; j < a.length; j++) {
+                if ((a[i] == a[j]) != (b[i] == b[j])) return false;
+            }
+        }
+        return true;
+    }
+}
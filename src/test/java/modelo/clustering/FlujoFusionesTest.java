@@ -0,0 +1,153 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.TokenCancelacion;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlujoFusionesTest {
+
+    private static final FactoryDistancia.TipoDistancia EUCLIDIANA = FactoryDistancia.TipoDistancia.EUCLIDIANA;
+
+    @Test
+    void cortarIgualQueElCortador() {
+        Vector[] puntos = DatosClustering.grupos(40, 4, 3);
+        for (MotorCluster.TipoEnlace tipo : new MotorCluster.TipoEnlace[]{MotorCluster.TipoEnlace.MINIMO,
+                MotorCluster.TipoEnlace.MAXIMO, MotorCluster.TipoEnlace.PROMEDIO}) {
+            FlujoFusiones flujo = new FlujoFusiones();
+            ArregloEnlace enlace = new MotorCluster(tipo).construirEnlace(puntos, EUCLIDIANA, conFlujo(flujo));
+            assertTrue(flujo.isTerminado());
+
+            CortadorDendrograma cortador = new CortadorDendrograma(enlace);
+            for (int k = 1; k <= puntos.length; k++) {
+                assertTrue(DatosClustering.mismaParticion(cortador.cortarEnK(k), flujo.cortar(k)), tipo + " k=" + k);
+            }
+            for (int m = 0; m < enlace.getNumeroFusiones(); m++) {
+                assertEquals(enlace.getIzquierdo(m), flujo.getIzquierdo(m));
+                assertEquals(enlace.getDerecho(m), flujo.getDerecho(m));
+                assertEquals(enlace.getAltura(m), flujo.getAltura(m));
+            }
+        }
+    }
+
+    // lotes contiguos en orden, sin huecos ni repetidos, y el aviso final despues del ultimo
+    @Test
+    void lotesEnOrden() {
+        Vector[] puntos = DatosClustering.grupos(50, 3, 1);
+        FlujoFusiones flujo = new FlujoFusiones();
+        flujo.setEjecutor(Runnable::run);
+        flujo.setTamanioLote(7);
+        flujo.setIntervaloMinimo(60_000);
+        List<String> eventos = new ArrayList<>();
+        flujo.suscribir(new FlujoFusiones.OyenteFusiones() {
+            @Override
+            public void alPublicar(FlujoFusiones f, int desde, int hasta) {
+                eventos.add(desde + "-" + hasta);
+            }
+
+            @Override
+            public void alTerminar(FlujoFusiones f) {
+                eventos.add("fin");
+            }
+        });
+
+        new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO).construirEnlace(puntos, EUCLIDIANA, conFlujo(flujo));
+        assertEquals(List.of("0-7", "7-14", "14-21", "21-28", "28-35", "35-42", "42-49", "fin"), eventos);
+
+        // uno que llega tarde recibe todo junto
+        List<String> tarde = new ArrayList<>();
+        flujo.suscribir(new FlujoFusiones.OyenteFusiones() {
+            @Override
+            public void alPublicar(FlujoFusiones f, int desde, int hasta) {
+                tarde.add(desde + "-" + hasta);
+            }
+
+            @Override
+            public void alTerminar(FlujoFusiones f) {
+                tarde.add("fin");
+            }
+        });
+        assertEquals(List.of("0-49", "fin"), tarde);
+    }
+
+    @Test
+    void canceladoFallaElFlujo() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(30, 2, 7);
+        TokenCancelacion token = new TokenCancelacion();
+        FlujoFusiones flujo = new FlujoFusiones();
+        flujo.setEjecutor(Runnable::run);
+        flujo.setIntervaloMinimo(0);
+        List<Throwable> fallos = new ArrayList<>();
+        flujo.suscribir(new FlujoFusiones.OyenteFusiones() {
+            @Override
+            public void alPublicar(FlujoFusiones f, int desde, int hasta) {
+                if (hasta >= 20) token.cancelar();
+            }
+
+            @Override
+            public void alFallar(FlujoFusiones f, Throwable causa) {
+                fallos.add(causa);
+            }
+        });
+        CompletableFuture<int[]> alcanzable = flujo.corteCuandoEste(10);
+        CompletableFuture<int[]> inalcanzable = flujo.corteCuandoEste(5);
+
+        OpcionesEnlace opciones = conFlujo(flujo);
+        opciones.setToken(token);
+        assertThrows(CancellationException.class,
+                () -> new MotorCluster(MotorCluster.TipoEnlace.MAXIMO).construirEnlace(puntos, EUCLIDIANA, opciones));
+
+        assertTrue(flujo.isFallido());
+        assertInstanceOf(CancellationException.class, flujo.getCausa());
+        assertEquals(1, fallos.size());
+        assertEquals(20, flujo.getFusionesPublicadas());
+        // etiquetas 0..k-1 por hoja
+        assertEquals(9, Arrays.stream(alcanzable.get()).max().getAsInt());
+        // get no envuelve la CancellationException
+        assertThrows(CancellationException.class, inalcanzable::get);
+        assertTrue(inalcanzable.isCompletedExceptionally());
+    }
+
+    // el token corta tambien el calculo de la matriz, y el flujo se entera aunque no haya empezado
+    @Test
+    void canceladoAntesDeLaMatriz() {
+        TokenCancelacion token = new TokenCancelacion();
+        token.cancelar();
+        FlujoFusiones flujo = new FlujoFusiones();
+        OpcionesEnlace opciones = conFlujo(flujo);
+        opciones.setToken(token);
+
+        assertThrows(CancellationException.class, () -> new MotorCluster().construirEnlace(
+                DatosClustering.grupos(20, 2, 1), EUCLIDIANA, opciones));
+        assertTrue(flujo.isFallido());
+        assertEquals(0, flujo.getFusionesPublicadas());
+    }
+
+    @Test
+    void flujoDeUnSoloUso() {
+        Vector[] puntos = DatosClustering.puntosEnRecta(0, 1, 5);
+        FlujoFusiones flujo = new FlujoFusiones();
+        assertThrows(IllegalStateException.class, () -> flujo.cortar(1));
+        new MotorCluster().construirEnlace(puntos, EUCLIDIANA, conFlujo(flujo));
+        assertThrows(IllegalStateException.class,
+                () -> new MotorCluster().construirEnlace(puntos, EUCLIDIANA, conFlujo(flujo)));
+        assertThrows(IllegalArgumentException.class, () -> flujo.cortar(4));
+        assertThrows(IllegalArgumentException.class, () -> new OpcionesEnlace().setToken(null));
+    }
+
+    private static OpcionesEnlace conFlujo(FlujoFusiones flujo) {
+        OpcionesEnlace opciones = new OpcionesEnlace();
+        opciones.setFlujo(flujo);
+        return opciones;
+    }
+}
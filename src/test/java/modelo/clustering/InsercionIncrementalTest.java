@@ -0,0 +1,100 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InsercionIncrementalTest {
+
+    private static final FactoryDistancia.TipoDistancia EUCLIDIANA = FactoryDistancia.TipoDistancia.EUCLIDIANA;
+
+    // enlace simple: insertar por tandas da el mismo dendrograma que recalcular con todos
+    @Test
+    void minimoIgualQueReconstruir() {
+        Vector[] todos = aleatorios(200, 41);
+        MotorCluster motor = new MotorCluster(MotorCluster.TipoEnlace.MINIMO);
+        InsercionIncremental insercion = new InsercionIncremental(MotorCluster.TipoEnlace.MINIMO, EUCLIDIANA);
+
+        int n = 120;
+        ArregloEnlace enlace = motor.construirEnlace(Arrays.copyOf(todos, n), EUCLIDIANA);
+        for (int tanda : new int[]{1, 9, 30, 40}) {
+            Vector[] existentes = Arrays.copyOf(todos, n);
+            Vector[] nuevos = Arrays.copyOfRange(todos, n, n + tanda);
+            enlace = insercion.insertar(enlace, existentes, nuevos);
+            n += tanda;
+            assertFalse(insercion.isReconstruido());
+
+            ArregloEnlace esperado = motor.construirEnlace(Arrays.copyOf(todos, n), EUCLIDIANA);
+            for (int m = 0; m < esperado.getNumeroFusiones(); m++) {
+                assertEquals(esperado.getAltura(m), enlace.getAltura(m), 1e-12, "n=" + n + " fusion " + m);
+            }
+            CortadorDendrograma a = new CortadorDendrograma(esperado);
+            CortadorDendrograma b = new CortadorDendrograma(enlace);
+            for (int k = 1; k <= n; k += 5) {
+                assertTrue(DatosClustering.mismaParticion(a.cortarEnK(k), b.cortarEnK(k)), "n=" + n + " k=" + k);
+            }
+            assertEquals("p" + (n - 1), enlace.getEtiqueta(n - 1));
+        }
+    }
+
+    // pocos nuevos con enlace promedio: se cuelgan sin reconstruir y el arbol sigue completo
+    @Test
+    void promedioCuelgaLosNuevos() {
+        Vector[] todos = DatosClustering.grupos(105, 3, 6);
+        Vector[] existentes = Arrays.copyOf(todos, 100);
+        ArregloEnlace previo = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO).construirEnlace(existentes, EUCLIDIANA);
+
+        InsercionIncremental insercion = new InsercionIncremental(MotorCluster.TipoEnlace.PROMEDIO, EUCLIDIANA);
+        ArregloEnlace enlace = insercion.insertar(previo, existentes, Arrays.copyOfRange(todos, 100, 105));
+
+        assertFalse(insercion.isReconstruido());
+        assertEquals(105, enlace.getNumeroHojas());
+        assertEquals(105, enlace.tamanioDe(enlace.getIdRaiz()));
+        assertTrue(insercion.getDerivaMaxima() >= 0.0);
+
+        // los grupos estan separados: el nuevo termina en el grupo de sus vecinos
+        int[] corte = new CortadorDendrograma(enlace).cortarEnK(3);
+        for (int i = 100; i < 105; i++) {
+            assertEquals(corte[i % 3], corte[i], "punto " + i);
+        }
+    }
+
+    @Test
+    void muchosNuevosReconstruyen() {
+        Vector[] todos = DatosClustering.grupos(60, 2, 3);
+        Vector[] existentes = Arrays.copyOf(todos, 40);
+        MotorCluster motor = new MotorCluster(MotorCluster.TipoEnlace.MAXIMO);
+        InsercionIncremental insercion = new InsercionIncremental(MotorCluster.TipoEnlace.MAXIMO, EUCLIDIANA);
+
+        ArregloEnlace enlace = insercion.insertar(motor.construirEnlace(existentes, EUCLIDIANA), existentes,
+                Arrays.copyOfRange(todos, 40, 60));
+        assertTrue(insercion.isReconstruido());
+        DatosClustering.assertMismoEnlace(motor.construirEnlace(todos, EUCLIDIANA), enlace);
+    }
+
+    @Test
+    void sinNuevosDevuelveElPrevio() {
+        Vector[] existentes = DatosClustering.puntosEnRecta(0, 1, 5);
+        ArregloEnlace previo = new MotorCluster().construirEnlace(existentes, EUCLIDIANA);
+        InsercionIncremental insercion = new InsercionIncremental(MotorCluster.TipoEnlace.PROMEDIO, EUCLIDIANA);
+        assertSame(previo, insercion.insertar(previo, existentes, new Vector[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> insercion.insertar(previo, DatosClustering.puntosEnRecta(0, 1), new Vector[0]));
+    }
+
+    private static Vector[] aleatorios(int n, long semilla) {
+        Random azar = new Random(semilla);
+        Vector[] vectores = new Vector[n];
+        for (int i = 0; i < n; i++) {
+            vectores[i] = new Vector(new double[]{azar.nextDouble(), azar.nextDouble()}, "p" + i);
+        }
+        return vectores;
+    }
+}
@@ -0,0 +1,64 @@
+package modelo.clustering;
+
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorBiseccionTest {
+
+    // 0, 1 | 10, 12: la raiz parte todo (SSE 112.75), despues cada par (0.5 y 2)
+    @Test
+    void alturasSonElSSEDelClusterQueSeParte() {
+        ArregloEnlace enlace = new MotorBiseccion().construirEnlace(DatosClustering.puntosEnRecta(0, 1, 10, 12));
+
+        assertEquals(112.75, enlace.alturaDe(enlace.getIdRaiz()), 1e-9);
+        assertEquals(0.5, enlace.getAltura(0), 1e-9);
+        assertEquals(2.0, enlace.getAltura(1), 1e-9);
+        assertArrayEquals(new int[]{0, 0, 1, 1}, new CortadorDendrograma(enlace).cortarEnK(2));
+    }
+
+    @Test
+    void recuperaGruposSeparados() {
+        Vector[] puntos = DatosClustering.grupos(2000, 4, 17);
+        ArregloEnlace enlace = new MotorBiseccion(10, 256, 7L).construirEnlace(puntos);
+
+        assertEquals(2000, enlace.getNumeroHojas());
+        int[] grupo = new int[puntos.length];
+        for (int p = 0; p < puntos.length; p++) grupo[p] = p % 4;
+        assertTrue(DatosClustering.mismaParticion(grupo, new CortadorDendrograma(enlace).cortarEnK(4)));
+
+        // las alturas son monotonas: ningun hijo por encima de su padre
+        for (int m = 0; m < enlace.getNumeroFusiones(); m++) {
+            int id = enlace.getNumeroHojas() + m;
+            assertTrue(enlace.alturaDe(enlace.hijoIzquierdo(id)) <= enlace.getAltura(m));
+            assertTrue(enlace.alturaDe(enlace.hijoDerecho(id)) <= enlace.getAltura(m));
+        }
+    }
+
+    @Test
+    void mismaSemillaMismoResultadoConCualquierPool() {
+        Vector[] puntos = DatosClustering.grupos(3000, 5, 3);
+        ArregloEnlace comun = new MotorBiseccion(5, 128, 11L).construirEnlace(puntos);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            DatosClustering.assertMismoEnlace(comun, new MotorBiseccion(5, 128, 11L).construirEnlace(puntos, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void casosBorde() {
+        assertEquals(0, new MotorBiseccion().construirEnlace(DatosClustering.puntosEnRecta(4)).getNumeroFusiones());
+        ArregloEnlace iguales = new MotorBiseccion().construirEnlace(DatosClustering.puntosEnRecta(2, 2, 2));
+        assertEquals(2, iguales.getNumeroFusiones());
+        assertEquals(0.0, iguales.alturaDe(iguales.getIdRaiz()));
+        assertThrows(IllegalArgumentException.class, () -> new MotorBiseccion().construirEnlace(new Vector[0]));
+        assertThrows(IllegalArgumentException.class, () -> new MotorBiseccion(0, 10, 1L));
+    }
+}
@@ -0,0 +1,63 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorBoruvkaTest {
+
+    // sin empates (coordenadas continuas) el dendrograma es el mismo que el de MotorCluster con MINIMO:
+    // mismas alturas en orden y la misma particion en cada k
+    @Test
+    void igualQueEnlaceMinimo() {
+        Random azar = new Random(23);
+        Vector[] puntos = new Vector[300];
+        for (int i = 0; i < puntos.length; i++) {
+            puntos[i] = new Vector(new double[]{azar.nextDouble(), azar.nextDouble(), azar.nextDouble()}, "p" + i);
+        }
+
+        for (FactoryDistancia.TipoDistancia tipo : new FactoryDistancia.TipoDistancia[]{
+                FactoryDistancia.TipoDistancia.EUCLIDIANA, FactoryDistancia.TipoDistancia.MANHATTAN}) {
+            ArregloEnlace esperado = new MotorCluster(MotorCluster.TipoEnlace.MINIMO).construirEnlace(puntos, tipo);
+            ArregloEnlace boruvka = new MotorBoruvka().construirEnlace(puntos, tipo);
+
+            for (int m = 0; m < esperado.getNumeroFusiones(); m++) {
+                assertEquals(esperado.getAltura(m), boruvka.getAltura(m), 1e-12, tipo + " fusion " + m);
+            }
+            CortadorDendrograma a = new CortadorDendrograma(esperado);
+            CortadorDendrograma b = new CortadorDendrograma(boruvka);
+            for (int k = 1; k <= puntos.length; k += 7) {
+                assertTrue(DatosClustering.mismaParticion(a.cortarEnK(k), b.cortarEnK(k)), tipo + " k=" + k);
+            }
+        }
+    }
+
+    // puntos 0, 1, 5, 6, 20: alturas de enlace simple 1, 1, 4, 14
+    @Test
+    void cincoPuntosEnRecta() {
+        ArregloEnlace enlace = new MotorBoruvka().construirEnlace(DatosClustering.puntosEnRecta(0, 1, 5, 6, 20),
+                FactoryDistancia.TipoDistancia.EUCLIDIANA);
+        assertEquals(1.0, enlace.getAltura(0));
+        assertEquals(1.0, enlace.getAltura(1));
+        assertEquals(4.0, enlace.getAltura(2));
+        assertEquals(14.0, enlace.getAltura(3));
+        assertEquals(5, enlace.tamanioDe(enlace.getIdRaiz()));
+    }
+
+    @Test
+    void casosBorde() {
+        assertEquals(0, new MotorBoruvka().construirEnlace(DatosClustering.puntosEnRecta(3),
+                FactoryDistancia.TipoDistancia.EUCLIDIANA).getNumeroFusiones());
+        ArregloEnlace repetidos = new MotorBoruvka().construirEnlace(DatosClustering.puntosEnRecta(2, 2, 2, 2),
+                FactoryDistancia.TipoDistancia.EUCLIDIANA);
+        assertEquals(0.0, repetidos.alturaDe(repetidos.getIdRaiz()));
+        assertThrows(IllegalArgumentException.class, () -> new MotorBoruvka().construirEnlace(
+                DatosClustering.puntosEnRecta(0, 1), FactoryDistancia.TipoDistancia.COSENO));
+    }
+}
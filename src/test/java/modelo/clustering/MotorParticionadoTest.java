@@ -0,0 +1,116 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorParticionadoTest {
+
+    private static final FactoryDistancia.TipoDistancia EUCLIDIANA = FactoryDistancia.TipoDistancia.EUCLIDIANA;
+
+    // con una sola particion es el motor exacto
+    @Test
+    void unaParticionIgualQueMotorCluster() {
+        Vector[] puntos = DatosClustering.grupos(80, 3, 8);
+        for (MotorCluster.TipoEnlace tipo : new MotorCluster.TipoEnlace[]{
+                MotorCluster.TipoEnlace.MINIMO, MotorCluster.TipoEnlace.MAXIMO, MotorCluster.TipoEnlace.PROMEDIO}) {
+            DatosClustering.assertMismoEnlace(new MotorCluster(tipo).construirEnlace(puntos, EUCLIDIANA),
+                    new MotorParticionado(1, tipo).construirEnlace(puntos, EUCLIDIANA));
+        }
+    }
+
+    // grupos separados y un bloque por grupo: el corte en 4 los recupera con las dos particiones
+    @Test
+    void recuperaGruposSeparados() {
+        Vector[] puntos = DatosClustering.grupos(600, 4, 19);
+        int[] grupo = new int[puntos.length];
+        for (int p = 0; p < puntos.length; p++) grupo[p] = p % 4;
+
+        MotorParticionado motor = new MotorParticionado(4, MotorCluster.TipoEnlace.PROMEDIO);
+        ArregloEnlace enlace = motor.construirEnlace(puntos, EUCLIDIANA);
+        assertEquals(600, enlace.getNumeroHojas());
+        assertEquals(600, enlace.tamanioDe(enlace.getIdRaiz()));
+        assertTrue(DatosClustering.mismaParticion(grupo, new CortadorDendrograma(enlace).cortarEnK(4)));
+    }
+
+    @Test
+    void proyeccionCubreTodasLasHojas() {
+        Vector[] puntos = DatosClustering.grupos(301, 3, 2);
+        MotorParticionado motor = new MotorParticionado(7, MotorCluster.TipoEnlace.MAXIMO);
+        motor.setParticion(MotorParticionado.Particion.PROYECCION);
+        ArregloEnlace enlace = motor.construirEnlace(puntos, EUCLIDIANA);
+
+        assertEquals(301, enlace.getNumeroHojas());
+        boolean[] vista = new boolean[301];
+        for (int hoja : enlace.ordenHojas()) {
+            assertFalse(vista[hoja]);
+            vista[hoja] = true;
+        }
+        for (int m = 1; m < enlace.getNumeroFusiones(); m++) {
+            assertTrue(enlace.getAltura(m - 1) <= enlace.getAltura(m));
+        }
+    }
+
+    @Test
+    void masParticionesQuePuntos() {
+        ArregloEnlace enlace = new MotorParticionado(10, MotorCluster.TipoEnlace.PROMEDIO)
+                .construirEnlace(DatosClustering.puntosEnRecta(0, 1, 5), EUCLIDIANA);
+        assertEquals(2, enlace.getNumeroFusiones());
+        assertThrows(IllegalArgumentException.class, () -> new MotorParticionado(0, MotorCluster.TipoEnlace.MINIMO));
+    }
+
+    // con una sola particion la aproximacion es el arbol exacto: no hay brecha
+    @Test
+    void brechaNulaConUnaParticion() {
+        Vector[] puntos = DatosClustering.grupos(120, 3, 5);
+        BrechaAproximacion brecha = new MotorParticionado(1, MotorCluster.TipoEnlace.PROMEDIO)
+                .medirBrecha(puntos, EUCLIDIANA, 50, 3);
+
+        assertEquals(50, brecha.getTamanioMuestra());
+        assertEquals(1, brecha.getParticiones());
+        assertEquals(3, brecha.getK());
+        assertEquals(brecha.getCorrelacionExacta(), brecha.getCorrelacionAproximada(), 1e-12);
+        assertEquals(0.0, brecha.getBrechaCorrelacion(), 1e-12);
+        assertEquals(1.0, brecha.getRandAjustado(), 1e-12);
+    }
+
+    @Test
+    void brechaEnGruposSeparados() {
+        Vector[] puntos = DatosClustering.grupos(400, 4, 23);
+        BrechaAproximacion brecha = new MotorParticionado(4, MotorCluster.TipoEnlace.PROMEDIO)
+                .medirBrecha(puntos, EUCLIDIANA, 200, 4);
+
+        assertEquals(200, brecha.getTamanioMuestra());
+        assertEquals(4, brecha.getParticiones());
+        assertEquals(1.0, brecha.getRandAjustado(), 1e-12);
+        assertTrue(brecha.getCorrelacionAproximada() > 0.0);
+    }
+
+    // la muestra no pasa de los vectores que hay, ni k de la muestra
+    @Test
+    void muestraAcotadaPorLosVectores() {
+        Vector[] puntos = DatosClustering.grupos(20, 2, 1);
+        BrechaAproximacion brecha = new MotorParticionado(3, MotorCluster.TipoEnlace.MAXIMO)
+                .medirBrecha(puntos, EUCLIDIANA, 1000, 50);
+        assertEquals(20, brecha.getTamanioMuestra());
+        assertEquals(20, brecha.getK());
+
+        MotorParticionado motor = new MotorParticionado(2, MotorCluster.TipoEnlace.MAXIMO);
+        assertThrows(IllegalArgumentException.class,
+                () -> motor.medirBrecha(DatosClustering.puntosEnRecta(0, 1), EUCLIDIANA, 10, 2));
+        assertThrows(IllegalArgumentException.class, () -> motor.medirBrecha(null, EUCLIDIANA, 10, 2));
+    }
+
+    // valores conocidos (los mismos que da sklearn.metrics.adjusted_rand_score)
+    @Test
+    void randAjustadoConocido() {
+        assertEquals(1.0, MotorParticionado.randAjustado(new int[]{0, 0, 1, 1}, new int[]{1, 1, 0, 0}, 2), 1e-12);
+        assertEquals(-0.5, MotorParticionado.randAjustado(new int[]{0, 0, 1, 1}, new int[]{0, 1, 0, 1}, 2), 1e-12);
+        assertEquals(8.0 / 33.0, MotorParticionado.randAjustado(new int[]{0, 0, 0, 1, 1, 1},
+                new int[]{0, 0, 1, 1, 2, 2}, 3), 1e-12);
+    }
+}
@@ -0,0 +1,180 @@
+package modelo.clustering;
+
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.Matriz;
+import modelo.estructuras.TokenCancelacion;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuntoControlTest {
+
+    private static final MotorCluster.TipoEnlace PROMEDIO = MotorCluster.TipoEnlace.PROMEDIO;
+
+    @TempDir
+    Path directorio;
+
+    // cortado a mitad y retomado da el mismo enlace, bit a bit, que una ejecucion de corrido
+    @Test
+    void retomarIgualQueSinInterrumpir() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(60, 3, 12);
+        MotorCluster motor = new MotorCluster(PROMEDIO);
+        ArregloEnlace esperado = motor.construirEnlace(DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos));
+
+        Path ruta = directorio.resolve("corrida.pctl");
+        interrumpir(motor, puntos, ruta, 25);
+        assertEquals(PuntoControl.TAMANIO_CABECERA + 25 * 16, Files.size(ruta));
+
+        PuntoControl punto = nuevoPunto(ruta);
+        ArregloEnlace retomado = motor.construirEnlace(DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos),
+                conPunto(punto));
+        assertEquals(25, punto.getFusionesRetomadas());
+        assertMismoExacto(esperado, retomado);
+        assertFalse(Files.exists(ruta));
+    }
+
+    @Test
+    void registroIncompletoSeDescarta() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(40, 2, 5);
+        MotorCluster motor = new MotorCluster(PROMEDIO);
+        ArregloEnlace esperado = motor.construirEnlace(DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos));
+
+        Path ruta = directorio.resolve("corrida.pctl");
+        interrumpir(motor, puntos, ruta, 10);
+        // la JVM murio escribiendo el registro siguiente
+        Files.write(ruta, new byte[7], StandardOpenOption.APPEND);
+
+        PuntoControl punto = nuevoPunto(ruta);
+        ArregloEnlace retomado = motor.construirEnlace(DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos),
+                conPunto(punto));
+        assertEquals(10, punto.getFusionesRetomadas());
+        assertMismoExacto(esperado, retomado);
+    }
+
+    @Test
+    void otroProblemaEmpiezaDeCero() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(40, 2, 5);
+        Vector[] otros = DatosClustering.grupos(40, 2, 6);
+        MotorCluster motor = new MotorCluster(PROMEDIO);
+
+        Path ruta = directorio.resolve("corrida.pctl");
+        interrumpir(motor, puntos, ruta, 10);
+
+        PuntoControl punto = nuevoPunto(ruta);
+        ArregloEnlace enlace = motor.construirEnlace(DatosClustering.matrizEuclidiana(otros), etiquetas(otros),
+                conPunto(punto));
+        assertEquals(0, punto.getFusionesRetomadas());
+        assertMismoExacto(motor.construirEnlace(DatosClustering.matrizEuclidiana(otros), etiquetas(otros)), enlace);
+
+        // el mismo problema con otro enlace tampoco sirve
+        interrumpir(motor, puntos, ruta, 10);
+        PuntoControl maximo = nuevoPunto(ruta);
+        new MotorCluster(MotorCluster.TipoEnlace.MAXIMO).construirEnlace(DatosClustering.matrizEuclidiana(puntos),
+                etiquetas(puntos), conPunto(maximo));
+        assertEquals(0, maximo.getFusionesRetomadas());
+    }
+
+    // una fusion que une un slot ya absorbido no se repite: se empieza de cero
+    @Test
+    void registroDaniadoEmpiezaDeCero() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(30, 2, 9);
+        MotorCluster motor = new MotorCluster(PROMEDIO);
+        Path ruta = directorio.resolve("corrida.pctl");
+        interrumpir(motor, puntos, ruta, 5);
+
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+            ByteBuffer registro = ByteBuffer.allocate(8).putInt(3).putInt(3);
+            registro.flip();
+            canal.write(registro, PuntoControl.TAMANIO_CABECERA + 16);
+        }
+
+        PuntoControl punto = nuevoPunto(ruta);
+        ArregloEnlace enlace = motor.construirEnlace(DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos),
+                conPunto(punto));
+        assertEquals(0, punto.getFusionesRetomadas());
+        assertMismoExacto(motor.construirEnlace(DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos)), enlace);
+    }
+
+    @Test
+    void unPuntoPorEjecucion() throws IOException {
+        Vector[] puntos = DatosClustering.grupos(10, 2, 1);
+        Matriz matriz = DatosClustering.matrizEuclidiana(puntos);
+        PuntoControl punto = nuevoPunto(directorio.resolve("uno.pctl"));
+        MotorCluster motor = new MotorCluster(PROMEDIO);
+
+        punto.retomar(1L, PROMEDIO, matriz, nuevoFusionador(puntos), new ActualizadorMatrizDistancias(
+                ActualizadorMatrizDistancias.TipoEnlace.PROMEDIO));
+        assertThrows(IllegalStateException.class,
+                () -> motor.construirEnlace(DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos),
+                        conPunto(punto)));
+        // el intento fallido no libera el punto de la primera ejecucion
+        assertThrows(IllegalStateException.class,
+                () -> motor.construirEnlace(DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos),
+                        conPunto(punto)));
+        punto.cerrar(true);
+        assertThrows(IllegalArgumentException.class, () -> new PuntoControl(""));
+        assertThrows(IllegalArgumentException.class, () -> punto.setFraccionMaxima(0.0));
+    }
+
+    // corre hasta publicar la fusion numero fusiones y cancela; el punto de control queda en disco
+    private static void interrumpir(MotorCluster motor, Vector[] puntos, Path ruta, int fusiones) {
+        TokenCancelacion token = new TokenCancelacion();
+        FlujoFusiones flujo = new FlujoFusiones();
+        flujo.setEjecutor(Runnable::run);
+        flujo.setIntervaloMinimo(0);
+        flujo.suscribir((f, desde, hasta) -> {
+            if (hasta >= fusiones) token.cancelar();
+        });
+        OpcionesEnlace opciones = conPunto(nuevoPunto(ruta));
+        opciones.setToken(token);
+        opciones.setFlujo(flujo);
+        assertThrows(CancellationException.class, () -> motor.construirEnlace(
+                DatosClustering.matrizEuclidiana(puntos), etiquetas(puntos), opciones));
+        assertEquals(fusiones, flujo.getFusionesPublicadas());
+    }
+
+    private static PuntoControl nuevoPunto(Path ruta) {
+        PuntoControl punto = new PuntoControl(ruta.toString());
+        punto.setEjecutor(Runnable::run);
+        punto.setIntervaloMinimo(0);
+        return punto;
+    }
+
+    private static OpcionesEnlace conPunto(PuntoControl punto) {
+        OpcionesEnlace opciones = new OpcionesEnlace();
+        opciones.setPuntoControl(punto);
+        return opciones;
+    }
+
+    private static FusionadorCluster nuevoFusionador(Vector[] puntos) {
+        FusionadorCluster fusionador = new FusionadorCluster();
+        fusionador.inicializar(etiquetas(puntos), null);
+        return fusionador;
+    }
+
+    private static String[] etiquetas(Vector[] puntos) {
+        String[] etiquetas = new String[puntos.length];
+        for (int i = 0; i < puntos.length; i++) etiquetas[i] = puntos[i].getEtiqueta();
+        return etiquetas;
+    }
+
+    private static void assertMismoExacto(ArregloEnlace esperado, ArregloEnlace real) {
+        assertEquals(esperado.getNumeroFusiones(), real.getNumeroFusiones());
+        for (int m = 0; m < esperado.getNumeroFusiones(); m++) {
+            assertEquals(esperado.getIzquierdo(m), real.getIzquierdo(m), "fusion " + m);
+            assertEquals(esperado.getDerecho(m), real.getDerecho(m), "fusion " + m);
+            assertEquals(Double.doubleToLongBits(esperado.getAltura(m)), Double.doubleToLongBits(real.getAltura(m)),
+                    "fusion " + m);
+        }
+    }
+}
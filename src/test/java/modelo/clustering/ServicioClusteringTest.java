@@ -0,0 +1,192 @@
+package modelo.clustering;
+
+import modelo.distancias.CacheMatrices;
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.TokenCancelacion;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServicioClusteringTest {
+
+    private static final FactoryDistancia.TipoDistancia EUCLIDIANA = FactoryDistancia.TipoDistancia.EUCLIDIANA;
+
+    @Test
+    void resultadoIgualAlMotorDirecto() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(40, 3, 5);
+        try (ServicioClustering servicio = new ServicioClustering(2, 4, 1 << 20)) {
+            ResultadoClustering resultado = servicio.enviar(
+                    new SolicitudClustering(puntos, EUCLIDIANA, MotorCluster.TipoEnlace.MAXIMO)).get(10, TimeUnit.SECONDS);
+
+            ArregloEnlace esperado = new MotorCluster(MotorCluster.TipoEnlace.MAXIMO).construirEnlace(puntos, EUCLIDIANA);
+            DatosClustering.assertMismoEnlace(esperado, resultado.getEnlace());
+            assertEquals(CorrelacionCofenetica.calcular(DatosClustering.matrizEuclidiana(puntos), esperado),
+                    resultado.getCorrelacionCofenetica(), 1e-12);
+            assertEquals(MotorCluster.TipoEnlace.MAXIMO, resultado.getTipoEnlace());
+            assertEquals(1 << 20, servicio.getMemoriaDisponible());
+        }
+    }
+
+    // un hilo ocupado por un oyente que no suelta, una plaza en la cola: el tercer trabajo se rechaza
+    @Test
+    void colaLlenaRechaza() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(20, 2, 1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        FlujoFusiones bloqueante = flujoBloqueante(ocupado, soltar);
+
+        try (ServicioClustering servicio = new ServicioClustering(1, 1, 1 << 20)) {
+            SolicitudClustering solicitud = new SolicitudClustering(puntos, EUCLIDIANA, MotorCluster.TipoEnlace.PROMEDIO);
+            CompletableFuture<ResultadoClustering> primero = servicio.enviar(solicitud, new TokenCancelacion(), bloqueante);
+            assertTrue(ocupado.await(10, TimeUnit.SECONDS));
+
+            CompletableFuture<ResultadoClustering> segundo = servicio.enviar(solicitud);
+            assertEquals(1, servicio.getTrabajosEnCola());
+            assertThrows(RejectedExecutionException.class, () -> servicio.enviar(solicitud));
+
+            soltar.countDown();
+            assertEquals(19, primero.get(10, TimeUnit.SECONDS).getEnlace().getNumeroFusiones());
+            assertEquals(19, segundo.get(10, TimeUnit.SECONDS).getEnlace().getNumeroFusiones());
+        }
+    }
+
+    @Test
+    void canceladoEnLaColaNoCorre() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(20, 2, 2);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+
+        try (ServicioClustering servicio = new ServicioClustering(1, 2, 1 << 20)) {
+            SolicitudClustering solicitud = new SolicitudClustering(puntos, EUCLIDIANA, MotorCluster.TipoEnlace.PROMEDIO);
+            CompletableFuture<ResultadoClustering> primero = servicio.enviar(solicitud, new TokenCancelacion(),
+                    flujoBloqueante(ocupado, soltar));
+            assertTrue(ocupado.await(10, TimeUnit.SECONDS));
+
+            FlujoFusiones flujo = new FlujoFusiones();
+            CompletableFuture<ResultadoClustering> encolado = servicio.enviar(solicitud, new TokenCancelacion(), flujo);
+            encolado.cancel(true);
+            soltar.countDown();
+            primero.get(10, TimeUnit.SECONDS);
+
+            servicio.close();
+            while (servicio.getTrabajosActivos() > 0 || servicio.getTrabajosEnCola() > 0) Thread.sleep(5);
+            assertTrue(flujo.isFallido());
+            assertInstanceOf(CancellationException.class, flujo.getCausa());
+            assertEquals(0, flujo.getFusionesPublicadas());
+        }
+    }
+
+    // 30 KB: el trabajo de 20 puntos reserva 8 KB y deja su matriz (4 KB) en cache; el de 40 necesita
+    // 28 KB, solo alcanza expulsando esa matriz, y la suya no entra mientras el mismo ocupa la memoria
+    @Test
+    void cacheSeCobraDelPresupuesto() throws Exception {
+        CacheMatrices cache = new CacheMatrices(1 << 20);
+        try (ServicioClustering servicio = new ServicioClustering(1, 2, 30 * 1024, cache)) {
+            servicio.enviar(new SolicitudClustering(DatosClustering.grupos(20, 2, 6), EUCLIDIANA,
+                    MotorCluster.TipoEnlace.PROMEDIO)).get(10, TimeUnit.SECONDS);
+            assertEquals(1, cache.getNumeroMatrices());
+            assertEquals(26 * 1024, servicio.getMemoriaDisponible());
+
+            servicio.enviar(new SolicitudClustering(DatosClustering.grupos(40, 2, 7), EUCLIDIANA,
+                    MotorCluster.TipoEnlace.PROMEDIO)).get(10, TimeUnit.SECONDS);
+            assertEquals(0, cache.getNumeroMatrices());
+            assertEquals(30 * 1024, servicio.getMemoriaDisponible());
+        }
+        assertThrows(IllegalStateException.class, () -> new ServicioClustering(1, 1, 1 << 20, cache));
+    }
+
+    @Test
+    void trabajoMasGrandeQueLaMemoria() {
+        try (ServicioClustering servicio = new ServicioClustering(1, 1, 4096)) {
+            SolicitudClustering grande = new SolicitudClustering(DatosClustering.grupos(100, 2, 3), EUCLIDIANA,
+                    MotorCluster.TipoEnlace.PROMEDIO);
+            assertThrows(IllegalArgumentException.class, () -> servicio.enviar(grande));
+        }
+    }
+
+    @Test
+    void tokenCanceladoFallaElFuturo() {
+        try (ServicioClustering servicio = new ServicioClustering(1, 1, 1 << 20)) {
+            TokenCancelacion token = new TokenCancelacion();
+            token.cancelar();
+            CompletableFuture<ResultadoClustering> futuro = servicio.enviar(
+                    new SolicitudClustering(DatosClustering.grupos(20, 2, 4), EUCLIDIANA, MotorCluster.TipoEnlace.PROMEDIO),
+                    token);
+            // get no envuelve la CancellationException
+            assertThrows(CancellationException.class, () -> futuro.get(10, TimeUnit.SECONDS));
+            assertTrue(futuro.isCompletedExceptionally());
+        }
+    }
+
+    // el plazo de la solicitud corre desde el envio, con la espera en la cola, y no cancela el token del llamador
+    @Test
+    void plazoDeLaSolicitudConTokenPropio() throws Exception {
+        Vector[] puntos = DatosClustering.grupos(20, 2, 5);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+
+        try (ServicioClustering servicio = new ServicioClustering(1, 2, 1 << 20)) {
+            SolicitudClustering solicitud = new SolicitudClustering(puntos, EUCLIDIANA, MotorCluster.TipoEnlace.PROMEDIO);
+            CompletableFuture<ResultadoClustering> primero = servicio.enviar(solicitud, new TokenCancelacion(),
+                    flujoBloqueante(ocupado, soltar));
+            assertTrue(ocupado.await(10, TimeUnit.SECONDS));
+
+            TokenCancelacion token = new TokenCancelacion();
+            CompletableFuture<ResultadoClustering> conPlazo = servicio.enviar(
+                    new SolicitudClustering(puntos, EUCLIDIANA, MotorCluster.TipoEnlace.PROMEDIO, 20), token);
+            Thread.sleep(40);
+            soltar.countDown();
+
+            primero.get(10, TimeUnit.SECONDS);
+            CancellationException e = assertThrows(CancellationException.class,
+                    () -> conPlazo.get(10, TimeUnit.SECONDS));
+            assertEquals("Plazo vencido", e.getMessage());
+            assertFalse(token.isCancelado());
+
+            // el token del llamador sigue mandando sobre el trabajo con plazo
+            token.cancelar();
+            CompletableFuture<ResultadoClustering> cancelado = servicio.enviar(
+                    new SolicitudClustering(puntos, EUCLIDIANA, MotorCluster.TipoEnlace.PROMEDIO, 60_000), token);
+            assertThrows(CancellationException.class, () -> cancelado.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    // sincronico: si la cancelacion llega antes del motor el flujo tambien falla
+    @Test
+    void ejecutarCanceladoFallaElFlujo() {
+        try (ServicioClustering servicio = new ServicioClustering(1, 1, 1 << 20)) {
+            TokenCancelacion token = new TokenCancelacion();
+            token.cancelar();
+            FlujoFusiones flujo = new FlujoFusiones();
+            SolicitudClustering solicitud = new SolicitudClustering(DatosClustering.grupos(20, 2, 4), EUCLIDIANA,
+                    MotorCluster.TipoEnlace.PROMEDIO);
+            assertThrows(CancellationException.class, () -> servicio.ejecutar(solicitud, token, flujo));
+            assertTrue(flujo.isFallido());
+            assertInstanceOf(CancellationException.class, flujo.getCausa());
+        }
+    }
+
+    // entrega en el hilo del motor y se queda en la primera fusion hasta que se suelte
+    static FlujoFusiones flujoBloqueante(CountDownLatch ocupado, CountDownLatch soltar) {
+        FlujoFusiones flujo = new FlujoFusiones();
+        flujo.setEjecutor(Runnable::run);
+        flujo.setIntervaloMinimo(0);
+        flujo.suscribir((f, desde, hasta) -> {
+            ocupado.countDown();
+            try {
+                soltar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return flujo;
+    }
+}
@@ -0,0 +1,121 @@
+package modelo.clustering;
+
+import modelo.distancias.FactoryDistancia;
+import modelo.estructuras.ArregloEnlace;
+import modelo.estructuras.CortadorDendrograma;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VentanaDeslizanteTest {
+
+    private static final FactoryDistancia.TipoDistancia EUCLIDIANA = FactoryDistancia.TipoDistancia.EUCLIDIANA;
+
+    // enlace simple: despues de cada evento el arbol es el mismo que recalcular sobre la ventana
+    @Test
+    void minimoIgualQueReconstruir() {
+        Vector[] flujo = aleatorios(90, 17);
+        VentanaDeslizante ventana = new VentanaDeslizante(25, MotorCluster.TipoEnlace.MINIMO, EUCLIDIANA);
+        MotorCluster motor = new MotorCluster(MotorCluster.TipoEnlace.MINIMO);
+
+        for (int i = 0; i < flujo.length; i++) {
+            ventana.agregar(flujo[i]);
+            if (i < 3 || i % 7 != 0) continue;
+            assertMismoArbol(motor.construirEnlace(ventana.getVectores(), EUCLIDIANA), ventana.getEnlace(), "i=" + i);
+        }
+
+        // desalojar sin agregar tambien deja el arbol exacto
+        for (int k = 0; k < 10; k++) ventana.desalojar();
+        assertEquals(15, ventana.getTamanio());
+        assertMismoArbol(motor.construirEnlace(ventana.getVectores(), EUCLIDIANA), ventana.getEnlace(), "desalojo");
+        assertEquals(100, ventana.getEventos());
+    }
+
+    // con otros enlaces el arbol es aproximado, pero una reconstruccion completa lo deja exacto
+    @Test
+    void promedioExactoDespuesDeReconstruir() {
+        Vector[] flujo = DatosClustering.grupos(70, 3, 8);
+        VentanaDeslizante ventana = new VentanaDeslizante(30, MotorCluster.TipoEnlace.PROMEDIO, EUCLIDIANA);
+        ventana.setIntervaloReconstruccion(0);
+        ventana.setTamanioLocal(4);
+        ventana.agregarTodos(flujo);
+        assertEquals(30, ventana.getTamanio());
+        assertEquals(0, ventana.getReconstrucciones());
+
+        ArregloEnlace aproximado = ventana.getEnlace();
+        assertEquals(30, aproximado.tamanioDe(aproximado.getIdRaiz()));
+
+        ventana.reconstruir();
+        assertEquals(1, ventana.getReconstrucciones());
+        MotorCluster motor = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO);
+        assertMismoArbol(motor.construirEnlace(ventana.getVectores(), EUCLIDIANA), ventana.getEnlace(), "reconstruido");
+    }
+
+    @Test
+    void guardaLosUltimosEnOrdenDeLlegada() {
+        Vector[] flujo = DatosClustering.puntosEnRecta(0, 1, 2, 3, 4, 5, 6);
+        VentanaDeslizante ventana = new VentanaDeslizante(4, MotorCluster.TipoEnlace.MAXIMO, EUCLIDIANA);
+        for (Vector v : flujo) ventana.agregar(v);
+
+        Vector[] dentro = ventana.getVectores();
+        assertEquals(4, dentro.length);
+        for (int k = 0; k < 4; k++) assertSame(flujo[3 + k], dentro[k]);
+        assertEquals("p3", ventana.getEnlace().getEtiqueta(0));
+
+        assertSame(flujo[3], ventana.desalojar());
+        assertEquals(3, ventana.getTamanio());
+        // quedan 4, 5 y 6: una fusion a distancia 1 y, con enlace maximo, la raiz a 2
+        ArregloEnlace enlace = ventana.getEnlace();
+        assertEquals(1.0, enlace.getAltura(0), 1e-12);
+        assertEquals(2.0, enlace.getAltura(1), 1e-12);
+    }
+
+    @Test
+    void entradasInvalidas() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new VentanaDeslizante(1, MotorCluster.TipoEnlace.MINIMO, EUCLIDIANA));
+        assertThrows(IllegalArgumentException.class, () -> new VentanaDeslizante(5, null, EUCLIDIANA));
+
+        VentanaDeslizante ventana = new VentanaDeslizante(5, MotorCluster.TipoEnlace.MINIMO, EUCLIDIANA);
+        assertThrows(IllegalStateException.class, ventana::desalojar);
+        assertThrows(IllegalStateException.class, ventana::getEnlace);
+        ventana.agregar(new Vector(new double[]{1.0, 2.0}, "a"));
+        assertThrows(IllegalArgumentException.class, () -> ventana.agregar(new Vector(new double[]{1.0}, "b")));
+        assertThrows(IllegalArgumentException.class, () -> ventana.agregar(null));
+        assertThrows(IllegalArgumentException.class, () -> ventana.setTamanioLocal(1));
+    }
+
+    // mismas alturas y mismas particiones en cada k; la numeracion de las fusiones puede diferir en empates
+    private static void assertMismoArbol(ArregloEnlace esperado, ArregloEnlace real, String caso) {
+        int n = esperado.getNumeroHojas();
+        assertEquals(n, real.getNumeroHojas(), caso);
+        double[] a = new double[n - 1];
+        double[] b = new double[n - 1];
+        for (int m = 0; m < n - 1; m++) {
+            a[m] = esperado.getAltura(m);
+            b[m] = real.getAltura(m);
+        }
+        Arrays.sort(a);
+        Arrays.sort(b);
+        assertArrayEquals(a, b, 1e-9, caso);
+
+        CortadorDendrograma ce = new CortadorDendrograma(esperado);
+        CortadorDendrograma cr = new CortadorDendrograma(real);
+        for (int k = 1; k <= n; k++) {
+            assertTrue(DatosClustering.mismaParticion(ce.cortarEnK(k), cr.cortarEnK(k)), caso + " k=" + k);
+        }
+    }
+
+    private static Vector[] aleatorios(int n, long semilla) {
+        Random azar = new Random(semilla);
+        Vector[] vectores = new Vector[n];
+        for (int i = 0; i < n; i++) {
+            vectores[i] = new Vector(new double[]{azar.nextDouble(), azar.nextDouble()}, "p" + i);
+        }
+        return vectores;
+    }
+}
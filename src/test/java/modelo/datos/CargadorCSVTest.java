@@ -0,0 +1,71 @@
+package modelo.datos;
+
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CargadorCSVTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void anexarIgualQueCargarTodo() throws Exception {
+        Path ruta = DatosPrueba.escribir(directorio, 6);
+        CargadorCSV cargador = new CargadorCSV();
+        cargador.cargar(ruta.toString(), 0);
+        DatosPrueba.anexar(ruta, 6, 9);
+        Vector[] nuevos = cargador.anexarNuevasFilas();
+        assertEquals(3, nuevos.length);
+
+        CargadorCSV completo = new CargadorCSV();
+        completo.cargar(ruta.toString(), 0);
+        Vector[] esperados = completo.getVectores();
+        Vector[] obtenidos = cargador.getVectores();
+        assertEquals(esperados.length, obtenidos.length);
+        for (int i = 0; i < esperados.length; i++) {
+            for (int d = 0; d < esperados[i].dimension(); d++) {
+                assertEquals(esperados[i].getPosicion(d), obtenidos[i].getPosicion(d), 1e-12, "fila " + i);
+            }
+        }
+    }
+
+    @Test
+    void conLimiteSinCambiosNoHayNuevas() throws Exception {
+        Path ruta = DatosPrueba.escribir(directorio, 10);
+        CargadorCSV cargador = new CargadorCSV();
+        cargador.cargar(ruta.toString(), 3);
+
+        assertEquals(0, cargador.anexarNuevasFilas().length);
+        assertEquals(3, cargador.getNumeroFilas());
+
+        DatosPrueba.anexar(ruta, 10, 11);
+        assertEquals(1, cargador.anexarNuevasFilas().length);
+        assertEquals(4, cargador.getNumeroFilas());
+    }
+
+    @Test
+    void recargaCompletaRespetaElLimite() throws Exception {
+        Path ruta = DatosPrueba.escribir(directorio, 10);
+        CargadorCSV cargador = new CargadorCSV();
+        cargador.cargar(ruta.toString(), 3);
+
+        // un idioma que no estaba cambia el one-hot y obliga a recargar
+        String desconocida = DatosPrueba.fila(10).replace(",fr,t,o,", ",de,t,o,");
+        Files.writeString(ruta, desconocida + "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        assertNull(cargador.anexarNuevasFilas());
+        assertEquals(3, cargador.getNumeroFilas());
+        assertEquals(3, cargador.getVectores().length);
+
+        DatosPrueba.anexar(ruta, 11, 12);
+        assertEquals(1, cargador.anexarNuevasFilas().length);
+        assertEquals(4, cargador.getNumeroFilas());
+    }
+}
@@ -0,0 +1,53 @@
+package modelo.datos;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// CSV pequenio con las columnas del dataset de peliculas, deterministico por numero de fila
+// las categorias y fechas se repiten cada 3 filas, asi cualquier carga de 3 o mas filas ya las conoce todas
+final class DatosPrueba {
+
+    static final String ENCABEZADO = "index,budget,genres,homepage,id,keywords,original_language,original_title,"
+            + "overview,popularity,production_companies,production_countries,release_date,revenue,runtime,"
+            + "spoken_languages,status,tagline,title,vote_average,vote_count,cast,crew,director";
+
+    private static final String[] GENEROS = {"Action", "Drama Comedy", "Science Fiction Horror Drama"};
+    private static final String[] IDIOMAS = {"en", "fr", "es"};
+    private static final String[] ESTUDIOS = {"Lucasfilm", "Pixar", "Fox"};
+
+    private DatosPrueba() {
+    }
+
+    static String fila(int i) {
+        int r = i % 3;
+        return i + "," + (1000 * (i + 1)) + "," + GENEROS[r] + ",," + i + ",kw" + (i % 5) + " kw" + ((i + 1) % 5)
+                + "," + IDIOMAS[r] + ",t,o," + (1.5 * i + 0.25)
+                + ",\"[{\"\"name\"\": \"\"" + ESTUDIOS[r] + "\"\", \"\"id\"\": " + i + "}]\""
+                + ",\"[{\"\"iso\"\": \"\"US\"\", \"\"name\"\": \"\"United States\"\"}]\""
+                + ",2000-01-0" + (r + 1) + "," + (5000 * i) + "," + (90 + i) + ",\"[{\"\"name\"\": \"\"English\"\"}]\""
+                + ",Released,,Movie " + i + "," + (5.0 + r) + "," + (100 + i) + ",Actor" + (i % 4) + " Actor" + r
+                + ",[],Dir";
+    }
+
+    // filas desde..hasta-1, cada una terminada en salto de linea
+    static String filas(int desde, int hasta) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = desde; i < hasta; i++) {
+            sb.append(fila(i)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static Path escribir(Path directorio, int filas) throws IOException {
+        Path ruta = directorio.resolve("peliculas.csv");
+        Files.writeString(ruta, ENCABEZADO + "\n" + filas(0, filas), StandardCharsets.UTF_8);
+        return ruta;
+    }
+
+    static void anexar(Path ruta, int desde, int hasta) throws IOException {
+        Files.writeString(ruta, filas(desde, hasta), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,76 @@
+package modelo.datos;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodificadorCamposTest {
+
+    @Test
+    void parsearDoubleCoincideConParseDouble() {
+        String[] casos = {"0", "-0", "42", "+7", "3.14159", "-0.001", "1e10", "2.5E-3", "123456789012345678",
+                "0.1", "9007199254740993", "  12.5  ", "1.7976931348623157e308"};
+        for (String caso : casos) {
+            assertEquals(Double.parseDouble(caso.trim()), DecodificadorCampos.parsearDouble(caso, 0, caso.length()),
+                    "valor " + caso);
+        }
+    }
+
+    @Test
+    void parsearDoubleInvalidoEsNaN() {
+        for (String caso : new String[]{"", "   ", "abc", "1.2.3", "-", "1e", "12x"}) {
+            assertTrue(Double.isNaN(DecodificadorCampos.parsearDouble(caso, 0, caso.length())), "valor " + caso);
+        }
+    }
+
+    @Test
+    void parsearDoubleSobreUnRango() {
+        String linea = "id,150.75,x";
+        assertEquals(150.75, DecodificadorCampos.parsearDouble(linea, 3, 9));
+    }
+
+    @Test
+    void diaEpocaCoincideConLocalDate() {
+        for (String fecha : new String[]{"1970-01-01", "1999-12-31", "2000-02-29", "2024-03-01", "1895-06-15"}) {
+            assertEquals(LocalDate.parse(fecha).toEpochDay(), DecodificadorCampos.diaEpoca(fecha), fecha);
+        }
+    }
+
+    @Test
+    void diaEpocaAjustaDiaFueraDelMes() {
+        assertEquals(LocalDate.of(2023, 2, 28).toEpochDay(), DecodificadorCampos.diaEpoca("2023-02-30"));
+    }
+
+    @Test
+    void diaEpocaInvalida() {
+        for (String fecha : new String[]{"", "2020-13-01", "2020/01/01", "20-01-01", "abcd-ef-gh"}) {
+            assertEquals(DecodificadorCampos.FECHA_INVALIDA, DecodificadorCampos.diaEpoca(fecha), fecha);
+        }
+        assertEquals(DecodificadorCampos.FECHA_INVALIDA, DecodificadorCampos.diaEpoca(null));
+    }
+
+    @Test
+    void contarTokensIgualQueSplit() {
+        for (String texto : new String[]{"a b c", "drama, comedy", " inicio", "uno", "a,,b  c"}) {
+            assertEquals(texto.split("[,\\s]+").length, DecodificadorCampos.contarTokens(texto, 0, texto.length()),
+                    texto);
+        }
+    }
+
+    @Test
+    void contarObjetosJsonIgnoraLlavesEnCadenas() {
+        String json = "[{\"id\": 1, \"name\": \"a{b}\"}, {\"id\": 2, \"sub\": {\"x\": 1}}]";
+        assertEquals(2, DecodificadorCampos.contarObjetosJson(json, 0, json.length()));
+        assertEquals(0, DecodificadorCampos.contarObjetosJson("[]", 0, 2));
+    }
+
+    @Test
+    void esNulo() {
+        assertTrue(DecodificadorCampos.esNulo(""));
+        assertTrue(DecodificadorCampos.esNulo("  null "));
+        assertTrue(DecodificadorCampos.esNulo(null));
+        assertFalse(DecodificadorCampos.esNulo("nulo"));
+    }
+}
@@ -0,0 +1,75 @@
+package modelo.datos;
+
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiHotTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void activarCambiaLaDimensionYDesactivarLaRestaura() throws Exception {
+        CargadorCSV cargador = new CargadorCSV();
+        cargador.cargar(DatosPrueba.escribir(directorio, 6).toString(), 0);
+        int base = cargador.getDimensiones();
+        assertEquals(base, cargador.getVectores()[0].dimension());
+
+        cargador.activarMultiHot("genres", 8);
+        assertEquals(base + 7, cargador.getDimensiones());
+        assertEquals(base + 7, cargador.getVectores()[0].dimension());
+        assertTrue(Arrays.asList(cargador.getNombresDimensiones()).contains("genres_h7"));
+
+        cargador.desactivarMultiHot("genres");
+        assertEquals(base, cargador.getVectores()[0].dimension());
+    }
+
+    @Test
+    void cubetasActivasPorElemento() throws Exception {
+        CargadorCSV cargador = new CargadorCSV();
+        cargador.cargar(DatosPrueba.escribir(directorio, 6).toString(), 0);
+        cargador.activarMultiHot("genres", 64);
+
+        String[] nombres = cargador.getNombresDimensiones();
+        int primera = Arrays.asList(nombres).indexOf("genres_h0");
+        Vector[] vectores = cargador.getVectores();
+
+        // fila 0: un genero, fila 1: dos, fila 2: cuatro tokens; las filas 0 y 3 son iguales
+        assertEquals(1, activas(vectores[0], primera, 64));
+        assertTrue(activas(vectores[1], primera, 64) >= 1 && activas(vectores[1], primera, 64) <= 2);
+        assertTrue(activas(vectores[2], primera, 64) <= 4);
+        for (int k = 0; k < 64; k++) {
+            assertEquals(vectores[0].getPosicion(primera + k), vectores[3].getPosicion(primera + k));
+        }
+    }
+
+    @Test
+    void columnasLista() {
+        CargadorCSV cargador = new CargadorCSV();
+        assertEquals(Arrays.asList("genres", "keywords", "cast", "production_companies", "production_countries",
+                "spoken_languages"), Arrays.asList(cargador.getColumnasLista()));
+    }
+
+    @Test
+    void columnaSinListaSeRechaza() throws Exception {
+        CargadorCSV cargador = new CargadorCSV();
+        cargador.cargar(DatosPrueba.escribir(directorio, 3).toString(), 0);
+        assertThrows(IllegalArgumentException.class, () -> cargador.activarMultiHot("budget", 8));
+    }
+
+    private static int activas(Vector v, int desde, int cubetas) {
+        int total = 0;
+        for (int k = 0; k < cubetas; k++) {
+            double valor = v.getPosicion(desde + k);
+            assertTrue(valor == 0.0 || valor == 1.0);
+            if (valor == 1.0) total++;
+        }
+        return total;
+    }
+}
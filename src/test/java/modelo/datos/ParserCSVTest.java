@@ -0,0 +1,116 @@
+package modelo.datos;
+
+import modelo.estructuras.IDiccionario;
+import modelo.estructuras.ListaDoble;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserCSVTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void anexarLeeSoloLoAgregado() throws Exception {
+        Path ruta = DatosPrueba.escribir(directorio, 4);
+        ParserCSV parser = new ParserCSV();
+        parser.parsear(ruta.toString(), 0);
+        assertEquals(4, parser.getNumeroFilas());
+
+        assertEquals(0, parser.parsearNuevas(ruta.toString()).tamanio());
+
+        DatosPrueba.anexar(ruta, 4, 7);
+        ListaDoble<IDiccionario<String, String>> nuevas = parser.parsearNuevas(ruta.toString());
+        assertEquals(3, nuevas.tamanio());
+        assertEquals("4", nuevas.obtener(0).obtener("index"));
+        assertEquals("6", nuevas.obtener(2).obtener("index"));
+        assertEquals(7, parser.getNumeroFilas());
+        assertEquals(Files.size(ruta), parser.getBytesLeidos());
+    }
+
+    @Test
+    void conLimiteLasFilasSalteadasNoSonNuevas() throws Exception {
+        Path ruta = DatosPrueba.escribir(directorio, 10);
+        ParserCSV parser = new ParserCSV();
+        parser.parsear(ruta.toString(), 3);
+        assertEquals(3, parser.getNumeroFilas());
+        assertEquals(3, parser.getLimite());
+        assertEquals(Files.size(ruta), parser.getBytesLeidos());
+
+        assertEquals(0, parser.parsearNuevas(ruta.toString()).tamanio());
+
+        DatosPrueba.anexar(ruta, 10, 12);
+        ListaDoble<IDiccionario<String, String>> nuevas = parser.parsearNuevas(ruta.toString());
+        assertEquals(2, nuevas.tamanio());
+        assertEquals("10", nuevas.obtener(0).obtener("index"));
+        assertEquals("11", nuevas.obtener(1).obtener("index"));
+        assertEquals(5, parser.getNumeroFilas());
+    }
+
+    @Test
+    void lineaIncompletaEsperaAlSalto() throws Exception {
+        Path ruta = DatosPrueba.escribir(directorio, 2);
+        ParserCSV parser = new ParserCSV();
+        parser.parsear(ruta.toString(), 0);
+
+        String fila = DatosPrueba.fila(2);
+        int corte = fila.length() / 2;
+        Files.writeString(ruta, fila.substring(0, corte), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        assertEquals(0, parser.parsearNuevas(ruta.toString()).tamanio());
+
+        Files.writeString(ruta, fila.substring(corte) + "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        ListaDoble<IDiccionario<String, String>> nuevas = parser.parsearNuevas(ruta.toString());
+        assertEquals(1, nuevas.tamanio());
+        assertEquals("Movie 2", nuevas.obtener(0).obtener("title"));
+    }
+
+    @Test
+    void archivoAcortadoOConOtroEncabezadoFalla() throws Exception {
+        Path ruta = DatosPrueba.escribir(directorio, 5);
+        ParserCSV parser = new ParserCSV();
+        parser.parsear(ruta.toString(), 0);
+
+        DatosPrueba.escribir(directorio, 3);
+        assertThrows(IOException.class, () -> parser.parsearNuevas(ruta.toString()));
+
+        parser.parsear(ruta.toString(), 0);
+        Files.writeString(ruta, "a,b\n" + DatosPrueba.filas(0, 8), StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> parser.parsearNuevas(ruta.toString()));
+    }
+
+    @Test
+    void lineasLeidasSiguenEntreAnexos() throws Exception {
+        Path ruta = directorio.resolve("peliculas.csv");
+        Files.writeString(ruta, DatosPrueba.ENCABEZADO + "\n" + DatosPrueba.filas(0, 2) + "\n"
+                + DatosPrueba.filas(2, 6), StandardCharsets.UTF_8);
+        ParserCSV parser = new ParserCSV();
+
+        // la linea en blanco cuenta aunque no sea fila
+        parser.parsear(ruta.toString(), 0);
+        assertEquals(6, parser.getNumeroFilas());
+        assertEquals(7, parser.getLineasLeidas());
+
+        // con limite se cuentan tambien las lineas salteadas
+        parser.parsear(ruta.toString(), 2);
+        assertEquals(2, parser.getNumeroFilas());
+        assertEquals(7, parser.getLineasLeidas());
+
+        Files.writeString(ruta, "\n" + DatosPrueba.filas(6, 8), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        assertEquals(2, parser.parsearNuevas(ruta.toString()).tamanio());
+        assertEquals(10, parser.getLineasLeidas());
+    }
+
+    @Test
+    void anexarSinCargarFalla() {
+        ParserCSV parser = new ParserCSV();
+        assertThrows(IllegalStateException.class, () -> parser.parsearNuevas("no-existe.csv"));
+    }
+}
@@ -0,0 +1,83 @@
+package modelo.datos;
+
+import modelo.estructuras.Diccionario;
+import modelo.estructuras.IDiccionario;
+import modelo.estructuras.ListaDoble;
+import modelo.estructuras.Vector;
+import modelo.normalizacion.EstadisticasColumnas;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransformadorDatosTest {
+
+    @TempDir
+    Path directorio;
+
+    // 1000 filas se reparten en varias hojas del fork/join; cada fila sola pasa por una hoja secuencial
+    @Test
+    void enParaleloIgualQueFilaPorFila() throws Exception {
+        ParserCSV parser = new ParserCSV();
+        parser.parsear(DatosPrueba.escribir(directorio, 1000).toString(), 0);
+        ListaDoble<IDiccionario<String, String>> filas = parser.getFilas();
+        TransformadorDatos transformador = transformador(parser);
+
+        Vector[] todos = transformador.transformar(filas);
+        EstadisticasColumnas catalogo = transformador.getEstadisticas();
+        assertEquals(1000, todos.length);
+
+        for (int i = 0; i < todos.length; i += 37) {
+            ListaDoble<IDiccionario<String, String>> una = new ListaDoble<>();
+            una.agregar(filas.obtener(i));
+            Vector solo = transformador.transformar(una)[0];
+            assertEquals("Movie " + i, todos[i].getEtiqueta());
+            assertEquals(solo.getEtiqueta(), todos[i].getEtiqueta());
+            assertArrayEquals(solo.getDatos(), todos[i].getDatos(), "fila " + i);
+        }
+
+        // el catalogo combinado de las hojas coincide con recorrer los vectores
+        for (int d = 0; d < catalogo.getDimension(); d++) {
+            double minimo = Double.POSITIVE_INFINITY;
+            double maximo = Double.NEGATIVE_INFINITY;
+            double suma = 0.0;
+            for (Vector v : todos) {
+                minimo = Math.min(minimo, v.getPosicion(d));
+                maximo = Math.max(maximo, v.getPosicion(d));
+                suma += v.getPosicion(d);
+            }
+            if (catalogo.getNulos(d) == 0) {
+                assertEquals(1000, catalogo.getConteo(d));
+                assertEquals(minimo, catalogo.getMinimo(d));
+                assertEquals(maximo, catalogo.getMaximo(d));
+                assertEquals(suma / todos.length, catalogo.getMedia(d), 1e-9 * Math.max(1.0, Math.abs(maximo)));
+            }
+        }
+    }
+
+    @Test
+    void filaSinTituloSeDescarta() throws Exception {
+        ParserCSV parser = new ParserCSV();
+        parser.parsear(DatosPrueba.escribir(directorio, 5).toString(), 0);
+        TransformadorDatos transformador = transformador(parser);
+
+        ListaDoble<IDiccionario<String, String>> filas = parser.getFilas();
+        IDiccionario<String, String> sinTitulo = new Diccionario<>();
+        sinTitulo.poner("budget", "10");
+        filas.agregar(sinTitulo);
+        assertEquals(5, transformador.transformar(filas).length);
+    }
+
+    private static TransformadorDatos transformador(ParserCSV parser) throws IOException {
+        ConfiguradorColumnas configurador = new ConfiguradorColumnas();
+        configurador.construirIndices(parser.getEncabezados());
+        ExtractorCategorias categorias = new ExtractorCategorias();
+        categorias.extraer(parser.getFilas(), configurador.getColumnasCategoricas());
+        NormalizadorFecha fechas = new NormalizadorFecha();
+        fechas.extraerRango(parser.getFilas(), configurador.getColumnaFecha());
+        return new TransformadorDatos(configurador, categorias, fechas);
+    }
+}
@@ -0,0 +1,127 @@
+package modelo.distancias;
+
+import modelo.estructuras.Matriz;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheMatricesTest {
+
+    private static final FactoryDistancia.TipoDistancia EUCLIDIANA = FactoryDistancia.TipoDistancia.EUCLIDIANA;
+
+    @Test
+    void huellaDependeDelContenidoYLaDistancia() {
+        Vector[] a = puntos(10, 0.0);
+        assertEquals(HuellaMatriz.de(a, EUCLIDIANA), HuellaMatriz.de(puntos(10, 0.0), EUCLIDIANA));
+        assertEquals(HuellaMatriz.de(a, EUCLIDIANA).hashCode(), HuellaMatriz.de(puntos(10, 0.0), EUCLIDIANA).hashCode());
+        assertNotEquals(HuellaMatriz.de(a, EUCLIDIANA), HuellaMatriz.de(a, FactoryDistancia.TipoDistancia.MANHATTAN));
+        assertNotEquals(HuellaMatriz.de(a, EUCLIDIANA), HuellaMatriz.de(puntos(10, 0.5), EUCLIDIANA));
+
+        Vector[] renombrados = puntos(10, 0.0);
+        renombrados[3] = new Vector(new double[]{3.0, 9.0}, "otro");
+        assertNotEquals(HuellaMatriz.de(a, EUCLIDIANA), HuellaMatriz.de(renombrados, EUCLIDIANA));
+        assertEquals(800, HuellaMatriz.de(a, EUCLIDIANA).bytesMatriz());
+    }
+
+    @Test
+    void aciertoDevuelveLaMismaMatriz() {
+        CacheMatrices cache = new CacheMatrices(1 << 20);
+        Matriz primera = cache.obtenerOCalcular(puntos(10, 0.0), EUCLIDIANA);
+        Matriz segunda = cache.obtenerOCalcular(puntos(10, 0.0), EUCLIDIANA);
+        assertSame(primera, segunda);
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+        assertEquals(Math.sqrt(1 + 9), primera.getPosicion(0, 1), 1e-12);
+    }
+
+    // capacidad para dos matrices de 800 bytes: la tercera expulsa la menos usada
+    @Test
+    void expulsaLaMenosUsada() {
+        CacheMatrices cache = new CacheMatrices(2000);
+        cache.obtenerOCalcular(puntos(10, 0.0), EUCLIDIANA);
+        cache.obtenerOCalcular(puntos(10, 1.0), EUCLIDIANA);
+        cache.obtenerOCalcular(puntos(10, 0.0), EUCLIDIANA);
+        cache.obtenerOCalcular(puntos(10, 2.0), EUCLIDIANA);
+
+        assertEquals(2, cache.getNumeroMatrices());
+        assertEquals(1600, cache.getBytesOcupados());
+        assertNotNull(cache.obtener(HuellaMatriz.de(puntos(10, 0.0), EUCLIDIANA)));
+        assertNull(cache.obtener(HuellaMatriz.de(puntos(10, 1.0), EUCLIDIANA)));
+
+        CacheMatrices chica = new CacheMatrices(500);
+        chica.obtenerOCalcular(puntos(10, 0.0), EUCLIDIANA);
+        assertEquals(0, chica.getNumeroMatrices());
+    }
+
+    @Test
+    void presupuestoSeCobraYSeDevuelve() {
+        long[] reservados = {0};
+        long[] limite = {1000};
+        CacheMatrices cache = new CacheMatrices(1 << 20);
+        cache.setPresupuesto(new CacheMatrices.Presupuesto() {
+            @Override
+            public boolean reservar(long bytes) {
+                if (reservados[0] + bytes > limite[0]) return false;
+                reservados[0] += bytes;
+                return true;
+            }
+
+            @Override
+            public void liberar(long bytes) {
+                reservados[0] -= bytes;
+            }
+        });
+
+        cache.obtenerOCalcular(puntos(10, 0.0), EUCLIDIANA);
+        assertEquals(800, reservados[0]);
+
+        // no entra con la primera: se expulsa y queda la nueva
+        cache.obtenerOCalcular(puntos(10, 1.0), EUCLIDIANA);
+        assertEquals(800, reservados[0]);
+        assertEquals(1, cache.getNumeroMatrices());
+        assertNotNull(cache.obtener(HuellaMatriz.de(puntos(10, 1.0), EUCLIDIANA)));
+
+        // el presupuesto lo usa otro: no se guarda
+        limite[0] = 0;
+        cache.limpiar();
+        assertEquals(0, reservados[0]);
+        cache.obtenerOCalcular(puntos(10, 2.0), EUCLIDIANA);
+        assertEquals(0, cache.getNumeroMatrices());
+        assertEquals(0, reservados[0]);
+
+        assertThrows(IllegalStateException.class, () -> cache.setPresupuesto(new Contador()));
+    }
+
+    @Test
+    void presupuestoSoloConLaCacheVacia() {
+        CacheMatrices cache = new CacheMatrices(1 << 20);
+        cache.obtenerOCalcular(puntos(10, 0.0), EUCLIDIANA);
+        assertThrows(IllegalStateException.class, () -> cache.setPresupuesto(new Contador()));
+        assertThrows(IllegalArgumentException.class, () -> new CacheMatrices(0).setPresupuesto(null));
+    }
+
+    private static class Contador implements CacheMatrices.Presupuesto {
+        long reservados;
+
+        @Override
+        public boolean reservar(long bytes) {
+            reservados += bytes;
+            return true;
+        }
+
+        @Override
+        public void liberar(long bytes) {
+            reservados -= bytes;
+        }
+    }
+
+    // punto i en (i + desplazamiento, 3i)
+    private static Vector[] puntos(int n, double desplazamiento) {
+        Vector[] vectores = new Vector[n];
+        for (int i = 0; i < n; i++) {
+            vectores[i] = new Vector(new double[]{i + desplazamiento, 3.0 * i}, "v" + i);
+        }
+        return vectores;
+    }
+}
@@ -0,0 +1,112 @@
+package modelo.distancias;
+
+import modelo.estructuras.GrafoVecinos;
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstructorGrafoVecinosTest {
+
+    @TempDir
+    Path directorio;
+
+    // recall medido aparte, contra los k vecinos exactos de cada punto
+    @Test
+    void nnDescentTieneRecallAlto() {
+        Vector[] puntos = aleatorios(1500, 4, 31);
+        ConstructorGrafoVecinos constructor = new ConstructorGrafoVecinos(new DistanciaEuclidiana(), 10);
+        GrafoVecinos grafo = constructor.construir(puntos);
+
+        assertEquals(1500, grafo.getNumeroNodos());
+        DistanciaEuclidiana distancia = new DistanciaEuclidiana();
+        long aciertos = 0;
+        for (int i = 0; i < puntos.length; i += 10) {
+            assertEquals(10, grafo.grado(i));
+            double[] exactas = new double[puntos.length - 1];
+            int c = 0;
+            for (int j = 0; j < puntos.length; j++) {
+                if (j != i) exactas[c++] = distancia.calcular(puntos[i], puntos[j]);
+            }
+            Arrays.sort(exactas);
+            for (int j = 0; j < 10; j++) {
+                int vecino = grafo.getVecino(i, j);
+                assertNotEquals(i, vecino);
+                assertEquals((float) distancia.calcular(puntos[i], puntos[vecino]), grafo.getDistancia(i, j));
+                if (j > 0) assertTrue(grafo.getDistancia(i, j - 1) <= grafo.getDistancia(i, j));
+                if (grafo.getDistancia(i, j) <= (float) exactas[9]) aciertos++;
+            }
+        }
+        double recall = aciertos / (150.0 * 10);
+        assertTrue(recall >= 0.9, "recall " + recall);
+        assertEquals(recall, constructor.recall(grafo, puntos, 1500), 0.05);
+    }
+
+    @Test
+    void porRadioTieneExactamenteLasAristasCercanas() {
+        Vector[] puntos = aleatorios(200, 2, 4);
+        DistanciaEuclidiana distancia = new DistanciaEuclidiana();
+        GrafoVecinos grafo = new ConstructorGrafoVecinos(distancia, 5).construirPorRadio(puntos, 0.1);
+
+        for (int i = 0; i < puntos.length; i++) {
+            boolean[] esVecino = new boolean[puntos.length];
+            for (int j = 0; j < grafo.grado(i); j++) esVecino[grafo.getVecino(i, j)] = true;
+            for (int j = 0; j < puntos.length; j++) {
+                boolean cerca = j != i && distancia.calcular(puntos[i], puntos[j]) <= 0.1;
+                assertEquals(cerca, esVecino[j], i + "-" + j);
+            }
+        }
+    }
+
+    @Test
+    void reutilizaSoloConLosMismosDatos() throws Exception {
+        Vector[] puntos = aleatorios(300, 3, 8);
+        ConstructorGrafoVecinos constructor = new ConstructorGrafoVecinos(new DistanciaEuclidiana(), 6);
+        String ruta = directorio.resolve("vecinos.knng").toString();
+
+        GrafoVecinos primero = constructor.construirOReutilizar(puntos, ruta);
+        assertTrue(Files.isRegularFile(Path.of(ruta)));
+        assertEquals(constructor.huella(puntos), primero.getHuella());
+
+        GrafoVecinos leido = constructor.construirOReutilizar(puntos, ruta);
+        assertEquals(primero.getNumeroAristas(), leido.getNumeroAristas());
+        for (int i = 0; i < puntos.length; i++) {
+            for (int j = 0; j < primero.grado(i); j++) {
+                assertEquals(primero.getVecino(i, j), leido.getVecino(i, j));
+                assertEquals(primero.getDistancia(i, j), leido.getDistancia(i, j));
+            }
+        }
+
+        // otros datos u otro k cambian la huella
+        Vector[] otros = aleatorios(300, 3, 9);
+        assertNotEquals(constructor.huella(puntos), constructor.huella(otros));
+        assertNotEquals(constructor.huella(puntos),
+                new ConstructorGrafoVecinos(new DistanciaEuclidiana(), 7).huella(puntos));
+        assertEquals(constructor.huella(otros), constructor.construirOReutilizar(otros, ruta).getHuella());
+    }
+
+    @Test
+    void validaciones() {
+        assertThrows(IllegalArgumentException.class, () -> new ConstructorGrafoVecinos(null, 5));
+        assertThrows(IllegalArgumentException.class, () -> new ConstructorGrafoVecinos(new DistanciaEuclidiana(), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConstructorGrafoVecinos(new DistanciaEuclidiana(), 5).construirPorRadio(aleatorios(3, 2, 1), -1));
+    }
+
+    private static Vector[] aleatorios(int n, int dimension, long semilla) {
+        Random azar = new Random(semilla);
+        Vector[] vectores = new Vector[n];
+        for (int i = 0; i < n; i++) {
+            double[] datos = new double[dimension];
+            for (int j = 0; j < dimension; j++) datos[j] = azar.nextDouble();
+            vectores[i] = new Vector(datos, "v" + i);
+        }
+        return vectores;
+    }
+}
@@ -0,0 +1,68 @@
+package modelo.estructuras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbolKDTest {
+
+    // el vecino mas cercano de otra componente coincide con recorrer todos los puntos
+    @Test
+    void masCercanoFueraIgualQueFuerzaBruta() {
+        Random azar = new Random(5);
+        double[][] puntos = new double[500][3];
+        for (double[] p : puntos) {
+            for (int j = 0; j < 3; j++) p[j] = azar.nextDouble() * 10;
+        }
+        int[] componente = new int[puntos.length];
+        for (int i = 0; i < puntos.length; i++) componente[i] = azar.nextInt(6);
+
+        for (ArbolKD.Metrica metrica : ArbolKD.Metrica.values()) {
+            ArbolKD arbol = new ArbolKD(puntos, metrica);
+            arbol.actualizarComponentes(componente);
+            double[] distancia = new double[1];
+
+            for (int q = 0; q < puntos.length; q += 5) {
+                int esperado = -1;
+                double mejor = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < puntos.length; i++) {
+                    if (componente[i] == componente[q]) continue;
+                    double d = arbol.distancia(puntos[q], puntos[i]);
+                    if (d < mejor) {
+                        mejor = d;
+                        esperado = i;
+                    }
+                }
+
+                int encontrado = arbol.masCercanoFuera(q, componente, Double.POSITIVE_INFINITY, distancia);
+                assertEquals(mejor, distancia[0], 1e-12, metrica + " consulta " + q);
+                assertEquals(mejor, arbol.distancia(puntos[q], puntos[encontrado]), 1e-12);
+                assertNotEquals(componente[q], componente[encontrado]);
+                assertTrue(esperado >= 0);
+
+                // con una cota menor que el mas cercano no hay resultado
+                assertEquals(-1, arbol.masCercanoFuera(q, componente, mejor * 0.5, distancia));
+            }
+        }
+    }
+
+    @Test
+    void todosEnLaMismaComponente() {
+        double[][] puntos = {{0, 0}, {1, 1}, {2, 2}};
+        ArbolKD arbol = new ArbolKD(puntos, ArbolKD.Metrica.EUCLIDIANA);
+        int[] componente = {0, 0, 0};
+        arbol.actualizarComponentes(componente);
+        assertEquals(-1, arbol.masCercanoFuera(1, componente, Double.POSITIVE_INFINITY, new double[1]));
+    }
+
+    @Test
+    void distancias() {
+        double[] a = {0, 0};
+        double[] b = {3, 4};
+        assertEquals(5.0, new ArbolKD(new double[][]{a, b}, ArbolKD.Metrica.EUCLIDIANA).distancia(a, b), 1e-12);
+        assertEquals(7.0, new ArbolKD(new double[][]{a, b}, ArbolKD.Metrica.MANHATTAN).distancia(a, b), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> new ArbolKD(new double[0][], ArbolKD.Metrica.EUCLIDIANA));
+    }
+}
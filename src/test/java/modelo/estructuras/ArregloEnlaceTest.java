@@ -0,0 +1,98 @@
+package modelo.estructuras;
+
+import modelo.clustering.MotorCluster;
+import modelo.distancias.FactoryDistancia;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArregloEnlaceTest {
+
+    @Test
+    void motorProduceElEnlaceEsperado() {
+        ArregloEnlace enlace = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO)
+                .construirEnlace(DatosEnlace.puntosEnRecta(0, 1, 5, 6, 20), FactoryDistancia.TipoDistancia.EUCLIDIANA);
+        ArregloEnlace esperado = DatosEnlace.cincoPuntos();
+
+        assertEquals(esperado.getNumeroFusiones(), enlace.getNumeroFusiones());
+        for (int m = 0; m < enlace.getNumeroFusiones(); m++) {
+            assertEquals(esperado.getIzquierdo(m), enlace.getIzquierdo(m), "izquierdo " + m);
+            assertEquals(esperado.getDerecho(m), enlace.getDerecho(m), "derecho " + m);
+            assertEquals(esperado.getAltura(m), enlace.getAltura(m), 1e-12, "altura " + m);
+            assertEquals(esperado.getTamanio(m), enlace.getTamanio(m), "tamanio " + m);
+        }
+    }
+
+    @Test
+    void enlaceMinimoYMaximo() {
+        Vector[] puntos = DatosEnlace.puntosEnRecta(0, 1, 5, 6, 20);
+        ArregloEnlace minimo = new MotorCluster(MotorCluster.TipoEnlace.MINIMO)
+                .construirEnlace(puntos, FactoryDistancia.TipoDistancia.EUCLIDIANA);
+        ArregloEnlace maximo = new MotorCluster(MotorCluster.TipoEnlace.MAXIMO)
+                .construirEnlace(puntos, FactoryDistancia.TipoDistancia.EUCLIDIANA);
+
+        assertArrayEquals(new double[]{1, 1, 4, 14}, alturas(minimo), 1e-12);
+        assertArrayEquals(new double[]{1, 1, 6, 20}, alturas(maximo), 1e-12);
+    }
+
+    @Test
+    void vistaNodo() {
+        ArregloEnlace enlace = DatosEnlace.cincoPuntos();
+        Nodo raiz = enlace.getRaiz();
+
+        assertEquals(8, raiz.getId());
+        assertEquals(5, raiz.getTamanio());
+        assertEquals(17.0, raiz.getDistancia());
+        assertFalse(raiz.esHoja());
+        assertEquals("e", raiz.getDerecho().getNombre());
+        assertTrue(raiz.getDerecho().esHoja());
+        assertNull(raiz.getDerecho().getIzquierdo());
+        assertEquals("([a;b])", raiz.getIzquierdo().getIzquierdo().getNombre());
+        assertEquals(enlace.getNodo(7), raiz.getIzquierdo());
+    }
+
+    @Test
+    void hojasDeIzquierdaADerechaYProfundidad() {
+        ArregloEnlace enlace = DatosEnlace.cincoPuntos();
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, enlace.hojas(8));
+        assertArrayEquals(new int[]{2, 3}, enlace.hojas(6));
+        assertArrayEquals(new int[]{3}, enlace.hojas(3));
+
+        assertEquals(0, enlace.profundidad(4));
+        assertEquals(1, enlace.profundidad(5));
+        assertEquals(3, enlace.profundidad(8));
+    }
+
+    @Test
+    void unaSolaHoja() {
+        ArregloEnlace enlace = new ArregloEnlace(new String[]{"x"}, new int[0], new int[0], new double[0], new int[0]);
+        assertTrue(enlace.getRaiz().esHoja());
+        assertEquals("x", enlace.getRaiz().getNombre());
+    }
+
+    @Test
+    void rechazaEstructurasInvalidas() {
+        String[] tres = {"a", "b", "c"};
+        // hijo que todavia no existe
+        assertThrows(IllegalArgumentException.class, () ->
+                new ArregloEnlace(tres, new int[]{0, 4}, new int[]{1, 2}, new double[]{1, 2}, new int[]{2, 3}));
+        // nodo usado dos veces
+        assertThrows(IllegalArgumentException.class, () ->
+                new ArregloEnlace(tres, new int[]{0, 0}, new int[]{1, 2}, new double[]{1, 2}, new int[]{2, 2}));
+        // tamanio que no suma
+        assertThrows(IllegalArgumentException.class, () ->
+                new ArregloEnlace(tres, new int[]{0, 3}, new int[]{1, 2}, new double[]{1, 2}, new int[]{2, 4}));
+        // altura NaN
+        assertThrows(IllegalArgumentException.class, () ->
+                new ArregloEnlace(tres, new int[]{0, 3}, new int[]{1, 2}, new double[]{1, Double.NaN}, new int[]{2, 3}));
+        // cantidad de fusiones
+        assertThrows(IllegalArgumentException.class, () ->
+                new ArregloEnlace(tres, new int[]{0}, new int[]{1}, new double[]{1}, new int[]{2}));
+    }
+
+    private static double[] alturas(ArregloEnlace enlace) {
+        double[] alturas = new double[enlace.getNumeroFusiones()];
+        for (int m = 0; m < alturas.length; m++) alturas[m] = enlace.getAltura(m);
+        return alturas;
+    }
+}
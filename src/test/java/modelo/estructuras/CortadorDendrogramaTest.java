@@ -0,0 +1,97 @@
+package modelo.estructuras;
+
+import modelo.clustering.MotorCluster;
+import modelo.distancias.FactoryDistancia;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CortadorDendrogramaTest {
+
+    @Test
+    void cortarEnKSobreCincoPuntos() {
+        CortadorDendrograma cortador = new CortadorDendrograma(DatosEnlace.cincoPuntos());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0}, cortador.cortarEnK(1));
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1}, cortador.cortarEnK(2));
+        assertArrayEquals(new int[]{0, 0, 1, 1, 2}, cortador.cortarEnK(3));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, cortador.cortarEnK(5));
+        assertThrows(IllegalArgumentException.class, () -> cortador.cortarEnK(0));
+        assertThrows(IllegalArgumentException.class, () -> cortador.cortarEnK(6));
+    }
+
+    @Test
+    void cortarEnAltura() {
+        CortadorDendrograma cortador = new CortadorDendrograma(DatosEnlace.cincoPuntos());
+        assertEquals(5, cortador.numeroClustersEnAltura(0.5));
+        assertEquals(3, cortador.numeroClustersEnAltura(1.0));
+        assertEquals(2, cortador.numeroClustersEnAltura(16.9));
+        assertEquals(1, cortador.numeroClustersEnAltura(17.0));
+        assertArrayEquals(new int[]{0, 0, 1, 1, 2}, cortador.cortarEnAltura(4.0));
+
+        assertTrue(Double.isNaN(cortador.alturaDeCorte(1)));
+        assertEquals(17.0, cortador.alturaDeCorte(2));
+        assertEquals(5.0, cortador.alturaDeCorte(3));
+        assertEquals(1.0, cortador.alturaDeCorte(4));
+    }
+
+    // enlace por centroide con inversion: la segunda fusion queda mas baja que su hijo
+    @Test
+    void inversionUsaAlturaMonotona() {
+        ArregloEnlace invertido = new ArregloEnlace(new String[]{"a", "b", "c"},
+                new int[]{0, 3}, new int[]{1, 2}, new double[]{2.0, 1.5}, new int[]{2, 3});
+        CortadorDendrograma cortador = new CortadorDendrograma(invertido);
+        assertArrayEquals(new int[]{0, 0, 1}, cortador.cortarEnK(2));
+        assertEquals(2.0, cortador.alturaDeCorte(2));
+        assertEquals(1, cortador.numeroClustersEnAltura(2.0));
+        assertEquals(3, cortador.numeroClustersEnAltura(1.9));
+    }
+
+    @Test
+    void raicesEnK() {
+        CortadorDendrograma cortador = new CortadorDendrograma(DatosEnlace.cincoPuntos());
+        assertArrayEquals(new int[]{8}, cortador.raicesEnK(1));
+        assertArrayEquals(new int[]{5, 6, 4}, cortador.raicesEnK(3));
+        // empate a altura 1: se deshace primero la fusion de id mayor
+        assertArrayEquals(new int[]{5, 2, 3}, cortador.raicesEnK(7, 3));
+        assertThrows(IllegalArgumentException.class, () -> cortador.raicesEnK(5, 3));
+    }
+
+    // cada k de recorrerCortes y de raicesEnK da la misma particion que cortarEnK
+    @Test
+    void todosLosCortesCoinciden() {
+        Random azar = new Random(7);
+        Vector[] puntos = new Vector[60];
+        for (int i = 0; i < puntos.length; i++) {
+            puntos[i] = new Vector(new double[]{azar.nextGaussian(), azar.nextGaussian()}, "p" + i);
+        }
+        ArregloEnlace enlace = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO)
+                .construirEnlace(puntos, FactoryDistancia.TipoDistancia.EUCLIDIANA);
+        CortadorDendrograma cortador = new CortadorDendrograma(enlace);
+
+        cortador.recorrerCortes((k, etiquetas) -> {
+            int[] esperado = cortador.cortarEnK(k);
+            assertTrue(mismaParticion(esperado, etiquetas), "k=" + k);
+            assertTrue(mismaParticion(esperado, desdeRaices(enlace, cortador.raicesEnK(k))), "k=" + k);
+        });
+    }
+
+    static int[] desdeRaices(IArbolEnlace enlace, int[] raices) {
+        int[] etiquetas = new int[enlace.getNumeroHojas()];
+        for (int c = 0; c < raices.length; c++) {
+            for (int hoja : enlace.hojas(raices[c])) etiquetas[hoja] = c;
+        }
+        return etiquetas;
+    }
+
+    // biyeccion entre etiquetas: mismas parejas juntas y separadas
+    static boolean mismaParticion(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            for (int j = i + 1; j < a.length; j++) {
+                if ((a[i] == a[j]) != (b[i] == b[j])) return false;
+            }
+        }
+        return true;
+    }
+}
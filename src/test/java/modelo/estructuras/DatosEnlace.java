@@ -0,0 +1,26 @@
+package modelo.estructuras;
+
+// enlaces chicos calculados a mano para las pruebas
+final class DatosEnlace {
+
+    private DatosEnlace() {
+    }
+
+    // puntos 0, 1, 5, 6, 20 en una recta con enlace promedio:
+    // (a,b) a 1, (c,d) a 1, (ab,cd) a 5, (abcd,e) a 17
+    static ArregloEnlace cincoPuntos() {
+        return new ArregloEnlace(new String[]{"a", "b", "c", "d", "e"},
+                new int[]{0, 2, 5, 7},
+                new int[]{1, 3, 6, 4},
+                new double[]{1.0, 1.0, 5.0, 17.0},
+                new int[]{2, 2, 4, 5});
+    }
+
+    static Vector[] puntosEnRecta(double... posiciones) {
+        Vector[] vectores = new Vector[posiciones.length];
+        for (int i = 0; i < posiciones.length; i++) {
+            vectores[i] = new Vector(new double[]{posiciones[i]}, String.valueOf((char) ('a' + i)));
+        }
+        return vectores;
+    }
+}
@@ -0,0 +1,50 @@
+package modelo.estructuras;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DendrogramaTest {
+
+    private final Dendrograma dendrograma = Dendrograma.getInstancia();
+
+    @Test
+    void contarHojasYAltura() {
+        Nodo raiz = DatosEnlace.cincoPuntos().getRaiz();
+        assertEquals(5, dendrograma.contarHojas(raiz));
+        assertEquals(3, dendrograma.altura(raiz));
+        assertEquals(0, dendrograma.contarHojas(null));
+    }
+
+    @Test
+    void etiquetasHojas() {
+        Nodo raiz = DatosEnlace.cincoPuntos().getRaiz();
+        assertArrayEquals(new String[]{"a", "b", "c", "d", "e"}, dendrograma.obtenerEtiquetasHojas(raiz));
+        assertArrayEquals(new String[]{"c", "d"},
+                dendrograma.obtenerEtiquetasHojas(raiz.getIzquierdo().getDerecho()));
+    }
+
+    @Test
+    void arbolEnPreorden() {
+        String[] lineas = dendrograma.toStringArbol(DatosEnlace.cincoPuntos().getRaiz()).split("\n");
+        assertEquals(9, lineas.length);
+        assertTrue(lineas[0].startsWith("([a;b;c;d;e])"));
+        assertTrue(lineas[1].startsWith("  ([a;b;c;d])"));
+        assertTrue(lineas[2].startsWith("    ([a;b])"));
+        assertTrue(lineas[3].startsWith("      a"));
+        assertTrue(lineas[8].startsWith("  e"));
+    }
+
+    @Test
+    void cortarArbolDevuelveSubarbolesDeIzquierdaADerecha() {
+        Nodo raiz = DatosEnlace.cincoPuntos().getRaiz();
+        ListaDoble<Nodo> partes = dendrograma.cortarArbol(raiz, 3);
+        assertEquals(3, partes.tamanio());
+        assertArrayEquals(new String[]{"a", "b"}, dendrograma.obtenerEtiquetasHojas(partes.obtener(0)));
+        assertArrayEquals(new String[]{"c", "d"}, dendrograma.obtenerEtiquetasHojas(partes.obtener(1)));
+        assertArrayEquals(new String[]{"e"}, dendrograma.obtenerEtiquetasHojas(partes.obtener(2)));
+
+        assertThrows(IllegalArgumentException.class, () -> dendrograma.cortarArbol(raiz, 0));
+        assertThrows(IllegalArgumentException.class, () -> dendrograma.cortarArbol(raiz, 6));
+    }
+}
@@ -0,0 +1,91 @@
+package modelo.estructuras;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportadorJSONTest {
+
+    private static final String CINCO_PUNTOS = "{\"hojas\":[\"a\",\"b\",\"c\",\"d\",\"e\"],\"arbol\":"
+            + "{\"id\":8,\"d\":17.0,\"c\":[{\"id\":7,\"d\":5.0,\"c\":["
+            + "{\"id\":5,\"d\":1.0,\"c\":[{\"id\":0},{\"id\":1}]},"
+            + "{\"id\":6,\"d\":1.0,\"c\":[{\"id\":2},{\"id\":3}]}]},{\"id\":4}]}}\n";
+
+    @Test
+    void esquemaCompacto() throws Exception {
+        assertEquals(CINCO_PUNTOS, escribir(new ExportadorJSON(), DatosEnlace.cincoPuntos()));
+    }
+
+    @Test
+    void decimalesFijos() throws Exception {
+        ArregloEnlace enlace = new ArregloEnlace(new String[]{"x", "y"}, new int[]{0}, new int[]{1},
+                new double[]{2.34567}, new int[]{2});
+        assertTrue(escribir(new ExportadorJSON(2), enlace).contains("\"d\":2.35"));
+        assertTrue(escribir(new ExportadorJSON(0), enlace).contains("\"d\":2,"));
+        assertTrue(escribir(new ExportadorJSON(), enlace).contains("\"d\":2.34567"));
+        assertThrows(IllegalArgumentException.class, () -> new ExportadorJSON(10));
+    }
+
+    @Test
+    void escapaEtiquetasYAlturasNoFinitas() throws Exception {
+        ArregloEnlace enlace = new ArregloEnlace(new String[]{"di \"hola\"", "a\\b\n"}, new int[]{0}, new int[]{1},
+                new double[]{Double.POSITIVE_INFINITY}, new int[]{2});
+        String json = escribir(new ExportadorJSON(), enlace);
+        assertTrue(json.contains("\"di \\\"hola\\\"\",\"a\\\\b\\n\""));
+        assertTrue(json.contains("\"d\":null"));
+    }
+
+    @Test
+    void gzipDevuelveLoMismo() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new ExportadorJSON().escribir(DatosEnlace.cincoPuntos(), bytes, true);
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(CINCO_PUNTOS, new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // una cadena de 200000 hojas tiene esa misma profundidad: con recursion se desbordaria la pila
+    @Test
+    void arbolProfundoSinRecursion() throws Exception {
+        int n = 200_000;
+        ArregloEnlace cadena = cadena(n);
+        String json = escribir(new ExportadorJSON(0), cadena);
+        assertTrue(json.startsWith("{\"hojas\":[\"h0\",\"h1\""));
+        assertTrue(json.endsWith("]}}\n"));
+        assertEquals(n, contar(json, "{\"id\":") - (n - 1));
+    }
+
+    static ArregloEnlace cadena(int n) {
+        String[] etiquetas = new String[n];
+        int[] izquierdo = new int[n - 1];
+        int[] derecho = new int[n - 1];
+        double[] altura = new double[n - 1];
+        int[] tamanio = new int[n - 1];
+        for (int i = 0; i < n; i++) etiquetas[i] = "h" + i;
+        for (int m = 0; m < n - 1; m++) {
+            izquierdo[m] = m == 0 ? 0 : n + m - 1;
+            derecho[m] = m + 1;
+            altura[m] = m + 1;
+            tamanio[m] = m + 2;
+        }
+        return new ArregloEnlace(etiquetas, izquierdo, derecho, altura, tamanio);
+    }
+
+    private static String escribir(ExportadorJSON exportador, IArbolEnlace enlace) throws Exception {
+        StringWriter writer = new StringWriter();
+        exportador.escribir(enlace, writer);
+        return writer.toString();
+    }
+
+    private static int contar(String texto, String patron) {
+        int total = 0;
+        for (int i = texto.indexOf(patron); i >= 0; i = texto.indexOf(patron, i + 1)) total++;
+        return total;
+    }
+}
@@ -0,0 +1,85 @@
+package modelo.estructuras;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormatoBinarioEnlaceTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void idaYVueltaConservaTodo() throws Exception {
+        ArregloEnlace original = new ArregloEnlace(new String[]{"a", "ñandú", "", "日本", "e"},
+                new int[]{0, 2, 5, 7}, new int[]{1, 3, 6, 4}, new double[]{1, 1, 5, 17}, new int[]{2, 2, 4, 5});
+        Path ruta = directorio.resolve("arbol.dndg");
+        FormatoBinarioEnlace.escribir(original, ruta.toString());
+
+        assertEquals(FormatoBinarioEnlace.tamanioEsperado(5, 1 + 7 + 0 + 6 + 1), Files.size(ruta));
+
+        EnlaceMapeado mapeado = FormatoBinarioEnlace.abrir(ruta.toString());
+        assertEquals(5, mapeado.getNumeroHojas());
+        assertEquals(4, mapeado.getNumeroFusiones());
+        for (int m = 0; m < 4; m++) {
+            assertEquals(original.getIzquierdo(m), mapeado.getIzquierdo(m));
+            assertEquals(original.getDerecho(m), mapeado.getDerecho(m));
+            assertEquals(original.getAltura(m), mapeado.getAltura(m));
+            assertEquals(original.getTamanio(m), mapeado.getTamanio(m));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals(original.getEtiqueta(i), mapeado.getEtiqueta(i));
+        }
+        assertArrayEquals(original.ordenHojas(), mapeado.ordenHojas());
+
+        ArregloEnlace copia = mapeado.aArregloEnlace();
+        assertArrayEquals(original.ordenHojas(), copia.ordenHojas());
+        assertEquals(17.0, copia.alturaDe(copia.getIdRaiz()));
+    }
+
+    @Test
+    void unaSolaHoja() throws Exception {
+        ArregloEnlace hoja = new ArregloEnlace(new String[]{"solo"}, new int[0], new int[0], new double[0], new int[0]);
+        Path ruta = directorio.resolve("hoja.dndg");
+        FormatoBinarioEnlace.escribir(hoja, ruta.toString());
+
+        EnlaceMapeado mapeado = FormatoBinarioEnlace.abrir(ruta.toString());
+        assertEquals(1, mapeado.getNumeroHojas());
+        assertEquals(0, mapeado.getNumeroFusiones());
+        assertEquals("solo", mapeado.getEtiqueta(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> mapeado.getAltura(0));
+    }
+
+    @Test
+    void rechazaArchivosDanados() throws Exception {
+        Path ruta = directorio.resolve("arbol.dndg");
+        FormatoBinarioEnlace.escribir(DatosEnlace.cincoPuntos(), ruta.toString());
+        byte[] bytes = Files.readAllBytes(ruta);
+
+        Path corto = directorio.resolve("corto.dndg");
+        Files.write(corto, Arrays.copyOf(bytes, 16));
+        assertThrows(IOException.class, () -> FormatoBinarioEnlace.abrir(corto.toString()));
+
+        Path truncado = directorio.resolve("truncado.dndg");
+        Files.write(truncado, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> FormatoBinarioEnlace.abrir(truncado.toString()));
+
+        Path otroMagico = directorio.resolve("magico.dndg");
+        byte[] alterado = bytes.clone();
+        alterado[0] = 'X';
+        Files.write(otroMagico, alterado);
+        assertThrows(IOException.class, () -> FormatoBinarioEnlace.abrir(otroMagico.toString()));
+
+        Path otraVersion = directorio.resolve("version.dndg");
+        alterado = bytes.clone();
+        alterado[7] = 9;
+        Files.write(otraVersion, alterado);
+        assertThrows(IOException.class, () -> FormatoBinarioEnlace.abrir(otraVersion.toString()));
+    }
+}
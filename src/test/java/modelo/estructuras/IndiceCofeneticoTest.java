@@ -0,0 +1,85 @@
+package modelo.estructuras;
+
+import modelo.clustering.MotorCluster;
+import modelo.distancias.FactoryDistancia;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceCofeneticoTest {
+
+    @Test
+    void cincoPuntos() {
+        IndiceCofenetico indice = new IndiceCofenetico(DatosEnlace.cincoPuntos());
+        assertEquals(5, indice.ancestroComun(0, 1));
+        assertEquals(7, indice.ancestroComun("a", "d"));
+        assertEquals(8, indice.ancestroComun(4, 2));
+        assertEquals(7, indice.ancestroComun(5, 3));
+        assertEquals(0.0, indice.distanciaCofenetica(2, 2));
+        assertEquals(5.0, indice.distanciaCofenetica("b", "c"));
+        assertEquals(17.0, indice.distanciaCofenetica("e", "a"));
+
+        assertEquals(2, indice.clusterEnAltura("c", 0.5));
+        assertEquals(6, indice.clusterEnAltura("c", 1.0));
+        assertEquals(7, indice.clusterEnAltura("a", 10.0));
+        assertEquals(4, indice.clusterEnAltura("e", 10.0));
+        assertEquals(8, indice.clusterEnAltura("e", 17.0));
+
+        assertEquals(-1, indice.indiceHoja("z"));
+        assertThrows(IllegalArgumentException.class, () -> indice.distanciaCofenetica("a", "z"));
+    }
+
+    // LCA contra subir por los padres, y clusterEnAltura contra el corte por altura
+    @Test
+    void coincideConFuerzaBruta() {
+        Random azar = new Random(11);
+        Vector[] puntos = new Vector[80];
+        for (int i = 0; i < puntos.length; i++) {
+            puntos[i] = new Vector(new double[]{azar.nextDouble(), azar.nextDouble(), azar.nextDouble()}, "p" + i);
+        }
+        ArregloEnlace enlace = new MotorCluster(MotorCluster.TipoEnlace.PROMEDIO)
+                .construirEnlace(puntos, FactoryDistancia.TipoDistancia.EUCLIDIANA);
+        IndiceCofenetico indice = new IndiceCofenetico(enlace);
+
+        int[] padre = new int[enlace.getNumeroNodos()];
+        padre[enlace.getIdRaiz()] = -1;
+        for (int m = 0; m < enlace.getNumeroFusiones(); m++) {
+            padre[enlace.getIzquierdo(m)] = enlace.getNumeroHojas() + m;
+            padre[enlace.getDerecho(m)] = enlace.getNumeroHojas() + m;
+        }
+
+        for (int a = 0; a < enlace.getNumeroNodos(); a++) {
+            for (int b = 0; b < enlace.getNumeroNodos(); b += 3) {
+                assertEquals(ancestroPorPadres(padre, a, b), indice.ancestroComun(a, b), a + "," + b);
+            }
+        }
+        for (int a = 0; a < 80; a++) {
+            for (int b = 0; b < 80; b++) {
+                double esperado = a == b ? 0.0 : enlace.alturaDe(ancestroPorPadres(padre, a, b));
+                assertEquals(esperado, indice.distanciaCofenetica(a, b));
+            }
+        }
+
+        CortadorDendrograma cortador = new CortadorDendrograma(enlace);
+        for (double altura : new double[]{0.05, 0.2, 0.4, 0.8}) {
+            int[] etiquetas = cortador.cortarEnAltura(altura);
+            for (int hoja = 0; hoja < 80; hoja++) {
+                boolean[] enCluster = new boolean[80];
+                for (int h : enlace.hojas(indice.clusterEnAltura(hoja, altura))) enCluster[h] = true;
+                for (int otra = 0; otra < 80; otra++) {
+                    assertEquals(etiquetas[otra] == etiquetas[hoja], enCluster[otra]);
+                }
+            }
+        }
+    }
+
+    private static int ancestroPorPadres(int[] padre, int a, int b) {
+        boolean[] visto = new boolean[padre.length];
+        for (int x = a; x != -1; x = padre[x]) visto[x] = true;
+        int y = b;
+        while (!visto[y]) y = padre[y];
+        return y;
+    }
+}
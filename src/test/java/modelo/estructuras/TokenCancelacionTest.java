@@ -0,0 +1,62 @@
+package modelo.estructuras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenCancelacionTest {
+
+    @Test
+    void cancelarQuedaConElPrimerMotivo() {
+        TokenCancelacion token = new TokenCancelacion();
+        assertFalse(token.isCancelado());
+        token.verificar();
+
+        token.cancelar("reemplazado");
+        token.cancelar("otro");
+        assertTrue(token.isCancelado());
+        assertEquals("reemplazado", token.getMotivo());
+        CancellationException e = assertThrows(CancellationException.class, token::verificar);
+        assertEquals("reemplazado", e.getMessage());
+    }
+
+    @Test
+    void ningunoNoSeCancela() {
+        assertThrows(IllegalStateException.class, TokenCancelacion.NINGUNO::cancelar);
+        assertFalse(TokenCancelacion.NINGUNO.isCancelado());
+    }
+
+    @Test
+    void plazoVence() throws InterruptedException {
+        TokenCancelacion token = TokenCancelacion.conPlazo(20);
+        Thread.sleep(40);
+        assertTrue(token.isCancelado());
+        assertEquals("Plazo vencido", token.getMotivo());
+        assertThrows(IllegalArgumentException.class, () -> TokenCancelacion.conPlazo(0));
+    }
+
+    @Test
+    void derivadoSigueAlPadreYNoAlReves() throws InterruptedException {
+        TokenCancelacion padre = new TokenCancelacion();
+        TokenCancelacion hijo = padre.derivarConPlazo(60_000);
+        hijo.cancelar();
+        assertTrue(hijo.isCancelado());
+        assertFalse(padre.isCancelado());
+
+        TokenCancelacion otro = padre.derivarConPlazo(60_000);
+        padre.cancelar("cerrado");
+        assertTrue(otro.isCancelado());
+        assertEquals("cerrado", otro.getMotivo());
+
+        TokenCancelacion conPlazo = new TokenCancelacion().derivarConPlazo(20);
+        Thread.sleep(40);
+        assertEquals("Plazo vencido", assertThrows(CancellationException.class, conPlazo::verificar).getMessage());
+
+        // derivado de NINGUNO: solo el plazo
+        TokenCancelacion deNinguno = TokenCancelacion.NINGUNO.derivarConPlazo(60_000);
+        deNinguno.cancelar();
+        assertTrue(deNinguno.isCancelado());
+    }
+}
@@ -0,0 +1,126 @@
+package modelo.normalizacion;
+
+import modelo.estructuras.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstadisticasColumnasTest {
+
+    private static final String[] NOMBRES = {"a", "b", "c"};
+
+    @Test
+    void welfordIgualQueDosPasadas() {
+        double[][] filas = filasAleatorias(500, 1);
+        EstadisticasColumnas catalogo = new EstadisticasColumnas(NOMBRES);
+        for (double[] fila : filas) catalogo.agregar(fila);
+
+        for (int d = 0; d < NOMBRES.length; d++) {
+            double suma = 0.0;
+            double minimo = Double.POSITIVE_INFINITY;
+            double maximo = Double.NEGATIVE_INFINITY;
+            for (double[] fila : filas) {
+                suma += fila[d];
+                minimo = Math.min(minimo, fila[d]);
+                maximo = Math.max(maximo, fila[d]);
+            }
+            double media = suma / filas.length;
+            double cuadrados = 0.0;
+            for (double[] fila : filas) cuadrados += (fila[d] - media) * (fila[d] - media);
+
+            assertEquals(filas.length, catalogo.getConteo(d));
+            assertEquals(minimo, catalogo.getMinimo(d));
+            assertEquals(maximo, catalogo.getMaximo(d));
+            assertEquals(media, catalogo.getMedia(d), 1e-9);
+            assertEquals(cuadrados / filas.length, catalogo.getVarianza(d), 1e-9 * catalogo.getVarianza(d));
+        }
+    }
+
+    // Chan: combinar particiones da lo mismo que acumular todo junto
+    @Test
+    void combinarParticionesIgualQueTodoJunto() {
+        double[][] filas = filasAleatorias(300, 2);
+        EstadisticasColumnas todo = new EstadisticasColumnas(NOMBRES);
+        EstadisticasColumnas izquierda = new EstadisticasColumnas(NOMBRES);
+        EstadisticasColumnas derecha = new EstadisticasColumnas(NOMBRES);
+        for (int i = 0; i < filas.length; i++) {
+            todo.agregar(filas[i]);
+            (i < 71 ? izquierda : derecha).agregar(filas[i]);
+        }
+        izquierda.agregarNulo(1);
+        derecha.agregarNulo(1);
+        izquierda.combinar(derecha);
+
+        for (int d = 0; d < NOMBRES.length; d++) {
+            assertEquals(todo.getConteo(d), izquierda.getConteo(d));
+            assertEquals(todo.getMinimo(d), izquierda.getMinimo(d));
+            assertEquals(todo.getMaximo(d), izquierda.getMaximo(d));
+            assertEquals(todo.getMedia(d), izquierda.getMedia(d), 1e-9);
+            assertEquals(todo.getM2(d), izquierda.getM2(d), 1e-9 * todo.getM2(d));
+        }
+        assertEquals(2, izquierda.getNulos(1));
+    }
+
+    @Test
+    void combinarConVacio() {
+        EstadisticasColumnas lleno = new EstadisticasColumnas(NOMBRES);
+        lleno.agregar(new double[]{1, 2, 3});
+        lleno.agregar(new double[]{3, 4, 5});
+        EstadisticasColumnas vacio = new EstadisticasColumnas(NOMBRES);
+        vacio.combinar(lleno);
+        assertEquals(2.0, vacio.getMedia(0));
+        assertEquals(1.0, vacio.getVarianza(0));
+        assertEquals(5.0, vacio.getMaximo(2));
+        assertThrows(IllegalArgumentException.class, () -> vacio.combinar(new EstadisticasColumnas(new String[]{"x"})));
+    }
+
+    @Test
+    void subconjuntoYCopiaSonIndependientes() {
+        EstadisticasColumnas catalogo = new EstadisticasColumnas(NOMBRES);
+        catalogo.agregar(new double[]{1, 10, 100});
+        EstadisticasColumnas sub = catalogo.subconjunto(new int[]{2, 0});
+        assertEquals("c", sub.getNombre(0));
+        assertEquals(100.0, sub.getMedia(0));
+        assertEquals(0, sub.indiceDe("c"));
+        assertEquals(-1, sub.indiceDe("b"));
+
+        EstadisticasColumnas copia = catalogo.copiar();
+        copia.agregar(new double[]{3, 30, 300});
+        assertEquals(1, catalogo.getConteo(0));
+        assertEquals(2, copia.getConteo(0));
+    }
+
+    // con el catalogo de los mismos datos, las estrategias dan lo mismo que recorriendolos
+    @Test
+    void normalizarConCatalogoIgualQueSinCatalogo() {
+        double[][] filas = filasAleatorias(200, 3);
+        Vector[] vectores = new Vector[filas.length];
+        EstadisticasColumnas catalogo = new EstadisticasColumnas(NOMBRES);
+        for (int i = 0; i < filas.length; i++) {
+            vectores[i] = new Vector(filas[i], "v" + i);
+            catalogo.agregar(filas[i]);
+        }
+
+        for (INormalizacion estrategia : new INormalizacion[]{new MinMaxNormalizacion(), new ZScoreNormalizacion()}) {
+            Vector[] esperado = estrategia.normalizar(vectores);
+            Vector[] obtenido = estrategia.normalizar(vectores, catalogo);
+            for (int i = 0; i < vectores.length; i++) {
+                assertArrayEquals(esperado[i].getDatos(), obtenido[i].getDatos(), 1e-9,
+                        estrategia.getClass().getSimpleName() + " fila " + i);
+            }
+        }
+    }
+
+    private static double[][] filasAleatorias(int n, long semilla) {
+        Random aleatorio = new Random(semilla);
+        double[][] filas = new double[n][NOMBRES.length];
+        for (double[] fila : filas) {
+            fila[0] = aleatorio.nextGaussian() * 5 + 100;
+            fila[1] = aleatorio.nextDouble();
+            fila[2] = aleatorio.nextInt(1_000_000);
+        }
+        return filas;
+    }
+}